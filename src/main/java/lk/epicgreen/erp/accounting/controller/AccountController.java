@@ -337,6 +337,14 @@ public class AccountController {
         return ResponseEntity.ok(ApiResponse.success(trialBalance, "Fiscal year trial balance retrieved successfully"));
     }
     
+    @PostMapping("/period-balances/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildPeriodBalances() {
+        log.info("Rebuilding account period balances");
+        int rows = accountingService.rebuildPeriodBalances();
+        return ResponseEntity.ok(ApiResponse.success(rows, "Account period balances rebuilt successfully"));
+    }
+    
 //    @GetMapping("/trial-balance/verify")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT', 'MANAGER')")
 //    public ResponseEntity<ApiResponse<Map<String, Object>>> verifyTrialBalance() {
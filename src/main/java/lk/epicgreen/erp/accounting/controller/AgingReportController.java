@@ -2,9 +2,14 @@ package lk.epicgreen.erp.accounting.controller;
 
 import lk.epicgreen.erp.accounting.dto.response.AgingReportDTO;
 import lk.epicgreen.erp.accounting.service.impl.AgingReportService;
+import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,8 +24,17 @@ public class AgingReportController {
         return ResponseEntity.ok(service.generateAgingReport());
     }
 
+    @GetMapping("/paged")
+    public ResponseEntity<PageResponse<AgingReportDTO>> generateAgingReportPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate,
+            Pageable pageable) {
+        return ResponseEntity.ok(service.generateAgingReport(asOfDate != null ? asOfDate : LocalDate.now(), pageable));
+    }
+
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<AgingReportDTO> getCustomerAging(@PathVariable Long customerId) {
-        return ResponseEntity.ok(service.getCustomerAging(customerId));
+    public ResponseEntity<AgingReportDTO> getCustomerAging(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate) {
+        return ResponseEntity.ok(service.getCustomerAging(customerId, asOfDate != null ? asOfDate : LocalDate.now()));
     }
 }
@@ -0,0 +1,69 @@
+package lk.epicgreen.erp.accounting.controller;
+
+import lk.epicgreen.erp.common.dto.ApiResponse;
+import lk.epicgreen.erp.accounting.dto.response.BankStatementImportStatusResponse;
+import lk.epicgreen.erp.accounting.entity.BankStatementLine;
+import lk.epicgreen.erp.accounting.service.BankStatementImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Bank Reconciliation Controller
+ * REST controller for bank statement import and auto-matching
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/accounting/bank-reconciliations")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class BankReconciliationController {
+    
+    private final BankStatementImportService bankStatementImportService;
+    
+    // Statement Import Operations
+    @PostMapping("/{id}/statement-import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT', 'MANAGER')")
+    public ResponseEntity<ApiResponse<BankStatementImportStatusResponse>> importStatement(
+        @PathVariable Long id,
+        @RequestParam("file") MultipartFile file
+    ) {
+        log.info("Importing bank statement for reconciliation {} from file: {}", id, file.getOriginalFilename());
+        BankStatementImportStatusResponse status = bankStatementImportService.startImport(id, file);
+        return ResponseEntity.ok(ApiResponse.success(status, "Bank statement import started"));
+    }
+    
+    @GetMapping("/statement-import/{importId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT', 'MANAGER')")
+    public ResponseEntity<ApiResponse<BankStatementImportStatusResponse>> getImportStatus(@PathVariable String importId) {
+        BankStatementImportStatusResponse status = bankStatementImportService.getImportStatus(importId);
+        return ResponseEntity.ok(ApiResponse.success(status, "Bank statement import status retrieved successfully"));
+    }
+    
+    @GetMapping("/{id}/statement-lines")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT', 'MANAGER')")
+    public ResponseEntity<ApiResponse<Page<BankStatementLine>>> getStatementLines(
+        @PathVariable Long id,
+        @RequestParam(required = false) String status,
+        Pageable pageable
+    ) {
+        Page<BankStatementLine> lines = bankStatementImportService.getStatementLines(id, status, pageable);
+        return ResponseEntity.ok(ApiResponse.success(lines, "Bank statement lines retrieved successfully"));
+    }
+    
+    @DeleteMapping("/{id}/statement-lines")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT')")
+    public ResponseEntity<ApiResponse<Integer>> discardStatement(@PathVariable Long id) {
+        log.info("Discarding imported bank statement of reconciliation {}", id);
+        int count = bankStatementImportService.discardStatement(id);
+        return ResponseEntity.ok(ApiResponse.success(count, count + " bank statement lines discarded successfully"));
+    }
+}
@@ -1,11 +1,13 @@
 package lk.epicgreen.erp.accounting.controller;
 
+import lk.epicgreen.erp.accounting.dto.response.JournalBulkPostingResponse;
 import lk.epicgreen.erp.accounting.dto.response.JournalEntryResponse;
 import lk.epicgreen.erp.accounting.mapper.JournalEntryMapper;
 import lk.epicgreen.erp.common.dto.ApiResponse;
 import lk.epicgreen.erp.accounting.dto.request.JournalEntryRequest;
 import lk.epicgreen.erp.accounting.entity.JournalEntry;
 import lk.epicgreen.erp.accounting.entity.JournalEntryLine;
+import lk.epicgreen.erp.accounting.service.JournalBulkPostingService;
 import lk.epicgreen.erp.accounting.service.JournalEntryService;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
@@ -38,6 +40,7 @@ import java.util.Map;
 public class JournalEntryController {
     
     private final JournalEntryService journalEntryService;
+    private final JournalBulkPostingService journalBulkPostingService;
 
     @Autowired
     private JournalEntryMapper journalEntryMapper;
@@ -298,10 +301,11 @@ public class JournalEntryController {
     
     @PutMapping("/bulk/post")
     @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT')")
-    public ResponseEntity<ApiResponse<Integer>> postBulkJournalEntries(@RequestBody List<Long> entryIds) {
+    public ResponseEntity<ApiResponse<JournalBulkPostingResponse>> postBulkJournalEntries(@RequestBody List<Long> entryIds) {
         log.info("Posting {} journal entries in bulk", entryIds.size());
-        int count = journalEntryService.postBulkJournalEntries(entryIds);
-        return ResponseEntity.ok(ApiResponse.success(count, count + " journal entries posted successfully"));
+        JournalBulkPostingResponse result = journalBulkPostingService.postJournalEntries(entryIds);
+        return ResponseEntity.ok(ApiResponse.success(result,
+            result.getPosted() + " journal entries posted successfully, " + result.getFailed() + " failed"));
     }
     
     @DeleteMapping("/bulk")
@@ -22,7 +22,6 @@ import java.util.List;
 @AllArgsConstructor
 public class JournalEntryRequest {
 
-    @NotBlank(message = "Journal number is required")
     @Size(max = 30, message = "Journal number must not exceed 30 characters")
     @Pattern(regexp = "^[A-Z0-9_-]+$", message = "Journal number must contain only uppercase letters, numbers, hyphens and underscores")
     private String journalNumber;
@@ -0,0 +1,27 @@
+package lk.epicgreen.erp.accounting.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for the balance and movements of an account over a date range (debit minus credit)
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceResponse {
+
+    private Long accountId;
+    private BigDecimal openingBalance;
+    private BigDecimal periodDebit;
+    private BigDecimal periodCredit;
+    private BigDecimal closingBalance;
+}
@@ -0,0 +1,53 @@
+package lk.epicgreen.erp.accounting.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the progress and outcome of a bank statement import and auto-match
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankStatementImportStatusResponse {
+
+    private String importId;
+    private Long reconciliationId;
+    private String fileName;
+
+    /**
+     * QUEUED, RUNNING, COMPLETED or FAILED
+     */
+    private String status;
+
+    /**
+     * Unreconciled payments the statement was matched against
+     */
+    private long candidatePayments;
+
+    private long processedLines;
+    private long matchedLines;
+    private long unmatchedLines;
+    private long failedLines;
+    private BigDecimal matchedAmount;
+
+    /**
+     * Row errors, capped at the configured maximum (failedLines holds the full count)
+     */
+    private List<BankStatementRowError> errors;
+
+    private String failureReason;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long elapsedMillis;
+}
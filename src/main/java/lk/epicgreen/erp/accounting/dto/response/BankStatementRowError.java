@@ -0,0 +1,24 @@
+package lk.epicgreen.erp.accounting.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a bank statement row that could not be read
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankStatementRowError {
+
+    /**
+     * Row number in the statement file (1-based, header is row 1)
+     */
+    private long rowNumber;
+    private String reference;
+    private String message;
+}
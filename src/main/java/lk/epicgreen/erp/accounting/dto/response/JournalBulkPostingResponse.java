@@ -0,0 +1,39 @@
+package lk.epicgreen.erp.accounting.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a bulk journal posting
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalBulkPostingResponse {
+
+    private int requested;
+    private int posted;
+    private int failed;
+
+    /**
+     * Groups of entries linked by shared accounts; groups post concurrently
+     */
+    private int groups;
+    private int largestGroup;
+
+    private long elapsedMillis;
+    private double journalsPerSecond;
+
+    /**
+     * One result per requested entry, in request order
+     */
+    private List<JournalPostingResultResponse> results;
+}
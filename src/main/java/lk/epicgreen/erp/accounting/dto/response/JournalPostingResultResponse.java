@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.accounting.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of posting one journal entry in a bulk posting
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalPostingResultResponse {
+
+    private Long journalId;
+    private String journalNumber;
+    private boolean posted;
+
+    /**
+     * Why the entry was not posted (null when posted)
+     */
+    private String error;
+}
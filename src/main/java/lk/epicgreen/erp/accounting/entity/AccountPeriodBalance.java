@@ -0,0 +1,80 @@
+package lk.epicgreen.erp.accounting.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * AccountPeriodBalance entity
+ * Balance of an account over one financial period: the balance brought forward, the debits
+ * and credits posted to the period and the balance carried forward. Balances are debit minus
+ * credit, like ChartOfAccounts.currentBalance.
+ * 
+ * Rows are kept up to date by journal posting. A posting to a period also moves the opening
+ * and closing balances of the account's later periods, so every row stays consistent with
+ * the ones before it and reports never fold ledger rows of whole periods.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "account_period_balances",
+    uniqueConstraints = @UniqueConstraint(name = "uk_account_period_balance", columnNames = {"account_id", "period_id"}),
+    indexes = {
+        @Index(name = "idx_account_period_balance_start", columnList = "account_id, period_start_date"),
+        @Index(name = "idx_account_period_balance_dates", columnList = "period_start_date, period_end_date")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountPeriodBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "period_id", nullable = false)
+    private Long periodId;
+
+    /**
+     * Dates of the financial period, copied so range queries need no join
+     */
+    @Column(name = "period_start_date", nullable = false)
+    private LocalDate periodStartDate;
+
+    @Column(name = "period_end_date", nullable = false)
+    private LocalDate periodEndDate;
+
+    @Builder.Default
+    @Column(name = "opening_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal openingBalance = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "period_debit", nullable = false, precision = 19, scale = 2)
+    private BigDecimal periodDebit = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "period_credit", nullable = false, precision = 19, scale = 2)
+    private BigDecimal periodCredit = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "closing_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal closingBalance = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
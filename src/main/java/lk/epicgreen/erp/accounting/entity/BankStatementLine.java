@@ -0,0 +1,97 @@
+package lk.epicgreen.erp.accounting.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * BankStatementLine entity
+ * One line of a bank statement imported for a bank reconciliation, with the payment (and
+ * cheque) it was matched to. Amounts are signed: deposits positive, withdrawals negative.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "bank_statement_lines", indexes = {
+    @Index(name = "idx_bank_statement_line_reconciliation", columnList = "reconciliation_id, line_number"),
+    @Index(name = "idx_bank_statement_line_status", columnList = "reconciliation_id, match_status"),
+    @Index(name = "idx_bank_statement_line_payment", columnList = "payment_id"),
+    @Index(name = "idx_bank_statement_line_import", columnList = "import_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BankStatementLine {
+
+    public static final String STATUS_MATCHED = "MATCHED";
+    public static final String STATUS_UNMATCHED = "UNMATCHED";
+
+    /**
+     * Match rules: reference number (or cheque number) and amount, or amount within the date window
+     */
+    public static final String RULE_REFERENCE = "REFERENCE";
+    public static final String RULE_AMOUNT_DATE = "AMOUNT_DATE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reconciliation_id", nullable = false)
+    private Long reconciliationId;
+
+    /**
+     * Import that wrote the line, so a failed or discarded import can be undone
+     */
+    @Column(name = "import_id", nullable = false, length = 36)
+    private String importId;
+
+    /**
+     * Row number in the statement file (1-based, header is row 1)
+     */
+    @Column(name = "line_number", nullable = false)
+    private Long lineNumber;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Column(name = "reference", length = 100)
+    private String reference;
+
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    /**
+     * Status (MATCHED, UNMATCHED)
+     */
+    @Column(name = "match_status", nullable = false, length = 20)
+    private String matchStatus;
+
+    /**
+     * Rule that made the match (REFERENCE, AMOUNT_DATE)
+     */
+    @Column(name = "match_rule", length = 20)
+    private String matchRule;
+
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Column(name = "cheque_id")
+    private Long chequeId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    public boolean isMatched() {
+        return STATUS_MATCHED.equals(matchStatus);
+    }
+}
@@ -37,6 +37,13 @@ public class ChartOfAccounts extends AuditEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    /**
+     * Optimistic lock version (existing rows start at 0)
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+    
     /**
      * Account code (unique identifier)
      */
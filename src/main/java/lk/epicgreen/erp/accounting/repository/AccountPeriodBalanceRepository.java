@@ -0,0 +1,73 @@
+package lk.epicgreen.erp.accounting.repository;
+
+import lk.epicgreen.erp.accounting.entity.AccountPeriodBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for AccountPeriodBalance entity
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface AccountPeriodBalanceRepository extends JpaRepository<AccountPeriodBalance, Long> {
+
+    /**
+     * Add posted amounts to an account's row of a period
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccountPeriodBalance b SET b.periodDebit = b.periodDebit + :debit, " +
+           "b.periodCredit = b.periodCredit + :credit, b.closingBalance = b.closingBalance + :debit - :credit, " +
+           "b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.accountId = :accountId AND b.periodId = :periodId")
+    int addActivity(@Param("accountId") Long accountId,
+                    @Param("periodId") Long periodId,
+                    @Param("debit") BigDecimal debit,
+                    @Param("credit") BigDecimal credit);
+
+    /**
+     * Move the balances of an account's periods that start after the given date
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccountPeriodBalance b SET b.openingBalance = b.openingBalance + :amount, " +
+           "b.closingBalance = b.closingBalance + :amount, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.accountId = :accountId AND b.periodStartDate > :startDate")
+    int carryForward(@Param("accountId") Long accountId,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("amount") BigDecimal amount);
+
+    @Query("SELECT b.accountId FROM AccountPeriodBalance b WHERE b.periodId = :periodId AND b.accountId IN :accountIds")
+    List<Long> findAccountIdsByPeriodId(@Param("periodId") Long periodId,
+                                        @Param("accountIds") Collection<Long> accountIds);
+
+    /**
+     * The account's last period before the given start date (its closing balance is brought forward)
+     */
+    Optional<AccountPeriodBalance> findFirstByAccountIdAndPeriodStartDateLessThanOrderByPeriodStartDateDesc(
+        Long accountId, LocalDate startDate);
+
+    /**
+     * Per account, the row of the latest period starting on or before the date
+     */
+    @Query("SELECT b FROM AccountPeriodBalance b WHERE b.periodStartDate = " +
+           "(SELECT MAX(b2.periodStartDate) FROM AccountPeriodBalance b2 " +
+           "WHERE b2.accountId = b.accountId AND b2.periodStartDate <= :date)")
+    List<AccountPeriodBalance> findLatestStartingOnOrBefore(@Param("date") LocalDate date);
+
+    /**
+     * Rows of all periods that overlap the date range
+     */
+    @Query("SELECT b FROM AccountPeriodBalance b WHERE b.periodEndDate >= :startDate AND b.periodStartDate <= :endDate")
+    List<AccountPeriodBalance> findOverlapping(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+}
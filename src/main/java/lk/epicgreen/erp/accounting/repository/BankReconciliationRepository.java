@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -227,4 +228,19 @@ public interface BankReconciliationRepository extends JpaRepository<BankReconcil
      * Find completed reconciliations ordered by statement date
      */
     List<BankReconciliation> findByStatusOrderByStatementDateDesc(String status);
+
+    /**
+     * Move a draft reconciliation to IN_PROGRESS (no change in any other status)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankReconciliation br SET br.status = 'IN_PROGRESS' WHERE br.id = :id AND br.status = 'DRAFT'")
+    int markInProgressIfDraft(@Param("id") Long id);
+
+    /**
+     * Lock the reconciliation row until the transaction ends, so statement imports into it
+     * check for each other's lines one at a time
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankReconciliation br SET br.status = br.status WHERE br.id = :id")
+    int lockForStatementImport(@Param("id") Long id);
 }
@@ -0,0 +1,69 @@
+package lk.epicgreen.erp.accounting.repository;
+
+import lk.epicgreen.erp.accounting.entity.BankStatementLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the bank_statement_lines table for statement imports
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class BankStatementLineJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO bank_statement_lines (" +
+        "reconciliation_id, import_id, line_number, transaction_date, description, reference, amount, " +
+        "match_status, match_rule, payment_id, cheque_id, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert statement lines as a single JDBC batch
+     */
+    public int[] batchInsert(List<BankStatementLine> lines) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BankStatementLine line = lines.get(i);
+                ps.setLong(1, line.getReconciliationId());
+                ps.setString(2, line.getImportId());
+                ps.setLong(3, line.getLineNumber());
+                ps.setDate(4, Date.valueOf(line.getTransactionDate()));
+                ps.setString(5, line.getDescription());
+                ps.setString(6, line.getReference());
+                ps.setBigDecimal(7, line.getAmount());
+                ps.setString(8, line.getMatchStatus());
+                ps.setString(9, line.getMatchRule());
+                setNullableLong(ps, 10, line.getPaymentId());
+                setNullableLong(ps, 11, line.getChequeId());
+                ps.setTimestamp(12, Timestamp.valueOf(line.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
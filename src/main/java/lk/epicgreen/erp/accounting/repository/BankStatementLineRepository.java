@@ -0,0 +1,45 @@
+package lk.epicgreen.erp.accounting.repository;
+
+import lk.epicgreen.erp.accounting.entity.BankStatementLine;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for BankStatementLine entity
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface BankStatementLineRepository extends JpaRepository<BankStatementLine, Long> {
+
+    boolean existsByReconciliationId(Long reconciliationId);
+
+    boolean existsByReconciliationIdAndImportIdNot(Long reconciliationId, String importId);
+
+    @Query("SELECT DISTINCT l.importId FROM BankStatementLine l WHERE l.reconciliationId = :reconciliationId")
+    List<String> findImportIdsByReconciliationId(@Param("reconciliationId") Long reconciliationId);
+
+    /**
+     * Payments matched by an import with the date they were reconciled on: payment id, transaction date
+     */
+    @Query("SELECT l.paymentId, l.transactionDate FROM BankStatementLine l " +
+           "WHERE l.importId = :importId AND l.paymentId IS NOT NULL")
+    List<Object[]> findMatchedPaymentsByImportId(@Param("importId") String importId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BankStatementLine l WHERE l.importId = :importId")
+    int deleteByImportId(@Param("importId") String importId);
+
+    Page<BankStatementLine> findByReconciliationIdOrderByLineNumber(Long reconciliationId, Pageable pageable);
+
+    Page<BankStatementLine> findByReconciliationIdAndMatchStatusOrderByLineNumber(Long reconciliationId, String matchStatus,
+                                                                                  Pageable pageable);
+}
@@ -5,12 +5,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -317,6 +319,32 @@ public interface ChartOfAccountsRepository extends JpaRepository<ChartOfAccounts
 
 @Query("SELECT coa.accountName, coa.currentBalance FROM ChartOfAccounts coa WHERE coa.currentBalance <> 0 AND FUNCTION('YEAR', coa.openDate) = :year ORDER BY coa.accountCode")
     List<Object[]> getTrialBalanceForFiscalYear(@Param("year") Integer year);
+
+    /**
+     * Atomically add a net (debit - credit) amount to an account's current balance; the row
+     * stays locked until the transaction ends
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ChartOfAccounts coa SET coa.currentBalance = COALESCE(coa.currentBalance, 0) + :amount, " +
+           "coa.version = coa.version + 1 WHERE coa.id = :accountId")
+    int addToBalance(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT coa.id, coa.currentBalance FROM ChartOfAccounts coa WHERE coa.id IN :accountIds")
+    List<Object[]> findBalancesByIdIn(@Param("accountIds") Collection<Long> accountIds);
+
+    /**
+     * Lock every account row until the transaction ends, which holds off all journal posting
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ChartOfAccounts coa SET coa.currentBalance = coa.currentBalance")
+    int lockAll();
+
+    /**
+     * Structure of the whole chart in one query: id, code, name, type, category, parent id and group flag
+     */
+    @Query("SELECT coa.id, coa.accountCode, coa.accountName, coa.accountType, coa.accountCategory, parent.id, coa.isGroupAccount " +
+           "FROM ChartOfAccounts coa LEFT JOIN coa.parentAccount parent")
+    List<Object[]> findTreeRows();
 }
 
 //@Query("SELECT coa FROM ChartOfAccounts coa WHERE coa.isReconsiled = false")
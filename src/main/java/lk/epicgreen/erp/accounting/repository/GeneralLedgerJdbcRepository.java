@@ -0,0 +1,66 @@
+package lk.epicgreen.erp.accounting.repository;
+
+import lk.epicgreen.erp.accounting.entity.GeneralLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the general_ledger table for journal posting
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class GeneralLedgerJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO general_ledger (" +
+        "transaction_date, is_posted, period_id, account_id, journal_id, journal_line_id, description, " +
+        "debit_amount, credit_amount, balance, source_type, source_id, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert ledger rows as a single JDBC batch
+     */
+    public int[] batchInsert(List<GeneralLedger> entries) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                GeneralLedger entry = entries.get(i);
+                ps.setDate(1, Date.valueOf(entry.getTransactionDate()));
+                ps.setBoolean(2, entry.isPosted());
+                ps.setLong(3, entry.getPeriod().getId());
+                ps.setLong(4, entry.getAccount().getId());
+                ps.setLong(5, entry.getJournal().getId());
+                ps.setLong(6, entry.getJournalLine().getId());
+                ps.setString(7, entry.getDescription());
+                ps.setBigDecimal(8, entry.getDebitAmount());
+                ps.setBigDecimal(9, entry.getCreditAmount());
+                ps.setBigDecimal(10, entry.getBalance());
+                ps.setString(11, entry.getSourceType());
+                if (entry.getSourceId() != null) {
+                    ps.setLong(12, entry.getSourceId());
+                } else {
+                    ps.setNull(12, Types.BIGINT);
+                }
+                ps.setTimestamp(13, Timestamp.valueOf(entry.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+}
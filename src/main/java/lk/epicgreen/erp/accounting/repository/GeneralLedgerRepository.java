@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,8 @@ public interface GeneralLedgerRepository extends JpaRepository<GeneralLedger, Lo
      */
     List<GeneralLedger> findByAccountId(Long accountId);
 
+    boolean existsByAccountId(Long accountId);
+
     List<GeneralLedger> findByAccountIdAndTransactionDateBetween(Long accountId,LocalDate startDate,LocalDate endDate);
 @Query("SELECT gl FROM GeneralLedger gl WHERE gl.id = :journalEntryId")
     List<GeneralLedger> findByJournalEntryId(@Param("journalEntryId") Long journalEntryId);
@@ -193,4 +196,21 @@ public interface GeneralLedgerRepository extends JpaRepository<GeneralLedger, Lo
 @Query("SELECT SUM(gl.debitAmount) FROM GeneralLedger gl WHERE gl.account.id = :id " +
            "AND gl.period.id = :periodId")
     Optional<BigDecimal> sumCreditByAccountAndPeriod(@Param("id")Long id,@Param("periodId") Long periodId);
+
+    /**
+     * Debit and credit totals per account and period of the given periods, dated within the range
+     */
+    @Query("SELECT gl.account.id, gl.period.id, COALESCE(SUM(gl.debitAmount), 0), COALESCE(SUM(gl.creditAmount), 0) " +
+           "FROM GeneralLedger gl WHERE gl.period.id IN :periodIds AND gl.transactionDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY gl.account.id, gl.period.id")
+    List<Object[]> sumByAccountAndPeriodBetween(@Param("periodIds") Collection<Long> periodIds,
+                                                @Param("fromDate") LocalDate fromDate,
+                                                @Param("toDate") LocalDate toDate);
+
+    /**
+     * Debit and credit totals per account and period over the whole ledger
+     */
+    @Query("SELECT gl.account.id, gl.period.id, COALESCE(SUM(gl.debitAmount), 0), COALESCE(SUM(gl.creditAmount), 0) " +
+           "FROM GeneralLedger gl GROUP BY gl.account.id, gl.period.id")
+    List<Object[]> sumByAccountAndPeriod();
 }
@@ -139,4 +139,10 @@ public interface JournalEntryLineRepository extends JpaRepository<JournalEntryLi
      */
     @Query("SELECT jel FROM JournalEntryLine jel ORDER BY jel.journal.id, jel.lineNumber")
     List<JournalEntryLine> findAllOrderedByJournal();
+
+    /**
+     * Accounts used by each of the given journal entries, as (journal id, account id) pairs
+     */
+    @Query("SELECT DISTINCT jel.journal.id, jel.account.id FROM JournalEntryLine jel WHERE jel.journal.id IN :journalIds")
+    List<Object[]> findAccountIdsByJournalIdIn(@Param("journalIds") List<Long> journalIds);
 }
@@ -2,10 +2,12 @@ package lk.epicgreen.erp.accounting.repository;
 
 import lk.epicgreen.erp.accounting.entity.FinancialPeriod;
 import lk.epicgreen.erp.accounting.entity.JournalEntry;
+import lk.epicgreen.erp.admin.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -342,4 +344,14 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long
         "OR LOWER(je.sourceReference) LIKE LOWER(CONCAT('%', :keyword, '%') )"+
         "OR LOWER(je.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<JournalEntry> searchJournals(String keyword, Pageable pageable);
+
+    /**
+     * Move a DRAFT entry to POSTED; 0 when it is no longer a draft (e.g. posted concurrently)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE JournalEntry je SET je.status = 'POSTED', je.postedBy = :postedBy, je.postedAt = :postedAt " +
+           "WHERE je.id = :id AND je.status = 'DRAFT'")
+    int markPostedIfDraft(@Param("id") Long id,
+                          @Param("postedBy") User postedBy,
+                          @Param("postedAt") LocalDateTime postedAt);
 }
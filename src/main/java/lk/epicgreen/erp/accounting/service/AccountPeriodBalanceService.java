@@ -0,0 +1,39 @@
+package lk.epicgreen.erp.accounting.service;
+
+import lk.epicgreen.erp.accounting.dto.response.AccountBalanceResponse;
+import lk.epicgreen.erp.accounting.entity.FinancialPeriod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Service interface for account balances per financial period
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface AccountPeriodBalanceService {
+
+    /**
+     * Apply a journal's debit and credit totals per account ({debit, credit}) to its period,
+     * in the posting transaction and after the accounts have been locked
+     */
+    void applyPosting(FinancialPeriod period, Map<Long, BigDecimal[]> totalsByAccount);
+
+    /**
+     * Balance of every account with postings, as of the end of the date
+     */
+    Map<Long, BigDecimal> getBalancesAsOf(LocalDate date);
+
+    /**
+     * Opening balance, debits, credits and closing balance of every account with postings
+     * over a date range
+     */
+    Map<Long, AccountBalanceResponse> getBalances(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Rebuild all rows from the general ledger; returns the number of rows written
+     */
+    int rebuildBalances();
+}
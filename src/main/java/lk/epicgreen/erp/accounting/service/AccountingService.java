@@ -193,6 +193,8 @@ public interface AccountingService {
 
     List<Map<String, Object>> getTrialBalanceForFiscalYear(Integer year);
 
+    int rebuildPeriodBalances();
+
     boolean hasAccountTransactions(Long id);
 
     @NotBlank(message = "Period code is required") @Size(max = 20) String getCurrentFiscalPeriod();
@@ -0,0 +1,39 @@
+package lk.epicgreen.erp.accounting.service;
+
+import lk.epicgreen.erp.accounting.dto.response.BankStatementImportStatusResponse;
+import lk.epicgreen.erp.accounting.entity.BankStatementLine;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Service interface for importing bank statement files into a bank reconciliation and
+ * matching their lines to cleared or completed payments
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface BankStatementImportService {
+
+    /**
+     * Start importing a CSV bank statement into a reconciliation
+     * The file is matched in the background; poll getImportStatus for progress
+     */
+    BankStatementImportStatusResponse startImport(Long reconciliationId, MultipartFile file);
+
+    /**
+     * Get progress and row errors of an import
+     */
+    BankStatementImportStatusResponse getImportStatus(String importId);
+
+    /**
+     * Get the imported lines of a reconciliation, optionally only those with the given match status
+     */
+    Page<BankStatementLine> getStatementLines(Long reconciliationId, String matchStatus, Pageable pageable);
+
+    /**
+     * Remove the imported statement of a reconciliation and unreconcile the payments it matched,
+     * e.g. to import a corrected file or clean up after an import that was cut off
+     */
+    int discardStatement(Long reconciliationId);
+}
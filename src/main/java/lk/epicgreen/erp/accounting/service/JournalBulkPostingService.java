@@ -0,0 +1,21 @@
+package lk.epicgreen.erp.accounting.service;
+
+import lk.epicgreen.erp.accounting.dto.response.JournalBulkPostingResponse;
+
+import java.util.List;
+
+/**
+ * Service interface for posting many journal entries at once (e.g. system journals at month end)
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface JournalBulkPostingService {
+
+    /**
+     * Post the given DRAFT entries as the current user, each in its own transaction. Entries
+     * that share no account with each other post concurrently; a failed entry does not stop
+     * the others.
+     */
+    JournalBulkPostingResponse postJournalEntries(List<Long> entryIds);
+}
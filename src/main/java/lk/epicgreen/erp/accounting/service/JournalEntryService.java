@@ -4,6 +4,7 @@ import lk.epicgreen.erp.accounting.dto.request.JournalEntryRequest;
 import lk.epicgreen.erp.accounting.dto.response.JournalEntryResponse;
 import lk.epicgreen.erp.accounting.entity.JournalEntry;
 import lk.epicgreen.erp.accounting.entity.JournalEntryLine;
+import lk.epicgreen.erp.admin.entity.User;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import org.springframework.data.domain.Pageable;
 
@@ -26,6 +27,11 @@ public interface JournalEntryService {
     JournalEntryResponse createJournalEntry(JournalEntryRequest request);
     JournalEntryResponse updateJournalEntry(Long id, JournalEntryRequest request);
     JournalEntry postJournalEntry(Long id);
+
+    /**
+     * Post a DRAFT entry on behalf of the given user (for callers without a security context)
+     */
+    JournalEntry postJournalEntry(Long id, User postedBy);
     JournalEntry approveJournalEntry(Long id);
 
     JournalEntry rejectJournalEntry(Long id,String reason);
@@ -68,8 +74,6 @@ public interface JournalEntryService {
 
     List<JournalEntry> createBulkJournalEntries(List<JournalEntryRequest> requests);
 
-    int postBulkJournalEntries(List<Long> entryIds);
-
     int deleteBulkJournalEntries(List<Long> entryIds);
 
     Map<String,Object> getJournalEntryStatistics();
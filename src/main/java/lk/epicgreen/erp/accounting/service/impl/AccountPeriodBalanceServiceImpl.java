@@ -0,0 +1,274 @@
+package lk.epicgreen.erp.accounting.service.impl;
+
+import lk.epicgreen.erp.accounting.dto.response.AccountBalanceResponse;
+import lk.epicgreen.erp.accounting.entity.AccountPeriodBalance;
+import lk.epicgreen.erp.accounting.entity.FinancialPeriod;
+import lk.epicgreen.erp.accounting.repository.AccountPeriodBalanceRepository;
+import lk.epicgreen.erp.accounting.repository.ChartOfAccountsRepository;
+import lk.epicgreen.erp.accounting.repository.FinancialPeriodRepository;
+import lk.epicgreen.erp.accounting.repository.GeneralLedgerRepository;
+import lk.epicgreen.erp.accounting.service.AccountPeriodBalanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of AccountPeriodBalanceService interface
+ *
+ * A balance as of a date is the closing balance of the account's latest period ending on or
+ * before it, or, when the date falls inside a period, that period's opening balance plus its
+ * ledger rows up to the date. Range movements are the sums of the rows of the periods inside
+ * the range plus the ledger rows of the (at most two) periods cut by its ends. Journals are
+ * expected to be posted to periods that do not overlap (normally months).
+ *
+ * Posting holds the locks of its accounts, so the rows of an account are created and moved by
+ * one posting at a time; a missing row is created in its own transaction, which sees every
+ * posting committed before the locks were taken.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class AccountPeriodBalanceServiceImpl implements AccountPeriodBalanceService {
+
+    private final AccountPeriodBalanceRepository balanceRepository;
+    private final GeneralLedgerRepository ledgerRepository;
+    private final ChartOfAccountsRepository accountRepository;
+    private final FinancialPeriodRepository periodRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public AccountPeriodBalanceServiceImpl(AccountPeriodBalanceRepository balanceRepository,
+                                           GeneralLedgerRepository ledgerRepository,
+                                           ChartOfAccountsRepository accountRepository,
+                                           FinancialPeriodRepository periodRepository,
+                                           PlatformTransactionManager transactionManager) {
+        this.balanceRepository = balanceRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.accountRepository = accountRepository;
+        this.periodRepository = periodRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        // New rows must be based on committed balances only, not on the caller's pending posting
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyPosting(FinancialPeriod period, Map<Long, BigDecimal[]> totalsByAccount) {
+        createMissingBalances(period, totalsByAccount.keySet());
+        for (Map.Entry<Long, BigDecimal[]> totals : new TreeMap<>(totalsByAccount).entrySet()) {
+            Long accountId = totals.getKey();
+            BigDecimal debit = totals.getValue()[0];
+            BigDecimal credit = totals.getValue()[1];
+            if (balanceRepository.addActivity(accountId, period.getId(), debit, credit) == 0) {
+                throw new IllegalStateException("No period balance of account " + accountId + " for period " + period.getId());
+            }
+            BigDecimal net = debit.subtract(credit);
+            if (net.signum() != 0) {
+                balanceRepository.carryForward(accountId, period.getStartDate(), net);
+            }
+        }
+    }
+
+    @Override
+    public Map<Long, BigDecimal> getBalancesAsOf(LocalDate date) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        // Accounts whose balance still needs the ledger rows of an unfinished period
+        Map<Long, AccountPeriodBalance> openRows = new HashMap<>();
+        for (AccountPeriodBalance row : balanceRepository.findLatestStartingOnOrBefore(date)) {
+            if (balances.containsKey(row.getAccountId())) {
+                continue;
+            }
+            if (row.getPeriodEndDate().isAfter(date)) {
+                balances.put(row.getAccountId(), row.getOpeningBalance());
+                openRows.put(row.getAccountId(), row);
+            } else {
+                balances.put(row.getAccountId(), row.getClosingBalance());
+            }
+        }
+
+        if (!openRows.isEmpty()) {
+            Set<Long> periodIds = openRows.values().stream().map(AccountPeriodBalance::getPeriodId).collect(Collectors.toSet());
+            LocalDate fromDate = openRows.values().stream().map(AccountPeriodBalance::getPeriodStartDate)
+                .min(Comparator.naturalOrder()).orElse(date);
+            for (Object[] row : ledgerRepository.sumByAccountAndPeriodBetween(periodIds, fromDate, date)) {
+                AccountPeriodBalance open = openRows.get((Long) row[0]);
+                if (open != null && open.getPeriodId().equals(row[1])) {
+                    balances.merge(open.getAccountId(), ((BigDecimal) row[2]).subtract((BigDecimal) row[3]), BigDecimal::add);
+                }
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public Map<Long, AccountBalanceResponse> getBalances(LocalDate startDate, LocalDate endDate) {
+        Map<Long, BigDecimal> openingBalances = getBalancesAsOf(startDate.minusDays(1));
+
+        Map<Long, BigDecimal[]> movements = new HashMap<>();
+        Set<Long> cutPeriodIds = new HashSet<>();
+        for (AccountPeriodBalance row : balanceRepository.findOverlapping(startDate, endDate)) {
+            if (row.getPeriodStartDate().isBefore(startDate) || row.getPeriodEndDate().isAfter(endDate)) {
+                cutPeriodIds.add(row.getPeriodId());
+            } else {
+                addMovement(movements, row.getAccountId(), row.getPeriodDebit(), row.getPeriodCredit());
+            }
+        }
+        if (!cutPeriodIds.isEmpty()) {
+            for (Object[] row : ledgerRepository.sumByAccountAndPeriodBetween(cutPeriodIds, startDate, endDate)) {
+                addMovement(movements, (Long) row[0], (BigDecimal) row[2], (BigDecimal) row[3]);
+            }
+        }
+
+        Set<Long> accountIds = new HashSet<>(openingBalances.keySet());
+        accountIds.addAll(movements.keySet());
+        Map<Long, AccountBalanceResponse> balances = new HashMap<>();
+        for (Long accountId : accountIds) {
+            BigDecimal opening = openingBalances.getOrDefault(accountId, BigDecimal.ZERO);
+            BigDecimal[] movement = movements.getOrDefault(accountId, new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+            balances.put(accountId, AccountBalanceResponse.builder()
+                .accountId(accountId)
+                .openingBalance(opening)
+                .periodDebit(movement[0])
+                .periodCredit(movement[1])
+                .closingBalance(opening.add(movement[0]).subtract(movement[1]))
+                .build());
+        }
+        return balances;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildBalances() {
+        return rebuild();
+    }
+
+    /**
+     * Build the rows from the ledger once, when posting has happened before they existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void initializeBalances() {
+        try {
+            if (balanceRepository.count() == 0 && ledgerRepository.count() > 0) {
+                Integer rows = transactionTemplate.execute(status -> rebuild());
+                log.info("Account period balances initialized from the general ledger: {} rows", rows);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to initialize account period balances", e);
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private void createMissingBalances(FinancialPeriod period, Set<Long> accountIds) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                newTransactionTemplate.execute(status -> {
+                    Set<Long> existing = new HashSet<>(balanceRepository.findAccountIdsByPeriodId(period.getId(), accountIds));
+                    List<AccountPeriodBalance> created = new ArrayList<>();
+                    for (Long accountId : accountIds) {
+                        if (existing.contains(accountId)) {
+                            continue;
+                        }
+                        BigDecimal opening = balanceRepository
+                            .findFirstByAccountIdAndPeriodStartDateLessThanOrderByPeriodStartDateDesc(accountId, period.getStartDate())
+                            .map(AccountPeriodBalance::getClosingBalance)
+                            .orElse(BigDecimal.ZERO);
+                        created.add(AccountPeriodBalance.builder()
+                            .accountId(accountId)
+                            .periodId(period.getId())
+                            .periodStartDate(period.getStartDate())
+                            .periodEndDate(period.getEndDate())
+                            .openingBalance(opening)
+                            .closingBalance(opening)
+                            .build());
+                    }
+                    return balanceRepository.saveAll(created);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently (outside posting, e.g. by a rebuild); look again once
+                if (attempt >= 2) {
+                    throw e;
+                }
+                log.debug("Period balances for period {} created concurrently, retrying", period.getId());
+            }
+        }
+    }
+
+    private int rebuild() {
+        // Holds off posting, and the reads below see everything posted before it
+        accountRepository.lockAll();
+
+        Map<Long, FinancialPeriod> periods = periodRepository.findAll().stream()
+            .collect(Collectors.toMap(FinancialPeriod::getId, Function.identity()));
+        Comparator<Object[]> periodOrder = Comparator
+            .comparing((Object[] row) -> periods.get((Long) row[1]).getStartDate())
+            .thenComparing(row -> periods.get((Long) row[1]).getEndDate());
+
+        Map<Long, List<Object[]>> totalsByAccount = new HashMap<>();
+        for (Object[] row : ledgerRepository.sumByAccountAndPeriod()) {
+            totalsByAccount.computeIfAbsent((Long) row[0], accountId -> new ArrayList<>()).add(row);
+        }
+
+        balanceRepository.deleteAllInBatch();
+        List<AccountPeriodBalance> rows = new ArrayList<>();
+        for (Map.Entry<Long, List<Object[]>> account : totalsByAccount.entrySet()) {
+            List<Object[]> totals = account.getValue();
+            totals.sort(periodOrder);
+            BigDecimal balance = BigDecimal.ZERO;
+            for (Object[] total : totals) {
+                FinancialPeriod period = periods.get((Long) total[1]);
+                BigDecimal debit = (BigDecimal) total[2];
+                BigDecimal credit = (BigDecimal) total[3];
+                BigDecimal closing = balance.add(debit).subtract(credit);
+                rows.add(AccountPeriodBalance.builder()
+                    .accountId(account.getKey())
+                    .periodId(period.getId())
+                    .periodStartDate(period.getStartDate())
+                    .periodEndDate(period.getEndDate())
+                    .openingBalance(balance)
+                    .periodDebit(debit)
+                    .periodCredit(credit)
+                    .closingBalance(closing)
+                    .build());
+                balance = closing;
+            }
+        }
+        balanceRepository.saveAll(rows);
+        log.info("Account period balances rebuilt: {} accounts, {} rows", totalsByAccount.size(), rows.size());
+        return rows.size();
+    }
+
+    private static void addMovement(Map<Long, BigDecimal[]> movements, Long accountId, BigDecimal debit, BigDecimal credit) {
+        BigDecimal[] movement = movements.computeIfAbsent(accountId, id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+        movement[0] = movement[0].add(debit);
+        movement[1] = movement[1].add(credit);
+    }
+}
@@ -0,0 +1,296 @@
+package lk.epicgreen.erp.accounting.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory view of the chart of accounts hierarchy
+ *
+ * Accounts are laid out in depth-first order, children by account code, and each account keeps
+ * the position range of its subtree. So an account's descendants are a contiguous slice of that
+ * order, an ancestor test is two comparisons, and subtree balances are rolled up in one reverse
+ * pass over the order. Each account also keeps its path from the root.
+ *
+ * A parent chain that loops back on itself (possible through direct data edits) is cut at the
+ * account with the lowest code, which is then treated as a root.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+final class AccountTree {
+
+    private final List<Node> nodes;
+    private final Map<Long, Node> nodesById;
+    private final List<Node> roots;
+
+    private AccountTree(List<Node> nodes, Map<Long, Node> nodesById, List<Node> roots) {
+        this.nodes = nodes;
+        this.nodesById = nodesById;
+        this.roots = roots;
+    }
+
+    /**
+     * Build the tree from rows of id, code, name, type, category, parent id and group flag
+     */
+    static AccountTree build(List<Object[]> rows) {
+        Map<Long, Node> nodesById = new HashMap<>(Math.max(16, rows.size() * 2));
+        Map<Long, Long> parentIds = new HashMap<>(Math.max(16, rows.size() * 2));
+        for (Object[] row : rows) {
+            Node node = new Node((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                Boolean.TRUE.equals(row[6]));
+            nodesById.put(node.id, node);
+            parentIds.put(node.id, (Long) row[5]);
+        }
+
+        Map<Long, List<Node>> childrenById = new HashMap<>();
+        List<Node> candidates = new ArrayList<>(nodesById.values());
+        candidates.sort(Comparator.comparing((Node node) -> node.accountCode).thenComparing(node -> node.id));
+        List<Node> roots = new ArrayList<>();
+        for (Node node : candidates) {
+            Long parentId = parentIds.get(node.id);
+            if (parentId == null || !nodesById.containsKey(parentId)) {
+                roots.add(node);
+            } else {
+                childrenById.computeIfAbsent(parentId, id -> new ArrayList<>()).add(node);
+            }
+        }
+
+        List<Node> order = new ArrayList<>(nodesById.size());
+        for (Node root : roots) {
+            visit(root, childrenById, order);
+        }
+        // Whatever is left is on or below a loop; cut each loop at its lowest code
+        for (Node node : candidates) {
+            if (node.index < 0) {
+                Node cut = lowestOnLoop(node, nodesById, parentIds);
+                cut.cycleBroken = true;
+                roots.add(cut);
+                visit(cut, childrenById, order);
+            }
+        }
+        return new AccountTree(Collections.unmodifiableList(order), nodesById, Collections.unmodifiableList(roots));
+    }
+
+    boolean contains(Long accountId) {
+        return nodesById.containsKey(accountId);
+    }
+
+    Node getNode(Long accountId) {
+        return nodesById.get(accountId);
+    }
+
+    /**
+     * All accounts, parents before their children and siblings by account code
+     */
+    List<Node> getNodes() {
+        return nodes;
+    }
+
+    List<Node> getRoots() {
+        return roots;
+    }
+
+    List<Node> getChildren(Long accountId) {
+        Node node = nodesById.get(accountId);
+        return node != null ? Collections.unmodifiableList(node.children) : Collections.emptyList();
+    }
+
+    boolean hasChildren(Long accountId) {
+        Node node = nodesById.get(accountId);
+        return node != null && !node.children.isEmpty();
+    }
+
+    /**
+     * Ancestors of an account from its root down to its parent
+     */
+    List<Node> getAncestors(Long accountId) {
+        Node node = nodesById.get(accountId);
+        return node != null ? node.ancestors : Collections.emptyList();
+    }
+
+    /**
+     * Descendants of an account in tree order (a view, not a copy)
+     */
+    List<Node> getDescendants(Long accountId) {
+        Node node = nodesById.get(accountId);
+        return node != null ? nodes.subList(node.index + 1, node.end) : Collections.emptyList();
+    }
+
+    /**
+     * Whether the first account is the second one or one of its ancestors
+     */
+    boolean isAncestorOrSelf(Long ancestorId, Long accountId) {
+        Node ancestor = nodesById.get(ancestorId);
+        Node node = nodesById.get(accountId);
+        return ancestor != null && node != null && ancestor.index <= node.index && node.index < ancestor.end;
+    }
+
+    /**
+     * Balance of each account including all of its descendants, for every account in the tree
+     * (accounts missing from the given balances count as zero)
+     */
+    Map<Long, BigDecimal> rollUp(Map<Long, BigDecimal> balances) {
+        BigDecimal[] totals = new BigDecimal[nodes.size()];
+        Arrays.fill(totals, BigDecimal.ZERO);
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            Node node = nodes.get(i);
+            BigDecimal own = balances.get(node.id);
+            if (own != null) {
+                totals[i] = totals[i].add(own);
+            }
+            if (node.parent != null) {
+                totals[node.parent.index] = totals[node.parent.index].add(totals[i]);
+            }
+        }
+        Map<Long, BigDecimal> rolledUp = new HashMap<>(Math.max(16, nodes.size() * 2));
+        for (int i = 0; i < totals.length; i++) {
+            rolledUp.put(nodes.get(i).id, totals[i]);
+        }
+        return rolledUp;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    private static void visit(Node root, Map<Long, List<Node>> childrenById, List<Node> order) {
+        // Iterative depth-first walk, so deep charts cannot overflow the stack
+        List<Node> stack = new ArrayList<>();
+        place(root, null, order);
+        stack.add(root);
+        List<Integer> nextChild = new ArrayList<>();
+        nextChild.add(0);
+        while (!stack.isEmpty()) {
+            int top = stack.size() - 1;
+            Node node = stack.get(top);
+            List<Node> children = childrenById.getOrDefault(node.id, Collections.emptyList());
+            int next = nextChild.get(top);
+            if (next < children.size()) {
+                nextChild.set(top, next + 1);
+                Node child = children.get(next);
+                if (child.index >= 0) {
+                    continue;
+                }
+                place(child, node, order);
+                node.children.add(child);
+                stack.add(child);
+                nextChild.add(0);
+            } else {
+                node.end = order.size();
+                stack.remove(top);
+                nextChild.remove(top);
+            }
+        }
+    }
+
+    private static Node lowestOnLoop(Node node, Map<Long, Node> nodesById, Map<Long, Long> parentIds) {
+        // Unplaced accounts always have an unplaced parent, so following parents ends on a loop
+        Set<Node> seen = new HashSet<>();
+        Node current = node;
+        while (seen.add(current)) {
+            current = nodesById.get(parentIds.get(current.id));
+        }
+        Node lowest = current;
+        for (Node member = nodesById.get(parentIds.get(current.id)); member != current;
+             member = nodesById.get(parentIds.get(member.id))) {
+            if (member.accountCode.compareTo(lowest.accountCode) < 0) {
+                lowest = member;
+            }
+        }
+        return lowest;
+    }
+
+    private static void place(Node node, Node parent, List<Node> order) {
+        node.index = order.size();
+        node.parent = parent;
+        if (parent != null) {
+            List<Node> ancestors = new ArrayList<>(parent.ancestors.size() + 1);
+            ancestors.addAll(parent.ancestors);
+            ancestors.add(parent);
+            node.ancestors = Collections.unmodifiableList(ancestors);
+        }
+        order.add(node);
+    }
+
+    /**
+     * One account of the tree
+     */
+    static final class Node {
+        private final Long id;
+        private final String accountCode;
+        private final String accountName;
+        private final String accountType;
+        private final String accountCategory;
+        private final boolean groupAccount;
+        private final List<Node> children = new ArrayList<>();
+        private Node parent;
+        private boolean cycleBroken;
+        private List<Node> ancestors = Collections.emptyList();
+        private int index = -1;
+        private int end;
+
+        private Node(Long id, String accountCode, String accountName, String accountType, String accountCategory,
+                     boolean groupAccount) {
+            this.id = id;
+            this.accountCode = accountCode;
+            this.accountName = accountName;
+            this.accountType = accountType;
+            this.accountCategory = accountCategory;
+            this.groupAccount = groupAccount;
+        }
+
+        Long getId() {
+            return id;
+        }
+
+        String getAccountCode() {
+            return accountCode;
+        }
+
+        String getAccountName() {
+            return accountName;
+        }
+
+        String getAccountType() {
+            return accountType;
+        }
+
+        String getAccountCategory() {
+            return accountCategory;
+        }
+
+        /**
+         * Parent in the tree (null for roots, including accounts whose parent chain was cut)
+         */
+        Long getParentId() {
+            return parent != null ? parent.id : null;
+        }
+
+        boolean isGroupAccount() {
+            return groupAccount;
+        }
+
+        /**
+         * Whether the account's stored parent chain loops back to it (it is placed as a root)
+         */
+        boolean isCycleBroken() {
+            return cycleBroken;
+        }
+
+        int getLevel() {
+            return ancestors.size();
+        }
+
+        boolean isLeaf() {
+            return children.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package lk.epicgreen.erp.accounting.service.impl;
+
+import lk.epicgreen.erp.accounting.repository.ChartOfAccountsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory chart of accounts hierarchy
+ * Loaded with one query on first use and dropped whenever an account is created, updated or
+ * deleted, so hierarchy checks and statement rollups do not query the accounts per node
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class AccountTreeCache {
+
+    private final ChartOfAccountsRepository accountRepository;
+
+    private volatile AccountTree tree;
+
+    public AccountTreeCache(ChartOfAccountsRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    /**
+     * Get the current tree, loading it if needed
+     */
+    AccountTree getTree() {
+        AccountTree current = tree;
+        return current != null ? current : load();
+    }
+
+    /**
+     * Drop the tree so it is reloaded on next read
+     */
+    public synchronized void invalidate() {
+        tree = null;
+    }
+
+    /**
+     * Drop the tree now and again once the surrounding transaction completes, so a reload in
+     * between cannot keep the chart as it was before the change (immediately when no
+     * transaction is active)
+     */
+    public void invalidateAfterCommit() {
+        invalidate();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate();
+            }
+        });
+    }
+
+    private synchronized AccountTree load() {
+        if (tree == null) {
+            long started = System.nanoTime();
+            tree = AccountTree.build(accountRepository.findTreeRows());
+            log.debug("Chart of accounts tree loaded with {} accounts in {} ms",
+                tree.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+        return tree;
+    }
+}
@@ -1,7 +1,9 @@
 package lk.epicgreen.erp.accounting.service.impl;
 
+import lk.epicgreen.erp.accounting.dto.response.AccountBalanceResponse;
 import lk.epicgreen.erp.accounting.entity.*;
 import lk.epicgreen.erp.accounting.repository.*;
+import lk.epicgreen.erp.accounting.service.AccountPeriodBalanceService;
 import lk.epicgreen.erp.accounting.service.AccountingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +38,8 @@ public class AccountingServiceImpl implements AccountingService {
     private final GeneralLedgerRepository ledgerRepository;
     private final BankAccountRepository bankAccountRepository;
     private final BankReconciliationRepository reconciliationRepository;
+    private final AccountPeriodBalanceService accountPeriodBalanceService;
+    private final AccountTreeCache accountTreeCache;
     
     // ===================================================================
     // CHART OF ACCOUNTS
@@ -44,6 +48,7 @@ public class AccountingServiceImpl implements AccountingService {
     @Override
     public ChartOfAccounts createAccount(ChartOfAccounts account) {
         log.info("Creating account: {}", account.getAccountCode());
+        accountTreeCache.invalidateAfterCommit();
         return accountRepository.save(account);
     }
     
@@ -52,6 +57,7 @@ public class AccountingServiceImpl implements AccountingService {
         log.info("Updating account: {}", id);
         ChartOfAccounts existing = getAccountById(id);
         account.setId(id);
+        accountTreeCache.invalidateAfterCommit();
         return accountRepository.save(account);
     }
     
@@ -59,6 +65,7 @@ public class AccountingServiceImpl implements AccountingService {
     public void deleteAccount(Long id) {
         log.info("Deleting account: {}", id);
         accountRepository.deleteById(id);
+        accountTreeCache.invalidateAfterCommit();
     }
     
     @Override
@@ -93,16 +100,22 @@ public class AccountingServiceImpl implements AccountingService {
 
     @Transactional
     public boolean validateAccountHierarchy(Long id){
-        ChartOfAccounts account = getAccountById(id);
-        return account.getParentAccount() != null;
+        AccountTree.Node account = accountTreeCache.getTree().getNode(id);
+        if (account == null) {
+            throw new RuntimeException("Account not found with id: " + id);
+        }
+        return account.getParentId() != null && !account.isCycleBroken();
     }
 
     @Transactional
     public boolean canDeleteAccount(Long id){
         // An account can be deleted if it has no child accounts and no ledger entries
-        ChartOfAccounts account = getAccountById(id);
-        boolean hasChildren = !accountRepository.findByParentAccountId(id).isEmpty();
-        boolean hasLedgerEntries = !ledgerRepository.findByAccountId(id).isEmpty();
+        AccountTree tree = accountTreeCache.getTree();
+        if (!tree.contains(id)) {
+            throw new RuntimeException("Account not found with id: " + id);
+        }
+        boolean hasChildren = tree.hasChildren(id);
+        boolean hasLedgerEntries = ledgerRepository.existsByAccountId(id);
         return !hasChildren && !hasLedgerEntries;
     }
 
@@ -141,34 +154,31 @@ public class AccountingServiceImpl implements AccountingService {
         accountRepository.save(account);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getTrialBalance(){
-        List<Object[]> results = accountRepository.getTrialBalance();
+        Map<Long, BigDecimal> balances = accountPeriodBalanceService.getBalancesAsOf(LocalDate.now());
         List<Map<String, Object>> list = new ArrayList<>();
-        for (Object[] result : results) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("accountCode", result[0]);
-            map.put("accountName", result[1]);
-            map.put("debit", result[2]);
-            map.put("credit", result[3]);
+        for (AccountTree.Node account : accountTreeCache.getTree().getNodes()) {
+            BigDecimal balance = balances.get(account.getId());
+            if (balance == null || balance.signum() == 0) {
+                continue;
+            }
+            Map<String, Object> map = accountRow(account);
+            putDebitCredit(map, balance);
             list.add(map);
         }
         return list;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getTrialBalanceForFiscalYear(Integer year){
-        List<Object[]> results = accountRepository.getTrialBalanceForFiscalYear(year);
-        List<Map<String, Object>> list = new ArrayList<>();
-        for (Object[] result : results) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("accountCode", result[0]);
-            map.put("accountName", result[1]);
-            map.put("debit", result[2]);
-            map.put("credit", result[3]);
-            list.add(map);
+        List<FinancialPeriod> periods = periodRepository.findByFiscalYear(year);
+        if (periods.isEmpty()) {
+            return new ArrayList<>();
         }
-        return list;
+        LocalDate startDate = periods.stream().map(FinancialPeriod::getStartDate).min(Comparator.naturalOrder()).get();
+        LocalDate endDate = periods.stream().map(FinancialPeriod::getEndDate).max(Comparator.naturalOrder()).get();
+        return getTrialBalanceForPeriod(startDate, endDate);
     }
 
     @Transactional
@@ -189,29 +199,47 @@ public class AccountingServiceImpl implements AccountingService {
         return period.getPeriodCode();
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> generateIncomeStatement(LocalDate startDate, LocalDate endDate){
         Map<String, Object> incomeStatement = new HashMap<>();
-        List<ChartOfAccounts> revenues = accountRepository.findRevenueAccounts();
-        List<ChartOfAccounts> expenses = accountRepository.findExpenseAccounts();
+        Map<Long, AccountBalanceResponse> balances = accountPeriodBalanceService.getBalances(startDate, endDate);
+        Map<Long, BigDecimal> movements = new HashMap<>();
+        for (AccountBalanceResponse balance : balances.values()) {
+            movements.put(balance.getAccountId(), balance.getPeriodDebit().subtract(balance.getPeriodCredit()));
+        }
+        AccountTree tree = accountTreeCache.getTree();
+        Map<Long, BigDecimal> rolledUp = tree.rollUp(movements);
+
+        // Revenue is credit-normal, expenses debit-normal; both are the movement within the range.
+        // Lines follow the account hierarchy with group accounts showing their subtree totals,
+        // totals add up each account's own movement once
+        List<Map<String, Object>> revenues = new ArrayList<>();
+        List<Map<String, Object>> expenses = new ArrayList<>();
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalExpenses = BigDecimal.ZERO;
+        for (AccountTree.Node account : tree.getNodes()) {
+            BigDecimal own = movements.getOrDefault(account.getId(), BigDecimal.ZERO);
+            BigDecimal movement = rolledUp.get(account.getId());
+            if ("REVENUE".equals(account.getAccountType())) {
+                totalRevenue = totalRevenue.subtract(own);
+                if (movement.signum() != 0) {
+                    revenues.add(statementLine(account, movement.negate()));
+                }
+            } else if ("EXPENSE".equals(account.getAccountType())) {
+                totalExpenses = totalExpenses.add(own);
+                if (movement.signum() != 0) {
+                    expenses.add(statementLine(account, movement));
+                }
+            }
+        }
 
+        incomeStatement.put("startDate", startDate);
+        incomeStatement.put("endDate", endDate);
         incomeStatement.put("revenues", revenues);
         incomeStatement.put("expenses", expenses);
-
-        // Calculate totals
-        BigDecimal totalRevenue = revenues.stream()
-            .map(ChartOfAccounts::getCurrentBalance)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalExpenses = expenses.stream()
-            .map(ChartOfAccounts::getCurrentBalance)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal netIncome = totalRevenue.subtract(totalExpenses);
-
         incomeStatement.put("totalRevenue", totalRevenue);
         incomeStatement.put("totalExpenses", totalExpenses);
-        incomeStatement.put("netIncome", netIncome);
+        incomeStatement.put("netIncome", totalRevenue.subtract(totalExpenses));
 
         return incomeStatement;
     }
@@ -257,33 +285,64 @@ public class AccountingServiceImpl implements AccountingService {
         return equityStatement;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> generateBalanceSheet(LocalDate asOfDate){
         Map<String, Object> balanceSheet = new HashMap<>();
-        List<ChartOfAccounts> assets = accountRepository.findAssetAccounts();
-        List<ChartOfAccounts> liabilities = accountRepository.findLiabilityAccounts();
-        List<ChartOfAccounts> equity = accountRepository.findEquityAccounts();
+        Map<Long, BigDecimal> balances = accountPeriodBalanceService.getBalancesAsOf(asOfDate);
+        AccountTree tree = accountTreeCache.getTree();
+        Map<Long, BigDecimal> rolledUp = tree.rollUp(balances);
+
+        // Liabilities and equity are credit-normal; revenue and expense balances not yet closed
+        // to equity are shown as retained earnings, so the sheet balances. Lines follow the
+        // account hierarchy with group accounts showing their subtree totals
+        List<Map<String, Object>> assets = new ArrayList<>();
+        List<Map<String, Object>> liabilities = new ArrayList<>();
+        List<Map<String, Object>> equity = new ArrayList<>();
+        BigDecimal totalAssets = BigDecimal.ZERO;
+        BigDecimal totalLiabilities = BigDecimal.ZERO;
+        BigDecimal totalEquity = BigDecimal.ZERO;
+        BigDecimal retainedEarnings = BigDecimal.ZERO;
+        for (AccountTree.Node account : tree.getNodes()) {
+            BigDecimal own = balances.getOrDefault(account.getId(), BigDecimal.ZERO);
+            BigDecimal balance = rolledUp.get(account.getId());
+            switch (account.getAccountType()) {
+                case "ASSET":
+                    totalAssets = totalAssets.add(own);
+                    if (balance.signum() != 0) {
+                        assets.add(statementLine(account, balance));
+                    }
+                    break;
+                case "LIABILITY":
+                    totalLiabilities = totalLiabilities.subtract(own);
+                    if (balance.signum() != 0) {
+                        liabilities.add(statementLine(account, balance.negate()));
+                    }
+                    break;
+                case "EQUITY":
+                    totalEquity = totalEquity.subtract(own);
+                    if (balance.signum() != 0) {
+                        equity.add(statementLine(account, balance.negate()));
+                    }
+                    break;
+                case "REVENUE":
+                case "EXPENSE":
+                    retainedEarnings = retainedEarnings.subtract(own);
+                    break;
+                default:
+                    break;
+            }
+        }
+        totalEquity = totalEquity.add(retainedEarnings);
 
+        balanceSheet.put("asOfDate", asOfDate);
         balanceSheet.put("assets", assets);
         balanceSheet.put("liabilities", liabilities);
         balanceSheet.put("equity", equity);
-
-        // Calculate totals
-        BigDecimal totalAssets = assets.stream()
-            .map(ChartOfAccounts::getCurrentBalance)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalLiabilities = liabilities.stream()
-            .map(ChartOfAccounts::getCurrentBalance)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalEquity = equity.stream()
-            .map(ChartOfAccounts::getCurrentBalance)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        balanceSheet.put("retainedEarnings", retainedEarnings);
         balanceSheet.put("totalAssets", totalAssets);
         balanceSheet.put("totalLiabilities", totalLiabilities);
         balanceSheet.put("totalEquity", totalEquity);
+        balanceSheet.put("totalLiabilitiesAndEquity", totalLiabilities.add(totalEquity));
 
         return balanceSheet;
     }
@@ -295,21 +354,36 @@ public class AccountingServiceImpl implements AccountingService {
         return period.getStartDate().getYear();
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public  List<Map<String, Object>> getTrialBalanceForPeriod(LocalDate startDate, LocalDate endDate){
-        List<Object[]> results = accountRepository.getTrialBalanceForPeriod(startDate, endDate);
+        Map<Long, AccountBalanceResponse> balances = accountPeriodBalanceService.getBalances(startDate, endDate);
         List<Map<String, Object>> list = new ArrayList<>();
-        for (Object[] result : results) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("accountCode", result[0]);
-            map.put("accountName", result[1]);
-            map.put("debit", result[2]);
-            map.put("credit", result[3]);
+        for (AccountTree.Node account : accountTreeCache.getTree().getNodes()) {
+            AccountBalanceResponse balance = balances.get(account.getId());
+            if (balance == null) {
+                continue;
+            }
+            if (balance.getOpeningBalance().signum() == 0 && balance.getPeriodDebit().signum() == 0
+                    && balance.getPeriodCredit().signum() == 0) {
+                continue;
+            }
+            Map<String, Object> map = accountRow(account);
+            map.put("openingBalance", balance.getOpeningBalance());
+            map.put("periodDebit", balance.getPeriodDebit());
+            map.put("periodCredit", balance.getPeriodCredit());
+            map.put("closingBalance", balance.getClosingBalance());
+            putDebitCredit(map, balance.getClosingBalance());
             list.add(map);
         }
         return list;
     }
 
+    @Override
+    @Transactional
+    public int rebuildPeriodBalances() {
+        return accountPeriodBalanceService.rebuildBalances();
+    }
+
 //    @Transactional
 //    public void reopenFiscalPeriod(Integer year, Integer period){
 //    }
@@ -908,4 +982,34 @@ public class AccountingServiceImpl implements AccountingService {
         }
         return list;
     }
+
+    // ===================================================================
+    // REPORT HELPERS
+    // ===================================================================
+
+    private static Map<String, Object> accountRow(AccountTree.Node account) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("accountId", account.getId());
+        map.put("accountCode", account.getAccountCode());
+        map.put("accountName", account.getAccountName());
+        map.put("accountType", account.getAccountType());
+        return map;
+    }
+
+    private static Map<String, Object> statementLine(AccountTree.Node account, BigDecimal amount) {
+        Map<String, Object> map = accountRow(account);
+        map.put("parentAccountId", account.getParentId());
+        map.put("level", account.getLevel());
+        map.put("groupAccount", account.isGroupAccount() || !account.isLeaf());
+        map.put("amount", amount);
+        return map;
+    }
+
+    /**
+     * Debit balances go to the debit column, credit balances (negative) to the credit column
+     */
+    private static void putDebitCredit(Map<String, Object> map, BigDecimal balance) {
+        map.put("debit", balance.signum() > 0 ? balance : BigDecimal.ZERO);
+        map.put("credit", balance.signum() < 0 ? balance.negate() : BigDecimal.ZERO);
+    }
 }
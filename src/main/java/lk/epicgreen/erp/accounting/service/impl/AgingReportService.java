@@ -2,21 +2,28 @@ package lk.epicgreen.erp.accounting.service.impl;
 
 
 import lk.epicgreen.erp.accounting.dto.response.AgingReportDTO;
-import lk.epicgreen.erp.customer.entity.CustomerLedger;
+import lk.epicgreen.erp.common.dto.PageResponse;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.customer.entity.Customer;
 import lk.epicgreen.erp.customer.repository.CustomerLedgerRepository;
 import lk.epicgreen.erp.customer.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Map;
-
+import java.util.stream.Collectors;
+
+/**
+ * Customer receivables aging
+ * Debits are bucketed by due date in a single grouped query (customer name and code come
+ * from the same join, so there is no per-row customer lookup). Credits (payments, returns,
+ * credit notes) are then applied to the oldest buckets first.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -25,65 +32,87 @@ public class AgingReportService {
     private final CustomerLedgerRepository ledgerRepository;
 
     public List<AgingReportDTO> generateAgingReport() {
-        List<CustomerLedger> legers=ledgerRepository.findByBalanceGreaterThan(BigDecimal.ZERO);
-
-        LocalDate todaysDate= LocalDate.now();
-
-        Map<Long, AgingReportDTO> reportMap=new HashMap<>();
-
-        List<AgingReportDTO> agingReport=new ArrayList<>();
-        for(CustomerLedger ledger:legers){
-            Long customerid=ledger.getCustomer().getId();
-
-            long daysOverdue= ChronoUnit.DAYS.between(
-                    ledger.getDueDate(),
-                    todaysDate
-            );
-            AgingReportDTO dto=reportMap.computeIfAbsent(customerid,id->
-                    boilerplateCode(customerid,ledger.getCustomer().getCustomerName(),ledger.getBalance())
-            );
-            if(daysOverdue<=30){
-                dto.setDays30(ledger.getBalance());
+        return generateAgingReport(LocalDate.now(), Pageable.unpaged()).getContent();
+    }
 
-            }else if(daysOverdue<=60){
-                dto.setDays60(ledger.getBalance());
+    public PageResponse<AgingReportDTO> generateAgingReport(LocalDate asOfDate, Pageable pageable) {
+        Page<Object[]> rows = ledgerRepository.getAgingBuckets(
+                asOfDate, asOfDate.minusDays(30), asOfDate.minusDays(60), asOfDate.minusDays(90), pageable);
+
+        List<AgingReportDTO> content = rows.getContent().stream()
+                .map(this::toAgingReport)
+                .collect(Collectors.toList());
+
+        return PageResponse.<AgingReportDTO>builder()
+                .content(content)
+                .pageNumber(rows.getNumber())
+                .pageSize(rows.getSize())
+                .totalElements(rows.getTotalElements())
+                .totalPages(rows.getTotalPages())
+                .last(rows.isLast())
+                .first(rows.isFirst())
+                .empty(rows.isEmpty())
+                .build();
+    }
 
-            }else if(daysOverdue<=90){
-                dto.setDays90(ledger.getBalance());
-            }
+    public AgingReportDTO getCustomerAging(Long customerId) {
+        return getCustomerAging(customerId, LocalDate.now());
+    }
 
+    public AgingReportDTO getCustomerAging(Long customerId, LocalDate asOfDate) {
+        List<Object[]> rows = ledgerRepository.getAgingBucketsByCustomer(
+                customerId, asOfDate, asOfDate.minusDays(30), asOfDate.minusDays(60), asOfDate.minusDays(90));
+        if (!rows.isEmpty()) {
+            return toAgingReport(rows.get(0));
         }
-        return new ArrayList<>(reportMap.values());
-    }
 
-    public AgingReportDTO boilerplateCode(Long cusId,String cusName,BigDecimal amount){
-        AgingReportDTO dto=new AgingReportDTO();
-        dto.setCustomerId(cusId);
-        dto.setCustomerName(cusName);
-        dto.setCurrentAmount(amount);
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + customerId));
+        AgingReportDTO dto = new AgingReportDTO();
+        dto.setCustomerId(customerId);
+        dto.setCustomerCode(customer.getCustomerCode());
+        dto.setCustomerName(customer.getCustomerName());
+        dto.setCurrentAmount(BigDecimal.ZERO);
+        dto.setDays30(BigDecimal.ZERO);
+        dto.setDays60(BigDecimal.ZERO);
+        dto.setDays90(BigDecimal.ZERO);
+        dto.setDays90Plus(BigDecimal.ZERO);
+        dto.setTotalOutstanding(BigDecimal.ZERO);
         return dto;
     }
 
-    public AgingReportDTO getCustomerAging(Long customerId) {
-        CustomerLedger customerledger =ledgerRepository.findByCustomerIdAndBalanceGreaterThan(customerId,BigDecimal.ZERO);
-        LocalDate today= LocalDate.now();
+    /**
+     * Build the report line from a bucket row, settling credits against the oldest debits first
+     */
+    private AgingReportDTO toAgingReport(Object[] row) {
+        // Oldest first: 90+, 61-90, 31-60, 0-30, not yet due
+        BigDecimal[] buckets = {
+                amount(row[7]), amount(row[6]), amount(row[5]), amount(row[4]), amount(row[3])
+        };
+        BigDecimal unapplied = amount(row[8]);
+        for (int i = 0; i < buckets.length && unapplied.signum() > 0; i++) {
+            BigDecimal applied = buckets[i].min(unapplied);
+            buckets[i] = buckets[i].subtract(applied);
+            unapplied = unapplied.subtract(applied);
+        }
 
-        Long daysOverdue= ChronoUnit.DAYS.between(
-                customerledger.getDueDate(),
-                today
-        );
-        AgingReportDTO dto=boilerplateCode(customerId, customerledger.getCustomer().getCustomerName(), customerledger.getBalance());
+        AgingReportDTO dto = new AgingReportDTO();
+        dto.setCustomerId((Long) row[0]);
+        dto.setCustomerCode((String) row[1]);
+        dto.setCustomerName((String) row[2]);
+        dto.setDays90Plus(buckets[0]);
+        dto.setDays90(buckets[1]);
+        dto.setDays60(buckets[2]);
+        dto.setDays30(buckets[3]);
+        dto.setCurrentAmount(buckets[4]);
+        dto.setTotalOutstanding(buckets[0].add(buckets[1]).add(buckets[2]).add(buckets[3]).add(buckets[4]));
+        return dto;
+    }
 
-        if(daysOverdue<=30){
-            dto.setDays30(customerledger.getBalance());
-            return dto;
-        }else if(daysOverdue<=60){
-            dto.setDays60(customerledger.getBalance());
-            return dto;
-        }else if (daysOverdue<=90){
-            dto.setDays90(customerledger.getBalance());
-            return dto;
+    private BigDecimal amount(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
         }
-        return dto;
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
     }
 }
@@ -0,0 +1,107 @@
+package lk.epicgreen.erp.accounting.service.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming row reader for bank statement CSV files
+ * Records are parsed one at a time, so only the current line is held in memory regardless of
+ * statement size
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+final class BankStatementFileReader {
+
+    /**
+     * Receives each non-blank row of the file, header included
+     */
+    interface RowHandler {
+        void onRow(long rowNumber, List<String> cells);
+    }
+
+    private BankStatementFileReader() {
+    }
+
+    /**
+     * Read a CSV file (RFC 4180 quoting, UTF-8, optional BOM)
+     */
+    static void readCsv(File file, RowHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') {
+                reader.reset();
+            }
+
+            long rowNumber = 0;
+            List<String> cells;
+            while ((cells = readCsvRecord(reader)) != null) {
+                rowNumber++;
+                if (!isBlank(cells)) {
+                    handler.onRow(rowNumber, cells);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read one CSV record, or null at end of input
+     */
+    private static List<String> readCsvRecord(Reader reader) throws IOException {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean readAny = false;
+
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            readAny = true;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    cell.append((char) ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                cell.append((char) ch);
+            }
+        }
+
+        if (!readAny) {
+            return null;
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        for (String cell : cells) {
+            if (cell != null && !cell.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,622 @@
+package lk.epicgreen.erp.accounting.service.impl;
+
+import lk.epicgreen.erp.accounting.dto.response.BankStatementImportStatusResponse;
+import lk.epicgreen.erp.accounting.dto.response.BankStatementRowError;
+import lk.epicgreen.erp.accounting.entity.BankReconciliation;
+import lk.epicgreen.erp.accounting.entity.BankStatementLine;
+import lk.epicgreen.erp.accounting.repository.BankReconciliationRepository;
+import lk.epicgreen.erp.accounting.repository.BankStatementLineJdbcRepository;
+import lk.epicgreen.erp.accounting.repository.BankStatementLineRepository;
+import lk.epicgreen.erp.accounting.service.BankStatementImportService;
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of BankStatementImportService interface
+ *
+ * The cleared or completed, unreconciled payments from the lookback period before the statement
+ * date are loaded once and indexed in memory (BankStatementMatcher). The statement file is then
+ * streamed line by line, each line probing the indexes, and results are written back per batch
+ * in one transaction: each matched payment is reconciled with a conditional update and the
+ * lines are stored with a JDBC batch insert. Memory use is bounded by the payment
+ * indexes plus one batch of lines.
+ *
+ * Imports run one at a time on a single worker, so two statements cannot claim the same
+ * payment on one node; the update only reconciles payments that are still unreconciled, and a
+ * line whose payment was reconciled elsewhere meanwhile is stored unmatched.
+ * The first batch locks the reconciliation row and fails if another import has already written
+ * lines, so concurrent uploads (also from other nodes) leave exactly one statement. Lines carry
+ * their import id: an import that fails or is cut off by shutdown deletes its lines and clears
+ * the reconciliation date of the payments they matched, and discardStatement does the same for
+ * a statement left behind by a crash.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class BankStatementImportServiceImpl implements BankStatementImportService {
+
+    private static final String STATUS_QUEUED = "QUEUED";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * Finished imports are kept for status polling for this long
+     */
+    private static final Duration FINISHED_RETENTION = Duration.ofHours(1);
+
+    /**
+     * Time a running import gets on shutdown to roll back its committed batches
+     */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String COLUMN_DATE = "date";
+    private static final String COLUMN_DESCRIPTION = "description";
+    private static final String COLUMN_REFERENCE = "reference";
+    private static final String COLUMN_AMOUNT = "amount";
+    private static final String COLUMN_CREDIT = "credit";
+    private static final String COLUMN_DEBIT = "debit";
+
+    /**
+     * Statement columns keyed by normalized header (lower case, letters and digits only)
+     */
+    private static final Map<String, String> COLUMNS = new HashMap<>();
+
+    static {
+        for (String header : new String[] {"date", "transactiondate", "txndate", "valuedate", "postingdate", "bookingdate"}) {
+            COLUMNS.put(header, COLUMN_DATE);
+        }
+        for (String header : new String[] {"description", "narration", "details", "particulars", "memo"}) {
+            COLUMNS.put(header, COLUMN_DESCRIPTION);
+        }
+        for (String header : new String[] {"reference", "ref", "referenceno", "referencenumber", "chequeno",
+                                           "chequenumber", "checkno", "checknumber"}) {
+            COLUMNS.put(header, COLUMN_REFERENCE);
+        }
+        COLUMNS.put("amount", COLUMN_AMOUNT);
+        for (String header : new String[] {"credit", "credits", "creditamount", "deposit", "deposits", "moneyin"}) {
+            COLUMNS.put(header, COLUMN_CREDIT);
+        }
+        for (String header : new String[] {"debit", "debits", "debitamount", "withdrawal", "withdrawals", "moneyout"}) {
+            COLUMNS.put(header, COLUMN_DEBIT);
+        }
+    }
+
+    private final BankReconciliationRepository reconciliationRepository;
+    private final BankStatementLineRepository statementLineRepository;
+    private final BankStatementLineJdbcRepository statementLineJdbcRepository;
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+    private final DateTimeFormatter dateFormat;
+    private final BigDecimal amountTolerance;
+    private final int dateWindowDays;
+    private final int lookbackDays;
+
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bank-statement-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    public BankStatementImportServiceImpl(BankReconciliationRepository reconciliationRepository,
+                                          BankStatementLineRepository statementLineRepository,
+                                          BankStatementLineJdbcRepository statementLineJdbcRepository,
+                                          PaymentRepository paymentRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${application.accounting.bank-statement-batch-size:1000}") int batchSize,
+                                          @Value("${application.accounting.bank-statement-max-errors:1000}") int maxErrors,
+                                          @Value("${application.accounting.bank-statement-date-format:yyyy-MM-dd}") String dateFormat,
+                                          @Value("${application.accounting.bank-match-amount-tolerance:0.00}") BigDecimal amountTolerance,
+                                          @Value("${application.accounting.bank-match-date-window-days:3}") int dateWindowDays,
+                                          @Value("${application.accounting.bank-match-lookback-days:366}") int lookbackDays) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.statementLineRepository = statementLineRepository;
+        this.statementLineJdbcRepository = statementLineJdbcRepository;
+        this.paymentRepository = paymentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = maxErrors;
+        this.dateFormat = DateTimeFormatter.ofPattern(dateFormat);
+        this.amountTolerance = amountTolerance;
+        this.dateWindowDays = Math.max(0, dateWindowDays);
+        this.lookbackDays = Math.max(0, lookbackDays);
+    }
+
+    @Override
+    public BankStatementImportStatusResponse startImport(Long reconciliationId, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidOperationException("Statement file is empty");
+        }
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload";
+        if (!fileName.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            throw new InvalidOperationException("Unsupported statement file type: " + fileName + ". Use CSV.");
+        }
+
+        BankReconciliation reconciliation = reconciliationRepository.findById(reconciliationId)
+            .orElseThrow(() -> new ResourceNotFoundException("Bank Reconciliation not found: " + reconciliationId));
+        if (reconciliation.isCompleted()) {
+            throw new InvalidOperationException("Cannot import a statement into a completed reconciliation.");
+        }
+        if (statementLineRepository.existsByReconciliationId(reconciliationId)) {
+            throw new InvalidOperationException(
+                "A bank statement has already been imported for reconciliation " + reconciliation.getReconciliationNumber());
+        }
+
+        purgeFinishedJobs();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), reconciliationId, fileName);
+        synchronized (jobs) {
+            if (isImportActive(reconciliationId)) {
+                throw new InvalidOperationException(
+                    "A bank statement import is already running for reconciliation " + reconciliation.getReconciliationNumber());
+            }
+            jobs.put(job.importId, job);
+        }
+
+        // The multipart upload is removed when the request completes, so keep a private copy
+        File copy;
+        try {
+            copy = Files.createTempFile("bank-statement-", ".csv").toFile();
+            file.transferTo(copy);
+        } catch (IOException e) {
+            jobs.remove(job.importId);
+            throw new InvalidOperationException("Unable to store statement file: " + e.getMessage(), e);
+        }
+
+        log.info("Bank statement import {} queued for reconciliation {} from file: {}",
+            job.importId, reconciliation.getReconciliationNumber(), fileName);
+
+        LocalDate statementDate = reconciliation.getStatementDate();
+        importExecutor.execute(() -> runImport(job, statementDate, copy));
+        return job.toResponse();
+    }
+
+    @Override
+    public BankStatementImportStatusResponse getImportStatus(String importId) {
+        ImportJob job = jobs.get(importId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bank statement import not found: " + importId);
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public Page<BankStatementLine> getStatementLines(Long reconciliationId, String matchStatus, Pageable pageable) {
+        if (matchStatus == null) {
+            return statementLineRepository.findByReconciliationIdOrderByLineNumber(reconciliationId, pageable);
+        }
+        return statementLineRepository.findByReconciliationIdAndMatchStatusOrderByLineNumber(
+            reconciliationId, matchStatus.toUpperCase(Locale.ROOT), pageable);
+    }
+
+    @Override
+    public int discardStatement(Long reconciliationId) {
+        BankReconciliation reconciliation = reconciliationRepository.findById(reconciliationId)
+            .orElseThrow(() -> new ResourceNotFoundException("Bank Reconciliation not found: " + reconciliationId));
+        if (reconciliation.isCompleted()) {
+            throw new InvalidOperationException("Cannot discard the statement of a completed reconciliation.");
+        }
+        if (isImportActive(reconciliationId)) {
+            throw new InvalidOperationException(
+                "A bank statement import is still running for reconciliation " + reconciliation.getReconciliationNumber());
+        }
+
+        int removed = 0;
+        for (String importId : statementLineRepository.findImportIdsByReconciliationId(reconciliationId)) {
+            removed += rollbackImport(importId);
+        }
+        log.info("Discarded {} bank statement lines of reconciliation {}", removed, reconciliation.getReconciliationNumber());
+        return removed;
+    }
+
+    /**
+     * Stop the running import at its next line and give it time to roll back before the
+     * connection pool closes
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        importExecutor.shutdownNow();
+        try {
+            if (!importExecutor.awaitTermination(SHUTDOWN_TIMEOUT.getSeconds(), TimeUnit.SECONDS)) {
+                log.warn("Bank statement import did not stop within {}; discard its lines once restarted", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private void runImport(ImportJob job, LocalDate statementDate, File file) {
+        job.status = STATUS_RUNNING;
+        long started = System.nanoTime();
+        log.info("Bank statement import {} started", job.importId);
+
+        try {
+            // Another upload may have finished in the meantime
+            if (statementLineRepository.existsByReconciliationId(job.reconciliationId)) {
+                throw new InvalidOperationException("A bank statement has already been imported for this reconciliation");
+            }
+
+            LocalDate fromDate = statementDate.minusDays((long) lookbackDays + dateWindowDays);
+            LocalDate toDate = statementDate.plusDays(dateWindowDays);
+            List<Object[]> candidates = readOnlyTransactionTemplate.execute(status ->
+                paymentRepository.findReconciliationCandidates(fromDate, toDate));
+            BankStatementMatcher matcher = BankStatementMatcher.build(candidates, amountTolerance, dateWindowDays);
+            job.candidatePayments = matcher.getCandidateCount();
+            log.debug("Bank statement import {} indexed {} unreconciled payments from {} to {}",
+                job.importId, matcher.getCandidateCount(), fromDate, toDate);
+
+            transactionTemplate.execute(status -> reconciliationRepository.markInProgressIfDraft(job.reconciliationId));
+
+            ImportRun run = new ImportRun(job, matcher);
+            BankStatementFileReader.readCsv(file, run::onRow);
+            if (run.columns == null) {
+                throw new InvalidOperationException("Statement file has no header row");
+            }
+            flush(run);
+
+            job.status = STATUS_COMPLETED;
+            log.info("Bank statement import {} completed: {} lines processed, {} matched, {} unmatched, {} failed in {} ms",
+                job.importId, job.processedLines.get(), job.matchedLines.get(), job.unmatchedLines.get(),
+                job.failedLines.get(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            job.failureReason = e.getMessage();
+            log.error("Bank statement import {} failed after {} lines", job.importId, job.processedLines.get(), e);
+            try {
+                int removed = rollbackImport(job.importId);
+                log.info("Bank statement import {} rolled back: {} lines removed", job.importId, removed);
+            } catch (Exception rollbackFailure) {
+                job.failureReason = e.getMessage() + "; rollback failed, discard the statement before importing again";
+                log.error("Bank statement import {} could not be rolled back", job.importId, rollbackFailure);
+            }
+            job.status = STATUS_FAILED;
+        } finally {
+            job.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            job.finishedAt = LocalDateTime.now();
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    private void processRow(ImportRun run, long rowNumber, List<String> cells) {
+        String reference = truncate(cell(run, cells, COLUMN_REFERENCE), 100);
+        String description = truncate(cell(run, cells, COLUMN_DESCRIPTION), 500);
+
+        String dateValue = cell(run, cells, COLUMN_DATE);
+        if (dateValue == null) {
+            run.job.reject(rowNumber, reference, "Date is required", maxErrors);
+            return;
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(dateValue, dateFormat);
+        } catch (DateTimeParseException e) {
+            run.job.reject(rowNumber, reference, "Invalid date '" + dateValue + "'", maxErrors);
+            return;
+        }
+
+        BigDecimal amount;
+        try {
+            amount = lineAmount(run, cells);
+        } catch (NumberFormatException e) {
+            run.job.reject(rowNumber, reference, "Invalid amount", maxErrors);
+            return;
+        }
+        if (amount == null) {
+            run.job.reject(rowNumber, reference, "Amount is required", maxErrors);
+            return;
+        }
+
+        BankStatementMatcher.Match match = run.matcher.match(date, amount, reference, description);
+        BankStatementLine line = BankStatementLine.builder()
+            .reconciliationId(run.job.reconciliationId)
+            .importId(run.job.importId)
+            .lineNumber(rowNumber)
+            .transactionDate(date)
+            .description(description)
+            .reference(reference)
+            .amount(amount)
+            .matchStatus(match != null ? BankStatementLine.STATUS_MATCHED : BankStatementLine.STATUS_UNMATCHED)
+            .matchRule(match != null ? match.getRule() : null)
+            .paymentId(match != null ? match.getPaymentId() : null)
+            .chequeId(match != null ? match.getChequeId() : null)
+            .createdAt(run.importedAt)
+            .build();
+        if (match != null) {
+            run.job.matchedLines.incrementAndGet();
+            run.job.matchedAmount = run.job.matchedAmount.add(amount);
+        } else {
+            run.job.unmatchedLines.incrementAndGet();
+        }
+
+        run.batch.add(line);
+        if (run.batch.size() >= batchSize) {
+            flush(run);
+        }
+    }
+
+    private void flush(ImportRun run) {
+        if (run.batch.isEmpty()) {
+            return;
+        }
+        boolean firstBatch = !run.written;
+        transactionTemplate.execute(status -> {
+            if (firstBatch) {
+                reconciliationRepository.lockForStatementImport(run.job.reconciliationId);
+                if (statementLineRepository.existsByReconciliationIdAndImportIdNot(run.job.reconciliationId, run.job.importId)) {
+                    throw new InvalidOperationException("Another bank statement was imported into this reconciliation meanwhile");
+                }
+            }
+            int lost = 0;
+            for (BankStatementLine line : run.batch) {
+                if (line.getPaymentId() != null
+                        && paymentRepository.markReconciled(line.getPaymentId(), line.getTransactionDate()) == 0) {
+                    // Reconciled elsewhere since the payments were loaded, so this line did not reconcile it
+                    unmatch(run, line);
+                    lost++;
+                }
+            }
+            if (lost > 0) {
+                log.warn("Bank statement import {}: {} matched payments were already reconciled; their lines are stored unmatched",
+                    run.job.importId, lost);
+            }
+            return statementLineJdbcRepository.batchInsert(run.batch);
+        });
+        run.written = true;
+        log.debug("Bank statement import {} progress: {} lines processed, {} matched",
+            run.job.importId, run.job.processedLines.get(), run.job.matchedLines.get());
+        run.batch.clear();
+    }
+
+    private static void unmatch(ImportRun run, BankStatementLine line) {
+        line.setMatchStatus(BankStatementLine.STATUS_UNMATCHED);
+        line.setMatchRule(null);
+        line.setPaymentId(null);
+        line.setChequeId(null);
+        run.job.matchedLines.decrementAndGet();
+        run.job.unmatchedLines.incrementAndGet();
+        run.job.matchedAmount = run.job.matchedAmount.subtract(line.getAmount());
+    }
+
+    /**
+     * Signed line amount: the amount column when present, otherwise credit minus debit
+     */
+    private static BigDecimal lineAmount(ImportRun run, List<String> cells) {
+        String amount = cell(run, cells, COLUMN_AMOUNT);
+        if (amount != null) {
+            return parseAmount(amount);
+        }
+        String credit = cell(run, cells, COLUMN_CREDIT);
+        String debit = cell(run, cells, COLUMN_DEBIT);
+        if (credit == null && debit == null) {
+            return null;
+        }
+        BigDecimal value = credit != null ? parseAmount(credit) : BigDecimal.ZERO;
+        return debit != null ? value.subtract(parseAmount(debit).abs()) : value;
+    }
+
+    /**
+     * Parse an amount with optional thousands separators; (100.00) is negative
+     */
+    private static BigDecimal parseAmount(String value) {
+        String text = value.replace(",", "").replace(" ", "");
+        if (text.startsWith("(") && text.endsWith(")")) {
+            return new BigDecimal(text.substring(1, text.length() - 1)).negate();
+        }
+        return new BigDecimal(text);
+    }
+
+    private static String cell(ImportRun run, List<String> cells, String column) {
+        Integer index = run.columns.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        return trimToNull(cells.get(index));
+    }
+
+    /**
+     * Delete the lines of an import and clear the reconciliation date it set on the matched
+     * payments (only where the date is still the one the import set)
+     */
+    private int rollbackImport(String importId) {
+        return transactionTemplate.execute(status -> {
+            Map<LocalDate, List<Long>> paymentIdsByDate = new HashMap<>();
+            for (Object[] row : statementLineRepository.findMatchedPaymentsByImportId(importId)) {
+                paymentIdsByDate.computeIfAbsent((LocalDate) row[1], date -> new ArrayList<>()).add((Long) row[0]);
+            }
+            for (Map.Entry<LocalDate, List<Long>> entry : paymentIdsByDate.entrySet()) {
+                paymentRepository.clearReconciliation(entry.getValue(), entry.getKey());
+            }
+            return statementLineRepository.deleteByImportId(importId);
+        });
+    }
+
+    private boolean isImportActive(Long reconciliationId) {
+        for (ImportJob job : jobs.values()) {
+            if (job.reconciliationId.equals(reconciliationId) && job.finishedAt == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(FINISHED_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static String normalizeHeader(String header) {
+        return header == null ? "" : header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * State of a single pass over a statement file
+     */
+    private final class ImportRun {
+
+        private final ImportJob job;
+        private final BankStatementMatcher matcher;
+        private final LocalDateTime importedAt = LocalDateTime.now();
+        private final List<BankStatementLine> batch = new ArrayList<>(batchSize);
+
+        /**
+         * Statement column to column index, for recognised columns only (first one wins)
+         */
+        private Map<String, Integer> columns;
+
+        /**
+         * Whether a batch has been committed (the first one checks for other imports)
+         */
+        private boolean written;
+
+        private ImportRun(ImportJob job, BankStatementMatcher matcher) {
+            this.job = job;
+            this.matcher = matcher;
+        }
+
+        private void onRow(long rowNumber, List<String> cells) {
+            if (shuttingDown) {
+                throw new InvalidOperationException("Import interrupted by application shutdown");
+            }
+            if (columns == null) {
+                readHeader(cells);
+                return;
+            }
+            job.processedLines.incrementAndGet();
+            processRow(this, rowNumber, cells);
+        }
+
+        private void readHeader(List<String> cells) {
+            columns = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                String column = COLUMNS.get(normalizeHeader(cells.get(i)));
+                if (column != null) {
+                    columns.putIfAbsent(column, i);
+                }
+            }
+            if (!columns.containsKey(COLUMN_DATE)) {
+                throw new InvalidOperationException("Statement file is missing the date column");
+            }
+            if (!columns.containsKey(COLUMN_AMOUNT) && !columns.containsKey(COLUMN_CREDIT)) {
+                throw new InvalidOperationException("Statement file needs an amount column or credit and debit columns");
+            }
+        }
+    }
+
+    /**
+     * Progress of an import, shared between the import thread and status requests
+     */
+    private static final class ImportJob {
+
+        private final String importId;
+        private final Long reconciliationId;
+        private final String fileName;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processedLines = new AtomicLong();
+        private final AtomicLong matchedLines = new AtomicLong();
+        private final AtomicLong unmatchedLines = new AtomicLong();
+        private final AtomicLong failedLines = new AtomicLong();
+        private final List<BankStatementRowError> errors = new ArrayList<>();
+        private volatile long candidatePayments;
+        private volatile BigDecimal matchedAmount = BigDecimal.ZERO;
+        private volatile String status = STATUS_QUEUED;
+        private volatile String failureReason;
+        private volatile LocalDateTime finishedAt;
+        private volatile Long elapsedMillis;
+
+        private ImportJob(String importId, Long reconciliationId, String fileName) {
+            this.importId = importId;
+            this.reconciliationId = reconciliationId;
+            this.fileName = fileName;
+        }
+
+        private void reject(long rowNumber, String reference, String message, int maxErrors) {
+            failedLines.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new BankStatementRowError(rowNumber, reference, message));
+                }
+            }
+        }
+
+        private BankStatementImportStatusResponse toResponse() {
+            List<BankStatementRowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new ArrayList<>(errors);
+            }
+            return BankStatementImportStatusResponse.builder()
+                .importId(importId)
+                .reconciliationId(reconciliationId)
+                .fileName(fileName)
+                .status(status)
+                .candidatePayments(candidatePayments)
+                .processedLines(processedLines.get())
+                .matchedLines(matchedLines.get())
+                .unmatchedLines(unmatchedLines.get())
+                .failedLines(failedLines.get())
+                .matchedAmount(matchedAmount)
+                .errors(errorsCopy)
+                .failureReason(failureReason)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .elapsedMillis(elapsedMillis)
+                .build();
+        }
+    }
+}
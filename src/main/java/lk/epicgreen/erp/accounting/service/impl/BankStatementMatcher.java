@@ -0,0 +1,267 @@
+package lk.epicgreen.erp.accounting.service.impl;
+
+import lk.epicgreen.erp.accounting.entity.BankStatementLine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hash join of bank statement lines against cleared or completed, unreconciled payments
+ *
+ * Payments are the build side: they are indexed once by normalized reference (payment number,
+ * bank reference number and cheque numbers) and by amount bucket and day. Each statement line
+ * then probes the reference index with its reference and the words of its description, and
+ * falls back to the amount index over the configured date window, so the cost per line does
+ * not depend on the number of payments. A payment is matched at most once; among several
+ * candidates the one closest in date wins, then the one closest in amount, then the oldest.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+final class BankStatementMatcher {
+
+    /**
+     * Composite key of amount bucket and epoch day (epoch days stay far below this)
+     */
+    private static final long DAY_SPAN = 1_000_000L;
+
+    /**
+     * Description words shorter than this are too likely to match by accident
+     */
+    private static final int MIN_DESCRIPTION_WORD_LENGTH = 4;
+
+    private final long toleranceCents;
+    private final long bucketWidth;
+    private final int dateWindowDays;
+    private final Map<String, List<Reference>> byReference;
+    private final Map<Long, List<Candidate>> byAmountAndDay = new HashMap<>();
+    private final int candidateCount;
+
+    private BankStatementMatcher(BigDecimal amountTolerance, int dateWindowDays, Collection<Candidate> candidates,
+                                 Map<String, List<Reference>> byReference) {
+        this.toleranceCents = toCents(amountTolerance.abs());
+        this.bucketWidth = Math.max(1L, toleranceCents);
+        this.dateWindowDays = Math.max(0, dateWindowDays);
+        this.byReference = byReference;
+        this.candidateCount = candidates.size();
+        for (Candidate candidate : candidates) {
+            byAmountAndDay.computeIfAbsent(amountDayKey(bucket(candidate.amountCents), candidate.day), key -> new ArrayList<>(1))
+                .add(candidate);
+        }
+    }
+
+    /**
+     * Build the indexes from PaymentRepository.findReconciliationCandidates rows
+     */
+    static BankStatementMatcher build(List<Object[]> rows, BigDecimal amountTolerance, int dateWindowDays) {
+        Map<Long, Candidate> candidates = new HashMap<>(Math.max(16, rows.size() * 2));
+        Map<String, List<Reference>> references = new HashMap<>();
+        for (Object[] row : rows) {
+            Long paymentId = (Long) row[0];
+            Candidate candidate = candidates.get(paymentId);
+            if (candidate == null) {
+                LocalDate clearedOn = row[3] != null ? (LocalDate) row[3] : (LocalDate) row[2];
+                candidate = new Candidate(paymentId, clearedOn.toEpochDay(), toCents((BigDecimal) row[4]));
+                candidates.put(paymentId, candidate);
+                addReference(references, (String) row[1], candidate, null);
+                addReference(references, (String) row[5], candidate, null);
+                addReference(references, (String) row[6], candidate, null);
+            }
+            if (row[7] != null) {
+                addReference(references, (String) row[8], candidate, (Long) row[7]);
+            }
+        }
+
+        return new BankStatementMatcher(amountTolerance, dateWindowDays, candidates.values(), references);
+    }
+
+    int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Match one statement line and claim the payment, or return null when nothing fits.
+     * Only deposits (positive amounts) can match a payment received.
+     */
+    Match match(LocalDate date, BigDecimal amount, String reference, String description) {
+        if (amount.signum() <= 0) {
+            return null;
+        }
+        long cents = toCents(amount);
+        long day = date.toEpochDay();
+
+        Match match = matchReference(normalizeReference(reference), cents, day);
+        if (match == null && description != null) {
+            for (String word : description.split("[^A-Za-z0-9]+")) {
+                if (word.length() >= MIN_DESCRIPTION_WORD_LENGTH) {
+                    match = matchReference(normalizeReference(word), cents, day);
+                    if (match != null) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (match == null) {
+            match = matchAmountAndDate(cents, day);
+        }
+        if (match != null) {
+            match.candidate.matched = true;
+        }
+        return match;
+    }
+
+    private Match matchReference(String key, long cents, long day) {
+        if (key == null) {
+            return null;
+        }
+        List<Reference> references = byReference.get(key);
+        if (references == null) {
+            return null;
+        }
+        Reference best = null;
+        for (Reference reference : references) {
+            Candidate candidate = reference.candidate;
+            if (!candidate.matched && Math.abs(candidate.amountCents - cents) <= toleranceCents
+                    && (best == null || isBetter(candidate, best.candidate, cents, day))) {
+                best = reference;
+            }
+        }
+        return best != null ? new Match(best.candidate, best.chequeId, BankStatementLine.RULE_REFERENCE) : null;
+    }
+
+    private Match matchAmountAndDate(long cents, long day) {
+        long bucket = bucket(cents);
+        Candidate best = null;
+        for (long b = bucket - 1; b <= bucket + 1; b++) {
+            for (long d = day - dateWindowDays; d <= day + dateWindowDays; d++) {
+                List<Candidate> candidates = byAmountAndDay.get(amountDayKey(b, d));
+                if (candidates == null) {
+                    continue;
+                }
+                for (Candidate candidate : candidates) {
+                    if (!candidate.matched && Math.abs(candidate.amountCents - cents) <= toleranceCents
+                            && (best == null || isBetter(candidate, best, cents, day))) {
+                        best = candidate;
+                    }
+                }
+            }
+        }
+        return best != null ? new Match(best, null, BankStatementLine.RULE_AMOUNT_DATE) : null;
+    }
+
+    private long bucket(long cents) {
+        return Math.floorDiv(cents, bucketWidth);
+    }
+
+    private static boolean isBetter(Candidate candidate, Candidate best, long cents, long day) {
+        long dayDiff = Math.abs(candidate.day - day) - Math.abs(best.day - day);
+        if (dayDiff != 0) {
+            return dayDiff < 0;
+        }
+        long amountDiff = Math.abs(candidate.amountCents - cents) - Math.abs(best.amountCents - cents);
+        if (amountDiff != 0) {
+            return amountDiff < 0;
+        }
+        return candidate.paymentId < best.paymentId;
+    }
+
+    private static long amountDayKey(long bucket, long day) {
+        return bucket * DAY_SPAN + day;
+    }
+
+    private static void addReference(Map<String, List<Reference>> references, String value, Candidate candidate, Long chequeId) {
+        String key = normalizeReference(value);
+        if (key == null) {
+            return;
+        }
+        List<Reference> list = references.computeIfAbsent(key, k -> new ArrayList<>(1));
+        for (Reference reference : list) {
+            if (reference.candidate == candidate) {
+                if (reference.chequeId == null && chequeId != null) {
+                    reference.chequeId = chequeId;
+                }
+                return;
+            }
+        }
+        list.add(new Reference(candidate, chequeId));
+    }
+
+    /**
+     * Upper case letters and digits only; leading zeros of numeric references are dropped,
+     * as banks often pad cheque numbers
+     */
+    static String normalizeReference(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = value.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+        if (!key.isEmpty() && key.chars().allMatch(Character::isDigit)) {
+            key = key.replaceFirst("^0+(?=.)", "");
+        }
+        return key.isEmpty() ? null : key;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Payment that may appear on the statement
+     */
+    private static final class Candidate {
+        private final Long paymentId;
+        private final long day;
+        private final long amountCents;
+        private boolean matched;
+
+        private Candidate(Long paymentId, long day, long amountCents) {
+            this.paymentId = paymentId;
+            this.day = day;
+            this.amountCents = amountCents;
+        }
+    }
+
+    private static final class Reference {
+        private final Candidate candidate;
+        private Long chequeId;
+
+        private Reference(Candidate candidate, Long chequeId) {
+            this.candidate = candidate;
+            this.chequeId = chequeId;
+        }
+    }
+
+    /**
+     * Payment (and cheque, when matched by its number) claimed by a statement line
+     */
+    static final class Match {
+        private final Candidate candidate;
+        private final Long chequeId;
+        private final String rule;
+
+        private Match(Candidate candidate, Long chequeId, String rule) {
+            this.candidate = candidate;
+            this.chequeId = chequeId;
+            this.rule = rule;
+        }
+
+        Long getPaymentId() {
+            return candidate.paymentId;
+        }
+
+        Long getChequeId() {
+            return chequeId;
+        }
+
+        String getRule() {
+            return rule;
+        }
+    }
+}
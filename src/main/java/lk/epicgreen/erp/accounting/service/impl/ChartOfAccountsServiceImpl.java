@@ -28,6 +28,7 @@ public class ChartOfAccountsServiceImpl implements ChartOfAccountsService {
 
     private final ChartOfAccountsRepository accountRepository;
     private final ChartOfAccountsMapper accountMapper;
+    private final AccountTreeCache accountTreeCache;
 
     @Override
     @Transactional
@@ -44,6 +45,7 @@ public class ChartOfAccountsServiceImpl implements ChartOfAccountsService {
         }
 
         ChartOfAccounts savedAccount = accountRepository.save(account);
+        accountTreeCache.invalidateAfterCommit();
         log.info("Account created successfully: {}", savedAccount.getAccountCode());
 
         return accountMapper.toResponse(savedAccount);
@@ -65,6 +67,10 @@ public class ChartOfAccountsServiceImpl implements ChartOfAccountsService {
         if (request.getParentAccountId() != null) {
             if (account.getParentAccount() == null || 
                 !account.getParentAccount().getId().equals(request.getParentAccountId())) {
+                if (accountTreeCache.getTree().isAncestorOrSelf(id, request.getParentAccountId())) {
+                    throw new InvalidOperationException(
+                        "Cannot move account under itself or one of its sub-accounts.");
+                }
                 ChartOfAccounts parent = findAccountById(request.getParentAccountId());
                 account.setParentAccount(parent);
             }
@@ -73,6 +79,7 @@ public class ChartOfAccountsServiceImpl implements ChartOfAccountsService {
         }
 
         ChartOfAccounts updatedAccount = accountRepository.save(account);
+        accountTreeCache.invalidateAfterCommit();
         log.info("Account updated successfully: {}", updatedAccount.getAccountCode());
 
         return accountMapper.toResponse(updatedAccount);
@@ -89,6 +96,7 @@ public class ChartOfAccountsServiceImpl implements ChartOfAccountsService {
         }
 
         accountRepository.deleteById(id);
+        accountTreeCache.invalidateAfterCommit();
         log.info("Account deleted successfully: {}", id);
     }
 
@@ -159,14 +167,12 @@ public class ChartOfAccountsServiceImpl implements ChartOfAccountsService {
 
     @Override
     public boolean canDelete(Long id) {
-        ChartOfAccounts account = findAccountById(id);
-        
-        List<ChartOfAccounts> children = accountRepository.findByParentAccountId(id);
-        if (!children.isEmpty()) {
-            return false;
+        AccountTree tree = accountTreeCache.getTree();
+        if (!tree.contains(id)) {
+            throw new ResourceNotFoundException("Account not found: " + id);
         }
-        
-        return true;
+
+        return !tree.hasChildren(id);
     }
 
     private void validateUniqueAccountCode(String accountCode, Long excludeId) {
@@ -9,6 +9,7 @@ import lk.epicgreen.erp.customer.service.CustomerLedgerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,11 +23,24 @@ public class CustomerStatementService {
 
     public StatementDTO generateStatement(Long customerId, LocalDate fromDate, LocalDate toDate, String username) {
         List<LedgerEntryDTO> transactions = ledgerService.getCustomerLedgerByDateRange(customerId, fromDate, toDate);
+
+        // Opening balance comes from the balance checkpoints; the period movement is already loaded
+        BigDecimal openingBalance = ledgerService.getCustomerBalanceAsOfDate(customerId, fromDate.minusDays(1));
+        BigDecimal totalDebit = BigDecimal.ZERO;
+        BigDecimal totalCredit = BigDecimal.ZERO;
+        for (LedgerEntryDTO transaction : transactions) {
+            totalDebit = totalDebit.add(transaction.getDebitAmount() != null ? transaction.getDebitAmount() : BigDecimal.ZERO);
+            totalCredit = totalCredit.add(transaction.getCreditAmount() != null ? transaction.getCreditAmount() : BigDecimal.ZERO);
+        }
         
         StatementDTO statement = new StatementDTO();
         statement.setCustomerId(customerId);
         statement.setFromDate(fromDate);
         statement.setToDate(toDate);
+        statement.setOpeningBalance(openingBalance);
+        statement.setTotalDebit(totalDebit);
+        statement.setTotalCredit(totalCredit);
+        statement.setClosingBalance(openingBalance.add(totalDebit).subtract(totalCredit));
         statement.setTransactions(transactions);
         return statement;
     }
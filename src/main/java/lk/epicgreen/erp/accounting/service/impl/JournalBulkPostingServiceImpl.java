@@ -0,0 +1,245 @@
+package lk.epicgreen.erp.accounting.service.impl;
+
+import lk.epicgreen.erp.accounting.dto.response.JournalBulkPostingResponse;
+import lk.epicgreen.erp.accounting.dto.response.JournalPostingResultResponse;
+import lk.epicgreen.erp.accounting.entity.JournalEntry;
+import lk.epicgreen.erp.accounting.repository.JournalEntryLineRepository;
+import lk.epicgreen.erp.accounting.service.JournalBulkPostingService;
+import lk.epicgreen.erp.accounting.service.JournalEntryService;
+import lk.epicgreen.erp.admin.entity.User;
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of JournalBulkPostingService interface
+ *
+ * The requested entries are split into groups linked by shared accounts (connected components
+ * over the accounts of their lines). Entries of one group post one after the other on a single
+ * worker; different groups touch disjoint account rows and post concurrently on a fixed pool.
+ * So posting never waits on another worker's account locks, and with the sorted account order
+ * of each posting no lock cycle can form. Largest groups are started first, as they bound the
+ * total time.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class JournalBulkPostingServiceImpl implements JournalBulkPostingService {
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final JournalEntryService journalEntryService;
+    private final JournalEntryLineRepository journalLineRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService workerPool;
+
+    public JournalBulkPostingServiceImpl(JournalEntryService journalEntryService,
+                                         JournalEntryLineRepository journalLineRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${application.accounting.bulk-posting-workers:4}") int workers,
+                                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.journalEntryService = journalEntryService;
+        this.journalLineRepository = journalLineRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.workerPool = Executors.newFixedThreadPool(workerCount(workers, connectionPoolSize), namedThreads("journal-posting"));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JournalBulkPostingResponse postJournalEntries(List<Long> entryIds) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        long started = System.nanoTime();
+        List<Long> journalIds = new ArrayList<>(new LinkedHashSet<>(entryIds));
+        log.info("Bulk posting {} Journal Entries by user: {}", journalIds.size(), user.getFirstName());
+
+        List<List<Long>> groups = groupBySharedAccounts(journalIds, loadAccountIds(journalIds));
+
+        Map<Long, JournalPostingResultResponse> resultsById = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>(groups.size());
+        for (List<Long> group : groups) {
+            futures.add(workerPool.submit(() -> {
+                for (Long journalId : group) {
+                    resultsById.put(journalId, post(journalId, user));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InvalidOperationException("Bulk journal posting was interrupted");
+            } catch (ExecutionException e) {
+                // post() reports failures per entry, so this is a bug in the worker itself
+                throw new IllegalStateException("Bulk journal posting worker failed", e.getCause());
+            }
+        }
+
+        List<JournalPostingResultResponse> results = new ArrayList<>(journalIds.size());
+        int posted = 0;
+        for (Long journalId : journalIds) {
+            JournalPostingResultResponse result = resultsById.get(journalId);
+            results.add(result);
+            if (result.isPosted()) {
+                posted++;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        int largestGroup = groups.isEmpty() ? 0 : groups.get(0).size();
+        double journalsPerSecond = posted * 1000.0 / Math.max(1L, elapsedMillis);
+
+        log.info("Bulk posted {} of {} Journal Entries in {} groups (largest {}) in {} ms, {} per second",
+            posted, journalIds.size(), groups.size(), largestGroup, elapsedMillis, String.format("%.1f", journalsPerSecond));
+
+        return JournalBulkPostingResponse.builder()
+            .requested(journalIds.size())
+            .posted(posted)
+            .failed(journalIds.size() - posted)
+            .groups(groups.size())
+            .largestGroup(largestGroup)
+            .elapsedMillis(elapsedMillis)
+            .journalsPerSecond(journalsPerSecond)
+            .results(results)
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * A posting can hold two pooled connections at once: its own transaction, and the
+     * REQUIRES_NEW one in which AccountPeriodBalanceService creates missing period balance rows.
+     * Workers are capped at half the pool to leave connections for the rest of the application
+     */
+    private static int workerCount(int workers, int connectionPoolSize) {
+        int cap = Math.max(1, connectionPoolSize / 2);
+        if (workers > cap) {
+            log.warn("application.accounting.bulk-posting-workers={} exceeds half the connection pool ({}); using {}",
+                workers, connectionPoolSize, cap);
+            return cap;
+        }
+        return Math.max(1, workers);
+    }
+
+    private JournalPostingResultResponse post(Long journalId, User user) {
+        try {
+            JournalEntry journal = journalEntryService.postJournalEntry(journalId, user);
+            return JournalPostingResultResponse.builder()
+                .journalId(journalId)
+                .journalNumber(journal.getJournalNumber())
+                .posted(true)
+                .build();
+        } catch (RuntimeException e) {
+            log.warn("Bulk posting of Journal Entry {} failed: {}", journalId, e.getMessage());
+            return JournalPostingResultResponse.builder()
+                .journalId(journalId)
+                .posted(false)
+                .error(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())
+                .build();
+        }
+    }
+
+    private Map<Long, Set<Long>> loadAccountIds(List<Long> journalIds) {
+        Map<Long, Set<Long>> accountIdsByJournal = new HashMap<>();
+        for (int from = 0; from < journalIds.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = journalIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, journalIds.size()));
+            List<Object[]> rows = readOnlyTransactionTemplate.execute(status ->
+                journalLineRepository.findAccountIdsByJournalIdIn(chunk));
+            for (Object[] row : rows) {
+                accountIdsByJournal.computeIfAbsent((Long) row[0], journalId -> new LinkedHashSet<>()).add((Long) row[1]);
+            }
+        }
+        return accountIdsByJournal;
+    }
+
+    /**
+     * Split journals into groups that share no account, each group in request order and the
+     * largest group first. Journals without lines (or not found) form groups of their own.
+     */
+    private static List<List<Long>> groupBySharedAccounts(List<Long> journalIds, Map<Long, Set<Long>> accountIdsByJournal) {
+        // Union-find over account ids: accounts used by one journal end up with the same root
+        Map<Long, Long> parents = new HashMap<>();
+        for (Set<Long> accountIds : accountIdsByJournal.values()) {
+            Long first = null;
+            for (Long accountId : accountIds) {
+                Long root = root(parents, accountId);
+                if (first == null) {
+                    first = root;
+                } else if (!root.equals(first)) {
+                    parents.put(root, first);
+                }
+            }
+        }
+
+        Map<Long, List<Long>> groupsByRoot = new LinkedHashMap<>();
+        List<List<Long>> groups = new ArrayList<>();
+        for (Long journalId : journalIds) {
+            Set<Long> accountIds = accountIdsByJournal.getOrDefault(journalId, Collections.emptySet());
+            if (accountIds.isEmpty()) {
+                groups.add(Collections.singletonList(journalId));
+            } else {
+                groupsByRoot.computeIfAbsent(root(parents, accountIds.iterator().next()), root -> new ArrayList<>())
+                    .add(journalId);
+            }
+        }
+        groups.addAll(groupsByRoot.values());
+        groups.sort((left, right) -> Integer.compare(right.size(), left.size()));
+        return groups;
+    }
+
+    private static Long root(Map<Long, Long> parents, Long accountId) {
+        Long root = accountId;
+        Long parent;
+        while ((parent = parents.putIfAbsent(root, root)) != null && !parent.equals(root)) {
+            root = parent;
+        }
+        // Point the whole path at the root, so later lookups are short
+        Long node = accountId;
+        while (!node.equals(root)) {
+            Long next = parents.put(node, root);
+            node = next;
+        }
+        return root;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
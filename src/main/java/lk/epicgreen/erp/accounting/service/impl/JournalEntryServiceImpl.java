@@ -7,19 +7,24 @@ import lk.epicgreen.erp.accounting.entity.*;
 import lk.epicgreen.erp.accounting.mapper.JournalEntryMapper;
 import lk.epicgreen.erp.accounting.mapper.JournalEntryLineMapper;
 import lk.epicgreen.erp.accounting.repository.*;
+import lk.epicgreen.erp.accounting.service.AccountPeriodBalanceService;
 import lk.epicgreen.erp.accounting.service.JournalEntryService;
 import lk.epicgreen.erp.admin.entity.User;
+import lk.epicgreen.erp.admin.service.DocumentNumberService;
 import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.exception.DuplicateResourceException;
 import lk.epicgreen.erp.common.exception.InvalidOperationException;
 import lk.epicgreen.erp.common.dto.PageResponse;
+import lk.epicgreen.erp.common.retry.OptimisticRetryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
@@ -39,16 +44,24 @@ public class JournalEntryServiceImpl implements JournalEntryService {
     private final JournalEntryLineRepository journalLineRepository;
     private final FinancialPeriodRepository periodRepository;
     private final ChartOfAccountsRepository accountRepository;
-    private final GeneralLedgerRepository generalLedgerRepository;
+    private final GeneralLedgerJdbcRepository generalLedgerJdbcRepository;
+    private final AccountPeriodBalanceService accountPeriodBalanceService;
     private final JournalEntryMapper journalMapper;
     private final JournalEntryLineMapper lineMapper;
+    private final DocumentNumberService documentNumberService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
 
     @Override
     @Transactional
     public JournalEntryResponse createJournalEntry(JournalEntryRequest request) {
+        if (!StringUtils.hasText(request.getJournalNumber())) {
+            request.setJournalNumber(documentNumberService.nextNumber(DocumentNumberService.JOURNAL_ENTRY));
+        } else {
+            documentNumberService.registerClientNumber(DocumentNumberService.JOURNAL_ENTRY, request.getJournalNumber());
+            validateUniqueJournalNumber(request.getJournalNumber(), null);
+        }
         log.info("Creating new Journal Entry: {}", request.getJournalNumber());
 
-        validateUniqueJournalNumber(request.getJournalNumber(), null);
         validateBalancedEntry(request.getTotalDebit(), request.getTotalCredit());
 
         FinancialPeriod period = findPeriodById(request.getPeriodId());
@@ -88,7 +101,11 @@ public class JournalEntryServiceImpl implements JournalEntryService {
                 ". Only DRAFT entries can be updated.");
         }
 
+        if (!StringUtils.hasText(request.getJournalNumber())) {
+            request.setJournalNumber(journal.getJournalNumber());
+        }
         if (!journal.getJournalNumber().equals(request.getJournalNumber())) {
+            documentNumberService.registerClientNumber(DocumentNumberService.JOURNAL_ENTRY, request.getJournalNumber());
             validateUniqueJournalNumber(request.getJournalNumber(), id);
         }
 
@@ -124,48 +141,53 @@ public class JournalEntryServiceImpl implements JournalEntryService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public JournalEntry postJournalEntry(Long id) {
         User user= (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        log.info("Posting Journal Entry: {} by user: {}", id, user.getFirstName());
-
-        JournalEntry journal = findJournalEntryById(id);
-
-        if (!"DRAFT".equals(journal.getStatus())) {
-            throw new InvalidOperationException(
-                "Cannot post Journal Entry. Current status: " + journal.getStatus() + 
-                ". Only DRAFT entries can be posted.");
-        }
+        return postJournalEntry(id, user);
+    }
 
-        journal.setStatus("POSTED");
-        journal.setPostedBy(user);
-        journal.setPostedAt(LocalDateTime.now());
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JournalEntry postJournalEntry(Long id, User user) {
+        log.info("Posting Journal Entry: {} by user: {}", id, user.getFirstName());
 
-        // Create General Ledger entries and update account balances
-        for (JournalEntryLine line : journal.getLines()) {
-            // Create GL entry
-            GeneralLedger glEntry = GeneralLedger.builder()
-                .transactionDate(journal.getJournalDate())
-                .period(journal.getPeriod())
-                .account(line.getAccount())
-                .journal(journal)
-                .journalLine(line)
-                .description(line.getDescription())
-                .debitAmount(line.getDebitAmount())
-                .creditAmount(line.getCreditAmount())
-                .balance(calculateNewBalance(line.getAccount(), line.getDebitAmount(), line.getCreditAmount()))
-                .sourceType(journal.getSourceType())
-                .sourceId(journal.getSourceId())
-                .build();
-            generalLedgerRepository.save(glEntry);
+        // Balances are applied with relative updates, so concurrent postings no longer conflict on them
+        JournalEntry posted = optimisticRetryExecutor.execute("journal.post", () -> {
+            JournalEntry journal = findJournalEntryById(id);
 
-            // Update account current balance
-            updateAccountBalance(line.getAccount(), line.getDebitAmount(), line.getCreditAmount());
-        }
+            if (!"DRAFT".equals(journal.getStatus())) {
+                throw new InvalidOperationException(
+                    "Cannot post Journal Entry. Current status: " + journal.getStatus() + 
+                    ". Only DRAFT entries can be posted.");
+            }
+            if (!journal.isBalanced()) {
+                throw new InvalidOperationException(
+                    "Cannot post Journal Entry " + id + ". It is not balanced. Difference: " + journal.getDifference());
+            }
+            if (journal.getPeriod() == null) {
+                throw new InvalidOperationException("Cannot post Journal Entry " + id + ". It has no financial period.");
+            }
+            if (!journal.getPeriod().canPost()) {
+                throw new InvalidOperationException(
+                    "Cannot post Journal Entry " + id + ". Its financial period is closed or in the future.");
+            }
 
-        journalRepository.save(journal);
+            LocalDateTime postedAt = LocalDateTime.now();
+            if (journalRepository.markPostedIfDraft(id, user, postedAt) == 0) {
+                throw new InvalidOperationException(
+                    "Cannot post Journal Entry " + id + ". It was posted or changed concurrently.");
+            }
+            journal.setStatus("POSTED");
+            journal.setPostedBy(user);
+            journal.setPostedAt(postedAt);
+
+            // Create General Ledger entries and update account balances
+            postToLedger(journal);
+            return journal;
+        });
         log.info("Journal Entry posted successfully: {}", id);
-        return journal;
+        return posted;
     }
 
     public JournalEntry unpostJournalEntry(Long id){
@@ -385,23 +407,6 @@ public class JournalEntryServiceImpl implements JournalEntryService {
 
 
 
-    }
-
-    public int postBulkJournalEntries(List<Long> entryIds){
-        User currentUser= (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<JournalEntry> entries=journalRepository.findAllById(entryIds);
-        int postedCount=0;
-
-        for(JournalEntry entry:entries){
-            if(entry.canPost()){
-
-                entry.post(currentUser);
-                postedCount++;
-            }
-        }
-
-        journalRepository.saveAll(entries);
-        return postedCount;
     }
 
     public Map<String,Object> getJournalEntryBalance(Long id){
@@ -651,17 +656,67 @@ public class JournalEntryServiceImpl implements JournalEntryService {
         }
     }
 
-    private BigDecimal calculateNewBalance(ChartOfAccounts account, BigDecimal debit, BigDecimal credit) {
-        BigDecimal currentBalance = account.getCurrentBalance() != null ? 
-            account.getCurrentBalance() : BigDecimal.ZERO;
-        
-        return currentBalance.add(debit).subtract(credit);
+    /**
+     * Write the ledger rows of a journal in one JDBC batch and apply its net amount to each
+     * account with a single relative UPDATE. Accounts are updated in id order, so concurrent
+     * postings that share accounts lock them in the same order and cannot deadlock. The debit
+     * and credit totals per account are then added to the account's row for the journal period.
+     */
+    private void postToLedger(JournalEntry journal) {
+        long started = System.nanoTime();
+        List<JournalEntryLine> lines = journal.getLines();
+
+        Map<Long, BigDecimal> netByAccount = new TreeMap<>();
+        Map<Long, BigDecimal[]> totalsByAccount = new HashMap<>();
+        for (JournalEntryLine line : lines) {
+            Long accountId = line.getAccount().getId();
+            netByAccount.merge(accountId, netAmount(line), BigDecimal::add);
+            BigDecimal[] totals = totalsByAccount.computeIfAbsent(accountId, id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+            totals[0] = totals[0].add(line.getDebitAmount() != null ? line.getDebitAmount() : BigDecimal.ZERO);
+            totals[1] = totals[1].add(line.getCreditAmount() != null ? line.getCreditAmount() : BigDecimal.ZERO);
+        }
+        for (Map.Entry<Long, BigDecimal> net : netByAccount.entrySet()) {
+            accountRepository.addToBalance(net.getKey(), net.getValue());
+        }
+        accountPeriodBalanceService.applyPosting(journal.getPeriod(), totalsByAccount);
+
+        // Running balance per account, starting from its balance before this journal
+        Map<Long, BigDecimal> runningBalances = new HashMap<>();
+        for (Object[] row : accountRepository.findBalancesByIdIn(netByAccount.keySet())) {
+            Long accountId = (Long) row[0];
+            BigDecimal balance = row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+            runningBalances.put(accountId, balance.subtract(netByAccount.get(accountId)));
+        }
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<GeneralLedger> entries = new ArrayList<>(lines.size());
+        for (JournalEntryLine line : lines) {
+            BigDecimal balance = runningBalances.merge(line.getAccount().getId(), netAmount(line), BigDecimal::add);
+            entries.add(GeneralLedger.builder()
+                .transactionDate(journal.getJournalDate())
+                .period(journal.getPeriod())
+                .account(line.getAccount())
+                .journal(journal)
+                .journalLine(line)
+                .description(line.getDescription())
+                .debitAmount(line.getDebitAmount() != null ? line.getDebitAmount() : BigDecimal.ZERO)
+                .creditAmount(line.getCreditAmount() != null ? line.getCreditAmount() : BigDecimal.ZERO)
+                .balance(balance)
+                .sourceType(journal.getSourceType())
+                .sourceId(journal.getSourceId())
+                .createdAt(createdAt)
+                .build());
+        }
+        generalLedgerJdbcRepository.batchInsert(entries);
+
+        log.debug("Posted {} lines of Journal Entry {} to {} accounts in {} ms",
+            lines.size(), journal.getId(), netByAccount.size(), (System.nanoTime() - started) / 1_000_000);
     }
 
-    private void updateAccountBalance(ChartOfAccounts account, BigDecimal debit, BigDecimal credit) {
-        BigDecimal newBalance = calculateNewBalance(account, debit, credit);
-        account.setCurrentBalance(newBalance);
-        accountRepository.save(account);
+    private BigDecimal netAmount(JournalEntryLine line) {
+        BigDecimal debit = line.getDebitAmount() != null ? line.getDebitAmount() : BigDecimal.ZERO;
+        BigDecimal credit = line.getCreditAmount() != null ? line.getCreditAmount() : BigDecimal.ZERO;
+        return debit.subtract(credit);
     }
 
     private void validateUniqueJournalNumber(String journalNumber, Long excludeId) {
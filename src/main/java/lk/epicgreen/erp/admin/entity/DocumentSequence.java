@@ -0,0 +1,47 @@
+package lk.epicgreen.erp.admin.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * DocumentSequence entity
+ * High-water mark of the document numbers handed out per document type and year
+ * 
+ * Nodes reserve whole blocks of numbers by advancing next_value, so the row is touched
+ * once per block rather than once per document. Numbers of a block that is not used up
+ * (e.g. on restart) are skipped, never reissued.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "document_sequences", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_document_sequence_type_year", columnNames = {"document_type", "sequence_year"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSequence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Document type (SALES_ORDER, INVOICE, DISPATCH, WORK_ORDER, JOURNAL_ENTRY)
+     */
+    @Column(name = "document_type", nullable = false, length = 30)
+    private String documentType;
+
+    @Column(name = "sequence_year", nullable = false)
+    private Integer sequenceYear;
+
+    /**
+     * First sequence number not yet reserved by any node
+     */
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
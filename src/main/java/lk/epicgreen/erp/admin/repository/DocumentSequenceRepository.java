@@ -0,0 +1,41 @@
+package lk.epicgreen.erp.admin.repository;
+
+import lk.epicgreen.erp.admin.entity.DocumentSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for DocumentSequence entity
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface DocumentSequenceRepository extends JpaRepository<DocumentSequence, Long> {
+
+    /**
+     * Atomically reserve the next block of numbers; the row stays locked until the transaction ends
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DocumentSequence s SET s.nextValue = s.nextValue + :blockSize " +
+           "WHERE s.documentType = :documentType AND s.sequenceYear = :year")
+    int advance(@Param("documentType") String documentType,
+                @Param("year") Integer year,
+                @Param("blockSize") long blockSize);
+
+    /**
+     * Move the sequence to at least the given value (never backwards)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DocumentSequence s SET s.nextValue = :value " +
+           "WHERE s.documentType = :documentType AND s.sequenceYear = :year AND s.nextValue < :value")
+    int advanceTo(@Param("documentType") String documentType,
+                  @Param("year") Integer year,
+                  @Param("value") long value);
+
+    @Query("SELECT s.nextValue FROM DocumentSequence s WHERE s.documentType = :documentType AND s.sequenceYear = :year")
+    Long findNextValue(@Param("documentType") String documentType, @Param("year") Integer year);
+}
@@ -0,0 +1,31 @@
+package lk.epicgreen.erp.admin.service;
+
+/**
+ * Service interface for server-side document numbering
+ * 
+ * Numbers have the form PREFIX-YEAR-SEQUENCE (e.g. DSP-2026-0001) with one sequence per
+ * document type and year. They are unique across nodes but not gap-free: each node reserves
+ * blocks of numbers and numbers left in a block when a node stops are skipped.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface DocumentNumberService {
+
+    String SALES_ORDER = "SALES_ORDER";
+    String INVOICE = "INVOICE";
+    String DISPATCH = "DISPATCH";
+    String WORK_ORDER = "WORK_ORDER";
+    String JOURNAL_ENTRY = "JOURNAL_ENTRY";
+
+    /**
+     * Allocate the next number of a document type for the current year
+     */
+    String nextNumber(String documentType);
+
+    /**
+     * Record a client-supplied number: when it has the allocated form (PREFIX-YEAR-SEQUENCE of
+     * the same document type) the sequence is moved past it, so later allocations skip it
+     */
+    void registerClientNumber(String documentType, String number);
+}
@@ -0,0 +1,201 @@
+package lk.epicgreen.erp.admin.service.impl;
+
+import lk.epicgreen.erp.admin.entity.DocumentSequence;
+import lk.epicgreen.erp.admin.repository.DocumentSequenceRepository;
+import lk.epicgreen.erp.admin.service.DocumentNumberService;
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of DocumentNumberService interface
+ *
+ * Hi/lo allocation: each node reserves a block of numbers per document type and year with
+ * one relative UPDATE of the document_sequences row (in its own short transaction, so the
+ * row lock is not held for the caller's transaction) and hands the block out from memory.
+ * When a sequence row is first created it starts after the highest number of that form
+ * already stored, so numbers entered before this service existed are not reissued. Clients
+ * may still enter their own numbers, also in the allocated form: such a number moves the
+ * sequence past it, and a number already handed out in a block is skipped when it is found
+ * stored, since the block may have been reserved before the client number was entered.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class DocumentNumberServiceImpl implements DocumentNumberService {
+
+    private static final Map<String, NumberedDocument> DOCUMENTS = new HashMap<>();
+
+    static {
+        DOCUMENTS.put(SALES_ORDER, new NumberedDocument("SO", "sales_orders", "order_number"));
+        DOCUMENTS.put(INVOICE, new NumberedDocument("INV", "invoices", "invoice_number"));
+        DOCUMENTS.put(DISPATCH, new NumberedDocument("DSP", "dispatches", "dispatch_number"));
+        DOCUMENTS.put(WORK_ORDER, new NumberedDocument("WO", "work_orders", "wo_number"));
+        DOCUMENTS.put(JOURNAL_ENTRY, new NumberedDocument("JE", "journal_entries", "journal_number"));
+    }
+
+    private final DocumentSequenceRepository documentSequenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+    private final TransactionTemplate transactionTemplate;
+    private final long blockSize;
+    private final int sequenceDigits;
+
+    /**
+     * Current block per "TYPE:YEAR"; a block is used under its own lock
+     */
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public DocumentNumberServiceImpl(DocumentSequenceRepository documentSequenceRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     Environment environment,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${application.numbering.block-size:50}") long blockSize,
+                                     @Value("${application.numbering.sequence-digits:4}") int sequenceDigits) {
+        this.documentSequenceRepository = documentSequenceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.environment = environment;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Reserved blocks stay reserved even if the caller's transaction rolls back
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+        this.sequenceDigits = Math.max(1, sequenceDigits);
+    }
+
+    @Override
+    public String nextNumber(String documentType) {
+        if (!DOCUMENTS.containsKey(documentType)) {
+            throw new InvalidOperationException("Unknown document type for numbering: " + documentType);
+        }
+        int year = LocalDate.now().getYear();
+        Block block = blocks.computeIfAbsent(documentType + ":" + year, key -> new Block());
+
+        while (true) {
+            long value;
+            synchronized (block) {
+                if (block.next >= block.end) {
+                    long end = reserveBlock(documentType, year);
+                    block.next = end - blockSize;
+                    block.end = end;
+                }
+                value = block.next++;
+            }
+            String number = String.format("%s-%d-%0" + sequenceDigits + "d", prefix(documentType), year, value);
+            if (!isStored(documentType, number)) {
+                return number;
+            }
+            log.debug("Skipping document number {}: already entered by a client", number);
+        }
+    }
+
+    @Override
+    public void registerClientNumber(String documentType, String number) {
+        if (!DOCUMENTS.containsKey(documentType)) {
+            throw new InvalidOperationException("Unknown document type for numbering: " + documentType);
+        }
+        if (number == null) {
+            return;
+        }
+        Matcher matcher = Pattern.compile(Pattern.quote(prefix(documentType)) + "-(\\d{4})-(\\d{1,18})", Pattern.CASE_INSENSITIVE)
+            .matcher(number.trim());
+        if (!matcher.matches()) {
+            return;
+        }
+        int year = Integer.parseInt(matcher.group(1));
+        long next = Long.parseLong(matcher.group(2)) + 1;
+        Integer moved = transactionTemplate.execute(status -> documentSequenceRepository.advanceTo(documentType, year, next));
+        if (moved != null && moved > 0) {
+            log.info("Document sequence for {} {} moved to {} past client number {}", documentType, year, next, number);
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * Reserve the next block and return its exclusive end
+     */
+    private long reserveBlock(String documentType, int year) {
+        while (true) {
+            Long end = transactionTemplate.execute(status ->
+                documentSequenceRepository.advance(documentType, year, blockSize) > 0
+                    ? documentSequenceRepository.findNextValue(documentType, year)
+                    : null);
+            if (end != null) {
+                log.debug("Reserved {} numbers for {} {} ending before {}", blockSize, documentType, year, end);
+                return end;
+            }
+            createSequence(documentType, year);
+        }
+    }
+
+    private void createSequence(String documentType, int year) {
+        long first = highestStoredNumber(documentType, year) + 1;
+        try {
+            transactionTemplate.execute(status -> documentSequenceRepository.save(DocumentSequence.builder()
+                .documentType(documentType)
+                .sequenceYear(year)
+                .nextValue(first)
+                .build()));
+            log.info("Document sequence created for {} {} starting at {}", documentType, year, first);
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another node or thread
+            log.debug("Document sequence for {} {} already exists", documentType, year);
+        }
+    }
+
+    private boolean isStored(String documentType, String number) {
+        NumberedDocument document = DOCUMENTS.get(documentType);
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + document.table + " WHERE " + document.column + " = ?", Integer.class, number);
+        return count != null && count > 0;
+    }
+
+    private long highestStoredNumber(String documentType, int year) {
+        NumberedDocument document = DOCUMENTS.get(documentType);
+        String stem = prefix(documentType) + "-" + year + "-";
+        Long highest = jdbcTemplate.queryForObject(
+            "SELECT MAX(CAST(SUBSTRING(" + document.column + ", ?) AS UNSIGNED)) FROM " + document.table +
+            " WHERE " + document.column + " LIKE ?",
+            Long.class, stem.length() + 1, stem + "%");
+        return highest != null ? highest : 0L;
+    }
+
+    private String prefix(String documentType) {
+        return environment.getProperty("application.numbering.prefixes." + documentType, DOCUMENTS.get(documentType).defaultPrefix);
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+
+    private static final class NumberedDocument {
+        private final String defaultPrefix;
+        private final String table;
+        private final String column;
+
+        private NumberedDocument(String defaultPrefix, String table, String column) {
+            this.defaultPrefix = defaultPrefix;
+            this.table = table;
+            this.column = column;
+        }
+    }
+}
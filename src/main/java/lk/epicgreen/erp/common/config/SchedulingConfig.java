@@ -0,0 +1,16 @@
+package lk.epicgreen.erp.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SchedulingConfig
+ * Enables @Scheduled background jobs (balance checkpoints, reconciliations, etc.)
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -4,6 +4,7 @@ import lk.epicgreen.erp.common.dto.ApiResponse;
 import lk.epicgreen.erp.common.exception.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -221,6 +222,17 @@ public class GlobalExceptionHandler {
             .body(ApiResponse.error(message, null));
     }
     
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailureException(
+        OptimisticLockingFailureException ex
+    ) {
+        log.warn("Concurrent update conflict: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.CONFLICT)
+            .body(ApiResponse.error("This record was changed by another user. Please reload and try again", null));
+    }
+    
     // ===================================================================
     // REQUEST PARAMETER EXCEPTIONS
     // ===================================================================
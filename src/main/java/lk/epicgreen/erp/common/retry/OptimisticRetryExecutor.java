@@ -0,0 +1,106 @@
+package lk.epicgreen.erp.common.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and runs it again when it loses an optimistic
+ * lock race (another transaction committed a newer version of a row it read)
+ *
+ * Every attempt is a fresh transaction, so the retried work re-reads current state. Called
+ * inside an existing transaction the work runs once in that transaction and a conflict
+ * propagates, because only the outermost transaction can be retried. The wait before each
+ * retry is a random time up to an exponentially growing bound, so colliding callers spread
+ * out instead of colliding again.
+ *
+ * Metrics (tagged with the operation name): erp.optimistic.executions, erp.optimistic.conflicts,
+ * erp.optimistic.retries and erp.optimistic.exhausted.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${application.concurrency.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${application.concurrency.optimistic-retry.initial-backoff-ms:10}") long initialBackoffMillis,
+                                   @Value("${application.concurrency.optimistic-retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1L, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * Run the work, retrying it on optimistic lock conflicts, and return its result
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+        counter("erp.optimistic.executions", operation).increment();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                counter("erp.optimistic.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("erp.optimistic.exhausted", operation).increment();
+                    log.warn("Giving up {} after {} conflicting attempts", operation, attempt);
+                    throw e;
+                }
+                counter("erp.optimistic.retries", operation).increment();
+                log.debug("Optimistic lock conflict in {} (attempt {}), retrying", operation, attempt);
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Run the work, retrying it on optimistic lock conflicts
+     */
+    public void run(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        long bound = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+}
@@ -2,6 +2,7 @@ package lk.epicgreen.erp.credit.controller;
 
 
 import lk.epicgreen.erp.credit.controller.dto.request.response.CreditLimitDTO;
+import lk.epicgreen.erp.credit.controller.dto.request.response.CreditTransactionDTO;
 import lk.epicgreen.erp.credit.controller.service.CreditLimitService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -51,4 +52,15 @@ public class CreditLimitController {
         String username = auth != null ? auth.getName() : "system";
         return ResponseEntity.ok(service.approve(id, username));
     }
+
+    @PostMapping("/{id}/transactions")
+    public ResponseEntity<CreditTransactionDTO> recordTransaction(@PathVariable Long id, @Valid @RequestBody CreditTransactionDTO dto, Authentication auth) {
+        String username = auth != null ? auth.getName() : "system";
+        return new ResponseEntity<>(service.recordTransaction(id, dto, username), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<List<CreditTransactionDTO>> getTransactions(@PathVariable Long id) {
+        return ResponseEntity.ok(service.getTransactions(id));
+    }
 }
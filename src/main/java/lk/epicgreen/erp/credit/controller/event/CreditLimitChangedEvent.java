@@ -0,0 +1,19 @@
+package lk.epicgreen.erp.credit.controller.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a customer's credit limit or credit facility is created, changed or approved
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CreditLimitChangedEvent {
+
+    private final Long customerId;
+}
@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.credit.controller.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a credit transaction changes the credit used on a customer's credit limit
+ * Listeners run after the publishing transaction commits (immediately when there is none)
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CreditTransactionRecordedEvent {
+
+    private final Long transactionId;
+    private final Long customerId;
+
+    /**
+     * Signed change of credit used (positive when credit is consumed)
+     */
+    private final BigDecimal creditUsedDelta;
+}
@@ -1,9 +1,12 @@
 package lk.epicgreen.erp.credit.controller.repo;
 import lk.epicgreen.erp.credit.controller.entity.CreditLimit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,27 @@ public interface CreditLimitRepository extends JpaRepository<CreditLimit, Long>
     Optional<CreditLimit> findActiveByCustomerId(@Param("customerId") Long customerId);
     
     List<CreditLimit> findByApprovalStatus(String approvalStatus);
+
+    /**
+     * Approved limits in force today for the given customers as (customerId, creditLimit, creditUsed),
+     * oldest effective date first so the latest one wins when read in order
+     */
+    @Query("SELECT c.customer.id, c.creditLimit, c.creditUsed FROM CreditLimit c " +
+           "WHERE c.customer.id IN :customerIds AND c.isActive = true AND c.approvalStatus = 'APPROVED' " +
+           "AND c.effectiveDate <= CURRENT_DATE AND (c.expiryDate IS NULL OR c.expiryDate >= CURRENT_DATE) " +
+           "ORDER BY c.effectiveDate, c.id")
+    List<Object[]> findApprovedLimitsInForce(@Param("customerIds") Collection<Long> customerIds);
+
+    /**
+     * Atomically add to the credit used (available credit is computed from the old value)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CreditLimit c SET " +
+           "c.creditAvailable = c.creditLimit - COALESCE(c.creditUsed, 0) - :delta, " +
+           "c.creditUsed = COALESCE(c.creditUsed, 0) + :delta " +
+           "WHERE c.id = :id")
+    int incrementCreditUsed(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    @Query("SELECT COALESCE(c.creditUsed, 0) FROM CreditLimit c WHERE c.id = :id")
+    BigDecimal findCreditUsedById(@Param("id") Long id);
 }
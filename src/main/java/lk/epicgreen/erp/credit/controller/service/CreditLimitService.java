@@ -2,13 +2,22 @@ package lk.epicgreen.erp.credit.controller.service;
 
 
 import lk.epicgreen.erp.credit.controller.dto.request.response.CreditLimitDTO;
+import lk.epicgreen.erp.credit.controller.dto.request.response.CreditTransactionDTO;
 import lk.epicgreen.erp.credit.controller.entity.CreditLimit;
+import lk.epicgreen.erp.credit.controller.entity.CreditTransaction;
+import lk.epicgreen.erp.credit.controller.event.CreditLimitChangedEvent;
+import lk.epicgreen.erp.credit.controller.event.CreditTransactionRecordedEvent;
 import lk.epicgreen.erp.credit.controller.repo.CreditLimitRepository;
+import lk.epicgreen.erp.credit.controller.repo.CreditTransactionRepository;
 import lk.epicgreen.erp.customer.entity.Customer;
 import lk.epicgreen.erp.customer.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,6 +27,14 @@ import java.util.stream.Collectors;
 public class CreditLimitService {
     private final CreditLimitRepository repository;
     private final CustomerRepository customerRepository;
+    private final CreditTransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Transaction types that consume credit; all other known types release it
+     */
+    private static final List<String> CONSUMING_TYPES = Arrays.asList("DEBIT", "CHARGE", "UTILIZATION");
+    private static final List<String> RELEASING_TYPES = Arrays.asList("CREDIT", "PAYMENT", "RELEASE", "REVERSAL");
 
     public CreditLimitDTO create(CreditLimitDTO dto, String username) {
         Customer customer = customerRepository.findById(dto.getCustomerId())
@@ -36,6 +53,7 @@ public class CreditLimitService {
         entity.setUpdatedBy(username);
         
         CreditLimit saved = repository.save(entity);
+        eventPublisher.publishEvent(new CreditLimitChangedEvent(customer.getId()));
         return toDTO(saved);
     }
 
@@ -51,9 +69,60 @@ public class CreditLimitService {
         entity.setUpdatedBy(username);
         
         CreditLimit updated = repository.save(entity);
+        eventPublisher.publishEvent(new CreditLimitChangedEvent(entity.getCustomer().getId()));
         return toDTO(updated);
     }
 
+    /**
+     * Record a credit transaction against a credit limit
+     * Credit used is changed with a single relative UPDATE so concurrent transactions
+     * on the same limit are not lost
+     */
+    public CreditTransactionDTO recordTransaction(Long creditLimitId, CreditTransactionDTO dto, String username) {
+        CreditLimit entity = repository.findById(creditLimitId)
+            .orElseThrow(() -> new RuntimeException("Credit limit not found"));
+        if (dto.getAmount() == null || dto.getAmount().signum() <= 0) {
+            throw new RuntimeException("Credit transaction amount must be greater than zero");
+        }
+
+        String type = dto.getTransactionType() != null ? dto.getTransactionType().toUpperCase() : null;
+        BigDecimal delta;
+        if (CONSUMING_TYPES.contains(type)) {
+            delta = dto.getAmount();
+        } else if (RELEASING_TYPES.contains(type)) {
+            delta = dto.getAmount().negate();
+        } else {
+            throw new RuntimeException("Unknown credit transaction type: " + dto.getTransactionType());
+        }
+
+        Long customerId = entity.getCustomer().getId();
+        repository.incrementCreditUsed(creditLimitId, delta);
+        BigDecimal balanceAfter = repository.findCreditUsedById(creditLimitId);
+
+        CreditTransaction transaction = new CreditTransaction();
+        transaction.setCreditLimit(repository.getReferenceById(creditLimitId));
+        transaction.setTransactionType(type);
+        transaction.setAmount(dto.getAmount());
+        transaction.setBalanceBefore(balanceAfter.subtract(delta));
+        transaction.setBalanceAfter(balanceAfter);
+        transaction.setReferenceType(dto.getReferenceType());
+        transaction.setReferenceId(dto.getReferenceId());
+        transaction.setTransactionDate(dto.getTransactionDate() != null ? dto.getTransactionDate() : LocalDateTime.now());
+        transaction.setDescription(dto.getDescription());
+        transaction.setCreatedBy(username);
+
+        CreditTransaction saved = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(new CreditTransactionRecordedEvent(saved.getId(), customerId, delta));
+        return toTransactionDTO(saved, creditLimitId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CreditTransactionDTO> getTransactions(Long creditLimitId) {
+        return transactionRepository.findByCreditLimitIdOrderByTransactionDateDesc(creditLimitId).stream()
+            .map(transaction -> toTransactionDTO(transaction, creditLimitId))
+            .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public CreditLimitDTO getById(Long id) {
         return repository.findById(id)
@@ -82,9 +151,27 @@ public class CreditLimitService {
         entity.setApprovedBy(username);
         entity.setApprovalDate(java.time.LocalDateTime.now());
         CreditLimit updated = repository.save(entity);
+        eventPublisher.publishEvent(new CreditLimitChangedEvent(entity.getCustomer().getId()));
         return toDTO(updated);
     }
 
+    private CreditTransactionDTO toTransactionDTO(CreditTransaction entity, Long creditLimitId) {
+        CreditTransactionDTO dto = new CreditTransactionDTO();
+        dto.setId(entity.getId());
+        dto.setCreditLimitId(creditLimitId);
+        dto.setTransactionType(entity.getTransactionType());
+        dto.setAmount(entity.getAmount());
+        dto.setBalanceBefore(entity.getBalanceBefore());
+        dto.setBalanceAfter(entity.getBalanceAfter());
+        dto.setReferenceType(entity.getReferenceType());
+        dto.setReferenceId(entity.getReferenceId());
+        dto.setTransactionDate(entity.getTransactionDate());
+        dto.setDescription(entity.getDescription());
+        dto.setCreatedBy(entity.getCreatedBy());
+        dto.setCreatedAt(entity.getCreatedAt());
+        return dto;
+    }
+
     private CreditLimitDTO toDTO(CreditLimit entity) {
         CreditLimitDTO dto = new CreditLimitDTO();
         dto.setId(entity.getId());
@@ -3,7 +3,11 @@ package lk.epicgreen.erp.customer.controller;
 import lk.epicgreen.erp.common.dto.ApiResponse;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lk.epicgreen.erp.customer.dto.request.CustomerRequest;
+import lk.epicgreen.erp.customer.dto.response.CreditExposureResponse;
+import lk.epicgreen.erp.customer.dto.response.CustomerImportStatusResponse;
 import lk.epicgreen.erp.customer.dto.response.CustomerResponse;
+import lk.epicgreen.erp.customer.service.CustomerCreditExposureService;
+import lk.epicgreen.erp.customer.service.CustomerImportService;
 import lk.epicgreen.erp.customer.service.CustomerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +15,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
 import java.time.LocalDate;
@@ -33,6 +38,8 @@ import java.util.Map;
 public class CustomerController {
     
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+    private final CustomerCreditExposureService customerCreditExposureService;
     
     // ===================================================================
     // CRUD OPERATIONS
@@ -229,6 +236,21 @@ public class CustomerController {
         return ResponseEntity.ok(ApiResponse.success(null, "Customer outstanding updated successfully"));
     }
     
+    @GetMapping("/{id}/credit/exposure")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'SALES_REP')")
+    public ResponseEntity<ApiResponse<CreditExposureResponse>> getCreditExposure(@PathVariable Long id) {
+        CreditExposureResponse exposure = customerCreditExposureService.getExposure(id);
+        return ResponseEntity.ok(ApiResponse.success(exposure, "Credit exposure retrieved successfully"));
+    }
+    
+    @PostMapping("/credit/exposure/reconcile")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT')")
+    public ResponseEntity<ApiResponse<Integer>> reconcileCreditExposure() {
+        log.info("Reconciling customer credit exposure");
+        int corrected = customerCreditExposureService.reconcile();
+        return ResponseEntity.ok(ApiResponse.success(corrected, "Credit exposure reconciled successfully"));
+    }
+    
     // ===================================================================
     // QUERY OPERATIONS
     // ===================================================================
@@ -323,6 +345,17 @@ public class CustomerController {
         List<CustomerResponse> customers = customerService.getCustomersRequiringAction();
         return ResponseEntity.ok(ApiResponse.success(customers, "Customers requiring action retrieved successfully"));
     }
+
+    @GetMapping("/segment/{segment}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'ACCOUNTANT')")
+    public ResponseEntity<ApiResponse<PageResponse<CustomerResponse>>> getCustomersBySegment(
+        @PathVariable String segment,
+        @RequestParam(required = false) Integer days,
+        Pageable pageable
+    ) {
+        PageResponse<CustomerResponse> customers = customerService.getCustomersBySegment(segment, days, pageable);
+        return ResponseEntity.ok(ApiResponse.success(customers, "Customer segment retrieved successfully"));
+    }
     
     @GetMapping("/type/{customerType}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'ACCOUNTANT')")
@@ -493,6 +526,21 @@ public class CustomerController {
         return ResponseEntity.ok(ApiResponse.success(customers, customers.size() + " customers created successfully"));
     }
     
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ApiResponse<CustomerImportStatusResponse>> importCustomers(@RequestParam("file") MultipartFile file) {
+        log.info("Importing customers from file: {}", file.getOriginalFilename());
+        CustomerImportStatusResponse status = customerImportService.startImport(file);
+        return ResponseEntity.ok(ApiResponse.success(status, "Customer import started"));
+    }
+    
+    @GetMapping("/import/{importId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ApiResponse<CustomerImportStatusResponse>> getImportStatus(@PathVariable String importId) {
+        CustomerImportStatusResponse status = customerImportService.getImportStatus(importId);
+        return ResponseEntity.ok(ApiResponse.success(status, "Customer import status retrieved successfully"));
+    }
+    
     @PutMapping("/bulk/activate")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<ApiResponse<Integer>> activateBulkCustomers(@RequestBody List<Long> customerIds) {
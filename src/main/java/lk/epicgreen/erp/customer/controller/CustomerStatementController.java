@@ -2,6 +2,8 @@ package lk.epicgreen.erp.customer.controller;
 
 import lk.epicgreen.erp.accounting.dto.response.StatementDTO;
 import lk.epicgreen.erp.accounting.service.impl.CustomerStatementService;
+import lk.epicgreen.erp.customer.dto.response.CustomerStatementBatchResponse;
+import lk.epicgreen.erp.customer.service.CustomerStatementBatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +18,7 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class CustomerStatementController {
     private final CustomerStatementService service;
+    private final CustomerStatementBatchService batchService;
 
     @PostMapping("/generate")
     public ResponseEntity<StatementDTO> generateStatement(
@@ -31,4 +34,28 @@ public class CustomerStatementController {
     public ResponseEntity<List<StatementDTO>> getCustomerStatements(@PathVariable Long customerId) {
         return ResponseEntity.ok(service.getCustomerStatements(customerId));
     }
+
+    @PostMapping("/batches")
+    public ResponseEntity<CustomerStatementBatchResponse> startBatch(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            Authentication auth) {
+        String username = auth != null ? auth.getName() : "system";
+        return ResponseEntity.ok(batchService.startBatch(fromDate, toDate, username));
+    }
+
+    @PostMapping("/batches/{batchId}/resume")
+    public ResponseEntity<CustomerStatementBatchResponse> resumeBatch(@PathVariable Long batchId) {
+        return ResponseEntity.ok(batchService.resumeBatch(batchId));
+    }
+
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<CustomerStatementBatchResponse> getBatch(@PathVariable Long batchId) {
+        return ResponseEntity.ok(batchService.getBatch(batchId));
+    }
+
+    @GetMapping("/batches")
+    public ResponseEntity<List<CustomerStatementBatchResponse>> getAllBatches() {
+        return ResponseEntity.ok(batchService.getAllBatches());
+    }
 }
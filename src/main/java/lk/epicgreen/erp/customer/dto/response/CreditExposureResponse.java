@@ -0,0 +1,50 @@
+package lk.epicgreen.erp.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a customer's current credit exposure
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditExposureResponse {
+
+    private Long customerId;
+    private boolean hasCreditFacility;
+
+    /**
+     * Approved credit limit in force, or the customer's credit limit when there is none (null = no limit)
+     */
+    private BigDecimal creditLimit;
+
+    /**
+     * Posted invoices less cleared payments
+     */
+    private BigDecimal outstandingBalance;
+
+    /**
+     * Credit used by credit transactions on the approved credit limit
+     */
+    private BigDecimal creditUsed;
+
+    /**
+     * Total of confirmed orders that are not yet invoiced or cancelled
+     */
+    private BigDecimal openOrderValue;
+    private int openOrderCount;
+
+    /**
+     * Credit limit less outstanding balance, credit used and open order value (null = no limit)
+     */
+    private BigDecimal availableCredit;
+}
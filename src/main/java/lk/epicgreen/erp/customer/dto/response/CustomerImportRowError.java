@@ -0,0 +1,24 @@
+package lk.epicgreen.erp.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a row rejected by the bulk customer import
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportRowError {
+
+    /**
+     * Row number in the uploaded file (1-based, header is row 1)
+     */
+    private long rowNumber;
+    private String customerCode;
+    private String message;
+}
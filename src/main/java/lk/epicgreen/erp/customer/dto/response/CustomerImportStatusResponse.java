@@ -0,0 +1,43 @@
+package lk.epicgreen.erp.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the progress and outcome of a bulk customer import
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportStatusResponse {
+
+    private String importId;
+    private String fileName;
+
+    /**
+     * QUEUED, RUNNING, COMPLETED or FAILED
+     */
+    private String status;
+
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+
+    /**
+     * Row errors, capped at the configured maximum (failedRows holds the full count)
+     */
+    private List<CustomerImportRowError> errors;
+
+    private String failureReason;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
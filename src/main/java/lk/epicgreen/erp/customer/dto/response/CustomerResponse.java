@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -33,6 +34,10 @@ public class CustomerResponse {
     private BigDecimal creditLimit;
     private Integer creditDays;
     private BigDecimal currentBalance;
+    private BigDecimal totalSalesAmount;
+    private Integer orderCount;
+    private BigDecimal averageOrderValue;
+    private LocalDate lastOrderDate;
     
     // Billing Address
     private String billingAddressLine1;
@@ -0,0 +1,40 @@
+package lk.epicgreen.erp.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for month-end customer statement batch progress
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerStatementBatchResponse {
+
+    private Long id;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private LocalDate statementDate;
+
+    /**
+     * RUNNING, COMPLETED, FAILED or INTERRUPTED
+     */
+    private String status;
+
+    private long totalCustomers;
+    private long processedCustomers;
+    private long failedCustomers;
+    private String lastError;
+    private String createdBy;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -30,7 +30,15 @@ import java.util.List;
     @Index(name = "idx_customer_type", columnList = "customer_type"),
     @Index(name = "idx_sales_rep_id", columnList = "assigned_sales_rep_id"),
     @Index(name = "idx_is_active", columnList = "is_active"),
-    @Index(name = "idx_deleted_at", columnList = "deleted_at")
+    @Index(name = "idx_deleted_at", columnList = "deleted_at"),
+    @Index(name = "idx_customer_active_deleted", columnList = "is_active, deleted_at"),
+    @Index(name = "idx_customer_type_active_deleted", columnList = "customer_type, is_active, deleted_at"),
+    @Index(name = "idx_customer_blacklisted_deleted", columnList = "is_blacklisted, deleted_at"),
+    @Index(name = "idx_customer_verified_deleted", columnList = "is_verified, deleted_at"),
+    @Index(name = "idx_customer_credit", columnList = "has_credit_facility, deleted_at, current_balance, credit_limit"),
+    @Index(name = "idx_customer_last_order_date", columnList = "last_order_date"),
+    @Index(name = "idx_customer_deleted_total_sales", columnList = "deleted_at, total_sales_amount"),
+    @Index(name = "idx_customer_deleted_created", columnList = "deleted_at, created_at")
 })
 @Getter
 @Setter
@@ -43,6 +51,13 @@ public class Customer extends AuditEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    /**
+     * Optimistic lock version (existing rows start at 0)
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+    
     /**
      * Customer code (unique identifier)
      */
@@ -152,6 +167,18 @@ public class Customer extends AuditEntity {
     @Column(name = "total_sales_amount")
     private BigDecimal totalSalesAmount;
 
+    /**
+     * Number of orders placed (maintained incrementally)
+     */
+    @Column(name = "order_count")
+    private Integer orderCount;
+
+    /**
+     * Average order value (total sales amount / order count)
+     */
+    @Column(name = "average_order_value", precision = 15, scale = 2)
+    private BigDecimal averageOrderValue;
+
     /**
      * Has credit facility
      */
@@ -0,0 +1,97 @@
+package lk.epicgreen.erp.customer.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CustomerBalanceCheckpoint entity
+ * Closing ledger balance of a customer at the end of a period (month end), together with
+ * the period's movements since the previous checkpoint.
+ * A balance as of any date is the latest checkpoint on or before that date plus the
+ * ledger entries dated after it, so lookups never fold the full ledger history.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "customer_balance_checkpoints",
+    uniqueConstraints = @UniqueConstraint(name = "uk_customer_checkpoint_date", columnNames = {"customer_id", "checkpoint_date"}),
+    indexes = @Index(name = "idx_checkpoint_customer_date", columnList = "customer_id, checkpoint_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerBalanceCheckpoint {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * Customer reference
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false, foreignKey = @ForeignKey(name = "fk_balance_checkpoint_customer"))
+    private Customer customer;
+    
+    /**
+     * Last day covered by the checkpoint (balance is as of the end of this day)
+     */
+    @Column(name = "checkpoint_date", nullable = false)
+    private LocalDate checkpointDate;
+    
+    /**
+     * Total debits dated after the previous checkpoint up to checkpoint date
+     */
+    @Column(name = "period_debit", precision = 15, scale = 2)
+    private BigDecimal periodDebit;
+    
+    /**
+     * Total credits dated after the previous checkpoint up to checkpoint date
+     */
+    @Column(name = "period_credit", precision = 15, scale = 2)
+    private BigDecimal periodCredit;
+    
+    /**
+     * Number of ledger entries in the period
+     */
+    @Column(name = "transaction_count")
+    private Long transactionCount;
+    
+    /**
+     * Ledger balance at the end of checkpoint date
+     */
+    @Column(name = "closing_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal closingBalance;
+    
+    /**
+     * Created timestamp
+     */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomerBalanceCheckpoint)) return false;
+        CustomerBalanceCheckpoint that = (CustomerBalanceCheckpoint) o;
+        return id != null && id.equals(that.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,36 @@
+package lk.epicgreen.erp.customer.entity;
+
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CustomerCheckpointInvalidation entity
+ * Written together with a back-dated ledger entry and removed once the balance checkpoints
+ * from its date have been deleted. While it exists, balance lookups ignore those checkpoints
+ * and the nightly refresh deletes them first.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "customer_checkpoint_invalidations",
+    indexes = @Index(name = "idx_checkpoint_invalidation_customer", columnList = "customer_id, from_date"))
+@Data
+public class CustomerCheckpointInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -25,7 +25,8 @@ import java.time.temporal.Temporal;
     @Index(name = "idx_customer_id", columnList = "customer_id"),
     @Index(name = "idx_transaction_date", columnList = "transaction_date"),
     @Index(name = "idx_transaction_type", columnList = "transaction_type"),
-    @Index(name = "idx_reference", columnList = "reference_type, reference_id")
+    @Index(name = "idx_reference", columnList = "reference_type, reference_id"),
+    @Index(name = "idx_customer_ledger_customer_date", columnList = "customer_id, transaction_date")
 })
 @Getter
 @Setter
@@ -10,7 +10,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "customer_statements")
+@Table(name = "customer_statements", indexes = {
+    @Index(name = "idx_statement_customer_period", columnList = "customer_id, from_date, to_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +49,12 @@ public class CustomerStatement {
     @Column(name = "closing_balance", precision = 15, scale = 2)
     private BigDecimal closingBalance;
     
+    /**
+     * Location of the rendered PDF (set by the month-end statement batch)
+     */
+    @Column(name = "pdf_path", length = 500)
+    private String pdfPath;
+    
     @Column(name = "is_sent")
     private Boolean isSent = false;
     
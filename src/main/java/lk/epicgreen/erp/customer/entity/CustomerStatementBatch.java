@@ -0,0 +1,108 @@
+package lk.epicgreen.erp.customer.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CustomerStatementBatch entity
+ * Tracks a month-end run that generates statements for all active customers for a period.
+ * Customers that already have a statement for the period are skipped, so a FAILED or
+ * INTERRUPTED batch can be resumed without producing duplicates.
+ * While RUNNING, running_period holds the period (unique, so only one batch of a period can
+ * run across all nodes) and the owning node keeps heartbeat_at current; a RUNNING batch
+ * whose heartbeat stops is marked INTERRUPTED by any node.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "customer_statement_batches",
+    uniqueConstraints = @UniqueConstraint(name = "uk_statement_batch_running_period", columnNames = "running_period"),
+    indexes = {
+    @Index(name = "idx_statement_batch_period", columnList = "from_date, to_date"),
+    @Index(name = "idx_statement_batch_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerStatementBatch {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+    
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+    
+    @Column(name = "statement_date", nullable = false)
+    private LocalDate statementDate;
+    
+    /**
+     * Status (RUNNING, COMPLETED, FAILED, INTERRUPTED)
+     */
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+    
+    /**
+     * Customers still without a statement when the batch (or its latest resume) started
+     */
+    @Column(name = "total_customers")
+    private Long totalCustomers;
+    
+    @Column(name = "processed_customers")
+    private Long processedCustomers;
+    
+    @Column(name = "failed_customers")
+    private Long failedCustomers;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    /**
+     * fromDate/toDate while RUNNING, null otherwise
+     */
+    @Column(name = "running_period", length = 21)
+    private String runningPeriod;
+    
+    /**
+     * Node running the batch
+     */
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode;
+    
+    /**
+     * Last sign of life from the owner node while RUNNING
+     */
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomerStatementBatch)) return false;
+        CustomerStatementBatch that = (CustomerStatementBatch) o;
+        return id != null && id.equals(that.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
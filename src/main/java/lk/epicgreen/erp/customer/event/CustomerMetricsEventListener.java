@@ -0,0 +1,78 @@
+package lk.epicgreen.erp.customer.event;
+
+import lk.epicgreen.erp.customer.service.CustomerMetricsService;
+import lk.epicgreen.erp.payment.event.PaymentStatusChangedEvent;
+import lk.epicgreen.erp.sales.event.InvoiceStatusChangedEvent;
+import lk.epicgreen.erp.sales.event.SalesOrderStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps customer metrics current from sales order, invoice and payment status changes
+ * Listeners are synchronous so the metric updates commit or roll back together
+ * with the status change that caused them
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerMetricsEventListener {
+
+    /**
+     * Order statuses that do not count towards customer sales
+     */
+    private static final List<String> UNCOUNTED_ORDER_STATUSES = Arrays.asList("DRAFT", "CANCELLED");
+
+    private final CustomerMetricsService customerMetricsService;
+
+    @EventListener
+    public void onSalesOrderStatusChanged(SalesOrderStatusChangedEvent event) {
+        if (event.getCustomerId() == null) {
+            return;
+        }
+        boolean countedBefore = isCountedOrder(event.getPreviousStatus());
+        boolean countedAfter = isCountedOrder(event.getNewStatus());
+
+        if (!countedBefore && countedAfter) {
+            customerMetricsService.recordOrderPlaced(event.getCustomerId(), event.getTotalAmount(), event.getOrderDate());
+        } else if (countedBefore && !countedAfter) {
+            customerMetricsService.recordOrderReversed(event.getCustomerId(), event.getTotalAmount());
+        }
+    }
+
+    @EventListener
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        if (event.getCustomerId() == null) {
+            return;
+        }
+        boolean postedBefore = "POSTED".equals(event.getPreviousStatus());
+        boolean postedAfter = "POSTED".equals(event.getNewStatus());
+
+        if (!postedBefore && postedAfter) {
+            customerMetricsService.recordInvoicePosted(event.getCustomerId(), event.getTotalAmount());
+        } else if (postedBefore && "CANCELLED".equals(event.getNewStatus())) {
+            customerMetricsService.recordInvoiceReversed(event.getCustomerId(), event.getTotalAmount());
+        }
+    }
+
+    @EventListener
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+        if (event.getCustomerId() == null) {
+            return;
+        }
+        if (!"CLEARED".equals(event.getPreviousStatus()) && "CLEARED".equals(event.getNewStatus())) {
+            customerMetricsService.recordPaymentCleared(event.getCustomerId(), event.getTotalAmount());
+        }
+    }
+
+    private boolean isCountedOrder(String status) {
+        return status != null && !UNCOUNTED_ORDER_STATUSES.contains(status);
+    }
+}
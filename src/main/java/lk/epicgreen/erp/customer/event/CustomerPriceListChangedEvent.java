@@ -0,0 +1,20 @@
+package lk.epicgreen.erp.customer.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a customer special price is created, changed, activated, deactivated or removed
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CustomerPriceListChangedEvent {
+
+    private final Long customerId;
+    private final Long productId;
+}
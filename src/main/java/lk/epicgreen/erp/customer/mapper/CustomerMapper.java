@@ -162,6 +162,10 @@ public class CustomerMapper {
             .creditLimit(customer.getCreditLimit())
             .creditDays(customer.getCreditDays())
             .currentBalance(customer.getCurrentBalance())
+            .totalSalesAmount(customer.getTotalSalesAmount())
+            .orderCount(customer.getOrderCount())
+            .averageOrderValue(customer.getAverageOrderValue())
+            .lastOrderDate(customer.getLastOrderDate())
             .billingAddressLine1(customer.getBillingAddressLine1())
             .billingAddressLine2(customer.getBillingAddressLine2())
             .billingCity(customer.getBillingCity())
@@ -0,0 +1,39 @@
+package lk.epicgreen.erp.customer.repository;
+
+import lk.epicgreen.erp.customer.entity.CustomerBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Repository interface for CustomerBalanceCheckpoint entity
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface CustomerBalanceCheckpointRepository extends JpaRepository<CustomerBalanceCheckpoint, Long> {
+
+    /**
+     * Find the latest checkpoint on or before a date (served by idx_checkpoint_customer_date)
+     */
+    Optional<CustomerBalanceCheckpoint> findFirstByCustomerIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(
+            Long customerId, LocalDate date);
+
+    /**
+     * Find the latest checkpoint of a customer
+     */
+    Optional<CustomerBalanceCheckpoint> findFirstByCustomerIdOrderByCheckpointDateDesc(Long customerId);
+
+    /**
+     * Delete checkpoints on or after a date (invalidated by a back-dated ledger entry)
+     */
+    @Modifying
+    @Query("DELETE FROM CustomerBalanceCheckpoint cp WHERE cp.customer.id = :customerId AND cp.checkpointDate >= :fromDate")
+    int deleteByCustomerIdFromDate(@Param("customerId") Long customerId, @Param("fromDate") LocalDate fromDate);
+}
@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.customer.repository;
+
+import lk.epicgreen.erp.customer.entity.CustomerCheckpointInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for CustomerCheckpointInvalidation entity
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface CustomerCheckpointInvalidationRepository extends JpaRepository<CustomerCheckpointInvalidation, Long> {
+
+    /**
+     * Earliest date from which a customer's checkpoints are invalid but not yet deleted, null when none are
+     */
+    @Query("SELECT MIN(i.fromDate) FROM CustomerCheckpointInvalidation i WHERE i.customerId = :customerId")
+    LocalDate findEarliestFromDate(@Param("customerId") Long customerId);
+
+    List<CustomerCheckpointInvalidation> findByCustomerId(Long customerId);
+}
@@ -0,0 +1,127 @@
+package lk.epicgreen.erp.customer.repository;
+
+import lk.epicgreen.erp.customer.entity.Customer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the customers table for bulk operations
+ * Customer ids are generated by IDENTITY columns, which prevents Hibernate from batching
+ * inserts, so bulk imports write rows through JDBC batches instead
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO customers (" +
+        "customer_code, customer_name, customer_type, contact_person, email, phone, mobile, tax_id, " +
+        "payment_terms, credit_limit, credit_days, has_credit_facility, current_balance, has_outstanding_balance, " +
+        "total_sales_amount, order_count, " +
+        "billing_address_line1, billing_address_line2, billing_city, billing_state, billing_country, billing_postal_code, " +
+        "shipping_address_line1, shipping_address_line2, shipping_city, shipping_state, shipping_country, shipping_postal_code, " +
+        "assigned_sales_rep_id, region, route_code, is_active, is_blacklisted, is_verified, " +
+        "created_at, created_by, updated_at, updated_by) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String KEYS_SQL = "SELECT customer_code, email, phone, deleted_at FROM customers";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stream code, email, phone and deleted_at of every customer row to the handler
+     */
+    public void streamCustomerKeys(RowCallbackHandler handler) {
+        jdbcTemplate.query(KEYS_SQL, handler);
+    }
+
+    /**
+     * Insert customers as a single JDBC batch
+     */
+    public int[] batchInsert(List<Customer> customers) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, customers.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return customers.size();
+            }
+        });
+    }
+
+    /**
+     * Insert a single customer
+     */
+    public int insert(Customer customer) {
+        return jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, customer));
+    }
+
+    private void bind(PreparedStatement ps, Customer customer) throws SQLException {
+        int i = 1;
+        ps.setString(i++, customer.getCustomerCode());
+        ps.setString(i++, customer.getCustomerName());
+        ps.setString(i++, customer.getCustomerType());
+        ps.setString(i++, customer.getContactPerson());
+        ps.setString(i++, customer.getEmail());
+        ps.setString(i++, customer.getPhone());
+        ps.setString(i++, customer.getMobile());
+        ps.setString(i++, customer.getTaxId());
+        ps.setString(i++, customer.getPaymentTerms());
+        ps.setBigDecimal(i++, orZero(customer.getCreditLimit()));
+        ps.setInt(i++, customer.getCreditDays() != null ? customer.getCreditDays() : 0);
+        ps.setBoolean(i++, Boolean.TRUE.equals(customer.getHasCreditFacility()));
+        ps.setBigDecimal(i++, orZero(customer.getCurrentBalance()));
+        ps.setBoolean(i++, false);
+        ps.setBigDecimal(i++, BigDecimal.ZERO);
+        ps.setInt(i++, 0);
+        ps.setString(i++, customer.getBillingAddressLine1());
+        ps.setString(i++, customer.getBillingAddressLine2());
+        ps.setString(i++, customer.getBillingCity());
+        ps.setString(i++, customer.getBillingState());
+        ps.setString(i++, customer.getBillingCountry());
+        ps.setString(i++, customer.getBillingPostalCode());
+        ps.setString(i++, customer.getShippingAddressLine1());
+        ps.setString(i++, customer.getShippingAddressLine2());
+        ps.setString(i++, customer.getShippingCity());
+        ps.setString(i++, customer.getShippingState());
+        ps.setString(i++, customer.getShippingCountry());
+        ps.setString(i++, customer.getShippingPostalCode());
+        setLong(ps, i++, customer.getAssignedSalesRepId());
+        ps.setString(i++, customer.getRegion());
+        ps.setString(i++, customer.getRouteCode());
+        ps.setBoolean(i++, !Boolean.FALSE.equals(customer.getIsActive()));
+        ps.setBoolean(i++, false);
+        ps.setBoolean(i++, false);
+        ps.setTimestamp(i++, Timestamp.valueOf(customer.getCreatedAt()));
+        setLong(ps, i++, customer.getCreatedBy());
+        ps.setTimestamp(i++, Timestamp.valueOf(customer.getCreatedAt()));
+        setLong(ps, i, customer.getCreatedBy());
+    }
+
+    private void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
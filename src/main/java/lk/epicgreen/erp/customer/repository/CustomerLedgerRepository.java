@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -321,4 +322,101 @@ public interface CustomerLedgerRepository extends JpaRepository<CustomerLedger,
     Integer countByCustomerIdAndTransactionDateBetween(@Param("customerId") Long customerId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     List<CustomerLedger> findByCustomerIdOrderByTransactionDateDesc(Long customerId);
+
+    /**
+     * Find ledger entries of several customers in a date range, grouped by customer in posting order
+     */
+    @Query("SELECT cl FROM CustomerLedger cl WHERE cl.customer.id IN :customerIds " +
+            "AND cl.transactionDate BETWEEN :fromDate AND :toDate " +
+            "ORDER BY cl.customer.id, cl.transactionDate, cl.id")
+    List<CustomerLedger> findByCustomerIdsAndDateRange(
+            @Param("customerIds") Collection<Long> customerIds,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    // ==================== AGING QUERIES ====================
+
+    /**
+     * Debits bucketed by due date and total credits per customer with a positive balance as of a date
+     * The overdueN parameters are asOfDate minus N days.
+     * Rows: customer id, customer code, customer name, not yet due, 0-30, 31-60, 61-90, 90+ days overdue, total credit
+     */
+    @Query(value = "SELECT c.id, c.customerCode, c.customerName, " +
+            "SUM(CASE WHEN cl.dueDate IS NULL OR cl.dueDate > :asOfDate THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate <= :asOfDate AND cl.dueDate >= :overdue30 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate < :overdue30 AND cl.dueDate >= :overdue60 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate < :overdue60 AND cl.dueDate >= :overdue90 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate < :overdue90 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(cl.creditAmount) " +
+            "FROM CustomerLedger cl JOIN cl.customer c " +
+            "WHERE cl.transactionDate <= :asOfDate AND c.deletedAt IS NULL " +
+            "GROUP BY c.id, c.customerCode, c.customerName " +
+            "HAVING SUM(cl.debitAmount) > SUM(cl.creditAmount) " +
+            "ORDER BY c.customerName, c.id",
+            countQuery = "SELECT COUNT(c) FROM Customer c WHERE c.deletedAt IS NULL AND " +
+            "(SELECT SUM(l.debitAmount - l.creditAmount) FROM CustomerLedger l " +
+            "WHERE l.customer = c AND l.transactionDate <= :asOfDate) > 0")
+    Page<Object[]> getAgingBuckets(@Param("asOfDate") LocalDate asOfDate,
+                                   @Param("overdue30") LocalDate overdue30,
+                                   @Param("overdue60") LocalDate overdue60,
+                                   @Param("overdue90") LocalDate overdue90,
+                                   Pageable pageable);
+
+    /**
+     * Debits bucketed by due date and total credits for one customer as of a date
+     * Row layout as getAgingBuckets; empty when the customer has no ledger entries
+     */
+    @Query("SELECT c.id, c.customerCode, c.customerName, " +
+            "SUM(CASE WHEN cl.dueDate IS NULL OR cl.dueDate > :asOfDate THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate <= :asOfDate AND cl.dueDate >= :overdue30 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate < :overdue30 AND cl.dueDate >= :overdue60 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate < :overdue60 AND cl.dueDate >= :overdue90 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(CASE WHEN cl.dueDate < :overdue90 THEN cl.debitAmount ELSE 0 END), " +
+            "SUM(cl.creditAmount) " +
+            "FROM CustomerLedger cl JOIN cl.customer c " +
+            "WHERE c.id = :customerId AND cl.transactionDate <= :asOfDate " +
+            "GROUP BY c.id, c.customerCode, c.customerName")
+    List<Object[]> getAgingBucketsByCustomer(@Param("customerId") Long customerId,
+                                             @Param("asOfDate") LocalDate asOfDate,
+                                             @Param("overdue30") LocalDate overdue30,
+                                             @Param("overdue60") LocalDate overdue60,
+                                             @Param("overdue90") LocalDate overdue90);
+
+    // ==================== BALANCE CHECKPOINT QUERIES ====================
+
+    /**
+     * Net movement (debit - credit) for a customer dated after one date up to another
+     */
+    @Query("SELECT COALESCE(SUM(cl.debitAmount - cl.creditAmount), 0) FROM CustomerLedger cl " +
+            "WHERE cl.customer.id = :customerId AND cl.transactionDate > :afterDate AND cl.transactionDate <= :toDate")
+    BigDecimal sumNetAmountAfterDateUpTo(@Param("customerId") Long customerId,
+                                         @Param("afterDate") LocalDate afterDate,
+                                         @Param("toDate") LocalDate toDate);
+
+    /**
+     * Net movement (debit - credit) for a customer up to a date
+     */
+    @Query("SELECT COALESCE(SUM(cl.debitAmount - cl.creditAmount), 0) FROM CustomerLedger cl " +
+            "WHERE cl.customer.id = :customerId AND cl.transactionDate <= :toDate")
+    BigDecimal sumNetAmountUpTo(@Param("customerId") Long customerId, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Monthly debit/credit totals for a customer dated after a date (all history when null) up to another
+     * Rows: year, month, total debit, total credit, transaction count
+     */
+    @Query("SELECT YEAR(cl.transactionDate), MONTH(cl.transactionDate), " +
+            "SUM(cl.debitAmount), SUM(cl.creditAmount), COUNT(cl) " +
+            "FROM CustomerLedger cl WHERE cl.customer.id = :customerId " +
+            "AND (:afterDate IS NULL OR cl.transactionDate > :afterDate) AND cl.transactionDate <= :toDate " +
+            "GROUP BY YEAR(cl.transactionDate), MONTH(cl.transactionDate) " +
+            "ORDER BY YEAR(cl.transactionDate), MONTH(cl.transactionDate)")
+    List<Object[]> getMonthlyTotals(@Param("customerId") Long customerId,
+                                    @Param("afterDate") LocalDate afterDate,
+                                    @Param("toDate") LocalDate toDate);
+
+    /**
+     * Find customers with ledger entries dated on or before a date
+     */
+    @Query("SELECT DISTINCT cl.customer.id FROM CustomerLedger cl WHERE cl.transactionDate <= :toDate")
+    List<Long> findCustomersWithTransactionsUpTo(@Param("toDate") LocalDate toDate);
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -324,6 +325,28 @@ public interface CustomerPriceListRepository extends JpaRepository<CustomerPrice
             "AND cpl.isActive = true AND cpl.id != :excludeId")
     boolean existsByCustomerIdAndProductIdAndIsActiveTrueAndIdNot(@Param("customerId") Long customerId, @Param("productId") Long productId, @Param("excludeId") Long excludeId);
 
+    /**
+     * Find active price lists that have not expired before the given date
+     */
+    @Query("SELECT cpl FROM CustomerPriceList cpl WHERE cpl.isActive = true " +
+            "AND (cpl.validTo IS NULL OR cpl.validTo >= :date)")
+    List<CustomerPriceList> findActivePriceListsValidFrom(@Param("date") LocalDate date);
+
+    /**
+     * Find active price lists for a product that have not expired before the given date
+     */
+    @Query("SELECT cpl FROM CustomerPriceList cpl WHERE cpl.product.id = :productId AND cpl.isActive = true " +
+            "AND (cpl.validTo IS NULL OR cpl.validTo >= :date)")
+    List<CustomerPriceList> findActivePriceListsByProductValidFrom(@Param("productId") Long productId, @Param("date") LocalDate date);
+
+    /**
+     * Find active price lists for any of the products that have not expired before the given date
+     */
+    @Query("SELECT cpl FROM CustomerPriceList cpl WHERE cpl.product.id IN :productIds AND cpl.isActive = true " +
+            "AND (cpl.validTo IS NULL OR cpl.validTo >= :date)")
+    List<CustomerPriceList> findActivePriceListsByProductInValidFrom(@Param("productIds") Collection<Long> productIds,
+                                                                     @Param("date") LocalDate date);
+
     @Query("SELECT cpl FROM CustomerPriceList cpl WHERE cpl.id = :id")
     Optional<CustomerPriceList> findByIdAndDeletedAtIsNull(@Param("id") Long id);
 }
\ No newline at end of file
@@ -6,12 +6,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -336,6 +338,25 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSp
      */
     @Query("SELECT c FROM Customer c WHERE c.isActive = true ORDER BY c.currentBalance DESC")
     List<Customer> findTopCustomersByBalance(Pageable pageable);
+
+    /**
+     * Find top customers by total sales amount
+     */
+    @Query("SELECT c FROM Customer c WHERE c.deletedAt IS NULL ORDER BY c.totalSalesAmount DESC, c.id ASC")
+    List<Customer> findTopCustomersBySales(Pageable pageable);
+
+    /**
+     * Find top customer ids with their total sales amount (used to seed the in-memory ranking)
+     */
+    @Query("SELECT c.id, c.totalSalesAmount FROM Customer c WHERE c.deletedAt IS NULL AND c.totalSalesAmount IS NOT NULL " +
+           "ORDER BY c.totalSalesAmount DESC, c.id ASC")
+    List<Object[]> findTopSalesTotals(Pageable pageable);
+
+    /**
+     * Find most recently created customers
+     */
+    @Query("SELECT c FROM Customer c WHERE c.deletedAt IS NULL ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> findRecentCustomers(Pageable pageable);
     
     /**
      * Find customers by type and region
@@ -488,5 +509,99 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSp
 @Query("SELECT c FROM Customer c WHERE c.currentBalance > 0 AND c.deletedAt IS NULL")
     List<Customer> findCustomersWithOverdueBalance();
 
+    // ==================== METRIC UPDATES ====================
+    // Each update bumps the version, so an edit of a customer loaded before it fails with an
+    // optimistic lock conflict instead of writing the old metric values back.
 
+    /**
+     * Atomically add an order to the customer's running sales totals
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Customer c SET " +
+           "c.totalSalesAmount = COALESCE(c.totalSalesAmount, 0) + :amount, " +
+           "c.orderCount = COALESCE(c.orderCount, 0) + :orderDelta, " +
+           "c.lastOrderDate = CASE WHEN c.lastOrderDate IS NULL OR c.lastOrderDate < :orderDate " +
+           "THEN :orderDate ELSE c.lastOrderDate END, " +
+           "c.version = c.version + 1 " +
+           "WHERE c.id = :id")
+    int incrementSalesTotals(@Param("id") Long id,
+                             @Param("amount") BigDecimal amount,
+                             @Param("orderDelta") int orderDelta,
+                             @Param("orderDate") LocalDate orderDate);
+
+    /**
+     * Atomically add to the customer's total sales amount without counting an order
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Customer c SET c.totalSalesAmount = COALESCE(c.totalSalesAmount, 0) + :amount, " +
+           "c.version = c.version + 1 WHERE c.id = :id")
+    int incrementTotalSalesAmount(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Atomically add to the customer's outstanding balance
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Customer c SET c.currentBalance = COALESCE(c.currentBalance, 0) + :amount, " +
+           "c.version = c.version + 1 WHERE c.id = :id")
+    int incrementCurrentBalance(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Lock the customer row until the transaction ends, so balance checkpoints are never built
+     * while a ledger entry for the customer is uncommitted
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Customer c SET c.currentBalance = c.currentBalance WHERE c.id = :id")
+    int lockForLedger(@Param("id") Long id);
+
+    /**
+     * Lock the customer row until the transaction ends, so credit reservations of the customer
+     * run one at a time across all nodes
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Customer c SET c.creditLimit = c.creditLimit WHERE c.id = :id")
+    int lockForCredit(@Param("id") Long id);
+
+    /**
+     * Recompute the metrics derived from the running totals (average order value, outstanding flag)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Customer c SET " +
+           "c.averageOrderValue = CASE WHEN c.orderCount > 0 THEN c.totalSalesAmount / c.orderCount ELSE 0 END, " +
+           "c.hasOutstandingBalance = CASE WHEN c.currentBalance > 0 THEN true ELSE false END, " +
+           "c.version = c.version + 1 " +
+           "WHERE c.id = :id")
+    int refreshDerivedMetrics(@Param("id") Long id);
+
+    /**
+     * Read the current total sales amount
+     */
+    @Query("SELECT c.totalSalesAmount FROM Customer c WHERE c.id = :id")
+    BigDecimal findTotalSalesAmountById(@Param("id") Long id);
+
+    /**
+     * Ids of active customers without a statement for the period, after a given id (keyset paging)
+     */
+    @Query("SELECT c.id FROM Customer c WHERE c.isActive = true AND c.deletedAt IS NULL AND c.id > :afterId " +
+           "AND NOT EXISTS (SELECT s.id FROM CustomerStatement s WHERE s.customer = c " +
+           "AND s.fromDate = :fromDate AND s.toDate = :toDate) " +
+           "ORDER BY c.id")
+    List<Long> findActiveCustomerIdsWithoutStatement(@Param("afterId") Long afterId,
+                                                     @Param("fromDate") LocalDate fromDate,
+                                                     @Param("toDate") LocalDate toDate,
+                                                     Pageable pageable);
+
+    /**
+     * Count active customers without a statement for the period
+     */
+    @Query("SELECT COUNT(c) FROM Customer c WHERE c.isActive = true AND c.deletedAt IS NULL " +
+           "AND NOT EXISTS (SELECT s.id FROM CustomerStatement s WHERE s.customer = c " +
+           "AND s.fromDate = :fromDate AND s.toDate = :toDate)")
+    long countActiveCustomersWithoutStatement(@Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate);
+
+    /**
+     * Credit profile of the given customers as (id, hasCreditFacility, creditLimit, currentBalance)
+     */
+    @Query("SELECT c.id, c.hasCreditFacility, c.creditLimit, c.currentBalance FROM Customer c WHERE c.id IN :ids")
+    List<Object[]> findCreditProfilesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,125 @@
+package lk.epicgreen.erp.customer.repository;
+
+import lk.epicgreen.erp.customer.entity.Customer;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Reusable JPA Specifications for Customer segment queries
+ * Each predicate is evaluated by the database so segment lookups are served
+ * by the composite indexes declared on the customers table instead of
+ * loading the whole table into memory
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public final class CustomerSpecifications {
+
+    /**
+     * Credit warning threshold (balance at or above 90% of the credit limit)
+     */
+    private static final BigDecimal CREDIT_WARNING_RATIO = new BigDecimal("0.9");
+
+    private CustomerSpecifications() {
+    }
+
+    /**
+     * Customer is not soft deleted
+     */
+    public static Specification<Customer> notDeleted() {
+        return (root, query, cb) -> cb.isNull(root.get("deletedAt"));
+    }
+
+    /**
+     * Customer is active
+     */
+    public static Specification<Customer> active() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+
+    /**
+     * Customer is inactive
+     */
+    public static Specification<Customer> inactive() {
+        return (root, query, cb) -> cb.isFalse(root.get("isActive"));
+    }
+
+    /**
+     * Customer is suspended (inactive with a suspension reason)
+     */
+    public static Specification<Customer> suspended() {
+        return (root, query, cb) -> cb.and(
+                cb.isFalse(root.get("isActive")),
+                cb.isNotNull(root.get("suspensionReason")));
+    }
+
+    /**
+     * Customer is blacklisted
+     */
+    public static Specification<Customer> blacklisted() {
+        return (root, query, cb) -> cb.isTrue(root.get("isBlacklisted"));
+    }
+
+    /**
+     * Customer is not verified
+     */
+    public static Specification<Customer> unverified() {
+        return (root, query, cb) -> cb.isFalse(root.get("isVerified"));
+    }
+
+    /**
+     * Customer has credit facility
+     */
+    public static Specification<Customer> hasCreditFacility() {
+        return (root, query, cb) -> cb.isTrue(root.get("hasCreditFacility"));
+    }
+
+    /**
+     * Customer with credit facility whose balance is above the credit limit
+     */
+    public static Specification<Customer> creditExceeded() {
+        return (root, query, cb) -> cb.and(
+                cb.isTrue(root.get("hasCreditFacility")),
+                cb.greaterThan(root.<BigDecimal>get("currentBalance"), root.<BigDecimal>get("creditLimit")));
+    }
+
+    /**
+     * Customer with credit facility whose balance is within the warning band of the credit limit
+     */
+    public static Specification<Customer> creditWarning() {
+        return (root, query, cb) -> cb.and(
+                cb.isTrue(root.get("hasCreditFacility")),
+                cb.greaterThanOrEqualTo(root.<BigDecimal>get("currentBalance"),
+                        cb.prod(root.<BigDecimal>get("creditLimit"), CREDIT_WARNING_RATIO)),
+                cb.lessThanOrEqualTo(root.<BigDecimal>get("currentBalance"), root.<BigDecimal>get("creditLimit")));
+    }
+
+    /**
+     * Customer has not ordered on or after the given date (or has never ordered)
+     */
+    public static Specification<Customer> noOrdersSince(LocalDate date) {
+        return (root, query, cb) -> cb.or(
+                cb.isNull(root.get("lastOrderDate")),
+                cb.lessThan(root.<LocalDate>get("lastOrderDate"), date));
+    }
+
+    /**
+     * Customer is of the given type
+     */
+    public static Specification<Customer> ofType(String customerType) {
+        return (root, query, cb) -> cb.equal(root.get("customerType"), customerType);
+    }
+
+    /**
+     * Customer requires follow up: unverified, inactive, blacklisted or over the credit limit
+     */
+    public static Specification<Customer> requiringAction() {
+        return (root, query, cb) -> cb.or(
+                cb.isFalse(root.get("isVerified")),
+                cb.isFalse(root.get("isActive")),
+                cb.isTrue(root.get("isBlacklisted")),
+                creditExceeded().toPredicate(root, query, cb));
+    }
+}
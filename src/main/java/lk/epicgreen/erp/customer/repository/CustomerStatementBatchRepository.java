@@ -0,0 +1,75 @@
+package lk.epicgreen.erp.customer.repository;
+
+import lk.epicgreen.erp.customer.entity.CustomerStatementBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for CustomerStatementBatch entity
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface CustomerStatementBatchRepository extends JpaRepository<CustomerStatementBatch, Long> {
+
+    List<CustomerStatementBatch> findAllByOrderByStartedAtDesc();
+
+    List<CustomerStatementBatch> findByStatus(String status);
+
+    /**
+     * Add the outcome of a processed chunk to the batch counters
+     */
+    @Modifying
+    @Query("UPDATE CustomerStatementBatch b SET " +
+            "b.processedCustomers = b.processedCustomers + :processed, " +
+            "b.failedCustomers = b.failedCustomers + :failed " +
+            "WHERE b.id = :id")
+    int addProgress(@Param("id") Long id, @Param("processed") long processed, @Param("failed") long failed);
+
+    /**
+     * Mark a batch as finished, which frees its period; 0 when the node no longer owns it
+     */
+    @Modifying
+    @Query("UPDATE CustomerStatementBatch b SET b.status = :status, b.lastError = :lastError, b.finishedAt = :finishedAt, " +
+            "b.runningPeriod = NULL WHERE b.id = :id AND b.ownerNode = :ownerNode AND b.status = 'RUNNING'")
+    int finish(@Param("id") Long id, @Param("ownerNode") String ownerNode, @Param("status") String status,
+               @Param("lastError") String lastError, @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Set a FAILED or INTERRUPTED batch running again on the given node; 0 when it is running
+     * or completed. Fails on uk_statement_batch_running_period when another batch of the
+     * period is running
+     */
+    @Modifying
+    @Query("UPDATE CustomerStatementBatch b SET b.status = 'RUNNING', b.runningPeriod = :runningPeriod, " +
+            "b.ownerNode = :ownerNode, b.heartbeatAt = :now, b.totalCustomers = b.processedCustomers + :remaining, " +
+            "b.failedCustomers = 0, b.lastError = NULL, b.finishedAt = NULL " +
+            "WHERE b.id = :id AND b.status IN ('FAILED', 'INTERRUPTED')")
+    int claimForResume(@Param("id") Long id, @Param("runningPeriod") String runningPeriod,
+                       @Param("ownerNode") String ownerNode, @Param("remaining") long remaining,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Refresh the heartbeat of the batches a node is running
+     */
+    @Modifying
+    @Query("UPDATE CustomerStatementBatch b SET b.heartbeatAt = :now " +
+            "WHERE b.id IN :ids AND b.ownerNode = :ownerNode AND b.status = 'RUNNING'")
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("ownerNode") String ownerNode, @Param("now") LocalDateTime now);
+
+    /**
+     * Mark RUNNING batches whose owner stopped sending heartbeats as INTERRUPTED
+     */
+    @Modifying
+    @Query("UPDATE CustomerStatementBatch b SET b.status = 'INTERRUPTED', b.runningPeriod = NULL, b.finishedAt = :now " +
+            "WHERE b.status = 'RUNNING' AND (b.heartbeatAt IS NULL OR b.heartbeatAt < :staleBefore)")
+    int interruptStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,61 @@
+package lk.epicgreen.erp.customer.repository;
+
+import lk.epicgreen.erp.customer.entity.CustomerStatement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the customer_statements table for the month-end statement batch
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerStatementJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO customer_statements (" +
+        "customer_id, statement_number, statement_date, from_date, to_date, opening_balance, " +
+        "total_debit, total_credit, closing_balance, pdf_path, is_sent, created_by, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert statements as a single JDBC batch
+     */
+    public int[] batchInsert(List<CustomerStatement> statements) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CustomerStatement statement = statements.get(i);
+                ps.setLong(1, statement.getCustomer().getId());
+                ps.setString(2, statement.getStatementNumber());
+                ps.setDate(3, Date.valueOf(statement.getStatementDate()));
+                ps.setDate(4, Date.valueOf(statement.getFromDate()));
+                ps.setDate(5, Date.valueOf(statement.getToDate()));
+                ps.setBigDecimal(6, statement.getOpeningBalance());
+                ps.setBigDecimal(7, statement.getTotalDebit());
+                ps.setBigDecimal(8, statement.getTotalCredit());
+                ps.setBigDecimal(9, statement.getClosingBalance());
+                ps.setString(10, statement.getPdfPath());
+                ps.setBoolean(11, Boolean.TRUE.equals(statement.getIsSent()));
+                ps.setString(12, statement.getCreatedBy());
+                ps.setTimestamp(13, Timestamp.valueOf(statement.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return statements.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package lk.epicgreen.erp.customer.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Service interface for customer ledger balance checkpoints
+ * Month-end closing balances are stored per customer so that the balance as of any
+ * date costs one indexed checkpoint lookup plus a scan of the ledger entries after it
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface CustomerBalanceCheckpointService {
+
+    /**
+     * Ledger balance of a customer at the end of the given date
+     */
+    BigDecimal getBalanceAsOf(Long customerId, LocalDate asOfDate);
+
+    /**
+     * Create missing month-end checkpoints for a customer up to the last completed month
+     * 
+     * @return number of checkpoints created
+     */
+    int refreshCheckpoints(Long customerId);
+
+    /**
+     * Create missing month-end checkpoints for every customer with ledger activity
+     */
+    void refreshAllCheckpoints();
+
+    /**
+     * Discard checkpoints affected by a ledger entry dated on the given date, once the
+     * current transaction has committed; the invalidation itself is recorded in the current
+     * transaction, so lookups and the next refresh honour it even if the discard fails
+     */
+    void onLedgerEntryDated(Long customerId, LocalDate transactionDate);
+}
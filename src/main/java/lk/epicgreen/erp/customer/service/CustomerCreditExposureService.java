@@ -0,0 +1,47 @@
+package lk.epicgreen.erp.customer.service;
+
+import lk.epicgreen.erp.customer.dto.response.CreditExposureResponse;
+
+import java.math.BigDecimal;
+
+/**
+ * Service interface for real-time customer credit exposure
+ * 
+ * Exposure = outstanding balance + credit used + open order value, where open orders are
+ * confirmed orders that are not yet invoiced, paid, rejected or cancelled. Exposure is held
+ * in memory per customer and updated from sales order, invoice, payment and credit
+ * transaction events, so exposure reads never touch the database. Credit reservations read
+ * the committed exposure under the customer row lock, so they hold across nodes.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface CustomerCreditExposureService {
+
+    /**
+     * Get the current credit exposure of a customer
+     */
+    CreditExposureResponse getExposure(Long customerId);
+
+    /**
+     * Check that the order fits in the customer's available credit and count it as open
+     * Locks the customer row until the surrounding transaction ends and checks against the
+     * committed exposure. Replaces the amount previously held for the same order; the
+     * reservation is released again if the surrounding transaction rolls back
+     *
+     * @throws lk.epicgreen.erp.common.exception.InvalidOperationException if the credit limit would be exceeded
+     */
+    void reserveOrderCredit(Long customerId, Long orderId, BigDecimal orderAmount);
+
+    /**
+     * Drop the cached exposure of a customer so it is reloaded from the database on next use
+     */
+    void evict(Long customerId);
+
+    /**
+     * Compare every cached exposure with the database and replace the ones that drifted
+     *
+     * @return number of corrected customers
+     */
+    int reconcile();
+}
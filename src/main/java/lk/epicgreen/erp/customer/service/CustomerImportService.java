@@ -0,0 +1,24 @@
+package lk.epicgreen.erp.customer.service;
+
+import lk.epicgreen.erp.customer.dto.response.CustomerImportStatusResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Service interface for bulk customer import from CSV or XLSX files
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface CustomerImportService {
+
+    /**
+     * Start importing customers from an uploaded CSV or XLSX file
+     * The file is processed in the background; poll getImportStatus for progress
+     */
+    CustomerImportStatusResponse startImport(MultipartFile file);
+
+    /**
+     * Get progress and row errors of an import
+     */
+    CustomerImportStatusResponse getImportStatus(String importId);
+}
@@ -0,0 +1,55 @@
+package lk.epicgreen.erp.customer.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Service interface for incremental customer sales and balance metrics
+ * Each method applies a single atomic UPDATE to the customer row, so concurrent
+ * orders, invoices and payments for the same customer never lose an update
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface CustomerMetricsService {
+
+    /**
+     * Count an order towards the customer's totals (order count, total sales, last order date)
+     */
+    void recordOrderPlaced(Long customerId, BigDecimal orderAmount, LocalDate orderDate);
+
+    /**
+     * Remove a previously counted order from the customer's totals
+     */
+    void recordOrderReversed(Long customerId, BigDecimal orderAmount);
+
+    /**
+     * Add a posted invoice to the customer's outstanding balance
+     */
+    void recordInvoicePosted(Long customerId, BigDecimal invoiceAmount);
+
+    /**
+     * Remove a posted invoice from the customer's outstanding balance
+     */
+    void recordInvoiceReversed(Long customerId, BigDecimal invoiceAmount);
+
+    /**
+     * Deduct a cleared payment from the customer's outstanding balance
+     */
+    void recordPaymentCleared(Long customerId, BigDecimal paymentAmount);
+
+    /**
+     * Apply a manual ledger entry (debit minus credit) to the customer's outstanding balance
+     */
+    void recordLedgerEntry(Long customerId, BigDecimal debitAmount, BigDecimal creditAmount);
+
+    /**
+     * Add an arbitrary amount to the customer's total sales
+     */
+    void addToTotalSales(Long customerId, BigDecimal amount);
+
+    /**
+     * Recompute values derived from the running totals (average order value, outstanding flag)
+     */
+    void refreshDerivedMetrics(Long customerId);
+}
@@ -253,6 +253,13 @@ public interface CustomerService {
      */
     List<CustomerResponse> getCustomersRequiringAction();
 
+    /**
+     * Get customers in a named segment with pagination
+     * (ACTIVE, INACTIVE, PENDING, UNVERIFIED, SUSPENDED, BLACKLISTED, WITH_CREDIT, CREDIT_EXCEEDED,
+     * CREDIT_WARNING, WITHOUT_RECENT_ORDERS, REQUIRING_ACTION, WHOLESALE, RETAIL, DISTRIBUTOR, DIRECT)
+     */
+    PageResponse<CustomerResponse> getCustomersBySegment(String segment, Integer days, Pageable pageable);
+
     /**
      * Get top customers by sales volume
      */
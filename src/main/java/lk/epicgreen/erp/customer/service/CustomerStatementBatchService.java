@@ -0,0 +1,30 @@
+package lk.epicgreen.erp.customer.service;
+
+import lk.epicgreen.erp.customer.dto.response.CustomerStatementBatchResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service interface for the month-end customer statement batch
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface CustomerStatementBatchService {
+
+    /**
+     * Start generating statements for all active customers for the period
+     * Runs in the background; poll getBatch for progress
+     */
+    CustomerStatementBatchResponse startBatch(LocalDate fromDate, LocalDate toDate, String username);
+
+    /**
+     * Resume a failed or interrupted batch, skipping customers that already have a statement
+     */
+    CustomerStatementBatchResponse resumeBatch(Long batchId);
+
+    CustomerStatementBatchResponse getBatch(Long batchId);
+
+    List<CustomerStatementBatchResponse> getAllBatches();
+}
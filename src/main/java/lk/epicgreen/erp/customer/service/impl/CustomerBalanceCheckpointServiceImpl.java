@@ -0,0 +1,217 @@
+package lk.epicgreen.erp.customer.service.impl;
+
+import lk.epicgreen.erp.customer.entity.Customer;
+import lk.epicgreen.erp.customer.entity.CustomerBalanceCheckpoint;
+import lk.epicgreen.erp.customer.entity.CustomerCheckpointInvalidation;
+import lk.epicgreen.erp.customer.repository.CustomerBalanceCheckpointRepository;
+import lk.epicgreen.erp.customer.repository.CustomerCheckpointInvalidationRepository;
+import lk.epicgreen.erp.customer.repository.CustomerLedgerRepository;
+import lk.epicgreen.erp.customer.repository.CustomerRepository;
+import lk.epicgreen.erp.customer.service.CustomerBalanceCheckpointService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of CustomerBalanceCheckpointService interface
+ * 
+ * Checkpoints are built from monthly debit/credit totals computed by the database and are
+ * only created for completed months. A ledger entry dated on or before an existing
+ * checkpoint records an invalidation in its own transaction and removes the affected
+ * checkpoints once it has committed; the nightly refresh rebuilds them. The ledger entry and
+ * the refresh both lock the customer row first, so a refresh either reads the committed entry
+ * or finishes before it and is cleaned up after it. Should the removal fail, the invalidation
+ * stays: balance lookups skip the checkpoints it covers and the next refresh removes them.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class CustomerBalanceCheckpointServiceImpl implements CustomerBalanceCheckpointService {
+
+    private final CustomerBalanceCheckpointRepository checkpointRepository;
+    private final CustomerCheckpointInvalidationRepository invalidationRepository;
+    private final CustomerLedgerRepository customerLedgerRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate invalidationTemplate;
+
+    public CustomerBalanceCheckpointServiceImpl(CustomerBalanceCheckpointRepository checkpointRepository,
+                                                CustomerCheckpointInvalidationRepository invalidationRepository,
+                                                CustomerLedgerRepository customerLedgerRepository,
+                                                CustomerRepository customerRepository,
+                                                PlatformTransactionManager transactionManager) {
+        this.checkpointRepository = checkpointRepository;
+        this.invalidationRepository = invalidationRepository;
+        this.customerLedgerRepository = customerLedgerRepository;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invalidationTemplate = new TransactionTemplate(transactionManager);
+        // Runs after the ledger entry's transaction has committed
+        this.invalidationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public BigDecimal getBalanceAsOf(Long customerId, LocalDate asOfDate) {
+        // Checkpoints from a pending invalidation on are stale
+        LocalDate checkpointUpTo = asOfDate;
+        LocalDate invalidFrom = invalidationRepository.findEarliestFromDate(customerId);
+        if (invalidFrom != null && !invalidFrom.isAfter(asOfDate)) {
+            checkpointUpTo = invalidFrom.minusDays(1);
+        }
+        Optional<CustomerBalanceCheckpoint> checkpoint = checkpointRepository
+            .findFirstByCustomerIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(customerId, checkpointUpTo);
+
+        if (!checkpoint.isPresent()) {
+            return customerLedgerRepository.sumNetAmountUpTo(customerId, asOfDate);
+        }
+        CustomerBalanceCheckpoint latest = checkpoint.get();
+        if (latest.getCheckpointDate().equals(asOfDate)) {
+            return latest.getClosingBalance();
+        }
+        return latest.getClosingBalance().add(
+            customerLedgerRepository.sumNetAmountAfterDateUpTo(customerId, latest.getCheckpointDate(), asOfDate));
+    }
+
+    @Override
+    @Transactional
+    public int refreshCheckpoints(Long customerId) {
+        // Before any read: waits for an uncommitted ledger entry of the customer
+        customerRepository.lockForLedger(customerId);
+        applyInvalidations(customerId);
+
+        LocalDate upTo = lastCompletedMonthEnd();
+        Optional<CustomerBalanceCheckpoint> latest = checkpointRepository.findFirstByCustomerIdOrderByCheckpointDateDesc(customerId);
+        if (latest.isPresent() && !latest.get().getCheckpointDate().isBefore(upTo)) {
+            return 0;
+        }
+
+        LocalDate afterDate = latest.map(CustomerBalanceCheckpoint::getCheckpointDate).orElse(null);
+        BigDecimal balance = latest.map(CustomerBalanceCheckpoint::getClosingBalance).orElse(BigDecimal.ZERO);
+        Customer customer = customerRepository.getReferenceById(customerId);
+
+        List<CustomerBalanceCheckpoint> checkpoints = new ArrayList<>();
+        for (Object[] row : customerLedgerRepository.getMonthlyTotals(customerId, afterDate, upTo)) {
+            BigDecimal debit = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            BigDecimal credit = row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+            balance = balance.add(debit).subtract(credit);
+
+            checkpoints.add(CustomerBalanceCheckpoint.builder()
+                .customer(customer)
+                .checkpointDate(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()).atEndOfMonth())
+                .periodDebit(debit)
+                .periodCredit(credit)
+                .transactionCount(((Number) row[4]).longValue())
+                .closingBalance(balance)
+                .build());
+        }
+        checkpointRepository.saveAll(checkpoints);
+        return checkpoints.size();
+    }
+
+    @Override
+    @Scheduled(cron = "${application.customer.balance-checkpoint-cron:0 30 1 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void refreshAllCheckpoints() {
+        log.info("Refreshing customer balance checkpoints");
+
+        List<Long> customerIds = customerLedgerRepository.findCustomersWithTransactionsUpTo(lastCompletedMonthEnd());
+        int created = 0;
+        for (Long customerId : customerIds) {
+            try {
+                Integer count = transactionTemplate.execute(status -> refreshCheckpoints(customerId));
+                created += count != null ? count : 0;
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh balance checkpoints for customer: {}", customerId, e);
+            }
+        }
+
+        log.info("Customer balance checkpoints refreshed: {} customers, {} checkpoints created", customerIds.size(), created);
+    }
+
+    @Override
+    @Transactional
+    public void onLedgerEntryDated(Long customerId, LocalDate transactionDate) {
+        // Checkpoints only exist for completed months, so current month entries never affect them
+        if (transactionDate == null || transactionDate.isAfter(lastCompletedMonthEnd())) {
+            return;
+        }
+        // Held until the entry commits, so a refresh cannot read the ledger before it
+        customerRepository.lockForLedger(customerId);
+
+        // Commits with the entry, so the invalidation outlives a failed removal below
+        CustomerCheckpointInvalidation invalidation = new CustomerCheckpointInvalidation();
+        invalidation.setCustomerId(customerId);
+        invalidation.setFromDate(transactionDate);
+        invalidation.setCreatedAt(LocalDateTime.now());
+        Long invalidationId = invalidationRepository.save(invalidation).getId();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeCheckpointsFrom(invalidationId, customerId, transactionDate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    removeCheckpointsFrom(invalidationId, customerId, transactionDate);
+                } catch (RuntimeException e) {
+                    log.error("Failed to invalidate balance checkpoints for customer: {}; the nightly refresh will retry",
+                        customerId, e);
+                }
+            }
+        });
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private void removeCheckpointsFrom(Long invalidationId, Long customerId, LocalDate transactionDate) {
+        Integer removed = invalidationTemplate.execute(status -> {
+            int deleted = checkpointRepository.deleteByCustomerIdFromDate(customerId, transactionDate);
+            // Gone already when a refresh applied it first
+            invalidationRepository.findById(invalidationId).ifPresent(invalidationRepository::delete);
+            return deleted;
+        });
+        if (removed != null && removed > 0) {
+            log.info("Back-dated ledger entry on {} invalidated {} balance checkpoints for customer: {}",
+                transactionDate, removed, customerId);
+        }
+    }
+
+    /**
+     * Delete the checkpoints of invalidations left behind by a failed removal (customer row locked)
+     */
+    private void applyInvalidations(Long customerId) {
+        List<CustomerCheckpointInvalidation> pending = invalidationRepository.findByCustomerId(customerId);
+        if (pending.isEmpty()) {
+            return;
+        }
+        LocalDate fromDate = pending.stream().map(CustomerCheckpointInvalidation::getFromDate).min(LocalDate::compareTo).get();
+        int removed = checkpointRepository.deleteByCustomerIdFromDate(customerId, fromDate);
+        invalidationRepository.deleteAll(pending);
+        log.info("Pending invalidation from {} removed {} balance checkpoints for customer: {}", fromDate, removed, customerId);
+    }
+
+    private LocalDate lastCompletedMonthEnd() {
+        return LocalDate.now().withDayOfMonth(1).minusDays(1);
+    }
+}
@@ -0,0 +1,431 @@
+package lk.epicgreen.erp.customer.service.impl;
+
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.credit.controller.event.CreditLimitChangedEvent;
+import lk.epicgreen.erp.credit.controller.event.CreditTransactionRecordedEvent;
+import lk.epicgreen.erp.credit.controller.repo.CreditLimitRepository;
+import lk.epicgreen.erp.customer.dto.response.CreditExposureResponse;
+import lk.epicgreen.erp.customer.repository.CustomerRepository;
+import lk.epicgreen.erp.customer.service.CustomerCreditExposureService;
+import lk.epicgreen.erp.payment.event.PaymentStatusChangedEvent;
+import lk.epicgreen.erp.sales.event.InvoiceStatusChangedEvent;
+import lk.epicgreen.erp.sales.event.SalesOrderStatusChangedEvent;
+import lk.epicgreen.erp.sales.repository.SalesOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of CustomerCreditExposureService interface
+ *
+ * Exposure is loaded per customer on first use (customer profile, approved credit limit and
+ * open orders) and from then on changed only by committed events, each change applied under
+ * the customer's lock; it serves exposure reads on this node. Order confirmation and approval
+ * decide on committed state instead: they lock the customer row, which is held until the
+ * order commits, and re-read the exposure in a new transaction. A reservation on any node
+ * therefore sees every order that passed the check before it, so two concurrent orders cannot
+ * both use the last of a customer's credit. The re-read also replaces the cached entry.
+ *
+ * A nightly reconciliation reloads the cached customers from the database and replaces the
+ * entries that drifted (e.g. an event applied to an entry loaded while its transaction was
+ * committing).
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class CustomerCreditExposureServiceImpl implements CustomerCreditExposureService {
+
+    /**
+     * Order statuses that hold credit: confirmed but not yet invoiced, paid, rejected or cancelled
+     */
+    private static final List<String> OPEN_ORDER_STATUSES = Arrays.asList(
+        "CONFIRMED", "PENDING_APPROVAL", "APPROVED", "PROCESSING", "PACKED", "DISPATCHED", "DELIVERED");
+
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    private final CustomerRepository customerRepository;
+    private final CreditLimitRepository creditLimitRepository;
+    private final SalesOrderRepository salesOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Exposure> exposures = new ConcurrentHashMap<>();
+
+    public CustomerCreditExposureServiceImpl(CustomerRepository customerRepository,
+                                             CreditLimitRepository creditLimitRepository,
+                                             SalesOrderRepository salesOrderRepository,
+                                             PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.creditLimitRepository = creditLimitRepository;
+        this.salesOrderRepository = salesOrderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Loads must only see committed state, never the caller's pending changes
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public CreditExposureResponse getExposure(Long customerId) {
+        while (true) {
+            Exposure exposure = exposure(customerId);
+            synchronized (exposure) {
+                if (!exposure.retired) {
+                    return exposure.toResponse();
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void reserveOrderCredit(Long customerId, Long orderId, BigDecimal orderAmount) {
+        if (customerId == null || orderId == null) {
+            return;
+        }
+        BigDecimal amount = nonNull(orderAmount);
+
+        // Before the read: a reservation still uncommitted on any node makes this wait
+        if (customerRepository.lockForCredit(customerId) == 0) {
+            throw new ResourceNotFoundException("Customer not found: " + customerId);
+        }
+        Exposure exposure = load(Collections.singletonList(customerId)).get(customerId);
+        if (exposure == null) {
+            throw new ResourceNotFoundException("Customer not found: " + customerId);
+        }
+
+        BigDecimal previous = exposure.openOrders.get(orderId);
+        BigDecimal available = exposure.availableCredit();
+        if (exposure.creditFacility && available != null) {
+            // The order's own earlier amount is given back before checking the new one
+            BigDecimal availableForOrder = available.add(nonNull(previous));
+            if (amount.compareTo(availableForOrder) > 0) {
+                throw new InvalidOperationException(
+                    "Credit limit exceeded for customer " + customerId + ". Order amount: " + amount +
+                    ", available credit: " + availableForOrder);
+            }
+        }
+        exposure.putOrder(orderId, amount);
+        exposure.pendingOrders.add(orderId);
+
+        Exposure replaced = exposures.put(customerId, exposure);
+        if (replaced != null) {
+            synchronized (replaced) {
+                replaced.retired = true;
+            }
+        }
+        completeReservation(customerId, orderId, previous);
+    }
+
+    @Override
+    public void evict(Long customerId) {
+        Exposure removed = exposures.remove(customerId);
+        if (removed != null) {
+            synchronized (removed) {
+                removed.retired = true;
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${application.customer.credit-exposure-reconcile-cron:0 45 1 * * *}")
+    public int reconcile() {
+        long started = System.currentTimeMillis();
+        List<Long> customerIds = new ArrayList<>(exposures.keySet());
+        int corrected = 0;
+
+        for (int from = 0; from < customerIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = customerIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, customerIds.size()));
+
+            // Versions are taken before reading so updates applied during the read are detected
+            Map<Long, Long> versions = new HashMap<>();
+            for (Long customerId : chunk) {
+                Exposure cached = exposures.get(customerId);
+                if (cached != null) {
+                    synchronized (cached) {
+                        versions.put(customerId, cached.version);
+                    }
+                }
+            }
+            Map<Long, Exposure> loaded = load(chunk);
+
+            for (Long customerId : chunk) {
+                Exposure cached = exposures.get(customerId);
+                Long version = versions.get(customerId);
+                if (cached == null || version == null) {
+                    continue;
+                }
+                Exposure fresh = loaded.get(customerId);
+                synchronized (cached) {
+                    if (cached.retired || cached.version != version || !cached.pendingOrders.isEmpty()) {
+                        // Changed while reading; checked again on the next run
+                        continue;
+                    }
+                    if (fresh != null && cached.matches(fresh)) {
+                        continue;
+                    }
+                    log.warn("Credit exposure drift for customer: {}, cached: {}, database: {}",
+                        customerId, cached.toResponse(), fresh != null ? fresh.toResponse() : "deleted");
+                    cached.retired = true;
+                    if (fresh != null) {
+                        exposures.replace(customerId, cached, fresh);
+                    } else {
+                        exposures.remove(customerId, cached);
+                    }
+                    corrected++;
+                }
+            }
+        }
+
+        log.info("Credit exposure reconciled for {} customers in {} ms, {} corrected",
+            customerIds.size(), System.currentTimeMillis() - started, corrected);
+        return corrected;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesOrderStatusChanged(SalesOrderStatusChangedEvent event) {
+        boolean open = OPEN_ORDER_STATUSES.contains(event.getNewStatus());
+        update(event.getCustomerId(), exposure -> {
+            if (open) {
+                exposure.putOrder(event.getOrderId(), nonNull(event.getTotalAmount()));
+            } else {
+                exposure.removeOrder(event.getOrderId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        boolean postedBefore = "POSTED".equals(event.getPreviousStatus());
+        boolean postedAfter = "POSTED".equals(event.getNewStatus());
+        BigDecimal amount = nonNull(event.getTotalAmount());
+
+        if (!postedBefore && postedAfter) {
+            update(event.getCustomerId(), exposure -> exposure.outstandingBalance = exposure.outstandingBalance.add(amount));
+        } else if (postedBefore && "CANCELLED".equals(event.getNewStatus())) {
+            update(event.getCustomerId(), exposure -> exposure.outstandingBalance = exposure.outstandingBalance.subtract(amount));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+        if (!"CLEARED".equals(event.getPreviousStatus()) && "CLEARED".equals(event.getNewStatus())) {
+            BigDecimal amount = nonNull(event.getTotalAmount());
+            update(event.getCustomerId(), exposure -> exposure.outstandingBalance = exposure.outstandingBalance.subtract(amount));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreditTransactionRecorded(CreditTransactionRecordedEvent event) {
+        BigDecimal delta = nonNull(event.getCreditUsedDelta());
+        update(event.getCustomerId(), exposure -> exposure.creditUsed = exposure.creditUsed.add(delta));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreditLimitChanged(CreditLimitChangedEvent event) {
+        if (event.getCustomerId() != null) {
+            evict(event.getCustomerId());
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private Exposure exposure(Long customerId) {
+        Exposure cached = exposures.get(customerId);
+        if (cached != null) {
+            return cached;
+        }
+        Exposure loaded = load(Collections.singletonList(customerId)).get(customerId);
+        if (loaded == null) {
+            throw new ResourceNotFoundException("Customer not found: " + customerId);
+        }
+        Exposure raced = exposures.putIfAbsent(customerId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /**
+     * Apply a committed change to a cached exposure; customers that are not cached pick the
+     * change up from the database when they are loaded
+     */
+    private void update(Long customerId, Consumer<Exposure> change) {
+        if (customerId == null) {
+            return;
+        }
+        while (true) {
+            Exposure exposure = exposures.get(customerId);
+            if (exposure == null) {
+                return;
+            }
+            synchronized (exposure) {
+                if (!exposure.retired) {
+                    change.accept(exposure);
+                    exposure.version++;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * On commit the order's status change event confirms the reservation; on rollback the
+     * amount held before the reservation is restored
+     */
+    private void completeReservation(Long customerId, Long orderId, BigDecimal previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(customerId, exposure -> exposure.pendingOrders.remove(orderId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                update(customerId, exposure -> {
+                    exposure.pendingOrders.remove(orderId);
+                    if (status != STATUS_COMMITTED) {
+                        if (previous != null) {
+                            exposure.putOrder(orderId, previous);
+                        } else {
+                            exposure.removeOrder(orderId);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private Map<Long, Exposure> load(Collection<Long> customerIds) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Exposure> loaded = new HashMap<>();
+            for (Object[] row : customerRepository.findCreditProfilesByIdIn(customerIds)) {
+                Exposure exposure = new Exposure();
+                exposure.creditFacility = Boolean.TRUE.equals(row[1]);
+                exposure.creditLimit = (BigDecimal) row[2];
+                exposure.outstandingBalance = nonNull((BigDecimal) row[3]);
+                loaded.put((Long) row[0], exposure);
+            }
+            // Oldest effective first, so the latest approved limit wins
+            for (Object[] row : creditLimitRepository.findApprovedLimitsInForce(customerIds)) {
+                Exposure exposure = loaded.get((Long) row[0]);
+                if (exposure != null) {
+                    exposure.creditLimit = (BigDecimal) row[1];
+                    exposure.creditUsed = nonNull((BigDecimal) row[2]);
+                }
+            }
+            for (Object[] row : salesOrderRepository.findOrderAmountsByCustomerIdsAndStatuses(customerIds, OPEN_ORDER_STATUSES)) {
+                Exposure exposure = loaded.get((Long) row[0]);
+                if (exposure != null) {
+                    exposure.putOrder((Long) row[1], nonNull((BigDecimal) row[2]));
+                }
+            }
+            loaded.forEach((customerId, exposure) -> exposure.customerId = customerId);
+            return loaded;
+        });
+    }
+
+    private static BigDecimal nonNull(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * Credit exposure of one customer; all access is synchronized on the instance
+     */
+    private static final class Exposure {
+        private Long customerId;
+        private boolean creditFacility;
+        private BigDecimal creditLimit;
+        private BigDecimal outstandingBalance = BigDecimal.ZERO;
+        private BigDecimal creditUsed = BigDecimal.ZERO;
+        private final Map<Long, BigDecimal> openOrders = new HashMap<>();
+        private BigDecimal openOrderValue = BigDecimal.ZERO;
+
+        /**
+         * Orders reserved by transactions that have not completed yet
+         */
+        private final Set<Long> pendingOrders = new HashSet<>();
+
+        /**
+         * Incremented on every change, lets reconciliation detect concurrent updates
+         */
+        private long version;
+
+        /**
+         * Set once the entry is evicted or replaced; holders must look the customer up again
+         */
+        private boolean retired;
+
+        private void putOrder(Long orderId, BigDecimal amount) {
+            BigDecimal previous = openOrders.put(orderId, amount);
+            openOrderValue = openOrderValue.add(amount).subtract(nonNull(previous));
+        }
+
+        private void removeOrder(Long orderId) {
+            BigDecimal previous = openOrders.remove(orderId);
+            if (previous != null) {
+                openOrderValue = openOrderValue.subtract(previous);
+            }
+        }
+
+        private BigDecimal availableCredit() {
+            if (creditLimit == null) {
+                return null;
+            }
+            return creditLimit.subtract(outstandingBalance).subtract(creditUsed).subtract(openOrderValue);
+        }
+
+        private boolean matches(Exposure other) {
+            if (creditFacility != other.creditFacility
+                || !sameAmount(creditLimit, other.creditLimit)
+                || !sameAmount(outstandingBalance, other.outstandingBalance)
+                || !sameAmount(creditUsed, other.creditUsed)
+                || openOrders.size() != other.openOrders.size()) {
+                return false;
+            }
+            for (Map.Entry<Long, BigDecimal> order : openOrders.entrySet()) {
+                if (!sameAmount(order.getValue(), other.openOrders.get(order.getKey()))) {
+                    return false;
+                }
+            }
+            return Objects.equals(customerId, other.customerId);
+        }
+
+        private CreditExposureResponse toResponse() {
+            return CreditExposureResponse.builder()
+                .customerId(customerId)
+                .hasCreditFacility(creditFacility)
+                .creditLimit(creditLimit)
+                .outstandingBalance(outstandingBalance)
+                .creditUsed(creditUsed)
+                .openOrderValue(openOrderValue)
+                .openOrderCount(openOrders.size())
+                .availableCredit(availableCredit())
+                .build();
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package lk.epicgreen.erp.customer.service.impl;
+
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.customer.dto.request.CustomerRequest;
+import lk.epicgreen.erp.customer.dto.response.CustomerImportRowError;
+import lk.epicgreen.erp.customer.dto.response.CustomerImportStatusResponse;
+import lk.epicgreen.erp.customer.entity.Customer;
+import lk.epicgreen.erp.customer.mapper.CustomerMapper;
+import lk.epicgreen.erp.customer.repository.CustomerJdbcRepository;
+import lk.epicgreen.erp.customer.service.CustomerImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Implementation of CustomerImportService interface
+ *
+ * Files are streamed row by row (CSV parser / POI SAX reader), validated with the
+ * CustomerRequest constraints, checked for duplicates against in-memory hash sets of
+ * existing customer codes, emails and phones, and written with JDBC batch inserts.
+ * Memory use is bounded by one batch of rows plus the duplicate key sets.
+ * A failed batch is retried row by row so that only the offending rows are rejected.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    private static final String STATUS_QUEUED = "QUEUED";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * Finished imports are kept for status polling for this long
+     */
+    private static final Duration FINISHED_RETENTION = Duration.ofHours(1);
+
+    /**
+     * Importable columns keyed by normalized header (lower case, letters and digits only)
+     */
+    private static final Map<String, BiConsumer<CustomerRequest, String>> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("customercode", (r, v) -> r.setCustomerCode(v.toUpperCase(Locale.ROOT)));
+        COLUMNS.put("customername", CustomerRequest::setCustomerName);
+        COLUMNS.put("customertype", (r, v) -> r.setCustomerType(v.toUpperCase(Locale.ROOT)));
+        COLUMNS.put("contactperson", CustomerRequest::setContactPerson);
+        COLUMNS.put("email", CustomerRequest::setEmail);
+        COLUMNS.put("phone", CustomerRequest::setPhone);
+        COLUMNS.put("mobile", CustomerRequest::setMobile);
+        COLUMNS.put("taxid", CustomerRequest::setTaxId);
+        COLUMNS.put("paymentterms", CustomerRequest::setPaymentTerms);
+        COLUMNS.put("creditlimit", (r, v) -> r.setCreditLimit(new BigDecimal(v.replace(",", ""))));
+        COLUMNS.put("creditdays", (r, v) -> r.setCreditDays(Integer.valueOf(v)));
+        COLUMNS.put("billingaddressline1", CustomerRequest::setBillingAddressLine1);
+        COLUMNS.put("billingaddressline2", CustomerRequest::setBillingAddressLine2);
+        COLUMNS.put("billingcity", CustomerRequest::setBillingCity);
+        COLUMNS.put("billingstate", CustomerRequest::setBillingState);
+        COLUMNS.put("billingcountry", CustomerRequest::setBillingCountry);
+        COLUMNS.put("billingpostalcode", CustomerRequest::setBillingPostalCode);
+        COLUMNS.put("shippingaddressline1", CustomerRequest::setShippingAddressLine1);
+        COLUMNS.put("shippingaddressline2", CustomerRequest::setShippingAddressLine2);
+        COLUMNS.put("shippingcity", CustomerRequest::setShippingCity);
+        COLUMNS.put("shippingstate", CustomerRequest::setShippingState);
+        COLUMNS.put("shippingcountry", CustomerRequest::setShippingCountry);
+        COLUMNS.put("shippingpostalcode", CustomerRequest::setShippingPostalCode);
+        COLUMNS.put("assignedsalesrepid", (r, v) -> r.setAssignedSalesRepId(Long.valueOf(v)));
+        COLUMNS.put("region", CustomerRequest::setRegion);
+        COLUMNS.put("routecode", CustomerRequest::setRouteCode);
+        COLUMNS.put("isactive", (r, v) -> r.setIsActive(parseBoolean(v)));
+    }
+
+    private final CustomerJdbcRepository customerJdbcRepository;
+    private final CustomerMapper customerMapper;
+    private final Validator validator;
+    private final AuditorAware<Long> auditorProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public CustomerImportServiceImpl(CustomerJdbcRepository customerJdbcRepository,
+                                     CustomerMapper customerMapper,
+                                     Validator validator,
+                                     AuditorAware<Long> auditorProvider,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${application.customer.import-batch-size:500}") int batchSize,
+                                     @Value("${application.customer.import-max-errors:1000}") int maxErrors) {
+        this.customerJdbcRepository = customerJdbcRepository;
+        this.customerMapper = customerMapper;
+        this.validator = validator;
+        this.auditorProvider = auditorProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public CustomerImportStatusResponse startImport(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidOperationException("Import file is empty");
+        }
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload";
+        String extension = fileName.toLowerCase(Locale.ROOT);
+        boolean xlsx = extension.endsWith(".xlsx");
+        if (!xlsx && !extension.endsWith(".csv")) {
+            throw new InvalidOperationException("Unsupported import file type: " + fileName + ". Use CSV or XLSX.");
+        }
+
+        purgeFinishedJobs();
+
+        // The multipart upload is removed when the request completes, so keep a private copy
+        File copy;
+        try {
+            copy = Files.createTempFile("customer-import-", xlsx ? ".xlsx" : ".csv").toFile();
+            file.transferTo(copy);
+        } catch (IOException e) {
+            throw new InvalidOperationException("Unable to store import file: " + e.getMessage(), e);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), fileName,
+            auditorProvider.getCurrentAuditor().orElse(null));
+        jobs.put(job.importId, job);
+        log.info("Customer import {} queued for file: {}", job.importId, fileName);
+
+        importExecutor.execute(() -> runImport(job, copy, xlsx));
+        return job.toResponse();
+    }
+
+    @Override
+    public CustomerImportStatusResponse getImportStatus(String importId) {
+        ImportJob job = jobs.get(importId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Customer import not found: " + importId);
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private void runImport(ImportJob job, File file, boolean xlsx) {
+        job.status = STATUS_RUNNING;
+        log.info("Customer import {} started", job.importId);
+
+        try {
+            ImportRun run = new ImportRun(job);
+            loadExistingKeys(run);
+            if (xlsx) {
+                CustomerImportFileReader.readXlsx(file, run::onRow);
+            } else {
+                CustomerImportFileReader.readCsv(file, run::onRow);
+            }
+            if (run.columns == null) {
+                throw new InvalidOperationException("Import file has no header row");
+            }
+            flush(run);
+
+            job.status = STATUS_COMPLETED;
+            log.info("Customer import {} completed: {} rows processed, {} imported, {} failed",
+                job.importId, job.processedRows.get(), job.importedRows.get(), job.failedRows.get());
+        } catch (Exception e) {
+            job.failureReason = e.getMessage();
+            job.status = STATUS_FAILED;
+            log.error("Customer import {} failed after {} rows", job.importId, job.processedRows.get(), e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    private void loadExistingKeys(ImportRun run) {
+        customerJdbcRepository.streamCustomerKeys(rs -> {
+            addKey(run.codes, normalizeCode(rs.getString(1)));
+            // Soft deleted customers keep their code but release their email and phone
+            if (rs.getTimestamp(4) == null) {
+                addKey(run.emails, normalizeEmail(rs.getString(2)));
+                addKey(run.phones, normalizePhone(rs.getString(3)));
+            }
+        });
+        log.debug("Customer import {} loaded {} existing customer codes", run.job.importId, run.codes.size());
+    }
+
+    private void processRow(ImportRun run, long rowNumber, List<String> cells) {
+        CustomerRequest request = new CustomerRequest();
+        for (Map.Entry<Integer, String> column : run.columns.entrySet()) {
+            int index = column.getKey();
+            String value = index < cells.size() ? trimToNull(cells.get(index)) : null;
+            if (value == null) {
+                continue;
+            }
+            try {
+                COLUMNS.get(column.getValue()).accept(request, value);
+            } catch (IllegalArgumentException e) {
+                run.job.reject(rowNumber, request.getCustomerCode(),
+                    "Invalid value '" + value + "' in column " + run.headers.get(index), maxErrors);
+                return;
+            }
+        }
+
+        Set<ConstraintViolation<CustomerRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            Set<String> messages = new TreeSet<>();
+            for (ConstraintViolation<CustomerRequest> violation : violations) {
+                messages.add(violation.getMessage());
+            }
+            run.job.reject(rowNumber, request.getCustomerCode(), String.join("; ", messages), maxErrors);
+            return;
+        }
+
+        String code = normalizeCode(request.getCustomerCode());
+        String email = normalizeEmail(request.getEmail());
+        String phone = normalizePhone(request.getPhone());
+        if (run.codes.contains(code)) {
+            run.job.reject(rowNumber, request.getCustomerCode(), "Customer code already exists", maxErrors);
+            return;
+        }
+        if (email != null && run.emails.contains(email)) {
+            run.job.reject(rowNumber, request.getCustomerCode(), "Email already exists: " + request.getEmail(), maxErrors);
+            return;
+        }
+        if (phone != null && run.phones.contains(phone)) {
+            run.job.reject(rowNumber, request.getCustomerCode(), "Phone already exists: " + request.getPhone(), maxErrors);
+            return;
+        }
+        run.codes.add(code);
+        addKey(run.emails, email);
+        addKey(run.phones, phone);
+
+        Customer customer = customerMapper.toEntity(request);
+        customer.setAssignedSalesRepId(request.getAssignedSalesRepId());
+        customer.setHasCreditFacility(customer.getCreditLimit() != null
+            && customer.getCreditLimit().compareTo(BigDecimal.ZERO) > 0);
+        customer.setCreatedAt(run.importedAt);
+        customer.setCreatedBy(run.job.createdBy);
+
+        run.batch.add(customer);
+        run.batchRows.add(rowNumber);
+        if (run.batch.size() >= batchSize) {
+            flush(run);
+        }
+    }
+
+    private void flush(ImportRun run) {
+        if (run.batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> customerJdbcRepository.batchInsert(run.batch));
+            run.job.importedRows.addAndGet(run.batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Customer import {} batch failed, retrying {} rows individually: {}",
+                run.job.importId, run.batch.size(), e.getMostSpecificCause().getMessage());
+            for (int i = 0; i < run.batch.size(); i++) {
+                Customer customer = run.batch.get(i);
+                try {
+                    customerJdbcRepository.insert(customer);
+                    run.job.importedRows.incrementAndGet();
+                } catch (DataAccessException rowError) {
+                    run.job.reject(run.batchRows.get(i), customer.getCustomerCode(),
+                        rowError.getMostSpecificCause().getMessage(), maxErrors);
+                }
+            }
+        }
+        log.debug("Customer import {} progress: {} rows processed, {} imported",
+            run.job.importId, run.job.processedRows.get(), run.job.importedRows.get());
+        run.batch.clear();
+        run.batchRows.clear();
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(FINISHED_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void addKey(Set<String> keys, String key) {
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+
+    private static String normalizeHeader(String header) {
+        return header == null ? "" : header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static String normalizeCode(String code) {
+        return code == null ? null : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String normalizeEmail(String email) {
+        String value = trimToNull(email);
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizePhone(String phone) {
+        String digits = phone == null ? "" : phone.replaceAll("[^0-9]", "");
+        return digits.isEmpty() ? null : digits;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "y":
+            case "1":
+                return Boolean.TRUE;
+            case "false":
+            case "no":
+            case "n":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException("Invalid boolean: " + value);
+        }
+    }
+
+    /**
+     * State of a single pass over an import file
+     */
+    private final class ImportRun {
+
+        private final ImportJob job;
+        private final LocalDateTime importedAt = LocalDateTime.now();
+        private final Set<String> codes = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        private final List<Customer> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRows = new ArrayList<>(batchSize);
+
+        /**
+         * Column index to normalized header, for recognised columns only
+         */
+        private Map<Integer, String> columns;
+        private List<String> headers;
+
+        private ImportRun(ImportJob job) {
+            this.job = job;
+        }
+
+        private void onRow(long rowNumber, List<String> cells) {
+            if (columns == null) {
+                readHeader(cells);
+                return;
+            }
+            job.processedRows.incrementAndGet();
+            processRow(this, rowNumber, cells);
+        }
+
+        private void readHeader(List<String> cells) {
+            headers = new ArrayList<>(cells);
+            columns = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                String key = normalizeHeader(cells.get(i));
+                if (COLUMNS.containsKey(key)) {
+                    columns.put(i, key);
+                }
+            }
+            for (String required : new String[] {"customercode", "customername", "customertype"}) {
+                if (!columns.containsValue(required)) {
+                    throw new InvalidOperationException("Import file is missing required column: " + required);
+                }
+            }
+        }
+    }
+
+    /**
+     * Progress of an import, shared between the import thread and status requests
+     */
+    private static final class ImportJob {
+
+        private final String importId;
+        private final String fileName;
+        private final Long createdBy;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processedRows = new AtomicLong();
+        private final AtomicLong importedRows = new AtomicLong();
+        private final AtomicLong failedRows = new AtomicLong();
+        private final List<CustomerImportRowError> errors = new ArrayList<>();
+        private volatile String status = STATUS_QUEUED;
+        private volatile String failureReason;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String importId, String fileName, Long createdBy) {
+            this.importId = importId;
+            this.fileName = fileName;
+            this.createdBy = createdBy;
+        }
+
+        private void reject(long rowNumber, String customerCode, String message, int maxErrors) {
+            failedRows.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new CustomerImportRowError(rowNumber, customerCode, message));
+                }
+            }
+        }
+
+        private CustomerImportStatusResponse toResponse() {
+            List<CustomerImportRowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new ArrayList<>(errors);
+            }
+            return CustomerImportStatusResponse.builder()
+                .importId(importId)
+                .fileName(fileName)
+                .status(status)
+                .processedRows(processedRows.get())
+                .importedRows(importedRows.get())
+                .failedRows(failedRows.get())
+                .errors(errorsCopy)
+                .failureReason(failureReason)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+        }
+    }
+}
@@ -8,7 +8,9 @@ import lk.epicgreen.erp.customer.entity.CustomerLedger;
 import lk.epicgreen.erp.customer.mapper.CustomerLedgerMapper;
 import lk.epicgreen.erp.customer.repository.CustomerRepository;
 import lk.epicgreen.erp.customer.repository.CustomerLedgerRepository;
+import lk.epicgreen.erp.customer.service.CustomerBalanceCheckpointService;
 import lk.epicgreen.erp.customer.service.CustomerLedgerService;
+import lk.epicgreen.erp.customer.service.CustomerMetricsService;
 import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +46,8 @@ public class CustomerLedgerServiceImpl implements CustomerLedgerService {
     private final CustomerLedgerRepository customerLedgerRepository;
     private final CustomerRepository customerRepository;
     private final CustomerLedgerMapper customerLedgerMapper;
+    private final CustomerBalanceCheckpointService customerBalanceCheckpointService;
+    private final CustomerMetricsService customerMetricsService;
 
     @Override
     @Transactional
@@ -67,10 +71,10 @@ public class CustomerLedgerServiceImpl implements CustomerLedgerService {
 
         // Save ledger entry
         CustomerLedger savedEntry = customerLedgerRepository.save(ledgerEntry);
+        customerBalanceCheckpointService.onLedgerEntryDated(customer.getId(), savedEntry.getTransactionDate());
 
-        // Update customer current balance
-        customer.setCurrentBalance(newBalance);
-        customerRepository.save(customer);
+        // Update customer current balance with a relative update, as invoice and payment events do
+        customerMetricsService.recordLedgerEntry(customer.getId(), request.getDebitAmount(), request.getCreditAmount());
 
         log.info("Customer ledger entry created successfully. New balance: {}", newBalance);
 
@@ -132,8 +136,7 @@ public class CustomerLedgerServiceImpl implements CustomerLedgerService {
 
     @Override
     public BigDecimal getCustomerBalanceAsOfDate(Long customerId, LocalDate asOfDate) {
-        return customerLedgerRepository.getCustomerBalanceAsOfDate(customerId, asOfDate)
-            .orElse(BigDecimal.ZERO);
+        return customerBalanceCheckpointService.getBalanceAsOf(customerId, asOfDate);
     }
 
     @Override
@@ -0,0 +1,102 @@
+package lk.epicgreen.erp.customer.service.impl;
+
+import lk.epicgreen.erp.customer.repository.CustomerRepository;
+import lk.epicgreen.erp.customer.service.CustomerMetricsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Implementation of CustomerMetricsService interface
+ * Totals are maintained with relative UPDATE statements (column = column + delta)
+ * instead of read-modify-write on the entity, so no full recomputation is needed
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CustomerMetricsServiceImpl implements CustomerMetricsService {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerTopSalesCache customerTopSalesCache;
+
+    @Override
+    public void recordOrderPlaced(Long customerId, BigDecimal orderAmount, LocalDate orderDate) {
+        log.debug("Recording order of {} for customer: {}", orderAmount, customerId);
+
+        customerRepository.incrementSalesTotals(customerId, nonNull(orderAmount), 1, orderDate);
+        afterSalesChanged(customerId);
+    }
+
+    @Override
+    public void recordOrderReversed(Long customerId, BigDecimal orderAmount) {
+        log.debug("Reversing order of {} for customer: {}", orderAmount, customerId);
+
+        customerRepository.incrementSalesTotals(customerId, nonNull(orderAmount).negate(), -1, null);
+        afterSalesChanged(customerId);
+    }
+
+    @Override
+    public void recordInvoicePosted(Long customerId, BigDecimal invoiceAmount) {
+        log.debug("Recording posted invoice of {} for customer: {}", invoiceAmount, customerId);
+
+        customerRepository.incrementCurrentBalance(customerId, nonNull(invoiceAmount));
+        customerRepository.refreshDerivedMetrics(customerId);
+    }
+
+    @Override
+    public void recordInvoiceReversed(Long customerId, BigDecimal invoiceAmount) {
+        log.debug("Reversing posted invoice of {} for customer: {}", invoiceAmount, customerId);
+
+        customerRepository.incrementCurrentBalance(customerId, nonNull(invoiceAmount).negate());
+        customerRepository.refreshDerivedMetrics(customerId);
+    }
+
+    @Override
+    public void recordPaymentCleared(Long customerId, BigDecimal paymentAmount) {
+        log.debug("Recording cleared payment of {} for customer: {}", paymentAmount, customerId);
+
+        customerRepository.incrementCurrentBalance(customerId, nonNull(paymentAmount).negate());
+        customerRepository.refreshDerivedMetrics(customerId);
+    }
+
+    @Override
+    public void recordLedgerEntry(Long customerId, BigDecimal debitAmount, BigDecimal creditAmount) {
+        log.debug("Recording ledger entry of {} debit / {} credit for customer: {}", debitAmount, creditAmount, customerId);
+
+        customerRepository.incrementCurrentBalance(customerId, nonNull(debitAmount).subtract(nonNull(creditAmount)));
+        customerRepository.refreshDerivedMetrics(customerId);
+    }
+
+    @Override
+    public void addToTotalSales(Long customerId, BigDecimal amount) {
+        customerRepository.incrementTotalSalesAmount(customerId, nonNull(amount));
+        afterSalesChanged(customerId);
+    }
+
+    @Override
+    public void refreshDerivedMetrics(Long customerId) {
+        customerRepository.refreshDerivedMetrics(customerId);
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private void afterSalesChanged(Long customerId) {
+        customerRepository.refreshDerivedMetrics(customerId);
+        customerTopSalesCache.onTotalSalesChangedAfterCommit(
+            customerId, customerRepository.findTotalSalesAmountById(customerId));
+    }
+
+    private BigDecimal nonNull(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
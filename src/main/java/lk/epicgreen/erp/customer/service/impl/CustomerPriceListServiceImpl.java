@@ -4,6 +4,7 @@ import lk.epicgreen.erp.customer.dto.request.CustomerPriceListRequest;
 import lk.epicgreen.erp.customer.dto.response.CustomerPriceListResponse;
 import lk.epicgreen.erp.customer.entity.Customer;
 import lk.epicgreen.erp.customer.entity.CustomerPriceList;
+import lk.epicgreen.erp.customer.event.CustomerPriceListChangedEvent;
 import lk.epicgreen.erp.customer.mapper.CustomerPriceListMapper;
 import lk.epicgreen.erp.customer.repository.CustomerRepository;
 import lk.epicgreen.erp.customer.repository.CustomerPriceListRepository;
@@ -14,6 +15,7 @@ import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.exception.DuplicateResourceException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,6 +40,7 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final CustomerPriceListMapper customerPriceListMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -61,6 +64,7 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
         priceList.setProduct(product);
 
         CustomerPriceList savedPriceList = customerPriceListRepository.save(priceList);
+        publishPriceListChanged(savedPriceList);
         log.info("Customer price list created successfully: {}", savedPriceList.getId());
 
         return customerPriceListMapper.toResponse(savedPriceList);
@@ -72,6 +76,8 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
         log.info("Updating customer price list: {}", id);
 
         CustomerPriceList priceList = findCustomerPriceListById(id);
+        Long previousCustomerId = priceList.getCustomer().getId();
+        Long previousProductId = priceList.getProduct().getId();
 
         // Check for duplicate active price list
         validateUniqueActivePrice(request.getCustomerId(), request.getProductId(), id);
@@ -94,6 +100,10 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
         }
 
         CustomerPriceList updatedPriceList = customerPriceListRepository.save(priceList);
+        if (!previousProductId.equals(request.getProductId())) {
+            eventPublisher.publishEvent(new CustomerPriceListChangedEvent(previousCustomerId, previousProductId));
+        }
+        publishPriceListChanged(updatedPriceList);
         log.info("Customer price list updated successfully: {}", updatedPriceList.getId());
 
         return customerPriceListMapper.toResponse(updatedPriceList);
@@ -106,6 +116,7 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
 
         CustomerPriceList priceList = findCustomerPriceListById(id);
         customerPriceListRepository.delete(priceList);
+        publishPriceListChanged(priceList);
 
         log.info("Customer price list deleted successfully: {}", id);
     }
@@ -118,6 +129,7 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
         CustomerPriceList priceList = findCustomerPriceListById(id);
         priceList.setIsActive(true);
         customerPriceListRepository.save(priceList);
+        publishPriceListChanged(priceList);
 
         log.info("Customer price list activated successfully: {}", id);
     }
@@ -130,6 +142,7 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
         CustomerPriceList priceList = findCustomerPriceListById(id);
         priceList.setIsActive(false);
         customerPriceListRepository.save(priceList);
+        publishPriceListChanged(priceList);
 
         log.info("Customer price list deactivated successfully: {}", id);
     }
@@ -210,6 +223,11 @@ public class CustomerPriceListServiceImpl implements CustomerPriceListService {
 
     // ==================== PRIVATE HELPER METHODS ====================
 
+    private void publishPriceListChanged(CustomerPriceList priceList) {
+        eventPublisher.publishEvent(new CustomerPriceListChangedEvent(
+            priceList.getCustomer().getId(), priceList.getProduct().getId()));
+    }
+
     private CustomerPriceList findCustomerPriceListById(Long id) {
         return customerPriceListRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Customer price list not found: " + id));
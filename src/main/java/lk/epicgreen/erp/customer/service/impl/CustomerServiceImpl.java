@@ -3,6 +3,8 @@ package lk.epicgreen.erp.customer.service.impl;
 import lk.epicgreen.erp.accounting.dto.response.LedgerEntryDTO;
 import lk.epicgreen.erp.customer.dto.request.CustomerLedgerRequest;
 import lk.epicgreen.erp.customer.dto.request.CustomerRequest;
+import lk.epicgreen.erp.credit.controller.event.CreditLimitChangedEvent;
+import lk.epicgreen.erp.customer.dto.response.CreditExposureResponse;
 import lk.epicgreen.erp.customer.dto.response.CustomerLedgerResponse;
 import lk.epicgreen.erp.customer.dto.response.CustomerResponse;
 import lk.epicgreen.erp.customer.entity.Customer;
@@ -10,26 +12,35 @@ import lk.epicgreen.erp.customer.entity.CustomerLedger;
 import lk.epicgreen.erp.customer.mapper.CustomerMapper;
 import lk.epicgreen.erp.customer.repository.CustomerLedgerRepository;
 import lk.epicgreen.erp.customer.repository.CustomerRepository;
+import lk.epicgreen.erp.customer.repository.CustomerSpecifications;
+import lk.epicgreen.erp.customer.service.CustomerCreditExposureService;
+import lk.epicgreen.erp.customer.service.CustomerMetricsService;
 import lk.epicgreen.erp.customer.service.CustomerService;
 import lk.epicgreen.erp.admin.entity.User;
 import lk.epicgreen.erp.admin.repository.UserRepository;
 import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.exception.DuplicateResourceException;
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -44,10 +55,19 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class CustomerServiceImpl implements CustomerService {
 
+    /**
+     * Share of the credit limit left below which a customer is in the credit warning band
+     */
+    private static final BigDecimal CREDIT_WARNING_HEADROOM = new BigDecimal("0.1");
+
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
     private final CustomerMapper customerMapper;
     private final CustomerLedgerRepository customerLedgerRepository;
+    private final CustomerTopSalesCache customerTopSalesCache;
+    private final CustomerMetricsService customerMetricsService;
+    private final CustomerCreditExposureService customerCreditExposureService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -79,6 +99,7 @@ public class CustomerServiceImpl implements CustomerService {
             throw new RuntimeException("Customer not found: " + id);
         }
         customerRepository.deleteById(id);
+        customerTopSalesCache.invalidate();
     }
 
     @Transactional(readOnly = true)
@@ -156,6 +177,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setDeletedAt(LocalDateTime.now());
         customer.setIsActive(false);
         customerRepository.save(customer);
+        customerTopSalesCache.invalidate();
 
         log.info("Customer deleted successfully: {}", id);
     }
@@ -373,6 +395,7 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    @Transactional
     public CustomerResponse enableCreditFacility(Long id, Double creditLimit, String paymentTerms){
         log.info("Enabling credit facility for customer: {}", id);
 
@@ -381,22 +404,26 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setCreditLimit(BigDecimal.valueOf(creditLimit));
         customer.setPaymentTerms(paymentTerms);
         Customer updatedCustomer = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CreditLimitChangedEvent(id));
         log.info("Credit facility enabled successfully for customer: {}", id);
         return customerMapper.toResponse(updatedCustomer);
     }
 
     @Override
+    @Transactional
     public CustomerResponse updateCreditLimit(Long id, Double newCreditLimit){
         log.info("Updating credit limit for customer: {}", id);
 
         Customer customer = findCustomerById(id);
         customer.setCreditLimit(BigDecimal.valueOf(newCreditLimit));
         Customer updatedCustomer = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CreditLimitChangedEvent(id));
         log.info("Credit limit updated successfully for customer: {}", id);
         return customerMapper.toResponse(updatedCustomer);
     }
 
     @Override
+    @Transactional
     public CustomerResponse disableCreditFacility(Long id){
         log.info("Disabling credit facility for customer: {}", id);
 
@@ -404,15 +431,18 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setHasCreditFacility(false);
         customer.setCreditLimit(BigDecimal.ZERO);
         Customer updatedCustomer = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CreditLimitChangedEvent(id));
         log.info("Credit facility disabled successfully for customer: {}", id);
         return customerMapper.toResponse(updatedCustomer);
     }
 
     @Override
+    @Transactional
     public CustomerResponse updateCreditStatus(Long id){
         log.info("Updating credit status for customer: {}", id);
 
         Customer customer = customerOutstandingBalance(id);
+        customer.setCreditStatus(creditStatus(customerCreditExposureService.getExposure(id)));
         Customer updatedCustomer = customerRepository.save(customer);
 
         log.info("Credit status updated successfully for customer: {}", id);
@@ -439,131 +469,75 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public List<CustomerResponse> getInactiveCustomers(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.FALSE.equals(c.getIsActive()) && c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.inactive());
     }
 
     @Override
     public List<CustomerResponse> getPendingCustomers(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.FALSE.equals(c.getIsVerified()) && c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.unverified());
     }
 
     @Override
     public List<CustomerResponse> getSuspendedCustomers(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.FALSE.equals(c.getIsActive()) && c.getSuspensionReason() != null && c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.suspended());
     }
 
     @Override
     public List<CustomerResponse> getBlacklistedCustomers(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.TRUE.equals(c.getIsBlacklisted()) && c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.blacklisted());
     }
 
     @Override
     public List<CustomerResponse> getCustomersWithCreditFacility(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.TRUE.equals(c.getHasCreditFacility()) && c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.hasCreditFacility());
     }
 
     @Override
     public List<CustomerResponse> getCustomersWithCreditExceeded(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.TRUE.equals(c.getHasCreditFacility()) &&
-                c.getCreditLimit() != null &&
-                c.getCurrentBalance() != null &&
-                c.getCurrentBalance().compareTo(c.getCreditLimit()) > 0 &&
-                c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.creditExceeded());
     }
 
     @Override
     public List<CustomerResponse> getCustomersWithCreditWarning(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.TRUE.equals(c.getHasCreditFacility()) &&
-                c.getCreditLimit() != null &&
-                c.getCurrentBalance() != null &&
-                c.getCurrentBalance().compareTo(c.getCreditLimit().multiply(BigDecimal.valueOf(0.9))) >= 0 &&
-                c.getCurrentBalance().compareTo(c.getCreditLimit()) <= 0 &&
-                c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.creditWarning());
     }
 
     @Override
     public List<CustomerResponse> getUnverifiedCustomers(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> Boolean.FALSE.equals(c.getIsVerified()) && c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.unverified());
     }
 
     @Override 
     public List<CustomerResponse> getCustomersWithoutRecentOrders(int days){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.noOrdersSince(LocalDate.now().minusDays(days)));
     }
 
     @Override
     public List<CustomerResponse> getCustomersRequiringAction(){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> (Boolean.FALSE.equals(c.getIsVerified()) ||
-                          Boolean.FALSE.equals(c.getIsActive()) ||
-                          Boolean.TRUE.equals(c.getIsBlacklisted()) ||
-                          (Boolean.TRUE.equals(c.getHasCreditFacility()) &&
-                           c.getCreditLimit() != null &&
-                           c.getCurrentBalance() != null &&
-                           c.getCurrentBalance().compareTo(c.getCreditLimit()) > 0))
-                          && c.getDeletedAt() == null)
-            .collect(Collectors.toList());
-        return customers.stream()
-            .map(customerMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSegment(CustomerSpecifications.requiringAction());
+    }
+
+    @Override
+    public PageResponse<CustomerResponse> getCustomersBySegment(String segment, Integer days, Pageable pageable) {
+        log.info("Fetching customers in segment: {}", segment);
+
+        Page<Customer> customerPage = customerRepository.findAll(
+            Specification.where(CustomerSpecifications.notDeleted()).and(resolveSegment(segment, days)), pageable);
+        return createPageResponse(customerPage);
     }
 
     @Override
     public List<CustomerResponse> getTopCustomers(int limit){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> c.getDeletedAt() == null)
-            .sorted((c1, c2) -> {
-                BigDecimal balance1 = c1.getCurrentBalance() != null ? c1.getCurrentBalance() : BigDecimal.ZERO;
-                BigDecimal balance2 = c2.getCurrentBalance() != null ? c2.getCurrentBalance() : BigDecimal.ZERO;
-                return balance2.compareTo(balance1);
-            })
-            .limit(limit)
-            .collect(Collectors.toList());
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Customer> customers;
+        if (customerTopSalesCache.canServe(limit)) {
+            customers = findRankedCustomers(customerTopSalesCache.getTopCustomerIds(limit));
+        } else {
+            customers = customerRepository.findTopCustomersBySales(PageRequest.of(0, limit));
+        }
         return customers.stream()
             .map(customerMapper::toResponse)
             .collect(Collectors.toList());
@@ -571,11 +545,11 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public List<CustomerResponse> getRecentCustomers(int limit){
-        List<Customer> customers = customerRepository.findAll().stream()
-            .filter(c -> c.getDeletedAt() == null)
-            .sorted((c1, c2) -> c2.getCreatedAt().compareTo(c1.getCreatedAt()))
-            .limit(limit)
-            .collect(Collectors.toList());
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Customer> customers = customerRepository.findRecentCustomers(PageRequest.of(0, limit));
         return customers.stream()
             .map(customerMapper::toResponse)
             .collect(Collectors.toList());
@@ -646,38 +620,34 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    @Transactional
     public void calculateCustomerMetrics(Long id){
         log.info("Calculating metrics for customer: {}", id);
 
-        Customer customer = findCustomerById(id);
-        // Placeholder for actual metrics calculation logic
-
-        customerRepository.save(customer);
+        findCustomerById(id);
+        customerMetricsService.refreshDerivedMetrics(id);
 
         log.info("Customer metrics calculated successfully: {}", id);
     }
 
     @Override
+    @Transactional
     public void updateTotalSalesAmount(Long id,Double amount){
         log.info("Updating total sales amount for customer: {}", id);
 
-        Customer customer = findCustomerById(id);
-        BigDecimal currentTotalSales = customer.getTotalSalesAmount() != null ? customer.getTotalSalesAmount() : BigDecimal.ZERO;
-        customer.setTotalSalesAmount(currentTotalSales.add(BigDecimal.valueOf(amount)));
-
-        customerRepository.save(customer);
+        findCustomerById(id);
+        customerMetricsService.addToTotalSales(id, BigDecimal.valueOf(amount));
 
         log.info("Total sales amount updated successfully for customer: {}", id);
     }
 
     @Override
+    @Transactional
     public void updateAverageOrderValue(Long id){
         log.info("Updating average order value for customer: {}", id);
 
-        Customer customer = findCustomerById(id);
-        // Placeholder for actual average order value calculation logic
-
-        customerRepository.save(customer);
+        findCustomerById(id);
+        customerMetricsService.refreshDerivedMetrics(id);
 
         log.info("Average order value updated successfully for customer: {}", id);
     }
@@ -698,12 +668,12 @@ public class CustomerServiceImpl implements CustomerService {
     public void calculateAvailableCredit(Long id){
         log.info("Calculating available credit for customer: {}", id);
 
-        Customer customer = findCustomerById(id);
-        // Placeholder for actual available credit calculation logic
-
-        customerRepository.save(customer);
+        findCustomerById(id);
+        // Reload the exposure from the database instead of trusting the cached one
+        customerCreditExposureService.evict(id);
+        CreditExposureResponse exposure = customerCreditExposureService.getExposure(id);
 
-        log.info("Available credit calculated successfully for customer: {}", id);
+        log.info("Available credit calculated successfully for customer: {}, available: {}", id, exposure.getAvailableCredit());
     }
 
     @Override
@@ -761,6 +731,7 @@ public class CustomerServiceImpl implements CustomerService {
             customer.setIsActive(false);
         });
         customerRepository.saveAll(customers);
+        customerTopSalesCache.invalidate();
 
         log.info("Bulk customers deleted successfully, count: {}", customers.size());
         return customers.size();
@@ -1150,6 +1121,23 @@ public class CustomerServiceImpl implements CustomerService {
 
     // ==================== PRIVATE HELPER METHODS ====================
 
+    /**
+     * NO_CREDIT, EXCEEDED, WARNING (exposure within the top 10% of the limit) or WITHIN_LIMIT
+     */
+    private String creditStatus(CreditExposureResponse exposure) {
+        if (!exposure.isHasCreditFacility() || exposure.getCreditLimit() == null) {
+            return "NO_CREDIT";
+        }
+        BigDecimal available = exposure.getAvailableCredit();
+        if (available.signum() < 0) {
+            return "EXCEEDED";
+        }
+        if (available.compareTo(exposure.getCreditLimit().multiply(CREDIT_WARNING_HEADROOM)) <= 0) {
+            return "WARNING";
+        }
+        return "WITHIN_LIMIT";
+    }
+
     private Customer customerOutstandingBalance(Long id) {
         Customer customer = findCustomerById(id);
         boolean hasOutstandingBalance = customer.getCurrentBalance() != null && customer.getCurrentBalance().compareTo(BigDecimal.ZERO) > 0;
@@ -1157,6 +1145,56 @@ public class CustomerServiceImpl implements CustomerService {
         return customer;
     }
 
+    private List<CustomerResponse> findSegment(Specification<Customer> segment) {
+        return customerRepository.findAll(Specification.where(CustomerSpecifications.notDeleted()).and(segment))
+            .stream()
+            .map(customerMapper::toResponse)
+            .collect(Collectors.toList());
+    }
+
+    private Specification<Customer> resolveSegment(String segment, Integer days) {
+        switch (segment.toUpperCase()) {
+            case "ACTIVE":
+                return CustomerSpecifications.active();
+            case "INACTIVE":
+                return CustomerSpecifications.inactive();
+            case "PENDING":
+            case "UNVERIFIED":
+                return CustomerSpecifications.unverified();
+            case "SUSPENDED":
+                return CustomerSpecifications.suspended();
+            case "BLACKLISTED":
+                return CustomerSpecifications.blacklisted();
+            case "WITH_CREDIT":
+                return CustomerSpecifications.hasCreditFacility();
+            case "CREDIT_EXCEEDED":
+                return CustomerSpecifications.creditExceeded();
+            case "CREDIT_WARNING":
+                return CustomerSpecifications.creditWarning();
+            case "WITHOUT_RECENT_ORDERS":
+                return CustomerSpecifications.noOrdersSince(LocalDate.now().minusDays(days != null ? days : 90));
+            case "REQUIRING_ACTION":
+                return CustomerSpecifications.requiringAction();
+            case "WHOLESALE":
+            case "RETAIL":
+            case "DISTRIBUTOR":
+            case "DIRECT":
+                return CustomerSpecifications.ofType(segment.toUpperCase()).and(CustomerSpecifications.active());
+            default:
+                throw new InvalidOperationException("Unknown customer segment: " + segment);
+        }
+    }
+
+    private List<Customer> findRankedCustomers(List<Long> rankedIds) {
+        Map<Long, Customer> byId = customerRepository.findAllById(rankedIds).stream()
+            .filter(c -> c.getDeletedAt() == null)
+            .collect(Collectors.toMap(Customer::getId, c -> c));
+        return rankedIds.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
     private Customer findCustomerById(Long id) {
         return customerRepository.findByIdAndDeletedAtIsNull(id)
             .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + id));
@@ -0,0 +1,524 @@
+package lk.epicgreen.erp.customer.service.impl;
+
+import lk.epicgreen.erp.accounting.dto.response.LedgerEntryDTO;
+import lk.epicgreen.erp.accounting.dto.response.StatementDTO;
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.customer.dto.response.CustomerStatementBatchResponse;
+import lk.epicgreen.erp.customer.entity.Customer;
+import lk.epicgreen.erp.customer.entity.CustomerLedger;
+import lk.epicgreen.erp.customer.entity.CustomerStatement;
+import lk.epicgreen.erp.customer.entity.CustomerStatementBatch;
+import lk.epicgreen.erp.customer.repository.CustomerLedgerRepository;
+import lk.epicgreen.erp.customer.repository.CustomerRepository;
+import lk.epicgreen.erp.customer.repository.CustomerStatementBatchRepository;
+import lk.epicgreen.erp.customer.repository.CustomerStatementJdbcRepository;
+import lk.epicgreen.erp.customer.service.CustomerBalanceCheckpointService;
+import lk.epicgreen.erp.customer.service.CustomerStatementBatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of CustomerStatementBatchService interface
+ *
+ * A coordinator thread pages through active customers still without a statement for the
+ * period (keyset paging on id) and hands each chunk to a fixed worker pool; a semaphore
+ * bounds the number of chunks in flight. Each chunk loads customers, ledger entries and
+ * opening balances (from the balance checkpoints) in one short read-only transaction,
+ * renders the PDFs with no connection held, then inserts the statement rows in one JDBC
+ * batch together with the batch progress update.
+ *
+ * The worker count bounds the connections the batch can take from the shared pool, and
+ * statement-batch-max-per-second caps the overall statement rate.
+ *
+ * Starting or resuming a batch sets its running_period, whose unique key lets only one batch
+ * of a period run across all nodes. The owning node refreshes the heartbeat of its batches,
+ * and every node marks RUNNING batches with a stale heartbeat INTERRUPTED, so a batch of a
+ * node that died can be resumed while batches of live nodes are left alone.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class CustomerStatementBatchServiceImpl implements CustomerStatementBatchService {
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+    private static final String STATUS_INTERRUPTED = "INTERRUPTED";
+
+    private static final DateTimeFormatter NUMBER_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final CustomerStatementBatchRepository batchRepository;
+    private final CustomerRepository customerRepository;
+    private final CustomerLedgerRepository customerLedgerRepository;
+    private final CustomerStatementJdbcRepository statementJdbcRepository;
+    private final CustomerBalanceCheckpointService customerBalanceCheckpointService;
+    private final CustomerStatementPdfRenderer pdfRenderer;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int chunkSize;
+    private final int workers;
+    private final int maxPerSecond;
+    private final int heartbeatSeconds;
+    private final Path outputDirectory;
+
+    /**
+     * Identifies this node as the owner of the batches it runs (pid@host)
+     */
+    private final String nodeName = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(namedThreads("statement-batch"));
+    private final ExecutorService workerPool;
+    private final Set<Long> activeBatches = ConcurrentHashMap.newKeySet();
+
+    public CustomerStatementBatchServiceImpl(CustomerStatementBatchRepository batchRepository,
+                                             CustomerRepository customerRepository,
+                                             CustomerLedgerRepository customerLedgerRepository,
+                                             CustomerStatementJdbcRepository statementJdbcRepository,
+                                             CustomerBalanceCheckpointService customerBalanceCheckpointService,
+                                             CustomerStatementPdfRenderer pdfRenderer,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${application.customer.statement-batch-chunk-size:100}") int chunkSize,
+                                             @Value("${application.customer.statement-batch-workers:4}") int workers,
+                                             @Value("${application.customer.statement-batch-max-per-second:0}") int maxPerSecond,
+                                             @Value("${application.customer.statement-batch-heartbeat-seconds:30}") int heartbeatSeconds,
+                                             @Value("${application.customer.statement-output-dir:statements}") String outputDirectory) {
+        this.batchRepository = batchRepository;
+        this.customerRepository = customerRepository;
+        this.customerLedgerRepository = customerLedgerRepository;
+        this.statementJdbcRepository = statementJdbcRepository;
+        this.customerBalanceCheckpointService = customerBalanceCheckpointService;
+        this.pdfRenderer = pdfRenderer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.workers = Math.max(1, workers);
+        this.maxPerSecond = maxPerSecond;
+        this.heartbeatSeconds = Math.max(1, heartbeatSeconds);
+        this.outputDirectory = Paths.get(outputDirectory);
+        this.workerPool = Executors.newFixedThreadPool(this.workers, namedThreads("statement-worker"));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerStatementBatchResponse startBatch(LocalDate fromDate, LocalDate toDate, String username) {
+        log.info("Starting customer statement batch for period {} to {}", fromDate, toDate);
+
+        if (fromDate == null || toDate == null || fromDate.isAfter(toDate)) {
+            throw new InvalidOperationException("Invalid statement period: " + fromDate + " to " + toDate);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        CustomerStatementBatch batch = CustomerStatementBatch.builder()
+            .fromDate(fromDate)
+            .toDate(toDate)
+            .statementDate(LocalDate.now())
+            .status(STATUS_RUNNING)
+            .totalCustomers(customerRepository.countActiveCustomersWithoutStatement(fromDate, toDate))
+            .processedCustomers(0L)
+            .failedCustomers(0L)
+            .createdBy(username)
+            .startedAt(now)
+            .runningPeriod(runningPeriod(fromDate, toDate))
+            .ownerNode(nodeName)
+            .heartbeatAt(now)
+            .build();
+        try {
+            batch = batchRepository.save(batch);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidOperationException("A statement batch is already running for this period: " + fromDate + " to " + toDate);
+        }
+
+        submit(batch);
+        return toResponse(batch);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerStatementBatchResponse resumeBatch(Long batchId) {
+        log.info("Resuming customer statement batch: {}", batchId);
+
+        CustomerStatementBatch batch = findBatchById(batchId);
+        if (STATUS_COMPLETED.equals(batch.getStatus())) {
+            throw new InvalidOperationException("Statement batch is already completed: " + batchId);
+        }
+        if (activeBatches.contains(batchId) || STATUS_RUNNING.equals(batch.getStatus())) {
+            throw new InvalidOperationException("Statement batch is already running: " + batchId);
+        }
+
+        long remaining = customerRepository.countActiveCustomersWithoutStatement(batch.getFromDate(), batch.getToDate());
+        String period = runningPeriod(batch.getFromDate(), batch.getToDate());
+        Integer claimed;
+        try {
+            claimed = transactionTemplate.execute(tx ->
+                batchRepository.claimForResume(batchId, period, nodeName, remaining, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidOperationException("Another statement batch is already running for this period: " +
+                batch.getFromDate() + " to " + batch.getToDate());
+        }
+        if (claimed == null || claimed == 0) {
+            throw new InvalidOperationException("Statement batch is already running or completed: " + batchId);
+        }
+        batch = findBatchById(batchId);
+
+        submit(batch);
+        return toResponse(batch);
+    }
+
+    @Override
+    public CustomerStatementBatchResponse getBatch(Long batchId) {
+        return toResponse(findBatchById(batchId));
+    }
+
+    @Override
+    public List<CustomerStatementBatchResponse> getAllBatches() {
+        return batchRepository.findAllByOrderByStartedAtDesc().stream()
+            .map(this::toResponse)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Refresh the heartbeat of the batches this node runs, then mark batches whose owner
+     * missed several heartbeats (a node that died or was shut down) resumable
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.customer.statement-batch-heartbeat-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    @Transactional
+    public void markInterruptedBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!activeBatches.isEmpty()) {
+            batchRepository.heartbeat(new ArrayList<>(activeBatches), nodeName, now);
+        }
+        int stale = batchRepository.interruptStale(now.minusSeconds(heartbeatSeconds * 4L), now);
+        if (stale > 0) {
+            log.warn("Marked {} customer statement batches without a heartbeat as interrupted", stale);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * Value of the unique running_period column: two batches of one period would render and
+     * insert the same statements concurrently
+     */
+    private static String runningPeriod(LocalDate fromDate, LocalDate toDate) {
+        return fromDate + "/" + toDate;
+    }
+
+    private void submit(CustomerStatementBatch batch) {
+        Long batchId = batch.getId();
+        LocalDate fromDate = batch.getFromDate();
+        LocalDate toDate = batch.getToDate();
+        LocalDate statementDate = batch.getStatementDate();
+        String createdBy = batch.getCreatedBy();
+
+        activeBatches.add(batchId);
+        coordinator.execute(() -> runBatch(batchId, fromDate, toDate, statementDate, createdBy));
+    }
+
+    private void runBatch(Long batchId, LocalDate fromDate, LocalDate toDate, LocalDate statementDate, String createdBy) {
+        int maxInFlight = workers * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Throttle throttle = new Throttle(maxPerSecond);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<String> lastError = new AtomicReference<>();
+        String status = STATUS_COMPLETED;
+
+        try {
+            Long afterId = 0L;
+            while (true) {
+                Long cursor = afterId;
+                List<Long> customerIds = readOnlyTransactionTemplate.execute(tx -> customerRepository
+                    .findActiveCustomerIdsWithoutStatement(cursor, fromDate, toDate, PageRequest.of(0, chunkSize)));
+                if (customerIds == null || customerIds.isEmpty()) {
+                    break;
+                }
+                afterId = customerIds.get(customerIds.size() - 1);
+
+                inFlight.acquire();
+                workerPool.execute(() -> {
+                    try {
+                        processChunk(batchId, customerIds, fromDate, toDate, statementDate, createdBy,
+                            throttle, failed, lastError);
+                    } catch (RuntimeException e) {
+                        failed.addAndGet(customerIds.size());
+                        lastError.set(e.getMessage());
+                        log.error("Statement batch {} chunk starting at customer {} failed", batchId, customerIds.get(0), e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // Wait for the chunks still in flight
+            inFlight.acquire(maxInFlight);
+
+            if (failed.get() > 0) {
+                status = STATUS_FAILED;
+                lastError.set(failed.get() + " customers failed, resume the batch to retry them. Last error: " + lastError.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = STATUS_INTERRUPTED;
+        } catch (RuntimeException e) {
+            status = STATUS_FAILED;
+            lastError.set(e.getMessage());
+            log.error("Statement batch {} failed", batchId, e);
+        } finally {
+            finishBatch(batchId, status, lastError.get());
+            activeBatches.remove(batchId);
+        }
+        log.info("Customer statement batch {} finished with status {}", batchId, status);
+    }
+
+    private void processChunk(Long batchId, List<Long> customerIds, LocalDate fromDate, LocalDate toDate,
+                              LocalDate statementDate, String createdBy, Throttle throttle,
+                              AtomicInteger failed, AtomicReference<String> lastError) {
+        Map<Long, Customer> customers = new HashMap<>();
+        List<StatementDTO> drafts = readOnlyTransactionTemplate.execute(tx -> {
+            for (Customer customer : customerRepository.findAllById(customerIds)) {
+                customers.put(customer.getId(), customer);
+            }
+            return loadStatements(customerIds, fromDate, toDate);
+        });
+
+        List<CustomerStatement> statements = new ArrayList<>(drafts.size());
+        int chunkFailures = 0;
+        for (StatementDTO draft : drafts) {
+            try {
+                throttle.acquire();
+                Customer customer = customers.get(draft.getCustomerId());
+                draft.setStatementNumber(statementNumber(draft.getCustomerId(), fromDate, toDate));
+                draft.setStatementDate(statementDate);
+                Path pdf = renderPdf(customer, draft);
+                statements.add(toStatement(customer, draft, pdf, createdBy));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Statement batch interrupted", e);
+            } catch (IOException | RuntimeException e) {
+                chunkFailures++;
+                lastError.set("Customer " + draft.getCustomerId() + ": " + e.getMessage());
+                log.warn("Statement for customer {} failed: {}", draft.getCustomerId(), e.getMessage());
+            }
+        }
+
+        int renderFailures = chunkFailures;
+        try {
+            transactionTemplate.execute(tx -> {
+                if (!statements.isEmpty()) {
+                    statementJdbcRepository.batchInsert(statements);
+                }
+                return batchRepository.addProgress(batchId, statements.size(), renderFailures);
+            });
+            failed.addAndGet(renderFailures);
+        } catch (DataAccessException e) {
+            int chunkFailed = renderFailures + statements.size();
+            lastError.set(e.getMostSpecificCause().getMessage());
+            log.warn("Statement batch {} could not persist {} statements: {}", batchId, statements.size(),
+                e.getMostSpecificCause().getMessage());
+            transactionTemplate.execute(tx -> batchRepository.addProgress(batchId, 0, chunkFailed));
+            failed.addAndGet(chunkFailed);
+        }
+    }
+
+    /**
+     * Build the statements of a chunk: opening balance from the checkpoints, period entries in one query
+     */
+    private List<StatementDTO> loadStatements(List<Long> customerIds, LocalDate fromDate, LocalDate toDate) {
+        Map<Long, List<LedgerEntryDTO>> entriesByCustomer = new HashMap<>();
+        for (CustomerLedger entry : customerLedgerRepository.findByCustomerIdsAndDateRange(customerIds, fromDate, toDate)) {
+            entriesByCustomer.computeIfAbsent(entry.getCustomer().getId(), id -> new ArrayList<>()).add(toLedgerEntry(entry));
+        }
+
+        List<StatementDTO> statements = new ArrayList<>(customerIds.size());
+        for (Long customerId : customerIds) {
+            List<LedgerEntryDTO> entries = entriesByCustomer.getOrDefault(customerId, new ArrayList<>());
+            BigDecimal openingBalance = customerBalanceCheckpointService.getBalanceAsOf(customerId, fromDate.minusDays(1));
+            BigDecimal totalDebit = BigDecimal.ZERO;
+            BigDecimal totalCredit = BigDecimal.ZERO;
+            for (LedgerEntryDTO entry : entries) {
+                totalDebit = totalDebit.add(entry.getDebitAmount() != null ? entry.getDebitAmount() : BigDecimal.ZERO);
+                totalCredit = totalCredit.add(entry.getCreditAmount() != null ? entry.getCreditAmount() : BigDecimal.ZERO);
+            }
+
+            StatementDTO statement = new StatementDTO();
+            statement.setCustomerId(customerId);
+            statement.setFromDate(fromDate);
+            statement.setToDate(toDate);
+            statement.setOpeningBalance(openingBalance);
+            statement.setTotalDebit(totalDebit);
+            statement.setTotalCredit(totalCredit);
+            statement.setClosingBalance(openingBalance.add(totalDebit).subtract(totalCredit));
+            statement.setTransactions(entries);
+            statements.add(statement);
+        }
+        return statements;
+    }
+
+    private Path renderPdf(Customer customer, StatementDTO statement) throws IOException {
+        Path directory = outputDirectory.resolve(statement.getFromDate().format(NUMBER_DATE_FORMAT)
+            + "-" + statement.getToDate().format(NUMBER_DATE_FORMAT));
+        Files.createDirectories(directory);
+        Path file = directory.resolve(statement.getStatementNumber() + ".pdf");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            pdfRenderer.render(customer, statement, out);
+        }
+        return file;
+    }
+
+    private CustomerStatement toStatement(Customer customer, StatementDTO draft, Path pdf, String createdBy) {
+        CustomerStatement statement = new CustomerStatement();
+        statement.setCustomer(customer);
+        statement.setStatementNumber(draft.getStatementNumber());
+        statement.setStatementDate(draft.getStatementDate());
+        statement.setFromDate(draft.getFromDate());
+        statement.setToDate(draft.getToDate());
+        statement.setOpeningBalance(draft.getOpeningBalance());
+        statement.setTotalDebit(draft.getTotalDebit());
+        statement.setTotalCredit(draft.getTotalCredit());
+        statement.setClosingBalance(draft.getClosingBalance());
+        statement.setPdfPath(pdf.toString());
+        statement.setIsSent(false);
+        statement.setCreatedBy(createdBy);
+        statement.setCreatedAt(LocalDateTime.now());
+        return statement;
+    }
+
+    private LedgerEntryDTO toLedgerEntry(CustomerLedger entity) {
+        LedgerEntryDTO dto = new LedgerEntryDTO();
+        dto.setId(entity.getId());
+        dto.setCustomerId(entity.getCustomer().getId());
+        dto.setTransactionDate(entity.getTransactionDate());
+        dto.setTransactionType(entity.getTransactionType());
+        dto.setReferenceType(entity.getReferenceType());
+        dto.setReferenceNumber(entity.getReferenceNumber());
+        dto.setDebitAmount(entity.getDebitAmount());
+        dto.setCreditAmount(entity.getCreditAmount());
+        dto.setBalance(entity.getBalance());
+        dto.setDescription(entity.getDescription());
+        return dto;
+    }
+
+    /**
+     * Deterministic per customer and period, so a resumed batch can never insert a second statement
+     */
+    private String statementNumber(Long customerId, LocalDate fromDate, LocalDate toDate) {
+        return "ST-" + fromDate.format(NUMBER_DATE_FORMAT) + "-" + toDate.format(NUMBER_DATE_FORMAT) + "-" + customerId;
+    }
+
+    private void finishBatch(Long batchId, String status, String lastError) {
+        String error = lastError != null && lastError.length() > 1000 ? lastError.substring(0, 1000) : lastError;
+        Integer finished = transactionTemplate.execute(tx -> batchRepository.finish(batchId, nodeName, status, error, LocalDateTime.now()));
+        if (finished == null || finished == 0) {
+            log.warn("Statement batch {} was taken over after missing heartbeats; its {} status is not recorded", batchId, status);
+        }
+    }
+
+    private CustomerStatementBatch findBatchById(Long id) {
+        return batchRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Customer statement batch not found: " + id));
+    }
+
+    private CustomerStatementBatchResponse toResponse(CustomerStatementBatch batch) {
+        return CustomerStatementBatchResponse.builder()
+            .id(batch.getId())
+            .fromDate(batch.getFromDate())
+            .toDate(batch.getToDate())
+            .statementDate(batch.getStatementDate())
+            .status(batch.getStatus())
+            .totalCustomers(batch.getTotalCustomers() != null ? batch.getTotalCustomers() : 0L)
+            .processedCustomers(batch.getProcessedCustomers() != null ? batch.getProcessedCustomers() : 0L)
+            .failedCustomers(batch.getFailedCustomers() != null ? batch.getFailedCustomers() : 0L)
+            .lastError(batch.getLastError())
+            .createdBy(batch.getCreatedBy())
+            .startedAt(batch.getStartedAt())
+            .finishedAt(batch.getFinishedAt())
+            .build();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Spaces out permits evenly to cap the statement rate (0 = unlimited)
+     */
+    private static final class Throttle {
+
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        private Throttle(int permitsPerSecond) {
+            this.intervalNanos = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0L;
+        }
+
+        private void acquire() throws InterruptedException {
+            if (intervalNanos == 0L) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeNanos);
+                nextFreeNanos = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
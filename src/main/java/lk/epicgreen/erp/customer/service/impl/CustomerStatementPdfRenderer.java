@@ -0,0 +1,105 @@
+package lk.epicgreen.erp.customer.service.impl;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import lk.epicgreen.erp.accounting.dto.response.LedgerEntryDTO;
+import lk.epicgreen.erp.accounting.dto.response.StatementDTO;
+import lk.epicgreen.erp.customer.entity.Customer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders customer statements to PDF with iText
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Component
+public class CustomerStatementPdfRenderer {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String[] COLUMNS = {"Date", "Type", "Reference", "Description", "Debit", "Credit", "Balance"};
+
+    /**
+     * Write the statement as a PDF document to the given stream
+     */
+    public void render(Customer customer, StatementDTO statement, OutputStream out) throws IOException {
+        PdfFont regular = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        PdfFont bold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        DecimalFormat amountFormat = new DecimalFormat("#,##0.00");
+
+        try (Document document = new Document(new PdfDocument(new PdfWriter(out)))) {
+            document.setFont(regular).setFontSize(9);
+
+            document.add(new Paragraph("Customer Statement").setFont(bold).setFontSize(16));
+            document.add(new Paragraph("Statement No: " + statement.getStatementNumber()
+                    + "\nStatement Date: " + format(statement.getStatementDate())
+                    + "\nPeriod: " + format(statement.getFromDate()) + " to " + format(statement.getToDate())));
+            document.add(new Paragraph(customer.getCustomerName() + " (" + customer.getCustomerCode() + ")"
+                    + "\n" + customer.getFullBillingAddress()).setFont(bold));
+
+            Table table = new Table(UnitValue.createPercentArray(new float[] {11, 11, 14, 28, 12, 12, 12}))
+                    .useAllAvailableWidth();
+            for (String column : COLUMNS) {
+                table.addHeaderCell(new Cell().add(new Paragraph(column).setFont(bold)));
+            }
+
+            table.addCell(textCell(format(statement.getFromDate())));
+            table.addCell(textCell(""));
+            table.addCell(textCell(""));
+            table.addCell(textCell("Opening balance"));
+            table.addCell(textCell(""));
+            table.addCell(textCell(""));
+            table.addCell(amountCell(amountFormat.format(statement.getOpeningBalance())));
+
+            BigDecimal balance = statement.getOpeningBalance();
+            for (LedgerEntryDTO entry : statement.getTransactions()) {
+                BigDecimal debit = entry.getDebitAmount() != null ? entry.getDebitAmount() : BigDecimal.ZERO;
+                BigDecimal credit = entry.getCreditAmount() != null ? entry.getCreditAmount() : BigDecimal.ZERO;
+                balance = balance.add(debit).subtract(credit);
+
+                table.addCell(textCell(format(entry.getTransactionDate())));
+                table.addCell(textCell(entry.getTransactionType()));
+                table.addCell(textCell(entry.getReferenceNumber()));
+                table.addCell(textCell(entry.getDescription()));
+                table.addCell(amountCell(debit.signum() != 0 ? amountFormat.format(debit) : ""));
+                table.addCell(amountCell(credit.signum() != 0 ? amountFormat.format(credit) : ""));
+                table.addCell(amountCell(amountFormat.format(balance)));
+            }
+            document.add(table);
+
+            document.add(new Paragraph("Total Debit: " + amountFormat.format(statement.getTotalDebit())
+                    + "\nTotal Credit: " + amountFormat.format(statement.getTotalCredit())
+                    + "\nClosing Balance: " + amountFormat.format(statement.getClosingBalance()))
+                    .setFont(bold)
+                    .setTextAlignment(TextAlignment.RIGHT));
+        }
+    }
+
+    private Cell textCell(String text) {
+        return new Cell().add(new Paragraph(text != null ? text : ""));
+    }
+
+    private Cell amountCell(String text) {
+        return new Cell().add(new Paragraph(text).setTextAlignment(TextAlignment.RIGHT));
+    }
+
+    private String format(LocalDate date) {
+        return date != null ? date.format(DATE_FORMAT) : "";
+    }
+}
@@ -0,0 +1,153 @@
+package lk.epicgreen.erp.customer.service.impl;
+
+import lk.epicgreen.erp.customer.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-memory top-K ranking of customers by total sales amount
+ * Loaded once from the database and kept current incrementally as sales totals change,
+ * so the dashboard top customers widget does not query the customers table on every load
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class CustomerTopSalesCache {
+
+    private static final Comparator<RankEntry> RANK_ORDER = Comparator
+            .comparing((RankEntry e) -> e.totalSales).reversed()
+            .thenComparing(e -> e.customerId);
+
+    private final CustomerRepository customerRepository;
+    private final int capacity;
+
+    private final TreeSet<RankEntry> ranking = new TreeSet<>(RANK_ORDER);
+    private final Map<Long, BigDecimal> totalsById = new HashMap<>();
+    private boolean loaded;
+
+    public CustomerTopSalesCache(CustomerRepository customerRepository,
+                                 @Value("${application.customer.top-sales-cache-size:10}") int capacity) {
+        this.customerRepository = customerRepository;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Whether the cache can answer a top-N request of the given size
+     */
+    public boolean canServe(int limit) {
+        return capacity > 0 && limit <= capacity;
+    }
+
+    /**
+     * Get the ids of the top customers by total sales, highest first
+     */
+    public synchronized List<Long> getTopCustomerIds(int limit) {
+        if (!loaded) {
+            reload();
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (RankEntry entry : ranking) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(entry.customerId);
+        }
+        return ids;
+    }
+
+    /**
+     * Apply a new total sales amount for a customer
+     * Increases are applied in place; a decrease of a ranked customer may let an unranked
+     * customer overtake it, so the ranking is reloaded on next read instead
+     */
+    public synchronized void onTotalSalesChanged(Long customerId, BigDecimal newTotal) {
+        if (!loaded || capacity <= 0 || newTotal == null) {
+            return;
+        }
+
+        BigDecimal previous = totalsById.get(customerId);
+        if (previous != null) {
+            if (newTotal.compareTo(previous) < 0) {
+                invalidate();
+                return;
+            }
+            ranking.remove(new RankEntry(customerId, previous));
+            add(customerId, newTotal);
+            return;
+        }
+
+        if (ranking.size() < capacity) {
+            add(customerId, newTotal);
+        } else if (newTotal.compareTo(ranking.last().totalSales) > 0) {
+            RankEntry evicted = ranking.pollLast();
+            totalsById.remove(evicted.customerId);
+            add(customerId, newTotal);
+        }
+    }
+
+    /**
+     * Apply a new total sales amount once the surrounding transaction commits
+     * (immediately when no transaction is active)
+     */
+    public void onTotalSalesChangedAfterCommit(Long customerId, BigDecimal newTotal) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onTotalSalesChanged(customerId, newTotal);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onTotalSalesChanged(customerId, newTotal);
+            }
+        });
+    }
+
+    /**
+     * Drop the ranking so it is reloaded on next read (e.g. after customers are deleted)
+     */
+    public synchronized void invalidate() {
+        ranking.clear();
+        totalsById.clear();
+        loaded = false;
+    }
+
+    private void reload() {
+        ranking.clear();
+        totalsById.clear();
+        List<Object[]> rows = customerRepository.findTopSalesTotals(PageRequest.of(0, capacity));
+        for (Object[] row : rows) {
+            add((Long) row[0], (BigDecimal) row[1]);
+        }
+        loaded = true;
+        log.debug("Customer top sales ranking loaded with {} entries", ranking.size());
+    }
+
+    private void add(Long customerId, BigDecimal totalSales) {
+        ranking.add(new RankEntry(customerId, totalSales));
+        totalsById.put(customerId, totalSales);
+    }
+
+    private static final class RankEntry {
+        private final Long customerId;
+        private final BigDecimal totalSales;
+
+        private RankEntry(Long customerId, BigDecimal totalSales) {
+            this.customerId = customerId;
+            this.totalSales = totalSales;
+        }
+    }
+}
@@ -41,6 +41,13 @@ public class Payment extends AuditEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    /**
+     * Optimistic lock version (existing rows start at 0)
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+    
     /**
      * Payment number (unique identifier)
      */
@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.payment.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published when a customer payment moves from one status to another
+ * Listeners run inside the publishing transaction
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class PaymentStatusChangedEvent {
+
+    private final Long paymentId;
+    private final Long customerId;
+    private final BigDecimal totalAmount;
+    private final LocalDate paymentDate;
+    private final String previousStatus;
+    private final String newStatus;
+}
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -429,6 +431,47 @@ public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpec
     @Query("SELECT SUM(p.totalAmount) FROM Payment p")
     double sumTotalPaymentAmount();
 
+    /**
+     * Cleared, unreconciled payments dated within the range, for bank statement matching:
+     * id, payment number, payment date, cheque clearance date, total amount, cheque number,
+     * bank reference number, and the id, number and clearance date of each linked cheque
+     * (one row per cheque, cheque columns null when there is none)
+     */
+    @Query("SELECT p.id, p.paymentNumber, p.paymentDate, p.chequeClearanceDate, p.totalAmount, p.chequeNumber, " +
+           "p.bankReferenceNumber, c.id, c.chequeNumber, c.clearanceDate " +
+           "FROM Payment p LEFT JOIN Cheque c ON c.payment = p " +
+           "WHERE p.status IN ('CLEARED', 'COMPLETED') AND p.reconciliationDate IS NULL " +
+           "AND p.paymentDate BETWEEN :fromDate AND :toDate")
+    List<Object[]> findReconciliationCandidates(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Reconcile cleared payments that are not reconciled yet, returning how many were
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Payment p SET p.reconciliationDate = :reconciliationDate, p.version = p.version + 1 " +
+           "WHERE p.id IN :paymentIds AND p.status = 'CLEARED' AND p.reconciliationDate IS NULL")
+    int markReconciled(@Param("paymentIds") Collection<Long> paymentIds,
+                       @Param("reconciliationDate") LocalDate reconciliationDate);
+
+    /**
+     * Reconcile a cleared or completed payment that is not reconciled yet; returns 0 when it
+     * was reconciled elsewhere meanwhile
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Payment p SET p.reconciliationDate = :reconciliationDate, p.version = p.version + 1 " +
+           "WHERE p.id = :paymentId AND p.status IN ('CLEARED', 'COMPLETED') AND p.reconciliationDate IS NULL")
+    int markReconciled(@Param("paymentId") Long paymentId,
+                       @Param("reconciliationDate") LocalDate reconciliationDate);
+
+    /**
+     * Undo markReconciled for payments still carrying the given reconciliation date
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Payment p SET p.reconciliationDate = NULL, p.version = p.version + 1 " +
+           "WHERE p.id IN :paymentIds AND p.reconciliationDate = :reconciliationDate")
+    int clearReconciliation(@Param("paymentIds") Collection<Long> paymentIds,
+                            @Param("reconciliationDate") LocalDate reconciliationDate);
+
 //    @Query("SELECT p FROM Payment p WHERE p.bankAccountId = :bankAccountId")
 //    List<Payment> findByBankAccountId(Long bankAccountId);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import lk.epicgreen.erp.payment.dto.request.PaymentAllocationRequest;
 import lk.epicgreen.erp.payment.dto.response.PaymentResponse;
 import lk.epicgreen.erp.payment.entity.Payment;
 import lk.epicgreen.erp.payment.entity.PaymentAllocation;
+import lk.epicgreen.erp.payment.event.PaymentStatusChangedEvent;
 import lk.epicgreen.erp.payment.mapper.PaymentMapper;
 import lk.epicgreen.erp.payment.mapper.PaymentAllocationMapper;
 import lk.epicgreen.erp.payment.repository.PaymentRepository;
@@ -19,11 +20,14 @@ import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.exception.DuplicateResourceException;
 import lk.epicgreen.erp.common.exception.InvalidOperationException;
 import lk.epicgreen.erp.common.dto.PageResponse;
+import lk.epicgreen.erp.common.retry.OptimisticRetryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -54,6 +58,8 @@ public class PaymentServiceImpl implements PaymentService {
     private final InvoiceRepository invoiceRepository;
     private final PaymentMapper paymentMapper;
     private final PaymentAllocationMapper paymentAllocationMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
 
 
     @Override
@@ -188,8 +194,10 @@ public class PaymentServiceImpl implements PaymentService {
                 ". Only DRAFT payments can be submitted for approval.");
         }
 
+        String previousStatus = payment.getStatus();
         payment.setStatus("PENDING");
         paymentRepository.save(payment);
+        publishStatusChanged(payment, previousStatus);
 
         log.info("Payment submitted for approval successfully: {}", id);
     }
@@ -230,6 +238,7 @@ public class PaymentServiceImpl implements PaymentService {
                 ". Only PENDING payments can be approved.");
         }
 
+        String previousStatus = payment.getStatus();
         payment.setStatus("CLEARED");
         payment.setApprovedBy(approvedBy);
         payment.setApprovedAt(LocalDateTime.now());
@@ -249,6 +258,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         paymentRepository.save(payment);
+        publishStatusChanged(payment, previousStatus);
 
         log.info("Payment approved successfully: {}", id);
     }
@@ -282,11 +292,13 @@ public class PaymentServiceImpl implements PaymentService {
             throw new InvalidOperationException("Cannot bounce a cleared payment.");
         }
 
+        String previousStatus = payment.getStatus();
         payment.setStatus("BOUNCED");
         payment.setRemarks(payment.getRemarks() != null ? 
             payment.getRemarks() + "\nBounced: " + reason : 
             "Bounced: " + reason);
         paymentRepository.save(payment);
+        publishStatusChanged(payment, previousStatus);
 
         log.info("Payment marked as BOUNCED successfully: {}", id);
     }
@@ -304,11 +316,13 @@ public class PaymentServiceImpl implements PaymentService {
                 ". Only DRAFT payments can be cancelled.");
         }
 
+        String previousStatus = payment.getStatus();
         payment.setStatus("CANCELLED");
         payment.setRemarks(payment.getRemarks() != null ? 
             payment.getRemarks() + "\nCancelled: " + reason : 
             "Cancelled: " + reason);
         paymentRepository.save(payment);
+        publishStatusChanged(payment, previousStatus);
 
         log.info("Payment cancelled successfully: {}", id);
         return payment;
@@ -326,8 +340,10 @@ public class PaymentServiceImpl implements PaymentService {
                 ". Only CLEARED payments can be completed.");
         }
 
+        String previousStatus = payment.getStatus();
         payment.setStatus("COMPLETED");
         paymentRepository.save(payment);
+        publishStatusChanged(payment, previousStatus);
 
         log.info("Payment completed successfully: {}", id);
         return payment;
@@ -345,8 +361,10 @@ public class PaymentServiceImpl implements PaymentService {
                 ". Only PENDING payments can be cleared.");
         }
 
+        String previousStatus = payment.getStatus();
         payment.setStatus("CLEARED");
         paymentRepository.save(payment);
+        publishStatusChanged(payment, previousStatus);
 
         log.info("Payment cleared successfully: {}", id);
         return payment;
@@ -364,11 +382,13 @@ public class PaymentServiceImpl implements PaymentService {
                 ". Only PENDING payments can be failed.");
         }
 
+        String previousStatus = payment.getStatus();
         payment.setStatus("FAILED");
         payment.setRemarks(payment.getRemarks() != null ?
             payment.getRemarks() + "\nFailed: " + failureReason :
             "Failed: " + failureReason);
         paymentRepository.save(payment);
+        publishStatusChanged(payment, previousStatus);
 
         log.info("Payment failed successfully: {}", id);
         return payment;
@@ -721,45 +741,48 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void allocateToInvoice(Long paymentId, PaymentAllocationRequest allocationRequest) {
         log.info("Allocating payment {} to invoice {}", paymentId, allocationRequest.getInvoiceId());
 
-        Payment payment = findPaymentById(paymentId);
-        Invoice invoice = findInvoiceById(allocationRequest.getInvoiceId());
+        // Re-run on a version conflict, so the amount checks see the concurrent allocation
+        optimisticRetryExecutor.run("payment.allocate", () -> {
+            Payment payment = findPaymentById(paymentId);
+            Invoice invoice = findInvoiceById(allocationRequest.getInvoiceId());
 
-        // Validate allocation amount
-        validateAllocationAmount(invoice, allocationRequest.getAllocatedAmount());
+            // Validate allocation amount
+            validateAllocationAmount(invoice, allocationRequest.getAllocatedAmount());
 
-        // Check if payment has enough unallocated amount
-        BigDecimal currentAllocated = payment.getAllocatedAmount() != null ? 
-            payment.getAllocatedAmount() : BigDecimal.ZERO;
-        BigDecimal available = payment.getTotalAmount().subtract(currentAllocated);
+            // Check if payment has enough unallocated amount
+            BigDecimal currentAllocated = payment.getAllocatedAmount() != null ? 
+                payment.getAllocatedAmount() : BigDecimal.ZERO;
+            BigDecimal available = payment.getTotalAmount().subtract(currentAllocated);
 
-        if (allocationRequest.getAllocatedAmount().compareTo(available) > 0) {
-            throw new InvalidOperationException(
-                "Allocation amount (" + allocationRequest.getAllocatedAmount() + 
-                ") exceeds available amount (" + available + ")");
-        }
+            if (allocationRequest.getAllocatedAmount().compareTo(available) > 0) {
+                throw new InvalidOperationException(
+                    "Allocation amount (" + allocationRequest.getAllocatedAmount() + 
+                    ") exceeds available amount (" + available + ")");
+            }
 
-        // Create allocation
-        PaymentAllocation allocation = paymentAllocationMapper.toEntity(allocationRequest);
-        allocation.setPayment(payment);
-        allocation.setInvoice(invoice);
-        paymentAllocationRepository.save(allocation);
+            // Create allocation
+            PaymentAllocation allocation = paymentAllocationMapper.toEntity(allocationRequest);
+            allocation.setPayment(payment);
+            allocation.setInvoice(invoice);
+            paymentAllocationRepository.save(allocation);
 
-        // Update payment allocated amount
-        payment.setAllocatedAmount(currentAllocated.add(allocationRequest.getAllocatedAmount()));
-        paymentRepository.save(payment);
+            // Update payment allocated amount
+            payment.setAllocatedAmount(currentAllocated.add(allocationRequest.getAllocatedAmount()));
+            paymentRepository.save(payment);
 
-        // If payment is CLEARED, update invoice paid amount
-        if ("CLEARED".equals(payment.getStatus())) {
-            BigDecimal currentPaid = invoice.getPaidAmount() != null ? 
-                invoice.getPaidAmount() : BigDecimal.ZERO;
-            invoice.setPaidAmount(currentPaid.add(allocationRequest.getAllocatedAmount()));
-            updateInvoicePaymentStatus(invoice);
-            invoiceRepository.save(invoice);
-        }
+            // If payment is CLEARED, update invoice paid amount
+            if ("CLEARED".equals(payment.getStatus())) {
+                BigDecimal currentPaid = invoice.getPaidAmount() != null ? 
+                    invoice.getPaidAmount() : BigDecimal.ZERO;
+                invoice.setPaidAmount(currentPaid.add(allocationRequest.getAllocatedAmount()));
+                updateInvoicePaymentStatus(invoice);
+                invoiceRepository.save(invoice);
+            }
+        });
 
         log.info("Payment allocated to invoice successfully");
     }
@@ -824,13 +847,22 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     /**
+     * Reconcile cleared payments with a single update; payments that are not cleared or are
+     * already reconciled are left unchanged
+     *
      * @param paymentIds
      * @param reconciliationDate
-     * @return
+     * @return number of payments reconciled
      */
     @Override
+    @Transactional
     public int reconcileBulkPayments(List<Long> paymentIds, LocalDate reconciliationDate) {
-        return 0;
+        log.info("Reconciling {} Payments in bulk on date: {}", paymentIds.size(), reconciliationDate);
+
+        int reconciledCount = paymentIds.isEmpty() ? 0 : paymentRepository.markReconciled(paymentIds, reconciliationDate);
+
+        log.info("Reconciled {} Payments in bulk operation", reconciledCount);
+        return reconciledCount;
     }
 
     @Transactional
@@ -946,8 +978,10 @@ public class PaymentServiceImpl implements PaymentService {
         for (Long paymentId : paymentIds) {
             Payment payment = findPaymentById(paymentId);
             if ("CLEARED".equals(payment.getStatus())) {
+                String previousStatus = payment.getStatus();
                 payment.setStatus("COMPLETED");
                 paymentRepository.save(payment);
+                publishStatusChanged(payment, previousStatus);
                 completedCount++;
             }
         }
@@ -1123,6 +1157,16 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
+    private void publishStatusChanged(Payment payment, String previousStatus) {
+        eventPublisher.publishEvent(new PaymentStatusChangedEvent(
+            payment.getId(),
+            payment.getCustomer() != null ? payment.getCustomer().getId() : null,
+            payment.getTotalAmount(),
+            payment.getPaymentDate(),
+            previousStatus,
+            payment.getStatus()));
+    }
+
     private void validateUniquePaymentNumber(String paymentNumber, Long excludeId) {
         boolean exists;
         if (excludeId != null) {
@@ -0,0 +1,19 @@
+package lk.epicgreen.erp.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a product price is created, changed or removed
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ProductPriceChangedEvent {
+
+    private final Long productId;
+}
@@ -2,7 +2,11 @@ package lk.epicgreen.erp.product.repository;
 
 import lk.epicgreen.erp.product.entity.ProductPrice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +22,16 @@ public interface ProductPriceRepository extends JpaRepository<ProductPrice, Long
     List<ProductPrice> findByPriceType(String priceType);
     
     List<ProductPrice> findByIsActiveTrue();
+    
+    @Query("SELECT pp FROM ProductPrice pp WHERE pp.isActive = true AND (pp.effectiveTo IS NULL OR pp.effectiveTo >= :from)")
+    List<ProductPrice> findActivePricesEffectiveFrom(@Param("from") LocalDateTime from);
+    
+    @Query("SELECT pp FROM ProductPrice pp WHERE pp.product.id = :productId AND pp.isActive = true " +
+           "AND (pp.effectiveTo IS NULL OR pp.effectiveTo >= :from)")
+    List<ProductPrice> findActivePricesByProductEffectiveFrom(@Param("productId") Long productId, @Param("from") LocalDateTime from);
+
+    @Query("SELECT pp FROM ProductPrice pp WHERE pp.product.id IN :productIds AND pp.isActive = true " +
+           "AND (pp.effectiveTo IS NULL OR pp.effectiveTo >= :from)")
+    List<ProductPrice> findActivePricesByProductInEffectiveFrom(@Param("productIds") Collection<Long> productIds,
+                                                                @Param("from") LocalDateTime from);
 }
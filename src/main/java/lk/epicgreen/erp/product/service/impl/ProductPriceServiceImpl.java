@@ -5,10 +5,12 @@ import lk.epicgreen.erp.product.dto.response.ProductPriceResponse;
 import lk.epicgreen.erp.product.dto.response.BulkPriceUpdateResponse;
 import lk.epicgreen.erp.product.dto.response.ProductPriceHistoryResponse;
 import lk.epicgreen.erp.product.entity.*;
+import lk.epicgreen.erp.product.event.ProductPriceChangedEvent;
 import lk.epicgreen.erp.product.repository.*;
 import lk.epicgreen.erp.product.service.ProductPriceService;
 import lk.epicgreen.erp.product.mapper.ProductPriceMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -26,6 +28,7 @@ public class ProductPriceServiceImpl implements ProductPriceService {
     private final PriceHistoryRepository historyRepository;
     private final ProductRepository productRepository;
     private final ProductPriceMapper priceMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     public List<ProductPriceResponse> getProductPrices(Long productId) {
@@ -49,6 +52,7 @@ public class ProductPriceServiceImpl implements ProductPriceService {
         
         // Create history
         createPriceHistory(saved, null, saved.getPrice(), "Price created");
+        publishPriceChanged(saved);
         
         return priceMapper.toDTO(saved);
     }
@@ -66,13 +70,17 @@ public class ProductPriceServiceImpl implements ProductPriceService {
         if (!oldPrice.equals(updated.getPrice())) {
             createPriceHistory(updated, oldPrice, updated.getPrice(), "Price updated");
         }
+        publishPriceChanged(updated);
         
         return priceMapper.toDTO(updated);
     }
     
     @Override
     public void deletePrice(Long id) {
-        priceRepository.deleteById(id);
+        ProductPrice price = priceRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Price not found"));
+        priceRepository.delete(price);
+        publishPriceChanged(price);
     }
     
     @Override
@@ -91,6 +99,7 @@ public class ProductPriceServiceImpl implements ProductPriceService {
             .orElseThrow(() -> new RuntimeException("Price not found"));
         price.setIsDefault(true);
         ProductPrice updated = priceRepository.save(price);
+        eventPublisher.publishEvent(new ProductPriceChangedEvent(productId));
         
         return priceMapper.toDTO(updated);
     }
@@ -110,6 +119,7 @@ public class ProductPriceServiceImpl implements ProductPriceService {
                 priceRepository.save(price);
                 
                 createPriceHistory(price, oldPrice, newPrice, dto.getReason());
+                eventPublisher.publishEvent(new ProductPriceChangedEvent(product.getId()));
             }
         }
     }
@@ -131,6 +141,12 @@ public class ProductPriceServiceImpl implements ProductPriceService {
         historyRepository.save(history);
     }
     
+    private void publishPriceChanged(ProductPrice price) {
+        if (price.getProduct() != null) {
+            eventPublisher.publishEvent(new ProductPriceChangedEvent(price.getProduct().getId()));
+        }
+    }
+    
     private BigDecimal calculateNewPrice(BigDecimal oldPrice, BulkPriceUpdateResponse dto) {
         switch (dto.getUpdateType()) {
             case "PERCENTAGE":
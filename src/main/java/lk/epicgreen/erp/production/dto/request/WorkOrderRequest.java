@@ -23,7 +23,6 @@ import java.util.List;
 @AllArgsConstructor
 public class WorkOrderRequest {
 
-    @NotBlank(message = "Work order number is required")
     @Size(max = 30, message = "Work order number must not exceed 30 characters")
     @Pattern(regexp = "^[A-Z0-9_-]+$", message = "Work order number must contain only uppercase letters, numbers, hyphens and underscores")
     private String woNumber;
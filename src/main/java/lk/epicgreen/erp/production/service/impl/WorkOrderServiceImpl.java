@@ -21,6 +21,7 @@ import lk.epicgreen.erp.admin.entity.UnitOfMeasure;
 import lk.epicgreen.erp.admin.entity.User;
 import lk.epicgreen.erp.admin.repository.UnitOfMeasureRepository;
 import lk.epicgreen.erp.admin.repository.UserRepository;
+import lk.epicgreen.erp.admin.service.DocumentNumberService;
 import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.exception.DuplicateResourceException;
 import lk.epicgreen.erp.common.exception.InvalidOperationException;
@@ -31,6 +32,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -66,15 +68,20 @@ public class WorkOrderServiceImpl implements WorkOrderService {
     private final ProductionOutputRepository productionOutputRepository;
     private final WorkOrderMapper workOrderMapper;
     private final WorkOrderItemMapper workOrderItemMapper;
+    private final DocumentNumberService documentNumberService;
 
     @Override
     @Transactional
     public WorkOrderResponse createWorkOrder(WorkOrderRequest request) {
+        // Allocate a number when the client does not supply one (allocated numbers are unique by construction)
+        if (!StringUtils.hasText(request.getWoNumber())) {
+            request.setWoNumber(documentNumberService.nextNumber(DocumentNumberService.WORK_ORDER));
+        } else {
+            documentNumberService.registerClientNumber(DocumentNumberService.WORK_ORDER, request.getWoNumber());
+            validateUniqueWoNumber(request.getWoNumber(), null);
+        }
         log.info("Creating new Work Order: {}", request.getWoNumber());
 
-        // Validate unique constraint
-        validateUniqueWoNumber(request.getWoNumber(), null);
-
         // Verify BOM exists and is active
         BillOfMaterials bom = findBillOfMaterialsById(request.getBomId());
         if (!bom.getIsActive()) {
@@ -127,6 +134,12 @@ public class WorkOrderServiceImpl implements WorkOrderService {
         }
 
         // Validate unique constraint
+        if (!StringUtils.hasText(request.getWoNumber())) {
+            request.setWoNumber(workOrder.getWoNumber());
+        }
+        if (!workOrder.getWoNumber().equals(request.getWoNumber())) {
+            documentNumberService.registerClientNumber(DocumentNumberService.WORK_ORDER, request.getWoNumber());
+        }
         validateUniqueWoNumber(request.getWoNumber(), id);
 
         // Update fields
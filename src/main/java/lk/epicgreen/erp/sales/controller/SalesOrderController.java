@@ -3,9 +3,14 @@ package lk.epicgreen.erp.sales.controller;
 import lk.epicgreen.erp.common.dto.ApiResponse;
 
 import lk.epicgreen.erp.common.dto.PageResponse;
+import lk.epicgreen.erp.sales.dto.request.PriceResolutionRequest;
 import lk.epicgreen.erp.sales.dto.request.SalesOrderRequest;
+import lk.epicgreen.erp.sales.dto.response.PriceResolutionResponse;
+import lk.epicgreen.erp.sales.dto.response.SalesDashboardResponse;
 import lk.epicgreen.erp.sales.dto.response.SalesOrderResponse;
 import lk.epicgreen.erp.sales.entity.SalesOrder;
+import lk.epicgreen.erp.sales.service.PriceResolutionService;
+import lk.epicgreen.erp.sales.service.SalesDashboardService;
 import lk.epicgreen.erp.sales.service.SalesOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +42,8 @@ import java.util.Map;
 public class SalesOrderController {
     
     private final SalesOrderService salesOrderService;
+    private final PriceResolutionService priceResolutionService;
+    private final SalesDashboardService salesDashboardService;
     
     // CRUD Operations
     @PostMapping
@@ -502,4 +509,34 @@ public class SalesOrderController {
         Map<String, Object> dashboard = salesOrderService.getDashboardStatistics();
         return ResponseEntity.ok(ApiResponse.success(dashboard, "Dashboard statistics retrieved successfully"));
     }
+    
+    @GetMapping("/statistics/dashboard/snapshot")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'ACCOUNTANT')")
+    public ResponseEntity<ApiResponse<SalesDashboardResponse>> getDashboardSnapshot() {
+        SalesDashboardResponse snapshot = salesDashboardService.getSnapshot();
+        return ResponseEntity.ok(ApiResponse.success(snapshot, "Dashboard snapshot retrieved successfully"));
+    }
+    
+    @PostMapping("/statistics/dashboard/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<SalesDashboardResponse>> refreshDashboardSnapshot() {
+        SalesDashboardResponse snapshot = salesDashboardService.refresh();
+        return ResponseEntity.ok(ApiResponse.success(snapshot, "Dashboard snapshot refreshed successfully"));
+    }
+    
+    // Pricing
+    @PostMapping("/pricing/resolve")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
+    public ResponseEntity<ApiResponse<PriceResolutionResponse>> resolvePrices(@Valid @RequestBody PriceResolutionRequest request) {
+        PriceResolutionResponse prices = priceResolutionService.resolvePrices(request);
+        return ResponseEntity.ok(ApiResponse.success(prices, "Prices resolved successfully"));
+    }
+    
+    @PostMapping("/pricing/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ApiResponse<Void>> rebuildPriceIndex() {
+        log.info("Rebuilding price index");
+        priceResolutionService.rebuildIndex();
+        return ResponseEntity.ok(ApiResponse.success(null, "Price index rebuilt successfully"));
+    }
 }
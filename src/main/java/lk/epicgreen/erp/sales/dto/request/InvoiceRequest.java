@@ -25,7 +25,6 @@ import java.util.List;
 @AllArgsConstructor
 public class InvoiceRequest {
 
-    @NotBlank(message = "Invoice number is required")
     @Size(max = 30, message = "Invoice number must not exceed 30 characters")
     @Pattern(regexp = "^[A-Z0-9_-]+$", message = "Invoice number must contain only uppercase letters, numbers, hyphens and underscores")
     private String invoiceNumber;
@@ -0,0 +1,37 @@
+package lk.epicgreen.erp.sales.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for resolving the prices of an order being entered
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceResolutionRequest {
+
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+
+    /**
+     * Date the prices apply on (defaults to today)
+     */
+    private LocalDate pricingDate;
+
+    @NotEmpty(message = "At least one line is required")
+    @Valid
+    private List<PriceResolutionLineRequest> lines;
+}
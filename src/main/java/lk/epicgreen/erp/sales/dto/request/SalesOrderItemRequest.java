@@ -27,6 +27,11 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class SalesOrderItemRequest {
 
+    /**
+     * Id of the existing line this request updates (optional; unmatched lines are matched by product)
+     */
+    private Long id;
+
     @NotNull(message = "Product ID is required")
     private Long productId;
 
@@ -25,7 +25,6 @@ import java.util.List;
 @AllArgsConstructor
 public class SalesOrderRequest {
 
-    @NotBlank(message = "Order number is required")
     @Size(max = 30, message = "Order number must not exceed 30 characters")
     @Pattern(regexp = "^[A-Z0-9_-]+$", message = "Order number must contain only uppercase letters, numbers, hyphens and underscores")
     private String orderNumber;
@@ -0,0 +1,31 @@
+package lk.epicgreen.erp.sales.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the resolved prices of an order
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceResolutionResponse {
+
+    private Long customerId;
+    private LocalDate pricingDate;
+    private BigDecimal subtotal;
+    private BigDecimal discountTotal;
+    private BigDecimal totalAmount;
+    private Integer unpricedLines;
+    private List<ResolvedLinePriceResponse> lines;
+}
@@ -0,0 +1,38 @@
+package lk.epicgreen.erp.sales.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for the resolved price of a single order line
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolvedLinePriceResponse {
+
+    private Long productId;
+    private BigDecimal quantity;
+
+    /**
+     * CUSTOMER_PRICE_LIST, PRODUCT_PRICE or NONE when no price applies
+     */
+    private String priceSource;
+    private Long productPriceId;
+    private Long customerPriceListId;
+    private BigDecimal basePrice;
+    private BigDecimal unitPrice;
+    private BigDecimal grossAmount;
+    private Long pricingRuleId;
+    private String pricingRuleCode;
+    private BigDecimal discountAmount;
+    private BigDecimal lineTotal;
+}
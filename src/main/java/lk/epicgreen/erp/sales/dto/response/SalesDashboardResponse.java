@@ -0,0 +1,32 @@
+package lk.epicgreen.erp.sales.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for the sales dashboard snapshot
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDashboardResponse {
+
+    private Long totalOrders;
+    private BigDecimal totalSalesValue;
+    private BigDecimal averageOrderValue;
+    private Map<String, Long> ordersByStatus;
+    private Map<String, BigDecimal> salesValueByStatus;
+    private Map<String, Long> ordersByType;
+    private Map<String, Long> ordersByDeliveryMode;
+    private LocalDateTime computedAt;
+}
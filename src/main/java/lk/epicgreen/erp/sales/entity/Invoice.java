@@ -42,6 +42,13 @@ public class Invoice extends AuditEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    /**
+     * Optimistic lock version (existing rows start at 0)
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+    
     /**
      * Invoice number (unique identifier)
      */
@@ -1,6 +1,7 @@
 package lk.epicgreen.erp.sales.entity;
 
 
+import lk.epicgreen.erp.sales.event.OrderPricingEntityListener;
 import lombok.Data;
 
 import javax.persistence.*;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "order_pricing_rules")
+@EntityListeners(OrderPricingEntityListener.class)
 @Data
 public class OrderPricing {
     
@@ -69,6 +71,12 @@ public class OrderPricing {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    /**
+     * Product id as loaded, so a change of product also refreshes the old product's prices
+     */
+    @Transient
+    private Long loadedProductId;
+    
     @PrePersist
     @PreUpdate
     public void setTimestamps() {
@@ -218,6 +218,15 @@ public class SalesOrderItem {
     @PrePersist
     @PreUpdate
     protected void onSave() {
+        applyDefaults();
+    }
+    
+    /**
+     * Default unset amounts to zero and derive the line totals, as done before every save
+     * (also applied to lines written without JPA)
+     */
+    @Transient
+    public void applyDefaults() {
         if (quantityDelivered == null) {
             quantityDelivered = BigDecimal.ZERO;
         }
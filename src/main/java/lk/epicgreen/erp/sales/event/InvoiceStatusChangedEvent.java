@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.sales.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published when an invoice moves from one status to another
+ * Listeners run inside the publishing transaction
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class InvoiceStatusChangedEvent {
+
+    private final Long invoiceId;
+    private final Long customerId;
+    private final BigDecimal totalAmount;
+    private final LocalDate invoiceDate;
+    private final String previousStatus;
+    private final String newStatus;
+}
@@ -0,0 +1,20 @@
+package lk.epicgreen.erp.sales.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when an order pricing rule is created, changed or removed
+ * The product id is null for rules that apply to every product
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderPricingChangedEvent {
+
+    private final Long productId;
+}
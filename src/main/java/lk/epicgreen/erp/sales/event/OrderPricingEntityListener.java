@@ -0,0 +1,45 @@
+package lk.epicgreen.erp.sales.event;
+
+import lk.epicgreen.erp.sales.entity.OrderPricing;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.Objects;
+
+/**
+ * JPA entity listener publishing OrderPricingChangedEvent for every write to an order pricing
+ * rule, whichever code path saves it; a rule moved to another product is published for both
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Component
+public class OrderPricingEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderPricingEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoad(OrderPricing rule) {
+        rule.setLoadedProductId(rule.getProductId());
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(OrderPricing rule) {
+        eventPublisher.publishEvent(new OrderPricingChangedEvent(rule.getProductId()));
+        if (rule.getId() != null && !Objects.equals(rule.getLoadedProductId(), rule.getProductId())
+                && rule.getLoadedProductId() != null) {
+            eventPublisher.publishEvent(new OrderPricingChangedEvent(rule.getLoadedProductId()));
+        }
+        rule.setLoadedProductId(rule.getProductId());
+    }
+}
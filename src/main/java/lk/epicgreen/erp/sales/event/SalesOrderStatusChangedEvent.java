@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.sales.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published when a sales order moves from one status to another
+ * Listeners run inside the publishing transaction
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class SalesOrderStatusChangedEvent {
+
+    private final Long orderId;
+    private final Long customerId;
+    private final BigDecimal totalAmount;
+    private final LocalDate orderDate;
+    private final String previousStatus;
+    private final String newStatus;
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +30,17 @@ public interface OrderPricingRepository extends JpaRepository<OrderPricing, Long
     
     @Query("SELECT p FROM OrderPricing p WHERE p.isActive = true AND :date BETWEEN p.validFrom AND p.validTo AND (p.productId = :productId OR p.productId IS NULL) ORDER BY p.priority DESC")
     List<OrderPricing> findApplicableRulesForProduct(Long productId, LocalDate date);
+    
+    @Query("SELECT p FROM OrderPricing p WHERE p.isActive = true AND p.validTo >= :date")
+    List<OrderPricing> findActiveRulesValidFrom(LocalDate date);
+    
+    @Query("SELECT p FROM OrderPricing p WHERE p.isActive = true AND p.validTo >= :date AND p.productId = :productId")
+    List<OrderPricing> findActiveRulesByProductValidFrom(Long productId, LocalDate date);
+    
+    @Query("SELECT p FROM OrderPricing p WHERE p.isActive = true AND p.validTo >= :date AND p.productId IS NULL")
+    List<OrderPricing> findActiveGeneralRulesValidFrom(LocalDate date);
+    
+    @Query("SELECT p FROM OrderPricing p WHERE p.isActive = true AND p.validTo >= :date " +
+           "AND (p.productId IS NULL OR p.productId IN :productIds)")
+    List<OrderPricing> findActiveRulesForProductsValidFrom(Collection<Long> productIds, LocalDate date);
 }
\ No newline at end of file
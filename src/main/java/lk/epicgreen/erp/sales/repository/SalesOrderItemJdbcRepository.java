@@ -0,0 +1,123 @@
+package lk.epicgreen.erp.sales.repository;
+
+import lk.epicgreen.erp.sales.entity.SalesOrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the sales_order_items table for line-level order edits
+ * Each method sends its rows as a single JDBC batch
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesOrderItemJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO sales_order_items (" +
+        "product_id, batch_number, quantity_ordered, quantity_delivered, uom_id, unit_price, " +
+        "discount_percentage, discount_amount, tax_rate_id, tax_amount, line_total, remarks, quantity, order_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE sales_order_items SET " +
+        "product_id = ?, batch_number = ?, quantity_ordered = ?, quantity_delivered = ?, uom_id = ?, unit_price = ?, " +
+        "discount_percentage = ?, discount_amount = ?, tax_rate_id = ?, tax_amount = ?, line_total = ?, remarks = ? " +
+        "WHERE id = ? AND order_id = ?";
+
+    private static final String DELETE_SQL = "DELETE FROM sales_order_items WHERE id = ? AND order_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert new lines of an order
+     */
+    public int[] batchInsert(Long orderId, List<SalesOrderItem> items) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SalesOrderItem item = items.get(i);
+                setLineValues(ps, item);
+                ps.setDouble(13, item.getQuantity());
+                ps.setLong(14, orderId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+    }
+
+    /**
+     * Overwrite the values of existing lines of an order (matched on id)
+     */
+    public int[] batchUpdate(Long orderId, List<SalesOrderItem> items) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SalesOrderItem item = items.get(i);
+                setLineValues(ps, item);
+                ps.setLong(13, item.getId());
+                ps.setLong(14, orderId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+    }
+
+    /**
+     * Delete lines of an order by id
+     */
+    public int[] batchDelete(Long orderId, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, itemIds.get(i));
+                ps.setLong(2, orderId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return itemIds.size();
+            }
+        });
+    }
+
+    /**
+     * Parameters 1-12, shared by insert and update
+     */
+    private static void setLineValues(PreparedStatement ps, SalesOrderItem item) throws SQLException {
+        ps.setLong(1, item.getProduct().getId());
+        ps.setString(2, item.getBatchNumber());
+        ps.setBigDecimal(3, item.getQuantityOrdered());
+        ps.setBigDecimal(4, item.getQuantityDelivered());
+        ps.setLong(5, item.getUom().getId());
+        ps.setBigDecimal(6, item.getUnitPrice());
+        ps.setBigDecimal(7, item.getDiscountPercentage());
+        ps.setBigDecimal(8, item.getDiscountAmount());
+        ps.setObject(9, item.getTaxRate() != null ? item.getTaxRate().getId() : null, Types.BIGINT);
+        ps.setBigDecimal(10, item.getTaxAmount());
+        ps.setBigDecimal(11, item.getLineTotal());
+        ps.setString(12, item.getRemarks());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -365,4 +366,20 @@ public interface SalesOrderRepository extends JpaRepository<SalesOrder, Long>, J
 
 @Query("SELECT AVG(so.totalAmount) FROM SalesOrder so")
     Optional<Double> averageOrderValue();
+
+    /**
+     * Order count, priced order count and order value per status, order type and delivery mode
+     * (the whole sales dashboard in one pass)
+     */
+    @Query("SELECT so.status, so.orderType, so.deliveryMode, COUNT(so), COUNT(so.totalAmount), SUM(so.totalAmount) " +
+           "FROM SalesOrder so GROUP BY so.status, so.orderType, so.deliveryMode")
+    List<Object[]> summarizeByStatusTypeAndDeliveryMode();
+
+    /**
+     * Orders of the given customers in the given statuses as (customerId, orderId, totalAmount)
+     */
+    @Query("SELECT so.customer.id, so.id, so.totalAmount FROM SalesOrder so " +
+           "WHERE so.customer.id IN :customerIds AND so.status IN :statuses")
+    List<Object[]> findOrderAmountsByCustomerIdsAndStatuses(@Param("customerIds") Collection<Long> customerIds,
+                                                             @Param("statuses") Collection<String> statuses);
 }
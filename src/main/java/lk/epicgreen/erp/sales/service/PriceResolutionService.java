@@ -0,0 +1,44 @@
+package lk.epicgreen.erp.sales.service;
+
+import lk.epicgreen.erp.sales.dto.request.PriceResolutionRequest;
+import lk.epicgreen.erp.sales.dto.response.PriceResolutionResponse;
+
+/**
+ * Service interface for resolving order line prices
+ * 
+ * Price resolution order for each line:
+ * 1. Customer special price (CustomerPriceList, after its discount) valid on the pricing date
+ *    with the line quantity meeting its minimum quantity
+ * 2. Otherwise the product price (ProductPrice) for the quantity, preferring the highest
+ *    quantity break and then the default price
+ * 3. The highest priority OrderPricing rule matching the customer, product, line quantity
+ *    and order amount is applied as a line discount
+ * 
+ * Prices and rules are served from an in-memory index; prices that expired before the
+ * index was last compiled are not considered.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface PriceResolutionService {
+
+    /**
+     * Resolve the prices of all lines of an order
+     */
+    PriceResolutionResponse resolvePrices(PriceResolutionRequest request);
+
+    /**
+     * Recompile the entries of a single product from the database
+     */
+    void refreshProduct(Long productId);
+
+    /**
+     * Recompile the pricing rules that apply to every product from the database
+     */
+    void refreshOrderRules();
+
+    /**
+     * Recompile the whole price index from the database
+     */
+    void rebuildIndex();
+}
@@ -0,0 +1,32 @@
+package lk.epicgreen.erp.sales.service;
+
+import lk.epicgreen.erp.sales.dto.response.SalesDashboardResponse;
+
+/**
+ * Service interface for the sales dashboard snapshot
+ * 
+ * All sales order KPIs are computed together in one grouped query and served from memory.
+ * The snapshot is recomputed shortly after committed order writes mark it dirty and at the
+ * latest when it reaches the configured maximum staleness, so changes made outside this
+ * node are picked up too.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface SalesDashboardService {
+
+    /**
+     * Current snapshot; computed inline only when none exists or it is past its staleness bound
+     */
+    SalesDashboardResponse getSnapshot();
+
+    /**
+     * Mark the snapshot out of date once the current transaction (if any) commits
+     */
+    void markDirty();
+
+    /**
+     * Recompute the snapshot now
+     */
+    SalesDashboardResponse refresh();
+}
@@ -1,6 +1,7 @@
 package lk.epicgreen.erp.sales.service.impl;
 
 
+import lk.epicgreen.erp.admin.service.DocumentNumberService;
 import lk.epicgreen.erp.sales.dto.response.DispatchDTO;
 import lk.epicgreen.erp.sales.entity.Dispatch;
 import lk.epicgreen.erp.sales.mapper.DispatchMapper;
@@ -19,6 +20,7 @@ public class DispatchService {
     
     private final DispatchRepository dispatchRepository;
     private final DispatchMapper dispatchMapper;
+    private final DocumentNumberService documentNumberService;
     
     public List<DispatchDTO> getAllDispatches() {
         return dispatchRepository.findAll().stream()
@@ -46,7 +48,9 @@ public class DispatchService {
     
     public DispatchDTO createDispatch(DispatchDTO dispatchDTO) {
         if (dispatchDTO.getDispatchNumber() == null || dispatchDTO.getDispatchNumber().isEmpty()) {
-            dispatchDTO.setDispatchNumber(generateDispatchNumber());
+            dispatchDTO.setDispatchNumber(documentNumberService.nextNumber(DocumentNumberService.DISPATCH));
+        } else {
+            documentNumberService.registerClientNumber(DocumentNumberService.DISPATCH, dispatchDTO.getDispatchNumber());
         }
         
         if (dispatchDTO.getDispatchStatus() == null) {
@@ -112,10 +116,4 @@ public class DispatchService {
         
         return dispatchMapper.toDTO(savedDispatch);
     }
-    
-    private String generateDispatchNumber() {
-        String year = String.valueOf(LocalDate.now().getYear());
-        long count = dispatchRepository.count() + 1;
-        return String.format("DSP-%s-%04d", year, count);
-    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lk.epicgreen.erp.sales.dto.request.InvoiceRequest;
 import lk.epicgreen.erp.sales.dto.request.InvoiceItemRequest;
 import lk.epicgreen.erp.sales.dto.response.InvoiceResponse;
 import lk.epicgreen.erp.sales.entity.*;
+import lk.epicgreen.erp.sales.event.InvoiceStatusChangedEvent;
 //import lk.epicgreen.erp.sales.entity.DispatchNote;
 import lk.epicgreen.erp.sales.mapper.InvoiceMapper;
 import lk.epicgreen.erp.sales.mapper.InvoiceItemMapper;
@@ -20,16 +21,19 @@ import lk.epicgreen.erp.admin.entity.UnitOfMeasure;
 import lk.epicgreen.erp.admin.entity.TaxRate;
 import lk.epicgreen.erp.admin.repository.UnitOfMeasureRepository;
 import lk.epicgreen.erp.admin.repository.TaxRateRepository;
+import lk.epicgreen.erp.admin.service.DocumentNumberService;
 import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.exception.DuplicateResourceException;
 import lk.epicgreen.erp.common.exception.InvalidOperationException;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -69,15 +73,21 @@ public class InvoiceServiceImpl implements InvoiceService {
     private final TaxRateRepository taxRateRepository;
     private final InvoiceMapper invoiceMapper;
     private final InvoiceItemMapper invoiceItemMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentNumberService documentNumberService;
 
     @Override
     @Transactional
     public InvoiceResponse createInvoice(InvoiceRequest request) {
+        // Allocate a number when the client does not supply one (allocated numbers are unique by construction)
+        if (!StringUtils.hasText(request.getInvoiceNumber())) {
+            request.setInvoiceNumber(documentNumberService.nextNumber(DocumentNumberService.INVOICE));
+        } else {
+            documentNumberService.registerClientNumber(DocumentNumberService.INVOICE, request.getInvoiceNumber());
+            validateUniqueInvoiceNumber(request.getInvoiceNumber(), null);
+        }
         log.info("Creating new Invoice: {}", request.getInvoiceNumber());
 
-        // Validate unique constraint
-        validateUniqueInvoiceNumber(request.getInvoiceNumber(), null);
-
         // Verify sales order exists
         SalesOrder order = findSalesOrderById(request.getOrderId());
 
@@ -131,7 +141,11 @@ public class InvoiceServiceImpl implements InvoiceService {
         }
 
         // Validate unique constraint if invoice number changed
+        if (!StringUtils.hasText(request.getInvoiceNumber())) {
+            request.setInvoiceNumber(invoice.getInvoiceNumber());
+        }
         if (!invoice.getInvoiceNumber().equals(request.getInvoiceNumber())) {
+            documentNumberService.registerClientNumber(DocumentNumberService.INVOICE, request.getInvoiceNumber());
             validateUniqueInvoiceNumber(request.getInvoiceNumber(), id);
         }
 
@@ -196,8 +210,10 @@ public class InvoiceServiceImpl implements InvoiceService {
                 ". Only DRAFT invoices can be posted.");
         }
 
+        String previousStatus = invoice.getStatus();
         invoice.setStatus("POSTED");
         invoiceRepository.save(invoice);
+        publishStatusChanged(invoice, previousStatus);
 
         log.info("Invoice posted successfully: {}", id);
     }
@@ -215,11 +231,13 @@ public class InvoiceServiceImpl implements InvoiceService {
                 ". Only DRAFT invoices can be cancelled.");
         }
 
+        String previousStatus = invoice.getStatus();
         invoice.setStatus("CANCELLED");
         invoice.setRemarks(invoice.getRemarks() != null ? 
             invoice.getRemarks() + "\nCancelled: " + reason : 
             "Cancelled: " + reason);
         invoiceRepository.save(invoice);
+        publishStatusChanged(invoice, previousStatus);
 
         log.info("Invoice cancelled successfully: {}", id);
     }
@@ -462,6 +480,16 @@ public class InvoiceServiceImpl implements InvoiceService {
         return item;
     }
 
+    private void publishStatusChanged(Invoice invoice, String previousStatus) {
+        eventPublisher.publishEvent(new InvoiceStatusChangedEvent(
+            invoice.getId(),
+            invoice.getCustomer() != null ? invoice.getCustomer().getId() : null,
+            invoice.getTotalAmount(),
+            invoice.getInvoiceDate(),
+            previousStatus,
+            invoice.getStatus()));
+    }
+
     private void validateUniqueInvoiceNumber(String invoiceNumber, Long excludeId) {
         boolean exists;
         if (excludeId != null) {
@@ -0,0 +1,105 @@
+package lk.epicgreen.erp.sales.service.impl;
+
+import lk.epicgreen.erp.admin.entity.TaxRate;
+import lk.epicgreen.erp.admin.entity.UnitOfMeasure;
+import lk.epicgreen.erp.admin.repository.TaxRateRepository;
+import lk.epicgreen.erp.admin.repository.UnitOfMeasureRepository;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.product.entity.Product;
+import lk.epicgreen.erp.product.repository.ProductRepository;
+import lk.epicgreen.erp.sales.dto.request.SalesOrderItemRequest;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Identity map of the products, units of measure and tax rates referenced by the lines of
+ * one order request
+ * 
+ * All ids are collected up front and each type is loaded with a single findAllById, so
+ * assembling an order costs at most three selects regardless of the number of lines.
+ * Instances live for one service call only.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+final class OrderLineReferences {
+
+    private final Map<Long, Product> products;
+    private final Map<Long, UnitOfMeasure> units;
+    private final Map<Long, TaxRate> taxRates;
+
+    private OrderLineReferences(Map<Long, Product> products,
+                                Map<Long, UnitOfMeasure> units,
+                                Map<Long, TaxRate> taxRates) {
+        this.products = products;
+        this.units = units;
+        this.taxRates = taxRates;
+    }
+
+    static OrderLineReferences load(List<SalesOrderItemRequest> items,
+                                    ProductRepository productRepository,
+                                    UnitOfMeasureRepository unitOfMeasureRepository,
+                                    TaxRateRepository taxRateRepository) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        Set<Long> uomIds = new LinkedHashSet<>();
+        Set<Long> taxRateIds = new LinkedHashSet<>();
+        for (SalesOrderItemRequest item : items) {
+            addIfPresent(productIds, item.getProductId());
+            addIfPresent(uomIds, item.getUomId());
+            addIfPresent(taxRateIds, item.getTaxRateId());
+        }
+
+        return new OrderLineReferences(
+            byId(productIds, productRepository::findAllById, Product::getId),
+            byId(uomIds, unitOfMeasureRepository::findAllById, UnitOfMeasure::getId),
+            byId(taxRateIds, taxRateRepository::findAllById, TaxRate::getId));
+    }
+
+    Product product(Long id) {
+        Product product = products.get(id);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found: " + id);
+        }
+        return product;
+    }
+
+    UnitOfMeasure unitOfMeasure(Long id) {
+        UnitOfMeasure uom = units.get(id);
+        if (uom == null) {
+            throw new ResourceNotFoundException("Unit of Measure not found: " + id);
+        }
+        return uom;
+    }
+
+    TaxRate taxRate(Long id) {
+        TaxRate taxRate = taxRates.get(id);
+        if (taxRate == null) {
+            throw new ResourceNotFoundException("Tax Rate not found: " + id);
+        }
+        return taxRate;
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static <T> Map<Long, T> byId(Set<Long> ids,
+                                         Function<Iterable<Long>, List<T>> loader,
+                                         Function<T, Long> idOf) {
+        Map<Long, T> loaded = new HashMap<>();
+        if (ids.isEmpty()) {
+            return loaded;
+        }
+        for (T entity : loader.apply(ids)) {
+            loaded.put(idOf.apply(entity), entity);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,345 @@
+package lk.epicgreen.erp.sales.service.impl;
+
+import lk.epicgreen.erp.customer.entity.CustomerPriceList;
+import lk.epicgreen.erp.product.entity.ProductPrice;
+import lk.epicgreen.erp.sales.entity.OrderPricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled view of product prices, customer special prices and order pricing rules
+ *
+ * Entries are grouped per product and then per customer, so a (customer, product) lookup is
+ * two hash lookups. Candidate arrays are sorted at compile time so the first entry matching
+ * the pricing date and quantity is the one that applies. Validity windows are kept as epoch
+ * days and entries that had already expired when the index was compiled are left out, so the
+ * index only answers pricing dates from its compile date on. Each product's entry, and the set
+ * of rules without a product, is immutable and replaced as a whole when its source rows change.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+final class PriceIndex {
+
+    /**
+     * Customer key for rules that apply to every customer
+     */
+    static final Long ANY_CUSTOMER = 0L;
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final LocalDate compiledOn;
+    private final Map<Long, ProductPricing> products;
+
+    /**
+     * Rules without a product, keyed by customer (ANY_CUSTOMER for all customers)
+     */
+    private volatile Map<Long, PricingRule[]> orderRules;
+
+    private PriceIndex(LocalDate compiledOn, Map<Long, ProductPricing> products, Map<Long, PricingRule[]> orderRules) {
+        this.compiledOn = compiledOn;
+        this.products = products;
+        this.orderRules = orderRules;
+    }
+
+    static PriceIndex compile(LocalDate compiledOn, List<ProductPrice> prices,
+                              List<CustomerPriceList> priceLists, List<OrderPricing> rules) {
+        Map<Long, List<ProductPrice>> pricesByProduct = new HashMap<>();
+        for (ProductPrice price : prices) {
+            pricesByProduct.computeIfAbsent(price.getProduct().getId(), id -> new ArrayList<>()).add(price);
+        }
+        Map<Long, List<CustomerPriceList>> priceListsByProduct = new HashMap<>();
+        for (CustomerPriceList priceList : priceLists) {
+            priceListsByProduct.computeIfAbsent(priceList.getProduct().getId(), id -> new ArrayList<>()).add(priceList);
+        }
+        Map<Long, List<OrderPricing>> rulesByProduct = new HashMap<>();
+        List<OrderPricing> generalRules = new ArrayList<>();
+        for (OrderPricing rule : rules) {
+            if (rule.getProductId() == null) {
+                generalRules.add(rule);
+            } else {
+                rulesByProduct.computeIfAbsent(rule.getProductId(), id -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        Set<Long> productIds = new HashSet<>(pricesByProduct.keySet());
+        productIds.addAll(priceListsByProduct.keySet());
+        productIds.addAll(rulesByProduct.keySet());
+
+        Map<Long, ProductPricing> products = new ConcurrentHashMap<>(Math.max(16, productIds.size() * 2));
+        for (Long productId : productIds) {
+            products.put(productId, compileProduct(
+                pricesByProduct.getOrDefault(productId, Collections.<ProductPrice>emptyList()),
+                priceListsByProduct.getOrDefault(productId, Collections.<CustomerPriceList>emptyList()),
+                rulesByProduct.getOrDefault(productId, Collections.<OrderPricing>emptyList())));
+        }
+        return new PriceIndex(compiledOn, products, compileRules(generalRules));
+    }
+
+    static ProductPricing compileProduct(List<ProductPrice> prices, List<CustomerPriceList> priceLists,
+                                         List<OrderPricing> rules) {
+        List<PriceTier> tiers = new ArrayList<>(prices.size());
+        for (ProductPrice price : prices) {
+            if (price.getPrice() != null) {
+                tiers.add(new PriceTier(price));
+            }
+        }
+        tiers.sort(Comparator.comparing((PriceTier tier) -> tier.minQuantity, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+            .thenComparing(tier -> !tier.isDefault)
+            .thenComparing(tier -> tier.fromDay, Comparator.reverseOrder()));
+
+        Map<Long, List<SpecialPrice>> specialPrices = new HashMap<>();
+        for (CustomerPriceList priceList : priceLists) {
+            if (priceList.getSpecialPrice() != null) {
+                specialPrices.computeIfAbsent(priceList.getCustomer().getId(), id -> new ArrayList<>())
+                    .add(new SpecialPrice(priceList));
+            }
+        }
+        Map<Long, SpecialPrice[]> compiledSpecialPrices = new HashMap<>();
+        for (Map.Entry<Long, List<SpecialPrice>> entry : specialPrices.entrySet()) {
+            List<SpecialPrice> candidates = entry.getValue();
+            candidates.sort(Comparator.comparing((SpecialPrice special) -> special.minQuantity, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+                .thenComparing(special -> special.fromDay, Comparator.reverseOrder()));
+            compiledSpecialPrices.put(entry.getKey(), candidates.toArray(new SpecialPrice[0]));
+        }
+
+        return new ProductPricing(tiers.toArray(new PriceTier[0]), compiledSpecialPrices, compileRules(rules));
+    }
+
+    private static Map<Long, PricingRule[]> compileRules(List<OrderPricing> rules) {
+        Map<Long, List<PricingRule>> byCustomer = new HashMap<>();
+        for (OrderPricing rule : rules) {
+            if (rule.getDiscountValue() == null || rule.getValidFrom() == null || rule.getValidTo() == null
+                    || !("PERCENTAGE".equals(rule.getDiscountType()) || "FIXED_AMOUNT".equals(rule.getDiscountType()))) {
+                continue;
+            }
+            Long customerId = rule.getCustomerId() != null ? rule.getCustomerId() : ANY_CUSTOMER;
+            byCustomer.computeIfAbsent(customerId, id -> new ArrayList<>()).add(new PricingRule(rule));
+        }
+        Map<Long, PricingRule[]> compiled = new HashMap<>();
+        for (Map.Entry<Long, List<PricingRule>> entry : byCustomer.entrySet()) {
+            List<PricingRule> candidates = entry.getValue();
+            candidates.sort(Comparator.comparingInt((PricingRule rule) -> rule.priority).reversed());
+            compiled.put(entry.getKey(), candidates.toArray(new PricingRule[0]));
+        }
+        return compiled;
+    }
+
+    LocalDate getCompiledOn() {
+        return compiledOn;
+    }
+
+    int size() {
+        return products.size();
+    }
+
+    ProductPricing product(Long productId) {
+        return products.get(productId);
+    }
+
+    PricingRule[] orderRules(Long customerId) {
+        return orderRules.get(customerId);
+    }
+
+    /**
+     * Whether the index holds every entry that can apply on the day (entries that expired before
+     * the compile date were left out)
+     */
+    boolean covers(LocalDate pricingDate) {
+        return !pricingDate.isBefore(compiledOn);
+    }
+
+    void replaceOrderRules(List<OrderPricing> rules) {
+        orderRules = compileRules(rules);
+    }
+
+    void replaceProduct(Long productId, ProductPricing pricing) {
+        if (pricing.isEmpty()) {
+            products.remove(productId);
+        } else {
+            products.put(productId, pricing);
+        }
+    }
+
+    /**
+     * Highest priority rule matching the line across the candidate arrays
+     * Arrays are passed most specific first, which wins when priorities are equal
+     */
+    static PricingRule bestRule(long day, BigDecimal quantity, BigDecimal orderAmount, PricingRule[]... candidates) {
+        PricingRule best = null;
+        for (PricingRule[] rules : candidates) {
+            if (rules == null) {
+                continue;
+            }
+            for (PricingRule rule : rules) {
+                if (best != null && rule.priority <= best.priority) {
+                    break;
+                }
+                if (rule.matches(day, quantity, orderAmount)) {
+                    best = rule;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static long startDay(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate().toEpochDay() : Long.MIN_VALUE;
+    }
+
+    private static long endDay(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate().toEpochDay() : Long.MAX_VALUE;
+    }
+
+    private static boolean atLeast(BigDecimal value, BigDecimal minimum) {
+        return minimum == null || value.compareTo(minimum) >= 0;
+    }
+
+    /**
+     * Compiled prices of a single product
+     */
+    static final class ProductPricing {
+
+        private final PriceTier[] tiers;
+        private final Map<Long, SpecialPrice[]> specialPrices;
+        private final Map<Long, PricingRule[]> rules;
+
+        private ProductPricing(PriceTier[] tiers, Map<Long, SpecialPrice[]> specialPrices, Map<Long, PricingRule[]> rules) {
+            this.tiers = tiers;
+            this.specialPrices = specialPrices;
+            this.rules = rules;
+        }
+
+        boolean isEmpty() {
+            return tiers.length == 0 && specialPrices.isEmpty() && rules.isEmpty();
+        }
+
+        /**
+         * Product price for the quantity, preferring the highest quantity break and then the default price
+         */
+        PriceTier basePrice(long day, BigDecimal quantity) {
+            for (PriceTier tier : tiers) {
+                if (tier.matches(day, quantity)) {
+                    return tier;
+                }
+            }
+            return null;
+        }
+
+        SpecialPrice specialPrice(Long customerId, long day, BigDecimal quantity) {
+            SpecialPrice[] candidates = specialPrices.get(customerId);
+            if (candidates == null) {
+                return null;
+            }
+            for (SpecialPrice special : candidates) {
+                if (special.matches(day, quantity)) {
+                    return special;
+                }
+            }
+            return null;
+        }
+
+        PricingRule[] rules(Long customerId) {
+            return rules.get(customerId);
+        }
+    }
+
+    static final class PriceTier {
+
+        final Long id;
+        final BigDecimal price;
+        final boolean isDefault;
+        private final BigDecimal minQuantity;
+        private final BigDecimal maxQuantity;
+        private final long fromDay;
+        private final long toDay;
+
+        private PriceTier(ProductPrice price) {
+            this.id = price.getId();
+            this.price = price.getPrice();
+            this.isDefault = Boolean.TRUE.equals(price.getIsDefault());
+            this.minQuantity = price.getMinQuantity();
+            this.maxQuantity = price.getMaxQuantity();
+            this.fromDay = startDay(price.getEffectiveFrom());
+            this.toDay = endDay(price.getEffectiveTo());
+        }
+
+        private boolean matches(long day, BigDecimal quantity) {
+            return day >= fromDay && day <= toDay && atLeast(quantity, minQuantity)
+                && (maxQuantity == null || quantity.compareTo(maxQuantity) <= 0);
+        }
+    }
+
+    static final class SpecialPrice {
+
+        final Long id;
+        final BigDecimal finalPrice;
+        private final BigDecimal minQuantity;
+        private final long fromDay;
+        private final long toDay;
+
+        private SpecialPrice(CustomerPriceList priceList) {
+            this.id = priceList.getId();
+            this.finalPrice = priceList.getFinalPrice();
+            this.minQuantity = priceList.getMinQuantity();
+            this.fromDay = priceList.getValidFrom() != null ? priceList.getValidFrom().toEpochDay() : Long.MIN_VALUE;
+            this.toDay = priceList.getValidTo() != null ? priceList.getValidTo().toEpochDay() : Long.MAX_VALUE;
+        }
+
+        private boolean matches(long day, BigDecimal quantity) {
+            return day >= fromDay && day <= toDay && atLeast(quantity, minQuantity);
+        }
+    }
+
+    static final class PricingRule {
+
+        final Long id;
+        final String ruleCode;
+        private final boolean percentage;
+        private final BigDecimal discountValue;
+        private final BigDecimal minQuantity;
+        private final BigDecimal minOrderAmount;
+        private final int priority;
+        private final long fromDay;
+        private final long toDay;
+
+        private PricingRule(OrderPricing rule) {
+            this.id = rule.getId();
+            this.ruleCode = rule.getRuleCode();
+            this.percentage = "PERCENTAGE".equals(rule.getDiscountType());
+            this.discountValue = rule.getDiscountValue();
+            this.minQuantity = rule.getMinQuantity();
+            this.minOrderAmount = rule.getMinOrderAmount();
+            this.priority = rule.getPriority() != null ? rule.getPriority() : 0;
+            this.fromDay = rule.getValidFrom().toEpochDay();
+            this.toDay = rule.getValidTo().toEpochDay();
+        }
+
+        private boolean matches(long day, BigDecimal quantity, BigDecimal orderAmount) {
+            return day >= fromDay && day <= toDay && atLeast(quantity, minQuantity) && atLeast(orderAmount, minOrderAmount);
+        }
+
+        /**
+         * Discount on a line amount; fixed amounts never exceed the line
+         */
+        BigDecimal discount(BigDecimal amount) {
+            if (percentage) {
+                return amount.multiply(discountValue).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+            }
+            return discountValue.min(amount);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package lk.epicgreen.erp.sales.service.impl;
+
+import lk.epicgreen.erp.customer.event.CustomerPriceListChangedEvent;
+import lk.epicgreen.erp.customer.repository.CustomerPriceListRepository;
+import lk.epicgreen.erp.product.event.ProductPriceChangedEvent;
+import lk.epicgreen.erp.product.repository.ProductPriceRepository;
+import lk.epicgreen.erp.sales.dto.request.PriceResolutionLineRequest;
+import lk.epicgreen.erp.sales.dto.request.PriceResolutionRequest;
+import lk.epicgreen.erp.sales.dto.response.PriceResolutionResponse;
+import lk.epicgreen.erp.sales.dto.response.ResolvedLinePriceResponse;
+import lk.epicgreen.erp.sales.event.OrderPricingChangedEvent;
+import lk.epicgreen.erp.sales.repository.OrderPricingRepository;
+import lk.epicgreen.erp.sales.service.PriceResolutionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of PriceResolutionService interface
+ *
+ * Active product prices, customer price lists and pricing rules are compiled into a
+ * PriceIndex that is swapped in atomically, so order entry resolves every line without
+ * touching the database. A committed price change recompiles only the affected product, and
+ * a change to a rule without a product recompiles the general rules; the whole index is
+ * rebuilt at startup and nightly so that expired entries drop out. Expired entries are not
+ * in the index, so back-dated pricing dates are resolved from a small index compiled from the
+ * database for the requested products only.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class PriceResolutionServiceImpl implements PriceResolutionService {
+
+    private static final String SOURCE_CUSTOMER_PRICE_LIST = "CUSTOMER_PRICE_LIST";
+    private static final String SOURCE_PRODUCT_PRICE = "PRODUCT_PRICE";
+    private static final String SOURCE_NONE = "NONE";
+
+    private final ProductPriceRepository productPriceRepository;
+    private final CustomerPriceListRepository customerPriceListRepository;
+    private final OrderPricingRepository orderPricingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate lookupTransactionTemplate;
+
+    /**
+     * Serializes index rebuilds and product refreshes; resolution never takes it once the index exists
+     */
+    private final Object indexLock = new Object();
+    private volatile PriceIndex index;
+
+    public PriceResolutionServiceImpl(ProductPriceRepository productPriceRepository,
+                                      CustomerPriceListRepository customerPriceListRepository,
+                                      OrderPricingRepository orderPricingRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.productPriceRepository = productPriceRepository;
+        this.customerPriceListRepository = customerPriceListRepository;
+        this.orderPricingRepository = orderPricingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Refreshes run after the publishing transaction has committed
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.lookupTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.lookupTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public PriceResolutionResponse resolvePrices(PriceResolutionRequest request) {
+        LocalDate pricingDate = request.getPricingDate() != null ? request.getPricingDate() : LocalDate.now();
+        PriceIndex current = currentIndex();
+        if (!current.covers(pricingDate)) {
+            current = compileForDate(request.getLines(), pricingDate);
+        }
+        long day = pricingDate.toEpochDay();
+        Long customerId = request.getCustomerId();
+
+        List<PriceResolutionLineRequest> lines = request.getLines();
+        List<ResolvedLinePriceResponse> resolved = new ArrayList<>(lines.size());
+        PriceIndex.ProductPricing[] pricing = new PriceIndex.ProductPricing[lines.size()];
+        BigDecimal subtotal = BigDecimal.ZERO;
+        int unpriced = 0;
+
+        // Unit prices first; rules with a minimum order amount need the order subtotal
+        for (int i = 0; i < lines.size(); i++) {
+            PriceResolutionLineRequest line = lines.get(i);
+            BigDecimal quantity = line.getQuantity();
+            ResolvedLinePriceResponse result = ResolvedLinePriceResponse.builder()
+                .productId(line.getProductId())
+                .quantity(quantity)
+                .priceSource(SOURCE_NONE)
+                .discountAmount(BigDecimal.ZERO)
+                .build();
+            resolved.add(result);
+
+            PriceIndex.ProductPricing productPricing = current.product(line.getProductId());
+            pricing[i] = productPricing;
+            if (productPricing != null) {
+                PriceIndex.PriceTier tier = productPricing.basePrice(day, quantity);
+                PriceIndex.SpecialPrice special = productPricing.specialPrice(customerId, day, quantity);
+                if (tier != null) {
+                    result.setProductPriceId(tier.id);
+                    result.setBasePrice(tier.price);
+                }
+                if (special != null) {
+                    result.setPriceSource(SOURCE_CUSTOMER_PRICE_LIST);
+                    result.setCustomerPriceListId(special.id);
+                    result.setUnitPrice(special.finalPrice);
+                } else if (tier != null) {
+                    result.setPriceSource(SOURCE_PRODUCT_PRICE);
+                    result.setUnitPrice(tier.price);
+                }
+            }
+
+            if (result.getUnitPrice() == null) {
+                unpriced++;
+                continue;
+            }
+            BigDecimal gross = result.getUnitPrice().multiply(quantity).setScale(2, RoundingMode.HALF_UP);
+            result.setGrossAmount(gross);
+            subtotal = subtotal.add(gross);
+        }
+
+        PriceIndex.PricingRule[] customerRules = current.orderRules(customerId);
+        PriceIndex.PricingRule[] generalRules = current.orderRules(PriceIndex.ANY_CUSTOMER);
+        BigDecimal discountTotal = BigDecimal.ZERO;
+        for (int i = 0; i < resolved.size(); i++) {
+            ResolvedLinePriceResponse result = resolved.get(i);
+            BigDecimal gross = result.getGrossAmount();
+            if (gross == null) {
+                continue;
+            }
+            PriceIndex.ProductPricing productPricing = pricing[i];
+            PriceIndex.PricingRule rule = PriceIndex.bestRule(day, result.getQuantity(), subtotal,
+                productPricing != null ? productPricing.rules(customerId) : null,
+                productPricing != null ? productPricing.rules(PriceIndex.ANY_CUSTOMER) : null,
+                customerRules,
+                generalRules);
+            if (rule != null) {
+                BigDecimal discount = rule.discount(gross);
+                result.setPricingRuleId(rule.id);
+                result.setPricingRuleCode(rule.ruleCode);
+                result.setDiscountAmount(discount);
+                discountTotal = discountTotal.add(discount);
+            }
+            result.setLineTotal(gross.subtract(result.getDiscountAmount()));
+        }
+
+        return PriceResolutionResponse.builder()
+            .customerId(customerId)
+            .pricingDate(pricingDate)
+            .subtotal(subtotal)
+            .discountTotal(discountTotal)
+            .totalAmount(subtotal.subtract(discountTotal))
+            .unpricedLines(unpriced)
+            .lines(resolved)
+            .build();
+    }
+
+    @Override
+    public void refreshProduct(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        synchronized (indexLock) {
+            PriceIndex current = index;
+            if (current == null) {
+                // Compiled in full on first use
+                return;
+            }
+            LocalDate from = current.getCompiledOn();
+            PriceIndex.ProductPricing pricing = transactionTemplate.execute(status -> PriceIndex.compileProduct(
+                productPriceRepository.findActivePricesByProductEffectiveFrom(productId, from.atStartOfDay()),
+                customerPriceListRepository.findActivePriceListsByProductValidFrom(productId, from),
+                orderPricingRepository.findActiveRulesByProductValidFrom(productId, from)));
+            current.replaceProduct(productId, pricing);
+            log.debug("Price index refreshed for product: {}", productId);
+        }
+    }
+
+    @Override
+    public void refreshOrderRules() {
+        synchronized (indexLock) {
+            PriceIndex current = index;
+            if (current == null) {
+                return;
+            }
+            LocalDate from = current.getCompiledOn();
+            current.replaceOrderRules(transactionTemplate.execute(status ->
+                orderPricingRepository.findActiveGeneralRulesValidFrom(from)));
+            log.debug("Price index refreshed for general pricing rules");
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${application.sales.price-index-rebuild-cron:0 5 0 * * *}")
+    public void rebuildIndex() {
+        synchronized (indexLock) {
+            long started = System.currentTimeMillis();
+            LocalDate today = LocalDate.now();
+            index = transactionTemplate.execute(status -> PriceIndex.compile(today,
+                productPriceRepository.findActivePricesEffectiveFrom(today.atStartOfDay()),
+                customerPriceListRepository.findActivePriceListsValidFrom(today),
+                orderPricingRepository.findActiveRulesValidFrom(today)));
+            log.info("Price index compiled for {} products in {} ms", index.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuildIndex();
+        } catch (RuntimeException e) {
+            log.warn("Price index could not be compiled at startup, it will be compiled on first use", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductPriceChanged(ProductPriceChangedEvent event) {
+        refreshAfterChange(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerPriceListChanged(CustomerPriceListChangedEvent event) {
+        refreshAfterChange(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPricingChanged(OrderPricingChangedEvent event) {
+        if (event.getProductId() != null) {
+            refreshAfterChange(event.getProductId());
+            return;
+        }
+        try {
+            refreshOrderRules();
+        } catch (RuntimeException e) {
+            log.warn("Price index refresh failed for general pricing rules, index will be recompiled", e);
+            synchronized (indexLock) {
+                index = null;
+            }
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private PriceIndex currentIndex() {
+        PriceIndex current = index;
+        if (current == null) {
+            synchronized (indexLock) {
+                if (index == null) {
+                    rebuildIndex();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Index of the requested products as of a date before the shared index's compile date
+     */
+    private PriceIndex compileForDate(List<PriceResolutionLineRequest> lines, LocalDate pricingDate) {
+        Set<Long> productIds = new HashSet<>();
+        for (PriceResolutionLineRequest line : lines) {
+            if (line.getProductId() != null) {
+                productIds.add(line.getProductId());
+            }
+        }
+        if (productIds.isEmpty()) {
+            return PriceIndex.compile(pricingDate, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        }
+        return lookupTransactionTemplate.execute(status -> PriceIndex.compile(pricingDate,
+            productPriceRepository.findActivePricesByProductInEffectiveFrom(productIds, pricingDate.atStartOfDay()),
+            customerPriceListRepository.findActivePriceListsByProductInValidFrom(productIds, pricingDate),
+            orderPricingRepository.findActiveRulesForProductsValidFrom(productIds, pricingDate)));
+    }
+
+    /**
+     * The price change is already committed, so a failed refresh must not fail the caller;
+     * drop the index instead so the next resolution recompiles it
+     */
+    private void refreshAfterChange(Long productId) {
+        try {
+            refreshProduct(productId);
+        } catch (RuntimeException e) {
+            log.warn("Price index refresh failed for product: {}, index will be recompiled", productId, e);
+            synchronized (indexLock) {
+                index = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package lk.epicgreen.erp.sales.service.impl;
+
+import lk.epicgreen.erp.sales.dto.response.SalesDashboardResponse;
+import lk.epicgreen.erp.sales.event.SalesOrderStatusChangedEvent;
+import lk.epicgreen.erp.sales.repository.SalesOrderRepository;
+import lk.epicgreen.erp.sales.service.SalesDashboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of SalesDashboardService interface
+ *
+ * The snapshot is folded from a single GROUP BY status, order type and delivery mode query
+ * and swapped in atomically, so readers never touch the database or a lock once it exists.
+ * A scheduled job recomputes it when it is dirty, and early enough before it reaches its
+ * maximum staleness that readers only compute inline if the job has fallen behind.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class SalesDashboardServiceImpl implements SalesDashboardService {
+
+    private final SalesOrderRepository salesOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxStalenessMillis;
+    private final long refreshIntervalMillis;
+
+    /**
+     * Starts dirty so the first scheduled run computes the snapshot
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    /**
+     * Serializes recomputation; reads never take it once a snapshot exists
+     */
+    private final Object refreshLock = new Object();
+    private volatile Snapshot current;
+
+    public SalesDashboardServiceImpl(SalesOrderRepository salesOrderRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${application.sales.dashboard-max-staleness-ms:60000}") long maxStalenessMillis,
+                                     @Value("${application.sales.dashboard-refresh-interval-ms:5000}") long refreshIntervalMillis) {
+        this.salesOrderRepository = salesOrderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The snapshot must only reflect committed orders, never a caller's pending changes
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxStalenessMillis = Math.max(1L, maxStalenessMillis);
+        this.refreshIntervalMillis = Math.max(0L, refreshIntervalMillis);
+    }
+
+    @Override
+    public SalesDashboardResponse getSnapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null || snapshot.ageMillis() >= maxStalenessMillis) {
+            snapshot = refreshIfOlderThan(maxStalenessMillis);
+        }
+        return snapshot.response;
+    }
+
+    @Override
+    public void markDirty() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Marking before commit could let a refresh clear the flag without seeing the write
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.set(true);
+                }
+            });
+        } else {
+            dirty.set(true);
+        }
+    }
+
+    @Override
+    public SalesDashboardResponse refresh() {
+        return refreshIfOlderThan(0L).response;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesOrderStatusChanged(SalesOrderStatusChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${application.sales.dashboard-refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        Snapshot snapshot = current;
+        if (dirty.get() || snapshot == null || snapshot.ageMillis() + refreshIntervalMillis >= maxStalenessMillis) {
+            refresh();
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * Recompute unless another thread did so while this one waited for the lock
+     */
+    private Snapshot refreshIfOlderThan(long ageMillis) {
+        synchronized (refreshLock) {
+            Snapshot snapshot = current;
+            if (snapshot != null && ageMillis > 0 && snapshot.ageMillis() < ageMillis) {
+                return snapshot;
+            }
+            snapshot = compute();
+            current = snapshot;
+            return snapshot;
+        }
+    }
+
+    private Snapshot compute() {
+        // Cleared before the query, so a write committing while it runs marks the snapshot dirty again
+        dirty.set(false);
+        long started = System.nanoTime();
+        List<Object[]> rows;
+        try {
+            rows = transactionTemplate.execute(status -> salesOrderRepository.summarizeByStatusTypeAndDeliveryMode());
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            throw e;
+        }
+
+        long totalOrders = 0L;
+        long pricedOrders = 0L;
+        BigDecimal totalSalesValue = BigDecimal.ZERO;
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        Map<String, BigDecimal> salesValueByStatus = new LinkedHashMap<>();
+        Map<String, Long> ordersByType = new LinkedHashMap<>();
+        Map<String, Long> ordersByDeliveryMode = new LinkedHashMap<>();
+
+        for (Object[] row : rows) {
+            String status = (String) row[0];
+            String orderType = (String) row[1];
+            String deliveryMode = (String) row[2];
+            long orderCount = ((Number) row[3]).longValue();
+            long pricedCount = ((Number) row[4]).longValue();
+            BigDecimal value = row[5] != null ? (BigDecimal) row[5] : BigDecimal.ZERO;
+
+            totalOrders += orderCount;
+            pricedOrders += pricedCount;
+            totalSalesValue = totalSalesValue.add(value);
+            ordersByStatus.merge(status, orderCount, Long::sum);
+            salesValueByStatus.merge(status, value, BigDecimal::add);
+            ordersByType.merge(orderType, orderCount, Long::sum);
+            ordersByDeliveryMode.merge(deliveryMode, orderCount, Long::sum);
+        }
+
+        // Same as AVG(total_amount): orders without a total are not counted
+        BigDecimal averageOrderValue = pricedOrders > 0
+            ? totalSalesValue.divide(BigDecimal.valueOf(pricedOrders), 2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+
+        SalesDashboardResponse response = SalesDashboardResponse.builder()
+            .totalOrders(totalOrders)
+            .totalSalesValue(totalSalesValue)
+            .averageOrderValue(averageOrderValue)
+            .ordersByStatus(Collections.unmodifiableMap(ordersByStatus))
+            .salesValueByStatus(Collections.unmodifiableMap(salesValueByStatus))
+            .ordersByType(Collections.unmodifiableMap(ordersByType))
+            .ordersByDeliveryMode(Collections.unmodifiableMap(ordersByDeliveryMode))
+            .computedAt(LocalDateTime.now())
+            .build();
+
+        log.debug("Sales dashboard snapshot computed from {} groups in {} ms",
+            rows.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return new Snapshot(response, started);
+    }
+
+    private static final class Snapshot {
+        private final SalesDashboardResponse response;
+        /**
+         * Query start, so the age never understates how old the data is
+         */
+        private final long startedNanos;
+
+        private Snapshot(SalesDashboardResponse response, long startedNanos) {
+            this.response = response;
+            this.startedNanos = startedNanos;
+        }
+
+        private long ageMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package lk.epicgreen.erp.sales.service.impl;
+
+import lk.epicgreen.erp.admin.entity.TaxRate;
+import lk.epicgreen.erp.admin.entity.UnitOfMeasure;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.product.entity.Product;
+import lk.epicgreen.erp.sales.dto.request.SalesOrderItemRequest;
+import lk.epicgreen.erp.sales.entity.SalesOrderItem;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Line-level changes between the persisted lines of a sales order and an update request
+ *
+ * Request lines are matched to existing lines by id first, then by product (in line order
+ * when a product appears more than once). Matched lines whose values differ become updates,
+ * unmatched request lines become inserts and unmatched existing lines become deletes;
+ * unchanged lines are not touched at all.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+final class SalesOrderLineDiff {
+
+    private final List<SalesOrderItem> inserts = new ArrayList<>();
+    private final List<SalesOrderItem> updates = new ArrayList<>();
+    private final List<Long> deletes = new ArrayList<>();
+
+    private SalesOrderLineDiff() {
+    }
+
+    /**
+     * @param assemble builds the line entity a request line describes (references resolved, not persisted)
+     */
+    static SalesOrderLineDiff compute(List<SalesOrderItem> existing,
+                                      List<SalesOrderItemRequest> requested,
+                                      Function<SalesOrderItemRequest, SalesOrderItem> assemble) {
+        Map<Long, SalesOrderItem> unmatched = new LinkedHashMap<>();
+        for (SalesOrderItem item : existing) {
+            unmatched.put(item.getId(), item);
+        }
+        Map<SalesOrderItemRequest, SalesOrderItem> matches = new IdentityHashMap<>();
+
+        // Explicit ids first, so product matching cannot take a line that is claimed by id
+        for (SalesOrderItemRequest request : requested) {
+            if (request.getId() != null) {
+                SalesOrderItem item = unmatched.remove(request.getId());
+                if (item == null) {
+                    throw new ResourceNotFoundException("Sales Order Item not found in order: " + request.getId());
+                }
+                matches.put(request, item);
+            }
+        }
+
+        Map<Long, Deque<SalesOrderItem>> byProduct = new HashMap<>();
+        for (SalesOrderItem item : unmatched.values()) {
+            byProduct.computeIfAbsent(item.getProduct().getId(), productId -> new ArrayDeque<>()).add(item);
+        }
+        for (SalesOrderItemRequest request : requested) {
+            if (request.getId() == null) {
+                Deque<SalesOrderItem> candidates = byProduct.get(request.getProductId());
+                if (candidates != null && !candidates.isEmpty()) {
+                    SalesOrderItem item = candidates.poll();
+                    unmatched.remove(item.getId());
+                    matches.put(request, item);
+                }
+            }
+        }
+
+        SalesOrderLineDiff diff = new SalesOrderLineDiff();
+        for (SalesOrderItemRequest request : requested) {
+            SalesOrderItem line = assemble.apply(request);
+            // Same defaults and derivation the entity applies before it is persisted
+            line.applyDefaults();
+
+            SalesOrderItem current = matches.get(request);
+            if (current == null) {
+                diff.inserts.add(line);
+            } else {
+                line.setId(current.getId());
+                if (!sameValues(current, line)) {
+                    diff.updates.add(line);
+                }
+            }
+        }
+        diff.deletes.addAll(unmatched.keySet());
+        return diff;
+    }
+
+    List<SalesOrderItem> getInserts() {
+        return inserts;
+    }
+
+    List<SalesOrderItem> getUpdates() {
+        return updates;
+    }
+
+    List<Long> getDeletes() {
+        return deletes;
+    }
+
+    boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+    }
+
+    private static boolean sameValues(SalesOrderItem current, SalesOrderItem line) {
+        return Objects.equals(idOf(current.getProduct()), idOf(line.getProduct()))
+            && Objects.equals(idOf(current.getUom()), idOf(line.getUom()))
+            && Objects.equals(idOf(current.getTaxRate()), idOf(line.getTaxRate()))
+            && Objects.equals(current.getBatchNumber(), line.getBatchNumber())
+            && Objects.equals(current.getRemarks(), line.getRemarks())
+            && sameAmount(current.getQuantityOrdered(), line.getQuantityOrdered())
+            && sameAmount(current.getQuantityDelivered(), line.getQuantityDelivered())
+            && sameAmount(current.getUnitPrice(), line.getUnitPrice())
+            && sameAmount(current.getDiscountPercentage(), line.getDiscountPercentage())
+            && sameMoney(current.getDiscountAmount(), line.getDiscountAmount())
+            && sameMoney(current.getTaxAmount(), line.getTaxAmount())
+            && sameMoney(current.getLineTotal(), line.getLineTotal());
+    }
+
+    /**
+     * Computed amounts carry more decimals than the scale-2 columns they were stored in
+     */
+    private static boolean sameMoney(BigDecimal stored, BigDecimal computed) {
+        return sameAmount(stored, computed != null ? computed.setScale(2, RoundingMode.HALF_UP) : null);
+    }
+
+    /**
+     * Scale-insensitive, so 10.00 read back from the database equals 10 from the request
+     */
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static Long idOf(Product product) {
+        return product != null ? product.getId() : null;
+    }
+
+    private static Long idOf(UnitOfMeasure uom) {
+        return uom != null ? uom.getId() : null;
+    }
+
+    private static Long idOf(TaxRate taxRate) {
+        return taxRate != null ? taxRate.getId() : null;
+    }
+}
@@ -2,39 +2,47 @@ package lk.epicgreen.erp.sales.service.impl;
 
 import lk.epicgreen.erp.sales.dto.request.SalesOrderRequest;
 import lk.epicgreen.erp.sales.dto.request.SalesOrderItemRequest;
+import lk.epicgreen.erp.sales.dto.response.SalesDashboardResponse;
 import lk.epicgreen.erp.sales.dto.response.SalesOrderResponse;
 import lk.epicgreen.erp.sales.entity.SalesOrder;
 import lk.epicgreen.erp.sales.entity.SalesOrderItem;
+import lk.epicgreen.erp.sales.event.SalesOrderStatusChangedEvent;
 import lk.epicgreen.erp.sales.mapper.SalesOrderMapper;
 import lk.epicgreen.erp.sales.mapper.SalesOrderItemMapper;
 import lk.epicgreen.erp.sales.repository.SalesOrderRepository;
+import lk.epicgreen.erp.sales.repository.SalesOrderItemJdbcRepository;
 import lk.epicgreen.erp.sales.repository.SalesOrderItemRepository;
+import lk.epicgreen.erp.sales.service.SalesDashboardService;
 import lk.epicgreen.erp.sales.service.SalesOrderService;
 import lk.epicgreen.erp.customer.entity.Customer;
 import lk.epicgreen.erp.customer.entity.CustomerAddress;
 import lk.epicgreen.erp.customer.repository.CustomerRepository;
 import lk.epicgreen.erp.customer.repository.CustomerAddressRepository;
+import lk.epicgreen.erp.customer.service.CustomerCreditExposureService;
 import lk.epicgreen.erp.warehouse.entity.Warehouse;
 import lk.epicgreen.erp.warehouse.repository.WarehouseRepository;
-import lk.epicgreen.erp.product.entity.Product;
 import lk.epicgreen.erp.product.repository.ProductRepository;
 import lk.epicgreen.erp.admin.entity.UnitOfMeasure;
-import lk.epicgreen.erp.admin.entity.TaxRate;
 import lk.epicgreen.erp.admin.entity.User;
 import lk.epicgreen.erp.admin.repository.UnitOfMeasureRepository;
 import lk.epicgreen.erp.admin.repository.TaxRateRepository;
 import lk.epicgreen.erp.admin.repository.UserRepository;
+import lk.epicgreen.erp.admin.service.DocumentNumberService;
 import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.exception.DuplicateResourceException;
 import lk.epicgreen.erp.common.exception.InvalidOperationException;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import javax.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -62,6 +70,7 @@ public class SalesOrderServiceImpl implements SalesOrderService {
 
     private final SalesOrderRepository salesOrderRepository;
     private final SalesOrderItemRepository salesOrderItemRepository;
+    private final SalesOrderItemJdbcRepository salesOrderItemJdbcRepository;
     private final CustomerRepository customerRepository;
     private final CustomerAddressRepository customerAddressRepository;
     private final WarehouseRepository warehouseRepository;
@@ -71,15 +80,24 @@ public class SalesOrderServiceImpl implements SalesOrderService {
     private final UserRepository userRepository;
     private final SalesOrderMapper salesOrderMapper;
     private final SalesOrderItemMapper salesOrderItemMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CustomerCreditExposureService customerCreditExposureService;
+    private final EntityManager entityManager;
+    private final DocumentNumberService documentNumberService;
+    private final SalesDashboardService salesDashboardService;
 
     @Override
     @Transactional
     public SalesOrderResponse createSalesOrder(SalesOrderRequest request) {
+        // Allocate a number when the client does not supply one (allocated numbers are unique by construction)
+        if (!StringUtils.hasText(request.getOrderNumber())) {
+            request.setOrderNumber(documentNumberService.nextNumber(DocumentNumberService.SALES_ORDER));
+        } else {
+            documentNumberService.registerClientNumber(DocumentNumberService.SALES_ORDER, request.getOrderNumber());
+            validateUniqueOrderNumber(request.getOrderNumber(), null);
+        }
         log.info("Creating new Sales Order: {}", request.getOrderNumber());
 
-        // Validate unique constraint
-        validateUniqueOrderNumber(request.getOrderNumber(), null);
-
         // Verify customer exists
         Customer customer = findCustomerById(request.getCustomerId());
 
@@ -110,15 +128,17 @@ public class SalesOrderServiceImpl implements SalesOrderService {
 
         // Create order items
         List<SalesOrderItem> items = new ArrayList<>();
+        OrderLineReferences references = loadLineReferences(request.getItems());
 
         for (SalesOrderItemRequest itemRequest : request.getItems()) {
-            SalesOrderItem item = createOrderItem(itemRequest);
+            SalesOrderItem item = createOrderItem(itemRequest, references);
             item.setOrder(order);
             items.add(item);
         }
         order.setItems(items);
 
         SalesOrder savedOrder = salesOrderRepository.save(order);
+        salesDashboardService.markDirty();
         log.info("Sales Order created successfully: {}", savedOrder.getOrderNumber());
 
         return salesOrderMapper.toResponse(savedOrder);
@@ -139,7 +159,11 @@ public class SalesOrderServiceImpl implements SalesOrderService {
         }
 
         // Validate unique constraint if order number changed
+        if (!StringUtils.hasText(request.getOrderNumber())) {
+            request.setOrderNumber(order.getOrderNumber());
+        }
         if (!order.getOrderNumber().equals(request.getOrderNumber())) {
+            documentNumberService.registerClientNumber(DocumentNumberService.SALES_ORDER, request.getOrderNumber());
             validateUniqueOrderNumber(request.getOrderNumber(), id);
         }
 
@@ -181,56 +205,52 @@ public class SalesOrderServiceImpl implements SalesOrderService {
             order.setSalesRep(null);
         }
 
-        // Delete existing items and create new ones
-        salesOrderItemRepository.deleteAll(order.getItems());
-        order.getItems().clear();
+        // Header changes go out first; the line statements below bypass the persistence context
+        salesOrderRepository.saveAndFlush(order);
+        salesDashboardService.markDirty();
 
-        List<SalesOrderItem> newItems = new ArrayList<>();
+        OrderLineReferences references = loadLineReferences(request.getItems());
+        SalesOrderLineDiff lineDiff = SalesOrderLineDiff.compute(order.getItems(), request.getItems(),
+            itemRequest -> createOrderItem(itemRequest, references));
 
-        for (SalesOrderItemRequest itemRequest : request.getItems()) {
-            SalesOrderItem item = createOrderItem(itemRequest);
-            item.setOrder(order);
-            newItems.add(item);
-        }
-        order.setItems(newItems);
+        if (!lineDiff.isEmpty()) {
+            salesOrderItemJdbcRepository.batchDelete(id, lineDiff.getDeletes());
+            salesOrderItemJdbcRepository.batchUpdate(id, lineDiff.getUpdates());
+            salesOrderItemJdbcRepository.batchInsert(id, lineDiff.getInserts());
 
-        SalesOrder updatedOrder = salesOrderRepository.save(order);
-        log.info("Sales Order updated successfully: {}", updatedOrder.getOrderNumber());
+            // Reload so the response reflects the rows as written
+            entityManager.detach(order);
+            order = findSalesOrderById(id);
+        }
+        log.info("Sales Order updated successfully: {} (lines inserted: {}, updated: {}, deleted: {})",
+            order.getOrderNumber(), lineDiff.getInserts().size(), lineDiff.getUpdates().size(),
+            lineDiff.getDeletes().size());
 
-        return salesOrderMapper.toResponse(updatedOrder);
+        return salesOrderMapper.toResponse(order);
     }
 
-    private SalesOrderItem createOrderItem(SalesOrderItemRequest itemRequest) {
+    private SalesOrderItem createOrderItem(SalesOrderItemRequest itemRequest, OrderLineReferences references) {
         SalesOrderItem item = salesOrderItemMapper.toEntity(itemRequest);
 
-        // Verify product exists
-        Product product = findProductById(itemRequest.getProductId());
-        item.setProduct(product);
-
-//        UnitOfMeasure uom=unitOfMeasureRepository.findById(itemRequest.getUomId()).get();
-//        item.setUom(uom);
-
-
-        // Verify unit of measure exists
-//        UnitOfMeasure uom = findUnitOfMeasureById(itemRequest.getUomId());
-//        item.setUom(uom);
+        // Verify product and unit of measure exist
+        item.setProduct(references.product(itemRequest.getProductId()));
+        item.setUom(references.unitOfMeasure(itemRequest.getUomId()));
 
         // Verify tax rate exists if provided
         if (itemRequest.getTaxRateId() != null) {
-            TaxRate taxRate = findTaxRateById(itemRequest.getTaxRateId());
-            item.setTaxRate(taxRate);
+            item.setTaxRate(references.taxRate(itemRequest.getTaxRateId()));
         }
 
         return item;
     }
 
-    private Product findProductById(Long productId) {
-        return productRepository.findById(productId)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+    /**
+     * Load every product, unit of measure and tax rate referenced by the request lines up front
+     */
+    private OrderLineReferences loadLineReferences(List<SalesOrderItemRequest> items) {
+        return OrderLineReferences.load(items, productRepository, unitOfMeasureRepository, taxRateRepository);
     }
 
-
-
     @Override
     @Transactional
     public SalesOrder confirmSalesOrder(Long id) {
@@ -244,8 +264,12 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only DRAFT orders can be confirmed.");
         }
 
+        reserveCredit(order);
+
+        String previousStatus = order.getStatus();
         order.setStatus("CONFIRMED");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order confirmed successfully: {}", id);
         return order;
@@ -263,8 +287,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only APPROVED orders can be processed.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("PROCESSING");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order processed successfully: {}", id);
         return order;
@@ -281,8 +307,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only DISPATCHED orders can be completed.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("DELIVERED");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order completed successfully: {}", id);
         return order;
@@ -301,8 +329,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only CONFIRMED orders can be submitted for approval.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("PENDING_APPROVAL");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order submitted for approval successfully: {}", id);
     }
@@ -320,11 +350,16 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only PENDING_APPROVAL orders can be approved.");
         }
 
+        // Re-checked in case the credit limit was lowered or other orders used it since confirmation
+        reserveCredit(order);
+
+        String previousStatus = order.getStatus();
         order.setStatus("APPROVED");
         User approvedUser=userRepository.findById(approvedBy).orElseThrow(()->new ResourceNotFoundException("User not found: "+approvedBy));
         order.setApprovedBy(approvedUser);
         order.setApprovedAt(LocalDateTime.now());
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order approved successfully: {}", id);
         return order;
@@ -343,8 +378,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only APPROVED orders can be processed.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("PROCESSING");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order processing started successfully: {}", id);
     }
@@ -362,8 +399,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only PROCESSING orders can be marked as packed.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("PACKED");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order marked as PACKED successfully: {}", id);
     }
@@ -381,8 +420,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only PACKED orders can be marked as dispatched.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("DISPATCHED");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order marked as DISPATCHED successfully: {}", id);
         return order;
@@ -411,9 +452,11 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only DELIVERED orders can be marked as invoiced.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("INVOICED");
 //        order.setInvoiceId(invoiceId);
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order marked as INVOICED successfully: {}", id);
         return order;
@@ -444,8 +487,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only INVOICED orders can be marked as paid.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("PAID");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order marked as PAID successfully: {}", id);
         return order;
@@ -504,8 +549,10 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only DISPATCHED orders can be marked as delivered.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("DELIVERED");
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order marked as DELIVERED successfully: {}", id);
     }
@@ -525,11 +572,13 @@ public class SalesOrderServiceImpl implements SalesOrderService {
             throw new InvalidOperationException("Cannot cancel a delivered order.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("CANCELLED");
         order.setRemarks(order.getRemarks() != null ? 
             order.getRemarks() + "\nCancelled: " + reason : 
             "Cancelled: " + reason);
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order cancelled successfully: {}", id);
         return order;
@@ -712,100 +761,56 @@ public class SalesOrderServiceImpl implements SalesOrderService {
             .sum();
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String,Object> getSalesOrderStatistics(){
-        log.info("Calculating Sales Order statistics");
-
-        long totalOrders = salesOrderRepository.count();
-        long pendingOrders = salesOrderRepository.countByStatus("PENDING_APPROVAL");
-        long completedOrders = salesOrderRepository.countByStatus("DELIVERED");
-
-        log.info("Sales Order statistics calculated successfully");
+        SalesDashboardResponse snapshot = salesDashboardService.getSnapshot();
 
         Map<String,Object> map=new HashMap<>();
-        map.put("totalOrders",totalOrders);
-        map.put("pendingOrders",pendingOrders);
-        map.put("completedOrders",completedOrders);
+        map.put("totalOrders",snapshot.getTotalOrders());
+        map.put("pendingOrders",snapshot.getOrdersByStatus().getOrDefault("PENDING_APPROVAL", 0L));
+        map.put("completedOrders",snapshot.getOrdersByStatus().getOrDefault("DELIVERED", 0L));
 
         return map;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public  Map<String,Object> getOrderTypeDistribution(){
-        log.info("Calculating Sales Order type distribution");
-
-        List<Object[]> distributionData = salesOrderRepository.countOrdersByType();
-
-        Map<String,Object> distributionMap = new HashMap<>();
-        for (Object[] data : distributionData) {
-            String orderType = (String) data[0];
-            Long count = (Long) data[1];
-            distributionMap.put(orderType, count);
-        }
-
-        log.info("Sales Order type distribution calculated successfully");
-        return distributionMap;
+        return new HashMap<>(salesDashboardService.getSnapshot().getOrdersByType());
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Map<String,Object>> getDeliveryStatusDistribution(){
-        log.info("Calculating Sales Order delivery status distribution");
-
-        List<Object[]> distributionData = salesOrderRepository.countOrdersByDeliveryStatus();
+        Map<String, Long> ordersByDeliveryMode = salesDashboardService.getSnapshot().getOrdersByDeliveryMode();
 
         List<Map<String,Object>> distributionList = new ArrayList<>();
-        for (Object[] data : distributionData) {
-            String deliveryStatus = (String) data[0];
-            Long count = (Long) data[1];
+        for (Map.Entry<String, Long> entry : ordersByDeliveryMode.entrySet()) {
             Map<String,Object> statusMap = new HashMap<>();
-            statusMap.put("deliveryStatus", deliveryStatus);
-            statusMap.put("count", count);
+            statusMap.put("deliveryStatus", entry.getKey());
+            statusMap.put("count", entry.getValue());
             distributionList.add(statusMap);
         }
-
-        log.info("Sales Order delivery status distribution calculated successfully");
         return distributionList;
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public double getTotalOrderValue(){
-        log.info("Calculating total Sales Order value");
-
-        Double totalValue = salesOrderRepository.sumTotalOrderValue()
-            .orElse(0.0);
-
-        log.info("Total Sales Order value calculated successfully: {}", totalValue);
-        return totalValue;
+        return salesDashboardService.getSnapshot().getTotalSalesValue().doubleValue();
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public double getAverageOrderValue(){
-        log.info("Calculating average Sales Order value");
-
-        Double averageValue = salesOrderRepository.averageOrderValue()
-            .orElse(0.0);
-
-        log.info("Average Sales Order value calculated successfully: {}", averageValue);
-        return averageValue;
+        return salesDashboardService.getSnapshot().getAverageOrderValue().doubleValue();
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String,Object> getDashboardStatistics(){
-        log.info("Calculating Sales Order dashboard statistics");
-
-        long totalOrders = salesOrderRepository.count();
-        long pendingOrders = salesOrderRepository.countByStatus("PENDING_APPROVAL");
-        double totalSalesValue = salesOrderRepository.sumTotalOrderValue()
-            .orElse(0.0);
-        double averageOrderValue = salesOrderRepository.averageOrderValue()
-            .orElse(0.0);
+        SalesDashboardResponse snapshot = salesDashboardService.getSnapshot();
 
         Map<String,Object> statsMap = new HashMap<>();
-        statsMap.put("totalOrders", totalOrders);
-        statsMap.put("pendingOrders", pendingOrders);
-        statsMap.put("totalSalesValue", totalSalesValue);
-        statsMap.put("averageOrderValue", averageOrderValue);
-
-        log.info("Sales Order dashboard statistics calculated successfully");
+        statsMap.put("totalOrders", snapshot.getTotalOrders());
+        statsMap.put("pendingOrders", snapshot.getOrdersByStatus().getOrDefault("PENDING_APPROVAL", 0L));
+        statsMap.put("totalSalesValue", snapshot.getTotalSalesValue().doubleValue());
+        statsMap.put("averageOrderValue", snapshot.getAverageOrderValue().doubleValue());
         return statsMap;
     }
 
@@ -831,11 +836,13 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 ". Only PENDING_APPROVAL orders can be rejected.");
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus("DRAFT");
         order.setRemarks(order.getRemarks() != null ?
             order.getRemarks() + "\nRejection: " + rejectionReason :
             "Rejection: " + rejectionReason);
         salesOrderRepository.save(order);
+        publishStatusChanged(order, previousStatus);
 
         log.info("Sales Order rejected successfully: {}", id);
         return order;
@@ -854,6 +861,7 @@ public class SalesOrderServiceImpl implements SalesOrderService {
         }
 
         salesOrderRepository.deleteById(id);
+        salesDashboardService.markDirty();
         log.info("Sales Order deleted successfully: {}", id);
     }
 
@@ -1030,6 +1038,26 @@ public class SalesOrderServiceImpl implements SalesOrderService {
 //        return item;
 //    }
 
+    /**
+     * Check the order against the customer's committed credit exposure and hold its amount
+     */
+    private void reserveCredit(SalesOrder order) {
+        if (order.getCustomer() != null) {
+            customerCreditExposureService.reserveOrderCredit(
+                order.getCustomer().getId(), order.getId(), order.getTotalAmount());
+        }
+    }
+
+    private void publishStatusChanged(SalesOrder order, String previousStatus) {
+        eventPublisher.publishEvent(new SalesOrderStatusChangedEvent(
+            order.getId(),
+            order.getCustomer() != null ? order.getCustomer().getId() : null,
+            order.getTotalAmount(),
+            order.getOrderDate(),
+            previousStatus,
+            order.getStatus()));
+    }
+
     private void validateUniqueOrderNumber(String orderNumber, Long excludeId) {
         boolean exists;
         if (excludeId != null) {
@@ -1072,11 +1100,6 @@ public class SalesOrderServiceImpl implements SalesOrderService {
             .orElseThrow(() -> new ResourceNotFoundException("Unit of Measure not found: " + id));
     }
 
-    private TaxRate findTaxRateById(Long id) {
-        return taxRateRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Tax Rate not found: " + id));
-    }
-
     private User findUserById(Long id) {
         return userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User not found: " + id));
@@ -1,11 +1,16 @@
 package lk.epicgreen.erp.warehouse.controller;
 
 
+import lk.epicgreen.erp.warehouse.dto.request.BatchAllocationRequest;
+import lk.epicgreen.erp.warehouse.dto.response.BatchAllocationResponse;
 import lk.epicgreen.erp.warehouse.entity.InventoryBatch;
+import lk.epicgreen.erp.warehouse.service.BatchAllocationService;
 import lk.epicgreen.erp.warehouse.service.InventoryBatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
 import java.util.List;
 
 @RestController
@@ -13,6 +18,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class InventoryBatchController {
     private final InventoryBatchService service;
+    private final BatchAllocationService batchAllocationService;
     
     @GetMapping("/product/{productId}/warehouse/{warehouseId}")
     public ResponseEntity<List<InventoryBatch>> getBatches(
@@ -21,4 +27,9 @@ public class InventoryBatchController {
     ) {
         return ResponseEntity.ok(service.findByProductAndWarehouse(productId, warehouseId));
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/allocate")
+    public ResponseEntity<BatchAllocationResponse> allocate(@Valid @RequestBody BatchAllocationRequest request) {
+        return ResponseEntity.ok(batchAllocationService.allocate(request));
+    }
+}
@@ -3,6 +3,7 @@ package lk.epicgreen.erp.warehouse.controller;
 import lk.epicgreen.erp.common.dto.ApiResponse;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lk.epicgreen.erp.warehouse.dto.request.InventoryRequest;
+import lk.epicgreen.erp.warehouse.dto.request.StockReservationRequest;
 import lk.epicgreen.erp.warehouse.dto.response.InventoryResponse;
 import lk.epicgreen.erp.warehouse.entity.Inventory;
 import lk.epicgreen.erp.warehouse.service.InventoryService;
@@ -175,6 +176,22 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.success(null, "Reservation released successfully"));
     }
     
+    @PostMapping("/reservations")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAREHOUSE_MANAGER', 'SALES_REP')")
+    public ResponseEntity<ApiResponse<Void>> reserveStockLines(@Valid @RequestBody StockReservationRequest request) {
+        log.info("Reserving stock for {} lines", request.getLines().size());
+        inventoryService.reserveQuantities(request.getLines());
+        return ResponseEntity.ok(ApiResponse.success(null, "Stock reserved successfully"));
+    }
+    
+    @PostMapping("/reservations/release")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAREHOUSE_MANAGER')")
+    public ResponseEntity<ApiResponse<Void>> releaseStockLines(@Valid @RequestBody StockReservationRequest request) {
+        log.info("Releasing stock reservations for {} lines", request.getLines().size());
+        inventoryService.releaseQuantities(request.getLines());
+        return ResponseEntity.ok(ApiResponse.success(null, "Reservations released successfully"));
+    }
+    
     @PutMapping("/{id}/release-reserved-stock")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAREHOUSE_MANAGER')")
     public ResponseEntity<ApiResponse<Void>> releaseReservedStock(@PathVariable Long id, @RequestParam Double quantity) {
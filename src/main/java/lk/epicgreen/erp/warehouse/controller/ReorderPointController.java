@@ -1,6 +1,8 @@
 package lk.epicgreen.erp.warehouse.controller;
 
+import lk.epicgreen.erp.warehouse.dto.response.ReorderStatusResponse;
 import lk.epicgreen.erp.warehouse.entity.ReorderPoint;
+import lk.epicgreen.erp.warehouse.service.ReorderEvaluationService;
 import lk.epicgreen.erp.warehouse.service.ReorderPointService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -12,12 +14,26 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ReorderPointController {
     private final ReorderPointService service;
+    private final ReorderEvaluationService reorderEvaluationService;
     
     @GetMapping
     public ResponseEntity<List<ReorderPoint>> getAll() {
         return ResponseEntity.ok(service.findAll());
     }
     
+    @GetMapping("/below-reorder")
+    public ResponseEntity<List<ReorderStatusResponse>> getBelowReorder(@RequestParam(required = false) Long warehouseId) {
+        return ResponseEntity.ok(warehouseId != null
+            ? reorderEvaluationService.getBelowReorder(warehouseId)
+            : reorderEvaluationService.getBelowReorder());
+    }
+    
+    @PostMapping("/evaluate")
+    public ResponseEntity<List<ReorderStatusResponse>> evaluateAll() {
+        reorderEvaluationService.evaluateAll();
+        return ResponseEntity.ok(reorderEvaluationService.getBelowReorder());
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ReorderPoint> getById(@PathVariable Long id) {
         return ResponseEntity.ok(service.findById(id));
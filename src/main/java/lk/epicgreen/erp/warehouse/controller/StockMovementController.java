@@ -3,8 +3,10 @@ package lk.epicgreen.erp.warehouse.controller;
 import lk.epicgreen.erp.common.dto.ApiResponse;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lk.epicgreen.erp.warehouse.dto.request.StockMovementRequest;
+import lk.epicgreen.erp.warehouse.dto.response.StockMovementPartitionResponse;
 import lk.epicgreen.erp.warehouse.dto.response.StockMovementResponse;
 import lk.epicgreen.erp.warehouse.entity.StockMovement;
+import lk.epicgreen.erp.warehouse.service.StockMovementPartitionService;
 import lk.epicgreen.erp.warehouse.service.StockMovementService;
 import lk.epicgreen.erp.warehouse.service.impl.StockMovementServiceImpl;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +39,7 @@ import java.util.Map;
 public class StockMovementController {
     
     private final StockMovementServiceImpl stockMovementService;
+    private final StockMovementPartitionService stockMovementPartitionService;
     
     // CRUD Operations
     @PostMapping
@@ -480,4 +483,30 @@ public class StockMovementController {
         Map<String, Object> dashboard = stockMovementService.getDashboardStatistics();
         return ResponseEntity.ok(ApiResponse.success(dashboard, "Dashboard statistics retrieved successfully"));
     }
+    
+    // Partition Maintenance
+    @GetMapping("/partitions")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<StockMovementPartitionResponse>>> getPartitions() {
+        List<StockMovementPartitionResponse> partitions = stockMovementPartitionService.getPartitions();
+        return ResponseEntity.ok(ApiResponse.success(partitions, "Stock movement partitions retrieved successfully"));
+    }
+    
+    @PostMapping("/partitions/convert")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Boolean>> partitionTable() {
+        log.info("Partitioning stock movements table");
+        boolean converted = stockMovementPartitionService.partitionTable();
+        return ResponseEntity.ok(ApiResponse.success(converted, converted
+            ? "Stock movements table partitioned successfully"
+            : "Stock movements table is already partitioned"));
+    }
+    
+    @PostMapping("/partitions/maintain")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<StockMovementPartitionResponse>>> maintainPartitions() {
+        stockMovementPartitionService.maintainPartitions();
+        List<StockMovementPartitionResponse> partitions = stockMovementPartitionService.getPartitions();
+        return ResponseEntity.ok(ApiResponse.success(partitions, "Stock movement partitions maintained successfully"));
+    }
 }
@@ -1,9 +1,14 @@
 package lk.epicgreen.erp.warehouse.controller;
 
 
+import lk.epicgreen.erp.warehouse.dto.response.StockCostResponse;
+import lk.epicgreen.erp.warehouse.dto.response.StockPositionResponse;
 import lk.epicgreen.erp.warehouse.entity.StockValuation;
+import lk.epicgreen.erp.warehouse.service.StockCostingService;
+import lk.epicgreen.erp.warehouse.service.StockSnapshotService;
 import lk.epicgreen.erp.warehouse.service.StockValuationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
@@ -14,9 +19,49 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StockValuationController {
     private final StockValuationService service;
+    private final StockSnapshotService stockSnapshotService;
+    private final StockCostingService stockCostingService;
     
     @GetMapping("/date/{date}")
     public ResponseEntity<List<StockValuation>> getByDate(@PathVariable LocalDate date) {
         return ResponseEntity.ok(service.findByDate(date));
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/as-of")
+    public ResponseEntity<List<StockPositionResponse>> getPositionsAsOf(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @RequestParam(required = false) Long warehouseId,
+        @RequestParam(required = false) Long productId
+    ) {
+        return ResponseEntity.ok(stockSnapshotService.getPositionsAsOf(date, warehouseId, productId));
+    }
+    
+    @PostMapping("/snapshots/refresh")
+    public ResponseEntity<Integer> refreshSnapshots(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate upToDate
+    ) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        // Today is still moving, so its snapshot would be invalid by the end of the day
+        LocalDate target = upToDate != null && upToDate.isBefore(yesterday) ? upToDate : yesterday;
+        return ResponseEntity.ok(stockSnapshotService.refreshSnapshots(target));
+    }
+    
+    @GetMapping("/costs")
+    public ResponseEntity<List<StockCostResponse>> getCosts(@RequestParam Long warehouseId) {
+        return ResponseEntity.ok(stockCostingService.getValuation(warehouseId));
+    }
+    
+    @GetMapping("/costs/product/{productId}/warehouse/{warehouseId}")
+    public ResponseEntity<StockCostResponse> getCost(@PathVariable Long productId, @PathVariable Long warehouseId) {
+        return ResponseEntity.ok(stockCostingService.getCost(productId, warehouseId));
+    }
+    
+    @PutMapping("/costs/product/{productId}/warehouse/{warehouseId}/method")
+    public ResponseEntity<StockCostResponse> changeCostingMethod(
+        @PathVariable Long productId,
+        @PathVariable Long warehouseId,
+        @RequestParam String costingMethod
+    ) {
+        return ResponseEntity.ok(stockCostingService.changeCostingMethod(productId, warehouseId, costingMethod));
+    }
+}
@@ -0,0 +1,34 @@
+package lk.epicgreen.erp.warehouse.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for one line of a batch allocation request
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAllocationLineRequest {
+
+    /**
+     * Caller's line identifier (e.g. order line id), echoed in the plan
+     */
+    private Long lineReference;
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Quantity must be > 0")
+    private BigDecimal quantity;
+}
@@ -0,0 +1,36 @@
+package lk.epicgreen.erp.warehouse.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for allocating outbound quantities of a warehouse across batches (e.g. a picking wave)
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAllocationRequest {
+
+    @NotNull(message = "Warehouse ID is required")
+    private Long warehouseId;
+
+    /**
+     * Batches expiring before this date are not allocated (defaults to today)
+     */
+    private LocalDate allocationDate;
+
+    @NotEmpty(message = "Allocation lines are required")
+    @Valid
+    private List<BatchAllocationLineRequest> lines;
+}
@@ -0,0 +1,29 @@
+package lk.epicgreen.erp.warehouse.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for one line of a multi-line stock reservation
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLineRequest {
+
+    @NotNull(message = "Inventory ID is required")
+    private Long inventoryId;
+
+    @NotNull(message = "Quantity is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Quantity must be > 0")
+    private BigDecimal quantity;
+}
@@ -0,0 +1,27 @@
+package lk.epicgreen.erp.warehouse.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+import java.util.List;
+
+/**
+ * DTO for reserving or releasing the stock of several order lines at once
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+
+    @NotEmpty(message = "Reservation lines are required")
+    @Valid
+    private List<StockReservationLineRequest> lines;
+}
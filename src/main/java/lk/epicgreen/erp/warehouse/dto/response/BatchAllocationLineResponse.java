@@ -0,0 +1,29 @@
+package lk.epicgreen.erp.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for the batch picks of one allocation line
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAllocationLineResponse {
+
+    private Long lineReference;
+    private Long productId;
+    private BigDecimal requestedQuantity;
+    private BigDecimal allocatedQuantity;
+    private BigDecimal shortQuantity;
+    private List<BatchPickResponse> picks;
+}
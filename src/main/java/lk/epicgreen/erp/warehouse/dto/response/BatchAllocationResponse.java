@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a batch allocation plan
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAllocationResponse {
+
+    private Long warehouseId;
+    private LocalDate allocationDate;
+    private Boolean fullyAllocated;
+    private Integer shortLines;
+    private List<BatchAllocationLineResponse> lines;
+}
@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for the quantity to pick from one batch
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPickResponse {
+
+    private Long batchId;
+    private String batchNumber;
+    private LocalDate expiryDate;
+    private LocalDate receivedDate;
+    private BigDecimal quantity;
+}
@@ -0,0 +1,38 @@
+package lk.epicgreen.erp.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a product that is at or below its reorder point in a warehouse
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderStatusResponse {
+
+    private Long reorderPointId;
+    private Long productId;
+    private String productCode;
+    private Long warehouseId;
+    private BigDecimal availableQuantity;
+    private BigDecimal minStockLevel;
+    private BigDecimal reorderPoint;
+    private BigDecimal reorderQuantity;
+
+    /**
+     * ZERO_STOCK, LOW_STOCK or REORDER_POINT
+     */
+    private String alertType;
+    private Long alertId;
+    private LocalDateTime since;
+}
@@ -0,0 +1,34 @@
+package lk.epicgreen.erp.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the running cost of a product in a warehouse
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockCostResponse {
+
+    private Long productId;
+    private String productCode;
+    private String productName;
+    private Long warehouseId;
+    private String costingMethod;
+    private BigDecimal quantityOnHand;
+    private BigDecimal averageCost;
+    private BigDecimal totalValue;
+    private LocalDate lastMovementDate;
+    private LocalDateTime updatedAt;
+}
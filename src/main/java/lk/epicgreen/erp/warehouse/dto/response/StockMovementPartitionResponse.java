@@ -0,0 +1,33 @@
+package lk.epicgreen.erp.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for a monthly partition of the stock_movements table
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementPartitionResponse {
+
+    private String partitionName;
+
+    /**
+     * Exclusive upper bound of movement_date (null for the open-ended last partition)
+     */
+    private LocalDate lessThan;
+
+    /**
+     * Row count estimate from the storage engine
+     */
+    private Long estimatedRows;
+}
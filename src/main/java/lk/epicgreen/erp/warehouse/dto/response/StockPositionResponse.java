@@ -0,0 +1,39 @@
+package lk.epicgreen.erp.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for the stock position of a product batch in a warehouse as of a date
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockPositionResponse {
+
+    private LocalDate asOfDate;
+    private Long warehouseId;
+    private Long productId;
+    private String batchNumber;
+    private BigDecimal quantity;
+    private BigDecimal quantityIn;
+    private BigDecimal quantityOut;
+    private BigDecimal unitCost;
+    private BigDecimal totalValue;
+    private BigDecimal valueIn;
+    private BigDecimal valueOut;
+
+    /**
+     * Snapshot the position was built from (null when built from movements only)
+     */
+    private LocalDate snapshotDate;
+}
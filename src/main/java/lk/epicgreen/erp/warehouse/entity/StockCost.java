@@ -0,0 +1,85 @@
+package lk.epicgreen.erp.warehouse.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * StockCost entity
+ * Running cost state of a product in a warehouse, updated by every stock movement as it is
+ * recorded: quantity on hand, its value and the resulting average unit cost.
+ * 
+ * Under WEIGHTED_AVERAGE receipts are blended into the average and issues are costed at it.
+ * Under FIFO the value is the sum of the open StockCostLayer rows and issues consume the
+ * oldest layers first. Movements are costed in the order they are recorded.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "stock_costs", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stock_cost_product_warehouse", columnNames = {"product_id", "warehouse_id"})
+}, indexes = {
+    @Index(name = "idx_stock_cost_warehouse", columnList = "warehouse_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCost {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    /**
+     * Costing method (WEIGHTED_AVERAGE, FIFO)
+     */
+    @Column(name = "costing_method", nullable = false, length = 20)
+    private String costingMethod;
+
+    /**
+     * Quantity on hand; negative while issues ran ahead of receipts
+     */
+    @Builder.Default
+    @Column(name = "quantity_on_hand", nullable = false, precision = 15, scale = 3)
+    private BigDecimal quantityOnHand = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "total_value", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalValue = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "average_cost", nullable = false, precision = 19, scale = 6)
+    private BigDecimal averageCost = BigDecimal.ZERO;
+
+    @Column(name = "last_movement_date")
+    private LocalDate lastMovementDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Check if costed by FIFO layers
+     */
+    @Transient
+    public boolean isFifo() {
+        return "FIFO".equals(costingMethod);
+    }
+}
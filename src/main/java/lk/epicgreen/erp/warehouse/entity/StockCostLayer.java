@@ -0,0 +1,58 @@
+package lk.epicgreen.erp.warehouse.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * StockCostLayer entity
+ * Quantity of a product received into a warehouse at one unit cost, for FIFO costing.
+ * Issues consume layers in id order; a layer stays until its remaining quantity is zero.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "stock_cost_layers", indexes = {
+    @Index(name = "idx_cost_layer_product_warehouse_open", columnList = "product_id, warehouse_id, remaining_quantity")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCostLayer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(name = "received_date")
+    private LocalDate receivedDate;
+
+    @Column(name = "original_quantity", nullable = false, precision = 15, scale = 3)
+    private BigDecimal originalQuantity;
+
+    @Column(name = "remaining_quantity", nullable = false, precision = 15, scale = 3)
+    private BigDecimal remainingQuantity;
+
+    @Column(name = "unit_cost", nullable = false, precision = 19, scale = 6)
+    private BigDecimal unitCost;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
 /**
  * StockMovement entity
  * Represents all inventory transactions (receipt, issue, transfer, etc.)
+ * The table may be RANGE partitioned by month on movement_date, which MySQL only allows
+ * without foreign keys, so references are declared without constraints
  * 
  * @author Epic Green Development Team
  * @version 1.0
@@ -55,7 +57,7 @@ public class StockMovement {
      */
     @NotNull(message = "Warehouse is required")
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "warehouse_id", nullable = false, foreignKey = @ForeignKey(name = "fk_stock_movement_warehouse"))
+    @JoinColumn(name = "warehouse_id", nullable = false, foreignKey = @ForeignKey(name = "fk_stock_movement_warehouse", value = ConstraintMode.NO_CONSTRAINT))
     private Warehouse warehouse;
     
     /**
@@ -63,21 +65,21 @@ public class StockMovement {
      */
     @NotNull(message = "Product is required")
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "product_id", nullable = false, foreignKey = @ForeignKey(name = "fk_stock_movement_product"))
+    @JoinColumn(name = "product_id", nullable = false, foreignKey = @ForeignKey(name = "fk_stock_movement_product", value = ConstraintMode.NO_CONSTRAINT))
     private Product product;
     
     /**
      * From location (for transfers)
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "from_location_id", foreignKey = @ForeignKey(name = "fk_stock_movement_from_location"))
+    @JoinColumn(name = "from_location_id", foreignKey = @ForeignKey(name = "fk_stock_movement_from_location", value = ConstraintMode.NO_CONSTRAINT))
     private WarehouseLocation fromLocation;
     
     /**
      * To location (for transfers and receipts)
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "to_location_id", foreignKey = @ForeignKey(name = "fk_stock_movement_to_location"))
+    @JoinColumn(name = "to_location_id", foreignKey = @ForeignKey(name = "fk_stock_movement_to_location", value = ConstraintMode.NO_CONSTRAINT))
     private WarehouseLocation toLocation;
     
     /**
@@ -100,7 +102,7 @@ public class StockMovement {
      */
     @NotNull(message = "UOM is required")
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "uom_id", nullable = false, foreignKey = @ForeignKey(name = "fk_stock_movement_uom"))
+    @JoinColumn(name = "uom_id", nullable = false, foreignKey = @ForeignKey(name = "fk_stock_movement_uom", value = ConstraintMode.NO_CONSTRAINT))
     private UnitOfMeasure uom;
     
     /**
@@ -0,0 +1,40 @@
+package lk.epicgreen.erp.warehouse.entity;
+
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * StockSnapshotInvalidation entity
+ * Record of a back-dated stock movement that invalidates stock snapshots, written in the
+ * movement's transaction. Snapshot writers on any node compare the latest id with the one
+ * they started from, so a day whose positions were read before the movement committed is
+ * never written. Until applied_at is set the snapshots from from_date on may still exist:
+ * as-of reads skip them and the next refresh deletes them.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "stock_snapshot_invalidations")
+@Data
+public class StockSnapshotInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * When the snapshots from from_date on were deleted, null while pending
+     */
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+}
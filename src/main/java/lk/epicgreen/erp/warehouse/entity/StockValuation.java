@@ -8,23 +8,67 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+/**
+ * StockValuation entity
+ * Closing stock position of a product batch in a warehouse at the end of a day, with the
+ * cumulative quantity and value moved in and out up to that day.
+ * A snapshot date holds a row for every open position, so stock as of any date is the
+ * latest snapshot on or before it plus the movements dated after it. A batch whose
+ * quantity reaches zero is folded into the product's row without batch number, so
+ * snapshots only grow with open batches while the cumulative totals stay exact.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
 @Entity
-@Table(name = "stock_valuations")
+@Table(name = "stock_valuations", indexes = {
+    @Index(name = "idx_valuation_date_warehouse_product", columnList = "valuation_date, warehouse_id, product_id"),
+    @Index(name = "idx_valuation_date_product", columnList = "valuation_date, product_id")
+})
 @Data
 public class StockValuation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    @Column(name = "valuation_date")
     private LocalDate valuationDate;
+
+    @Column(name = "warehouse_id")
     private Long warehouseId;
+
+    @Column(name = "product_id")
     private Long productId;
+
+    @Column(name = "batch_number", length = 50)
+    private String batchNumber;
+
+    @Column(name = "quantity", precision = 15, scale = 3)
     private BigDecimal quantity = BigDecimal.ZERO;
+
+    @Column(name = "quantity_in", precision = 18, scale = 3)
+    private BigDecimal quantityIn = BigDecimal.ZERO;
+
+    @Column(name = "quantity_out", precision = 18, scale = 3)
+    private BigDecimal quantityOut = BigDecimal.ZERO;
+
+    @Column(name = "unit_cost", precision = 15, scale = 2)
     private BigDecimal unitCost = BigDecimal.ZERO;
+
+    @Column(name = "total_value", precision = 18, scale = 2)
     private BigDecimal totalValue = BigDecimal.ZERO;
+
+    @Column(name = "value_in", precision = 18, scale = 2)
+    private BigDecimal valueIn = BigDecimal.ZERO;
+
+    @Column(name = "value_out", precision = 18, scale = 2)
+    private BigDecimal valueOut = BigDecimal.ZERO;
+
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
-    
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
-}
\ No newline at end of file
+}
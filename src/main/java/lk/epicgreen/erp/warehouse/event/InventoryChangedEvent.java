@@ -0,0 +1,22 @@
+package lk.epicgreen.erp.warehouse.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when the quantities of an inventory row are written (created, updated, reserved
+ * or released). Listeners run after the publishing transaction commits
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class InventoryChangedEvent {
+
+    private final Long inventoryId;
+    private final Long productId;
+    private final Long warehouseId;
+}
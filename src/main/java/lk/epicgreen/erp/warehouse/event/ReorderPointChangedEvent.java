@@ -0,0 +1,22 @@
+package lk.epicgreen.erp.warehouse.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a reorder point is created, changed or deleted
+ * Listeners run after the publishing transaction commits
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ReorderPointChangedEvent {
+
+    private final Long reorderPointId;
+    private final Long productId;
+    private final Long warehouseId;
+}
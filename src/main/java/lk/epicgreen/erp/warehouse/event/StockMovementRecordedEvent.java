@@ -0,0 +1,27 @@
+package lk.epicgreen.erp.warehouse.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a stock movement is recorded
+ * Listeners that keep stock derived state run after the publishing transaction commits
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class StockMovementRecordedEvent {
+
+    private final Long movementId;
+    private final Long productId;
+    private final Long warehouseId;
+    private final String movementType;
+    private final String batchNumber;
+    private final BigDecimal quantity;
+}
@@ -4,6 +4,7 @@ package lk.epicgreen.erp.warehouse.repository;
 import lk.epicgreen.erp.warehouse.entity.InventoryAlert;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +13,7 @@ public interface InventoryAlertRepository extends JpaRepository<InventoryAlert,
     List<InventoryAlert> findByAlertType(String alertType);
     List<InventoryAlert> findByProductIdAndWarehouseId(Long productId, Long warehouseId);
     List<InventoryAlert> findByAlertSeverity(String severity);
+    List<InventoryAlert> findByProductIdAndWarehouseIdAndAlertTypeInAndAlertStatusIn(
+        Long productId, Long warehouseId, Collection<String> alertTypes, Collection<String> alertStatuses);
+    List<InventoryAlert> findByAlertTypeInAndAlertStatusIn(Collection<String> alertTypes, Collection<String> alertStatuses);
 }
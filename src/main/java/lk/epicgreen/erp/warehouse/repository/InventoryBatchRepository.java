@@ -2,8 +2,33 @@ package lk.epicgreen.erp.warehouse.repository;
 
 import lk.epicgreen.erp.warehouse.entity.InventoryBatch;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface InventoryBatchRepository extends JpaRepository<InventoryBatch, Long> {
     List<InventoryBatch> findByProductIdAndWarehouseId(Long productId, Long warehouseId);
-}
\ No newline at end of file
+
+    /**
+     * Batches of the given products in a warehouse that still hold stock
+     */
+    @Query("SELECT b FROM InventoryBatch b WHERE b.warehouseId = :warehouseId AND b.productId IN :productIds AND b.quantity > 0")
+    List<InventoryBatch> findInStockByWarehouseIdAndProductIdIn(@Param("warehouseId") Long warehouseId,
+                                                                @Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Add a (signed) quantity to a batch with a relative UPDATE, so concurrent movements of the
+     * same batch do not overwrite each other
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE InventoryBatch b SET b.quantity = COALESCE(b.quantity, 0) + :delta " +
+           "WHERE b.productId = :productId AND b.warehouseId = :warehouseId AND b.batchNumber = :batchNumber")
+    int addToQuantity(@Param("productId") Long productId,
+                      @Param("warehouseId") Long warehouseId,
+                      @Param("batchNumber") String batchNumber,
+                      @Param("delta") BigDecimal delta);
+}
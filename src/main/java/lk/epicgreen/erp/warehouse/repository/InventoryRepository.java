@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -153,6 +154,14 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long>, Jpa
             @Param("warehouseId") Long warehouseId,
             @Param("productId") Long productId);
     
+    /**
+     * Sum available quantity per product and warehouse
+     * Rows: productId, warehouseId, available quantity
+     */
+    @Query("SELECT i.product.id, i.warehouse.id, SUM(i.quantityAvailable) FROM Inventory i " +
+           "GROUP BY i.product.id, i.warehouse.id")
+    List<Object[]> sumAvailableQuantityByProductAndWarehouse();
+    
     /**
      * Get total reserved quantity for a product
      */
@@ -212,6 +221,14 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long>, Jpa
     @Query("SELECT i FROM Inventory i WHERE i.quantityReserved > 0")
     List<Inventory> findInventoryWithReservations();
     
+    /**
+     * Quantity on hand (available + reserved) of a product in a warehouse and its value at the stored unit costs
+     */
+    @Query("SELECT COALESCE(SUM(COALESCE(i.quantityAvailable, 0) + COALESCE(i.quantityReserved, 0)), 0), " +
+           "COALESCE(SUM((COALESCE(i.quantityAvailable, 0) + COALESCE(i.quantityReserved, 0)) * COALESCE(i.unitCost, 0)), 0) " +
+           "FROM Inventory i WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId")
+    List<Object[]> summarizeStockValue(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+    
     /**
      * Get inventory value by warehouse
      */
@@ -279,4 +296,40 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long>, Jpa
 
     boolean existsByWarehouseIdAndProductIdAndBatchNumberAndLocationIdAndIdNot(Long warehouseId, Long productId,
             String batchNumber, Long locationId, Long excludeId);
+
+    // ==================== RESERVATIONS ====================
+    // Single conditional statements: the check and the change happen under one row lock, so
+    // concurrent reservations can never take more than is available.
+
+    /**
+     * Move quantity from available to reserved if enough is available; returns 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable - :quantity, " +
+           "i.quantityReserved = COALESCE(i.quantityReserved, 0) + :quantity, " +
+           "i.version = i.version + 1, i.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE i.id = :id AND i.quantityAvailable >= :quantity")
+    int reserveIfAvailable(@Param("id") Long id, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Move quantity from reserved back to available if that much is reserved; returns 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityReserved = i.quantityReserved - :quantity, " +
+           "i.quantityAvailable = COALESCE(i.quantityAvailable, 0) + :quantity, " +
+           "i.version = i.version + 1, i.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE i.id = :id AND i.quantityReserved >= :quantity")
+    int releaseIfReserved(@Param("id") Long id, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Current available and reserved quantity (to explain a failed reservation or release)
+     */
+    @Query("SELECT i.quantityAvailable, i.quantityReserved FROM Inventory i WHERE i.id = :id")
+    List<Object[]> findReservationQuantitiesById(@Param("id") Long id);
+
+    /**
+     * Product and warehouse id of an inventory row, without loading it
+     */
+    @Query("SELECT i.product.id, i.warehouse.id FROM Inventory i WHERE i.id = :id")
+    List<Object[]> findProductAndWarehouseIdById(@Param("id") Long id);
 }
@@ -0,0 +1,32 @@
+package lk.epicgreen.erp.warehouse.repository;
+
+import lk.epicgreen.erp.warehouse.entity.StockCostLayer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for StockCostLayer entity
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface StockCostLayerRepository extends JpaRepository<StockCostLayer, Long> {
+
+    /**
+     * Layers with quantity left, oldest first
+     */
+    @Query("SELECT l FROM StockCostLayer l " +
+           "WHERE l.productId = :productId AND l.warehouseId = :warehouseId AND l.remainingQuantity > 0 " +
+           "ORDER BY l.id")
+    List<StockCostLayer> findOpenLayers(@Param("productId") Long productId,
+                                        @Param("warehouseId") Long warehouseId,
+                                        Pageable pageable);
+
+    List<StockCostLayer> findByProductIdAndWarehouseIdOrderById(Long productId, Long warehouseId);
+}
@@ -0,0 +1,45 @@
+package lk.epicgreen.erp.warehouse.repository;
+
+import lk.epicgreen.erp.warehouse.entity.StockCost;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for StockCost entity
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface StockCostRepository extends JpaRepository<StockCost, Long> {
+
+    /**
+     * Touch the cost row so it stays locked until the transaction ends; 0 when there is none yet
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockCost c SET c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.productId = :productId AND c.warehouseId = :warehouseId")
+    int lock(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+
+    Optional<StockCost> findByProductIdAndWarehouseId(Long productId, Long warehouseId);
+
+    boolean existsByProductIdAndWarehouseId(Long productId, Long warehouseId);
+
+    /**
+     * Cost rows of a warehouse with product code and name, in product code order
+     */
+    @Query("SELECT c, p.productCode, p.productName FROM StockCost c, Product p " +
+           "WHERE p.id = c.productId AND c.warehouseId = :warehouseId " +
+           "ORDER BY p.productCode")
+    List<Object[]> findValuationByWarehouseId(@Param("warehouseId") Long warehouseId);
+
+    @Query("SELECT COALESCE(SUM(c.totalValue), 0) FROM StockCost c WHERE c.warehouseId = :warehouseId")
+    BigDecimal sumTotalValueByWarehouseId(@Param("warehouseId") Long warehouseId);
+}
@@ -0,0 +1,127 @@
+package lk.epicgreen.erp.warehouse.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Where archived stock movements end: every movement dated before the boundary has been moved
+ * from stock_movements to stock_movements_archive, and none dated on or after it has
+ * 
+ * The boundary is derived from the newest archived movement (archiving moves whole months) and
+ * cached; the partition maintenance job refreshes it on every node. Until then another node may
+ * have archived further months, so a routed query that starts in a closed month beyond the
+ * cached boundary re-reads it when that month no longer has a live partition.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+@Slf4j
+public class StockMovementArchive {
+
+    public static final String TABLE = "stock_movements_archive";
+    private static final String LIVE_TABLE = "stock_movements";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int archiveAfterMonths;
+    private volatile LocalDate archivedBefore;
+
+    public StockMovementArchive(JdbcTemplate jdbcTemplate,
+                                @Value("${application.warehouse.movement-archive-after-months:24}") int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveAfterMonths = Math.max(0, archiveAfterMonths);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The maintenance job retries
+            log.warn("Could not read the stock movement archive boundary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * First day that is not archived, or null when nothing is archived
+     */
+    public LocalDate getArchivedBefore() {
+        return archivedBefore;
+    }
+
+    /**
+     * Boundary to route a query starting on the given date by
+     * Re-read first when the date lies in a closed month past the cached boundary whose live
+     * partition has been dropped, i.e. a month archived by another node since the last refresh
+     */
+    public LocalDate getArchivedBefore(LocalDate startDate) {
+        LocalDate boundary = archivedBefore;
+        if (archiveAfterMonths == 0 || (boundary != null && startDate.isBefore(boundary))) {
+            return boundary;
+        }
+        LocalDate closedBefore = LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths);
+        if (!startDate.isBefore(closedBefore)) {
+            return boundary;
+        }
+        LocalDate firstLiveMonth = findFirstLiveMonth();
+        if (firstLiveMonth != null && startDate.isBefore(firstLiveMonth)) {
+            log.debug("Stock movements from {} are no longer live; re-reading the archive boundary", startDate);
+            return refresh();
+        }
+        return boundary;
+    }
+
+    public boolean exists() {
+        Integer tables = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+            Integer.class, TABLE);
+        return tables != null && tables > 0;
+    }
+
+    /**
+     * Re-read the boundary from the archive table
+     */
+    public LocalDate refresh() {
+        LocalDate boundary = null;
+        if (exists()) {
+            LocalDate newest = jdbcTemplate.queryForObject("SELECT MAX(movement_date) FROM " + TABLE, LocalDate.class);
+            boundary = newest != null ? newest.withDayOfMonth(1).plusMonths(1) : null;
+        }
+        archivedBefore = boundary;
+        return boundary;
+    }
+
+    /**
+     * Move the boundary forward after a month has been archived by this node
+     */
+    public void advanceTo(LocalDate boundary) {
+        LocalDate current = archivedBefore;
+        if (current == null || boundary.isAfter(current)) {
+            archivedBefore = boundary;
+        }
+    }
+
+    /**
+     * First month held by a monthly partition of stock_movements, or null when the table is
+     * not partitioned (nothing is archived from it then)
+     * Partitions are monthly and the oldest one's bound is reported quoted, e.g. '2024-11-01'
+     */
+    private LocalDate findFirstLiveMonth() {
+        List<String> bounds = jdbcTemplate.queryForList(
+            "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION LIMIT 1",
+            String.class, LIVE_TABLE);
+        if (bounds.isEmpty() || bounds.get(0) == null || "MAXVALUE".equalsIgnoreCase(bounds.get(0))) {
+            return null;
+        }
+        return LocalDate.parse(bounds.get(0).replace("'", "").trim()).minusMonths(1);
+    }
+}
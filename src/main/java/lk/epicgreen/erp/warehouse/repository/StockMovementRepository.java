@@ -26,7 +26,8 @@ import java.util.List;
  * @version 1.0
  */
 @Repository
-public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, JpaSpecificationExecutor<StockMovement> {
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, JpaSpecificationExecutor<StockMovement>,
+        StockMovementRoutingRepository {
     
     // ==================== FINDER METHODS ====================
     
@@ -74,11 +75,6 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
      */
     List<StockMovement> findByMovementDate(LocalDate movementDate);
     
-    /**
-     * Find movements by movement date range
-     */
-    List<StockMovement> findByMovementDateBetween(LocalDate startDate, LocalDate endDate);
-    
     /**
      * Find movements by movement date range with pagination
      */
@@ -239,16 +235,6 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
            "GROUP BY sm.movementType ORDER BY movementCount DESC")
     List<Object[]> getMovementStatisticsByProduct(@Param("productId") Long productId);
     
-    /**
-     * Get daily movement summary
-     */
-    @Query("SELECT sm.movementDate, sm.movementType, COUNT(sm) as movementCount, SUM(sm.quantity) as totalQuantity " +
-           "FROM StockMovement sm WHERE sm.movementDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY sm.movementDate, sm.movementType ORDER BY sm.movementDate DESC")
-    List<Object[]> getDailyMovementSummary(
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
-    
     /**
      * Find movements by warehouse and type
      */
@@ -301,4 +287,54 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
      * Find all movements ordered by date
      */
     List<StockMovement> findAllByOrderByMovementDateDescCreatedAtDesc();
+    
+    // ==================== STOCK POSITION METHODS ====================
+    
+    /**
+     * Earliest movement date
+     */
+    @Query("SELECT MIN(sm.movementDate) FROM StockMovement sm")
+    LocalDate findEarliestMovementDate();
+    
+    /**
+     * Quantity and value moved in and out per day, warehouse, product and batch, for movements
+     * dated after one date up to another.
+     * Receipts, production and returns move stock in; issues and sales move it out; an adjustment
+     * moves it out when it only has a from location and in otherwise; transfers stay inside the
+     * warehouse and move nothing.
+     * Rows: movementDate, warehouseId, productId, batchNumber, quantityIn, quantityOut, valueIn, valueOut
+     */
+    @Query("SELECT sm.movementDate, sm.warehouse.id, sm.product.id, sm.batchNumber, " +
+           "SUM(CASE WHEN (sm.movementType IN ('RECEIPT', 'PRODUCTION', 'RETURN') OR (sm.movementType = 'ADJUSTMENT' AND (sm.fromLocation IS NULL OR sm.toLocation IS NOT NULL))) THEN sm.quantity ELSE 0 END), " +
+           "SUM(CASE WHEN (sm.movementType IN ('ISSUE', 'SALES') OR (sm.movementType = 'ADJUSTMENT' AND sm.fromLocation IS NOT NULL AND sm.toLocation IS NULL)) THEN sm.quantity ELSE 0 END), " +
+           "SUM(CASE WHEN (sm.movementType IN ('RECEIPT', 'PRODUCTION', 'RETURN') OR (sm.movementType = 'ADJUSTMENT' AND (sm.fromLocation IS NULL OR sm.toLocation IS NOT NULL))) THEN sm.quantity * COALESCE(sm.unitCost, 0) ELSE 0 END), " +
+           "SUM(CASE WHEN (sm.movementType IN ('ISSUE', 'SALES') OR (sm.movementType = 'ADJUSTMENT' AND sm.fromLocation IS NOT NULL AND sm.toLocation IS NULL)) THEN sm.quantity * COALESCE(sm.unitCost, 0) ELSE 0 END) " +
+           "FROM StockMovement sm WHERE sm.movementDate > :afterDate AND sm.movementDate <= :upToDate " +
+           "GROUP BY sm.movementDate, sm.warehouse.id, sm.product.id, sm.batchNumber " +
+           "ORDER BY sm.movementDate")
+    List<Object[]> summarizePositionChangesByDay(
+            @Param("afterDate") LocalDate afterDate,
+            @Param("upToDate") LocalDate upToDate);
+    
+    /**
+     * Quantity and value moved in and out per warehouse, product and batch, for movements dated
+     * after one date (or from the beginning when it is null) up to another, optionally limited to
+     * a warehouse and/or product. Directions as in summarizePositionChangesByDay.
+     * Rows: warehouseId, productId, batchNumber, quantityIn, quantityOut, valueIn, valueOut
+     */
+    @Query("SELECT sm.warehouse.id, sm.product.id, sm.batchNumber, " +
+           "SUM(CASE WHEN (sm.movementType IN ('RECEIPT', 'PRODUCTION', 'RETURN') OR (sm.movementType = 'ADJUSTMENT' AND (sm.fromLocation IS NULL OR sm.toLocation IS NOT NULL))) THEN sm.quantity ELSE 0 END), " +
+           "SUM(CASE WHEN (sm.movementType IN ('ISSUE', 'SALES') OR (sm.movementType = 'ADJUSTMENT' AND sm.fromLocation IS NOT NULL AND sm.toLocation IS NULL)) THEN sm.quantity ELSE 0 END), " +
+           "SUM(CASE WHEN (sm.movementType IN ('RECEIPT', 'PRODUCTION', 'RETURN') OR (sm.movementType = 'ADJUSTMENT' AND (sm.fromLocation IS NULL OR sm.toLocation IS NOT NULL))) THEN sm.quantity * COALESCE(sm.unitCost, 0) ELSE 0 END), " +
+           "SUM(CASE WHEN (sm.movementType IN ('ISSUE', 'SALES') OR (sm.movementType = 'ADJUSTMENT' AND sm.fromLocation IS NOT NULL AND sm.toLocation IS NULL)) THEN sm.quantity * COALESCE(sm.unitCost, 0) ELSE 0 END) " +
+           "FROM StockMovement sm WHERE " +
+           "(:afterDate IS NULL OR sm.movementDate > :afterDate) AND sm.movementDate <= :upToDate AND " +
+           "(:warehouseId IS NULL OR sm.warehouse.id = :warehouseId) AND " +
+           "(:productId IS NULL OR sm.product.id = :productId) " +
+           "GROUP BY sm.warehouse.id, sm.product.id, sm.batchNumber")
+    List<Object[]> summarizePositionChanges(
+            @Param("afterDate") LocalDate afterDate,
+            @Param("upToDate") LocalDate upToDate,
+            @Param("warehouseId") Long warehouseId,
+            @Param("productId") Long productId);
 }
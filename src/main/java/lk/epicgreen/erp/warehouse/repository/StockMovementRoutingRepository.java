@@ -0,0 +1,28 @@
+package lk.epicgreen.erp.warehouse.repository;
+
+import lk.epicgreen.erp.warehouse.entity.StockMovement;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Date range queries of StockMovementRepository that are routed between stock_movements and
+ * stock_movements_archive, so a range only reads the table (and, through partition pruning
+ * on movement_date, the monthly partitions) that can hold its rows
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface StockMovementRoutingRepository {
+
+    /**
+     * Find movements by movement date range, archived months included
+     */
+    List<StockMovement> findByMovementDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get daily movement summary, archived months included
+     * Rows: movementDate, movementType, movementCount, totalQuantity (newest date first)
+     */
+    List<Object[]> getDailyMovementSummary(LocalDate startDate, LocalDate endDate);
+}
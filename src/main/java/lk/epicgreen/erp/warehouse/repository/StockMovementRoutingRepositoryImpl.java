@@ -0,0 +1,110 @@
+package lk.epicgreen.erp.warehouse.repository;
+
+import lk.epicgreen.erp.warehouse.entity.StockMovement;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of StockMovementRoutingRepository
+ * 
+ * Ranges after the archive boundary read stock_movements only, ranges before it read the
+ * archive only, and a range across it reads both halves. Archived rows keep their ids and
+ * columns (the archive is created LIKE stock_movements), so they map to StockMovement; they
+ * are detached once read, so they are never flushed back to stock_movements.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@RequiredArgsConstructor
+public class StockMovementRoutingRepositoryImpl implements StockMovementRoutingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final StockMovementArchive stockMovementArchive;
+
+    @Override
+    public List<StockMovement> findByMovementDateBetween(LocalDate startDate, LocalDate endDate) {
+        LocalDate archivedBefore = stockMovementArchive.getArchivedBefore(startDate);
+        List<StockMovement> movements = new ArrayList<>();
+        if (archivedBefore != null && startDate.isBefore(archivedBefore)) {
+            movements.addAll(findArchived(startDate, min(endDate, archivedBefore.minusDays(1))));
+        }
+        if (archivedBefore == null || !endDate.isBefore(archivedBefore)) {
+            movements.addAll(entityManager.createQuery(
+                    "SELECT sm FROM StockMovement sm WHERE sm.movementDate BETWEEN :startDate AND :endDate", StockMovement.class)
+                .setParameter("startDate", max(startDate, archivedBefore))
+                .setParameter("endDate", endDate)
+                .getResultList());
+        }
+        return movements;
+    }
+
+    @Override
+    public List<Object[]> getDailyMovementSummary(LocalDate startDate, LocalDate endDate) {
+        LocalDate archivedBefore = stockMovementArchive.getArchivedBefore(startDate);
+        List<Object[]> rows = new ArrayList<>();
+        // Live months are newer than archived ones, so they come first in newest-first order
+        if (archivedBefore == null || !endDate.isBefore(archivedBefore)) {
+            rows.addAll(entityManager.createQuery(
+                    "SELECT sm.movementDate, sm.movementType, COUNT(sm) as movementCount, SUM(sm.quantity) as totalQuantity " +
+                    "FROM StockMovement sm WHERE sm.movementDate BETWEEN :startDate AND :endDate " +
+                    "GROUP BY sm.movementDate, sm.movementType ORDER BY sm.movementDate DESC", Object[].class)
+                .setParameter("startDate", max(startDate, archivedBefore))
+                .setParameter("endDate", endDate)
+                .getResultList());
+        }
+        if (archivedBefore != null && startDate.isBefore(archivedBefore)) {
+            List<?> archived = entityManager.createNativeQuery(
+                    "SELECT movement_date, movement_type, COUNT(*), SUM(quantity) FROM " + StockMovementArchive.TABLE +
+                    " WHERE movement_date BETWEEN ?1 AND ?2 GROUP BY movement_date, movement_type ORDER BY movement_date DESC")
+                .setParameter(1, startDate)
+                .setParameter(2, min(endDate, archivedBefore.minusDays(1)))
+                .getResultList();
+            for (Object result : archived) {
+                Object[] row = (Object[]) result;
+                // Same types as the JPQL rows
+                rows.add(new Object[] {
+                    row[0] instanceof Date ? ((Date) row[0]).toLocalDate() : row[0],
+                    row[1],
+                    ((Number) row[2]).longValue(),
+                    row[3]
+                });
+            }
+        }
+        return rows;
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * Archived months are closed, so no live copy of these rows can be pending changes in the
+     * persistence context when they are detached
+     */
+    @SuppressWarnings("unchecked")
+    private List<StockMovement> findArchived(LocalDate startDate, LocalDate endDate) {
+        List<StockMovement> movements = entityManager.createNativeQuery(
+                "SELECT * FROM " + StockMovementArchive.TABLE + " WHERE movement_date BETWEEN ?1 AND ?2", StockMovement.class)
+            .setParameter(1, startDate)
+            .setParameter(2, endDate)
+            .getResultList();
+        movements.forEach(entityManager::detach);
+        return movements;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return b != null && b.isAfter(a) ? b : a;
+    }
+}
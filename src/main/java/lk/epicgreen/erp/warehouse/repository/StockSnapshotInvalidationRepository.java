@@ -0,0 +1,48 @@
+package lk.epicgreen.erp.warehouse.repository;
+
+import lk.epicgreen.erp.warehouse.entity.StockSnapshotInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for StockSnapshotInvalidation entity
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+public interface StockSnapshotInvalidationRepository extends JpaRepository<StockSnapshotInvalidation, Long> {
+
+    /**
+     * Id of the latest invalidation, 0 when there has been none
+     */
+    @Query("SELECT COALESCE(MAX(i.id), 0) FROM StockSnapshotInvalidation i")
+    Long findLatestId();
+
+    /**
+     * Drop applied invalidations older than the given one (only the latest id is ever compared)
+     */
+    @Modifying
+    @Query("DELETE FROM StockSnapshotInvalidation i WHERE i.id < :id AND i.appliedAt IS NOT NULL")
+    int deleteOlderThan(@Param("id") Long id);
+
+    /**
+     * Earliest date from which snapshots are invalid but not yet deleted, null when none are
+     */
+    @Query("SELECT MIN(i.fromDate) FROM StockSnapshotInvalidation i WHERE i.appliedAt IS NULL")
+    LocalDate findEarliestPendingFromDate();
+
+    List<StockSnapshotInvalidation> findByAppliedAtIsNull();
+
+    @Modifying
+    @Query("UPDATE StockSnapshotInvalidation i SET i.appliedAt = :appliedAt WHERE i.id IN :ids AND i.appliedAt IS NULL")
+    int markApplied(@Param("ids") Collection<Long> ids, @Param("appliedAt") LocalDateTime appliedAt);
+}
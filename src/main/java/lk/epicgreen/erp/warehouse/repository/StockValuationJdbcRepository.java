@@ -0,0 +1,60 @@
+package lk.epicgreen.erp.warehouse.repository;
+
+import lk.epicgreen.erp.warehouse.entity.StockValuation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the stock_valuations table for the daily stock snapshots
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockValuationJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO stock_valuations (" +
+        "valuation_date, warehouse_id, product_id, batch_number, quantity, quantity_in, quantity_out, " +
+        "unit_cost, total_value, value_in, value_out, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert snapshot rows as a single JDBC batch
+     */
+    public int[] batchInsert(List<StockValuation> valuations) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockValuation valuation = valuations.get(i);
+                ps.setDate(1, Date.valueOf(valuation.getValuationDate()));
+                ps.setLong(2, valuation.getWarehouseId());
+                ps.setLong(3, valuation.getProductId());
+                ps.setString(4, valuation.getBatchNumber());
+                ps.setBigDecimal(5, valuation.getQuantity());
+                ps.setBigDecimal(6, valuation.getQuantityIn());
+                ps.setBigDecimal(7, valuation.getQuantityOut());
+                ps.setBigDecimal(8, valuation.getUnitCost());
+                ps.setBigDecimal(9, valuation.getTotalValue());
+                ps.setBigDecimal(10, valuation.getValueIn());
+                ps.setBigDecimal(11, valuation.getValueOut());
+                ps.setTimestamp(12, Timestamp.valueOf(valuation.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return valuations.size();
+            }
+        });
+    }
+}
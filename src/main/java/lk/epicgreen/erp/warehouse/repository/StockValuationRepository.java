@@ -2,9 +2,43 @@ package lk.epicgreen.erp.warehouse.repository;
 
 import lk.epicgreen.erp.warehouse.entity.StockValuation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.time.LocalDate;
 import java.util.List;
 
 public interface StockValuationRepository extends JpaRepository<StockValuation, Long> {
     List<StockValuation> findByValuationDate(LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Latest snapshot date
+     */
+    @Query("SELECT MAX(sv.valuationDate) FROM StockValuation sv")
+    LocalDate findLatestValuationDate();
+
+    /**
+     * Latest snapshot date on or before a date
+     */
+    @Query("SELECT MAX(sv.valuationDate) FROM StockValuation sv WHERE sv.valuationDate <= :date")
+    LocalDate findLatestValuationDateUpTo(@Param("date") LocalDate date);
+
+    /**
+     * Snapshot rows of a date, optionally limited to a warehouse and/or product
+     */
+    @Query("SELECT sv FROM StockValuation sv WHERE sv.valuationDate = :date AND " +
+           "(:warehouseId IS NULL OR sv.warehouseId = :warehouseId) AND " +
+           "(:productId IS NULL OR sv.productId = :productId)")
+    List<StockValuation> findPositions(
+            @Param("date") LocalDate date,
+            @Param("warehouseId") Long warehouseId,
+            @Param("productId") Long productId);
+
+    /**
+     * Delete snapshots on or after a date (invalidated by a back-dated stock movement)
+     */
+    @Modifying
+    @Query("DELETE FROM StockValuation sv WHERE sv.valuationDate >= :fromDate")
+    int deleteFromDate(@Param("fromDate") LocalDate fromDate);
+}
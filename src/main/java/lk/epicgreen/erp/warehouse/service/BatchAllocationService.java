@@ -0,0 +1,34 @@
+package lk.epicgreen.erp.warehouse.service;
+
+import lk.epicgreen.erp.warehouse.dto.request.BatchAllocationRequest;
+import lk.epicgreen.erp.warehouse.dto.response.BatchAllocationResponse;
+
+/**
+ * Service interface for allocating outbound quantities across inventory batches
+ * 
+ * Batches are picked First-Expired-First-Out: the earliest expiry date first, batches without
+ * an expiry date after all dated ones, and the earliest received date (FIFO) among batches
+ * with the same expiry. A line is split across as many batches as it needs; batches that
+ * expire before the allocation date are never picked.
+ * 
+ * An allocation is a plan: it does not change stock. Quantities picked for earlier lines of
+ * the same request are not offered to later lines. Batch stock is taken up when the resulting
+ * issue movements are recorded: InventoryBatchService applies every receipt and issue that
+ * carries a batch number to inventory_batches in the movement's transaction, and the cached
+ * queue is dropped once that transaction commits.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface BatchAllocationService {
+
+    /**
+     * Allocate every line of the request across the warehouse's batches
+     */
+    BatchAllocationResponse allocate(BatchAllocationRequest request);
+
+    /**
+     * Drop the cached batch queue of a product in a warehouse (after batch stock changed)
+     */
+    void invalidate(Long productId, Long warehouseId);
+}
@@ -1,17 +1,67 @@
 package lk.epicgreen.erp.warehouse.service;
 
 import lk.epicgreen.erp.warehouse.entity.InventoryBatch;
+import lk.epicgreen.erp.warehouse.entity.StockMovement;
 import lk.epicgreen.erp.warehouse.repository.InventoryBatchRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class InventoryBatchService {
     private final InventoryBatchRepository repository;
     
     public List<InventoryBatch> findByProductAndWarehouse(Long productId, Long warehouseId) {
         return repository.findByProductIdAndWarehouseId(productId, warehouseId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Apply a recorded movement to the quantity of its batch, in the movement's transaction.
+     * Receipts and returns add to the batch (creating it on first receipt), issues and sales
+     * take from it; movements without a batch number and other movement types leave batches alone.
+     */
+    @Transactional
+    public void applyMovement(StockMovement movement) {
+        if (movement.getBatchNumber() == null || movement.getBatchNumber().trim().isEmpty()
+                || movement.getQuantity() == null || movement.getProduct() == null || movement.getWarehouse() == null) {
+            return;
+        }
+        BigDecimal delta;
+        if (movement.isReceipt() || movement.isReturn()) {
+            delta = movement.getQuantity();
+        } else if (movement.isIssue() || movement.isSales()) {
+            delta = movement.getQuantity().negate();
+        } else {
+            return;
+        }
+
+        Long productId = movement.getProduct().getId();
+        Long warehouseId = movement.getWarehouse().getId();
+        String batchNumber = movement.getBatchNumber().trim();
+        int updated = repository.addToQuantity(productId, warehouseId, batchNumber, delta);
+        if (updated > 0) {
+            return;
+        }
+        if (delta.signum() < 0) {
+            log.warn("Movement {} issues {} from batch {} of product {}, which is not stocked in warehouse {}",
+                movement.getId(), movement.getQuantity(), batchNumber, productId, warehouseId);
+            return;
+        }
+
+        InventoryBatch batch = new InventoryBatch();
+        batch.setProductId(productId);
+        batch.setWarehouseId(warehouseId);
+        batch.setBatchNumber(batchNumber);
+        batch.setReceivedDate(movement.getMovementDate());
+        batch.setQuantity(delta);
+        batch.setUnitCost(movement.getUnitCost());
+        batch.setBatchStatus("ACTIVE");
+        repository.save(batch);
+    }
+}
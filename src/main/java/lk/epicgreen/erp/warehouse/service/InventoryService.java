@@ -1,6 +1,7 @@
 package lk.epicgreen.erp.warehouse.service;
 
 import lk.epicgreen.erp.warehouse.dto.request.InventoryRequest;
+import lk.epicgreen.erp.warehouse.dto.request.StockReservationLineRequest;
 import lk.epicgreen.erp.warehouse.dto.response.InventoryResponse;
 import lk.epicgreen.erp.warehouse.entity.Inventory;
 import lk.epicgreen.erp.common.dto.PageResponse;
@@ -23,6 +24,17 @@ public interface InventoryService {
     InventoryResponse updateInventory(Long id, InventoryRequest request);
     void reserveQuantity(Long inventoryId, BigDecimal quantity);
     void releaseReservation(Long inventoryId, BigDecimal quantity);
+
+    /**
+     * Reserve the quantities of several lines in one transaction: all of them or none
+     */
+    void reserveQuantities(List<StockReservationLineRequest> lines);
+
+    /**
+     * Release the reserved quantities of several lines in one transaction: all of them or none
+     */
+    void releaseQuantities(List<StockReservationLineRequest> lines);
+
     void updateQuantityAvailable(Long inventoryId, BigDecimal quantity);
     InventoryResponse getInventoryById(Long id);
     InventoryResponse getInventoryByWarehouseAndProduct(Long warehouseId, Long productId, String batchNumber, Long locationId);
@@ -0,0 +1,40 @@
+package lk.epicgreen.erp.warehouse.service;
+
+import lk.epicgreen.erp.warehouse.dto.response.ReorderStatusResponse;
+
+import java.util.List;
+
+/**
+ * Service interface for checking stock against reorder points
+ * 
+ * Each (product, warehouse) with an ACTIVE reorder point is re-checked when its inventory
+ * quantities are written or its reorder point changes. Available stock of zero or less raises a ZERO_STOCK alert,
+ * stock below the minimum level a LOW_STOCK alert and stock at or below the reorder point a
+ * REORDER_POINT alert. A product has at most one open (ACTIVE or ACKNOWLEDGED) alert of these
+ * types per warehouse; it is replaced when the level changes and resolved when stock recovers.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface ReorderEvaluationService {
+
+    /**
+     * Re-check one product in one warehouse and raise, replace or resolve its alert
+     */
+    void evaluate(Long productId, Long warehouseId);
+
+    /**
+     * Re-check every product that has an ACTIVE reorder point or an open reorder alert
+     */
+    void evaluateAll();
+
+    /**
+     * Products currently at or below their reorder point, served from memory
+     */
+    List<ReorderStatusResponse> getBelowReorder();
+
+    /**
+     * Products currently at or below their reorder point in one warehouse, served from memory
+     */
+    List<ReorderStatusResponse> getBelowReorder(Long warehouseId);
+}
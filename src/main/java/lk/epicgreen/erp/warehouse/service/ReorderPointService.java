@@ -2,8 +2,10 @@ package lk.epicgreen.erp.warehouse.service;
 
 
 import lk.epicgreen.erp.warehouse.entity.ReorderPoint;
+import lk.epicgreen.erp.warehouse.event.ReorderPointChangedEvent;
 import lk.epicgreen.erp.warehouse.repository.ReorderPointRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -13,6 +15,7 @@ import java.util.List;
 @Transactional
 public class ReorderPointService {
     private final ReorderPointRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<ReorderPoint> findAll() {
         return repository.findAll();
@@ -23,7 +26,9 @@ public class ReorderPointService {
     }
     
     public ReorderPoint create(ReorderPoint reorderPoint) {
-        return repository.save(reorderPoint);
+        ReorderPoint saved = repository.save(reorderPoint);
+        publishChanged(saved);
+        return saved;
     }
     
     public ReorderPoint update(Long id, ReorderPoint reorderPoint) {
@@ -32,10 +37,18 @@ public class ReorderPointService {
         existing.setMaxStockLevel(reorderPoint.getMaxStockLevel());
         existing.setReorderPoint(reorderPoint.getReorderPoint());
         existing.setReorderQuantity(reorderPoint.getReorderQuantity());
-        return repository.save(existing);
+        ReorderPoint saved = repository.save(existing);
+        publishChanged(saved);
+        return saved;
     }
     
     public void delete(Long id) {
+        repository.findById(id).ifPresent(this::publishChanged);
         repository.deleteById(id);
     }
+    
+    private void publishChanged(ReorderPoint reorderPoint) {
+        eventPublisher.publishEvent(new ReorderPointChangedEvent(
+            reorderPoint.getId(), reorderPoint.getProductId(), reorderPoint.getWarehouseId()));
+    }
 }
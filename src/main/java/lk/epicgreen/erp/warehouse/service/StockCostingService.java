@@ -0,0 +1,44 @@
+package lk.epicgreen.erp.warehouse.service;
+
+import lk.epicgreen.erp.warehouse.dto.response.StockCostResponse;
+import lk.epicgreen.erp.warehouse.entity.StockMovement;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Service interface for perpetual stock costing
+ * 
+ * Keeps quantity on hand, value and average unit cost per product and warehouse up to date
+ * as stock movements are recorded, by weighted average or FIFO cost layers.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface StockCostingService {
+
+    String WEIGHTED_AVERAGE = "WEIGHTED_AVERAGE";
+    String FIFO = "FIFO";
+
+    /**
+     * Cost a movement that is about to be saved, in the transaction that saves it.
+     * Outbound movements get the cost they are issued at as their unit cost, and so do
+     * inbound movements recorded without one.
+     */
+    void applyMovement(StockMovement movement);
+
+    StockCostResponse getCost(Long productId, Long warehouseId);
+
+    /**
+     * Running cost of every product of a warehouse, read from the maintained cost rows
+     */
+    List<StockCostResponse> getValuation(Long warehouseId);
+
+    BigDecimal getTotalValue(Long warehouseId);
+
+    /**
+     * Switch a product in a warehouse to another costing method. Stock on hand moves to FIFO
+     * as one layer at the current average cost, and to weighted average at its layer value.
+     */
+    StockCostResponse changeCostingMethod(Long productId, Long warehouseId, String costingMethod);
+}
@@ -0,0 +1,56 @@
+package lk.epicgreen.erp.warehouse.service;
+
+import lk.epicgreen.erp.warehouse.dto.response.StockMovementPartitionResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service interface for the lifecycle of the stock_movements table
+ * 
+ * The table is RANGE partitioned by month on movement_date, with partitions created a few
+ * months ahead. Months older than the retention period are closed: they are moved to the
+ * compressed stock_movements_archive table and no movement may be dated in them any more.
+ * Date range queries are routed between both tables by StockMovementRepository.
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface StockMovementPartitionService {
+
+    /**
+     * Partitions of stock_movements, oldest first (empty when the table is not partitioned)
+     */
+    List<StockMovementPartitionResponse> getPartitions();
+
+    /**
+     * Convert an unpartitioned stock_movements table to monthly partitions
+     * 
+     * @return false when it is already partitioned
+     */
+    boolean partitionTable();
+
+    /**
+     * Create the monthly partitions up to the configured number of months ahead
+     * 
+     * @return number of partitions created
+     */
+    int createPartitions();
+
+    /**
+     * Move the partitions of closed months to the archive table
+     * 
+     * @return number of partitions archived
+     */
+    int archiveClosedPartitions();
+
+    /**
+     * Create partitions ahead, archive closed months and refresh the archive boundary
+     */
+    void maintainPartitions();
+
+    /**
+     * Reject a movement dated in a closed (archived or about to be archived) month
+     */
+    void checkOpenPeriod(LocalDate movementDate);
+}
@@ -0,0 +1,43 @@
+package lk.epicgreen.erp.warehouse.service;
+
+import lk.epicgreen.erp.warehouse.dto.response.StockPositionResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service interface for daily stock snapshots
+ * Closing positions per (warehouse, product, batch) are stored in stock_valuations for each
+ * completed day with movements, so stock and value as of any date cost one snapshot read
+ * plus a scan of the movements dated after it
+ * 
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+public interface StockSnapshotService {
+
+    /**
+     * Stock positions at the end of the given date, optionally limited to a warehouse and/or product
+     */
+    List<StockPositionResponse> getPositionsAsOf(LocalDate asOfDate, Long warehouseId, Long productId);
+
+    /**
+     * Write the missing snapshots of days with movements up to the given date (the first run
+     * backfills the full movement history)
+     * 
+     * @return number of snapshot days written
+     */
+    int refreshSnapshots(LocalDate upToDate);
+
+    /**
+     * Write the missing snapshots up to yesterday
+     */
+    void refreshAllSnapshots();
+
+    /**
+     * Discard snapshots affected by a stock movement dated on the given date, once the
+     * current transaction has committed; the invalidation itself is recorded in the current
+     * transaction, so as-of reads and the next refresh honour it even if the discard fails
+     */
+    void onMovementDated(LocalDate movementDate);
+}
@@ -0,0 +1,276 @@
+package lk.epicgreen.erp.warehouse.service.impl;
+
+import lk.epicgreen.erp.warehouse.dto.request.BatchAllocationLineRequest;
+import lk.epicgreen.erp.warehouse.dto.request.BatchAllocationRequest;
+import lk.epicgreen.erp.warehouse.dto.response.BatchAllocationLineResponse;
+import lk.epicgreen.erp.warehouse.dto.response.BatchAllocationResponse;
+import lk.epicgreen.erp.warehouse.dto.response.BatchPickResponse;
+import lk.epicgreen.erp.warehouse.entity.InventoryBatch;
+import lk.epicgreen.erp.warehouse.event.StockMovementRecordedEvent;
+import lk.epicgreen.erp.warehouse.repository.InventoryBatchRepository;
+import lk.epicgreen.erp.warehouse.service.BatchAllocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of BatchAllocationService interface
+ *
+ * Each (product, warehouse) has an immutable queue of its in-stock batches, sorted in pick
+ * order and cached on first use. A committed stock movement drops the queue of its product
+ * and warehouse, so the next allocation reloads it from inventory_batches. An allocation
+ * walks the queues with per-request cursors and never touches the database once the queues
+ * it needs are cached.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class BatchAllocationServiceImpl implements BatchAllocationService {
+
+    /**
+     * Batch statuses that must not be shipped from
+     */
+    private static final Set<String> UNALLOCATABLE_STATUSES =
+        new HashSet<>(Arrays.asList("EXPIRED", "QUARANTINE", "BLOCKED", "DEPLETED"));
+
+    private static final Comparator<BatchSlot> PICK_ORDER = Comparator
+        .comparing((BatchSlot slot) -> slot.expiryDate, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(slot -> slot.receivedDate, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(slot -> slot.id);
+
+    private static final BatchSlot[] NO_BATCHES = new BatchSlot[0];
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, BatchSlot[]> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by every invalidation; queues loaded while one happened are used but not kept
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BatchAllocationServiceImpl(InventoryBatchRepository inventoryBatchRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Queues must only reflect committed stock, never a caller's pending changes
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public BatchAllocationResponse allocate(BatchAllocationRequest request) {
+        long started = System.nanoTime();
+        Long warehouseId = request.getWarehouseId();
+        LocalDate allocationDate = request.getAllocationDate() != null ? request.getAllocationDate() : LocalDate.now();
+        List<BatchAllocationLineRequest> lines = request.getLines();
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (BatchAllocationLineRequest line : lines) {
+            productIds.add(line.getProductId());
+        }
+        Map<Long, BatchSlot[]> queuesByProduct = queuesFor(warehouseId, productIds);
+
+        // One cursor per product, so later lines continue where earlier lines stopped
+        Map<Long, Cursor> cursors = new HashMap<>();
+        List<BatchAllocationLineResponse> allocatedLines = new ArrayList<>(lines.size());
+        int shortLines = 0;
+        for (BatchAllocationLineRequest line : lines) {
+            Cursor cursor = cursors.computeIfAbsent(line.getProductId(),
+                productId -> new Cursor(queuesByProduct.get(productId), allocationDate));
+            BatchAllocationLineResponse allocated = allocateLine(line, cursor);
+            if (allocated.getShortQuantity().signum() > 0) {
+                shortLines++;
+            }
+            allocatedLines.add(allocated);
+        }
+
+        log.debug("Allocated {} lines ({} short) for warehouse {} in {} ms",
+            lines.size(), shortLines, warehouseId, (System.nanoTime() - started) / 1_000_000);
+
+        return BatchAllocationResponse.builder()
+            .warehouseId(warehouseId)
+            .allocationDate(allocationDate)
+            .fullyAllocated(shortLines == 0)
+            .shortLines(shortLines)
+            .lines(allocatedLines)
+            .build();
+    }
+
+    @Override
+    public void invalidate(Long productId, Long warehouseId) {
+        invalidations.incrementAndGet();
+        queues.remove(key(productId, warehouseId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockMovementRecorded(StockMovementRecordedEvent event) {
+        if (event.getProductId() != null && event.getWarehouseId() != null) {
+            invalidate(event.getProductId(), event.getWarehouseId());
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    private BatchAllocationLineResponse allocateLine(BatchAllocationLineRequest line, Cursor cursor) {
+        BigDecimal remaining = line.getQuantity();
+        List<BatchPickResponse> picks = new ArrayList<>(2);
+        while (remaining.signum() > 0 && cursor.advance()) {
+            BatchSlot slot = cursor.current();
+            BigDecimal take = remaining.min(cursor.left);
+            cursor.left = cursor.left.subtract(take);
+            remaining = remaining.subtract(take);
+            picks.add(BatchPickResponse.builder()
+                .batchId(slot.id)
+                .batchNumber(slot.batchNumber)
+                .expiryDate(slot.expiryDate)
+                .receivedDate(slot.receivedDate)
+                .quantity(take)
+                .build());
+        }
+
+        return BatchAllocationLineResponse.builder()
+            .lineReference(line.getLineReference())
+            .productId(line.getProductId())
+            .requestedQuantity(line.getQuantity())
+            .allocatedQuantity(line.getQuantity().subtract(remaining))
+            .shortQuantity(remaining)
+            .picks(picks)
+            .build();
+    }
+
+    private Map<Long, BatchSlot[]> queuesFor(Long warehouseId, Set<Long> productIds) {
+        Map<Long, BatchSlot[]> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            BatchSlot[] queue = queues.get(key(productId, warehouseId));
+            if (queue != null) {
+                result.put(productId, queue);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long epoch = invalidations.get();
+        Map<Long, BatchSlot[]> loaded = load(warehouseId, missing);
+        for (Long productId : missing) {
+            BatchSlot[] queue = loaded.getOrDefault(productId, NO_BATCHES);
+            result.put(productId, queue);
+            queues.put(key(productId, warehouseId), queue);
+        }
+        if (invalidations.get() != epoch) {
+            // Stock changed while loading; these queues may predate it
+            for (Long productId : missing) {
+                queues.remove(key(productId, warehouseId));
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, BatchSlot[]> load(Long warehouseId, List<Long> productIds) {
+        Map<Long, List<BatchSlot>> slotsByProduct = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, productIds.size()));
+            List<InventoryBatch> batches = transactionTemplate.execute(status ->
+                inventoryBatchRepository.findInStockByWarehouseIdAndProductIdIn(warehouseId, chunk));
+            for (InventoryBatch batch : batches) {
+                if (batch.getBatchStatus() == null || !UNALLOCATABLE_STATUSES.contains(batch.getBatchStatus())) {
+                    slotsByProduct.computeIfAbsent(batch.getProductId(), productId -> new ArrayList<>())
+                        .add(new BatchSlot(batch));
+                }
+            }
+        }
+
+        Map<Long, BatchSlot[]> queuesByProduct = new HashMap<>();
+        for (Map.Entry<Long, List<BatchSlot>> entry : slotsByProduct.entrySet()) {
+            BatchSlot[] queue = entry.getValue().toArray(NO_BATCHES);
+            Arrays.sort(queue, PICK_ORDER);
+            queuesByProduct.put(entry.getKey(), queue);
+        }
+        return queuesByProduct;
+    }
+
+    private static String key(Long productId, Long warehouseId) {
+        return productId + ":" + warehouseId;
+    }
+
+    private static final class BatchSlot {
+        private final Long id;
+        private final String batchNumber;
+        private final LocalDate expiryDate;
+        private final LocalDate receivedDate;
+        private final BigDecimal quantity;
+
+        private BatchSlot(InventoryBatch batch) {
+            this.id = batch.getId();
+            this.batchNumber = batch.getBatchNumber();
+            this.expiryDate = batch.getExpiryDate();
+            this.receivedDate = batch.getReceivedDate();
+            this.quantity = batch.getQuantity();
+        }
+    }
+
+    /**
+     * Position in a product's queue during one allocation and what is left of that batch
+     */
+    private static final class Cursor {
+        private final BatchSlot[] queue;
+        private final LocalDate allocationDate;
+        private int index;
+        private BigDecimal left;
+
+        private Cursor(BatchSlot[] queue, LocalDate allocationDate) {
+            this.queue = queue != null ? queue : NO_BATCHES;
+            this.allocationDate = allocationDate;
+        }
+
+        /**
+         * Move to the first batch with quantity left that has not expired; false when none is left
+         */
+        private boolean advance() {
+            while (index < queue.length) {
+                BatchSlot slot = queue[index];
+                if (left == null) {
+                    left = slot.quantity;
+                }
+                boolean expired = slot.expiryDate != null && slot.expiryDate.isBefore(allocationDate);
+                if (!expired && left.signum() > 0) {
+                    return true;
+                }
+                index++;
+                left = null;
+            }
+            return false;
+        }
+
+        private BatchSlot current() {
+            return queue[index];
+        }
+    }
+}
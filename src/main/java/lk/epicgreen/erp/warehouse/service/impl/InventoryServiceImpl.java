@@ -1,15 +1,18 @@
 package lk.epicgreen.erp.warehouse.service.impl;
 
 import lk.epicgreen.erp.warehouse.dto.request.InventoryRequest;
+import lk.epicgreen.erp.warehouse.dto.request.StockReservationLineRequest;
 import lk.epicgreen.erp.warehouse.dto.response.InventoryResponse;
 import lk.epicgreen.erp.warehouse.entity.Inventory;
 import lk.epicgreen.erp.warehouse.entity.Warehouse;
 import lk.epicgreen.erp.warehouse.entity.WarehouseLocation;
+import lk.epicgreen.erp.warehouse.event.InventoryChangedEvent;
 import lk.epicgreen.erp.warehouse.mapper.InventoryMapper;
 import lk.epicgreen.erp.warehouse.repository.InventoryRepository;
 import lk.epicgreen.erp.warehouse.repository.WarehouseRepository;
 import lk.epicgreen.erp.warehouse.repository.WarehouseLocationRepository;
 import lk.epicgreen.erp.warehouse.service.InventoryService;
+import lk.epicgreen.erp.warehouse.service.StockCostingService;
 import lk.epicgreen.erp.product.entity.Product;
 import lk.epicgreen.erp.product.repository.ProductRepository;
 import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
@@ -18,6 +21,7 @@ import lk.epicgreen.erp.common.exception.InvalidOperationException;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,14 +29,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of InventoryService interface
  * 
+ * Every write of an inventory row's quantities publishes an InventoryChangedEvent, so stock
+ * derived state (reorder alerts) is re-checked once the write commits.
+ * 
  * @author Epic Green Development Team
  * @version 1.0
  */
@@ -47,6 +54,8 @@ public class InventoryServiceImpl implements InventoryService {
     private final ProductRepository productRepository;
     private final WarehouseLocationRepository warehouseLocationRepository;
     private final InventoryMapper inventoryMapper;
+    private final StockCostingService stockCostingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -77,6 +86,7 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setLocation(location);
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        publishChanged(savedInventory);
         log.info("Inventory created successfully: {}", savedInventory.getId());
 
         return inventoryMapper.toResponse(savedInventory);
@@ -88,6 +98,8 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Updating inventory: {}", id);
 
         Inventory inventory = findInventoryById(id);
+        Long previousProductId = inventory.getProduct().getId();
+        Long previousWarehouseId = inventory.getWarehouse().getId();
 
         // Validate unique constraint if key fields changed
         if (!inventory.getWarehouse().getId().equals(request.getWarehouseId()) ||
@@ -122,6 +134,12 @@ public class InventoryServiceImpl implements InventoryService {
         }
 
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        publishChanged(updatedInventory);
+        if (!previousProductId.equals(updatedInventory.getProduct().getId()) ||
+            !previousWarehouseId.equals(updatedInventory.getWarehouse().getId())) {
+            // The stock it held before no longer counts for its previous product and warehouse
+            eventPublisher.publishEvent(new InventoryChangedEvent(id, previousProductId, previousWarehouseId));
+        }
         log.info("Inventory updated successfully: {}", updatedInventory.getId());
 
         return inventoryMapper.toResponse(updatedInventory);
@@ -132,20 +150,7 @@ public class InventoryServiceImpl implements InventoryService {
     public void reserveQuantity(Long inventoryId, BigDecimal quantity) {
         log.info("Reserving quantity {} for inventory: {}", quantity, inventoryId);
 
-        Inventory inventory = findInventoryById(inventoryId);
-
-        // Check if enough quantity available
-        if (inventory.getQuantityAvailable().compareTo(quantity) < 0) {
-            throw new InvalidOperationException(
-                "Insufficient quantity available. Available: " + inventory.getQuantityAvailable() + 
-                ", Requested: " + quantity);
-        }
-
-        // Update quantities
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable().subtract(quantity));
-        inventory.setQuantityReserved(inventory.getQuantityReserved().add(quantity));
-        
-        inventoryRepository.save(inventory);
+        reserveLine(inventoryId, quantity);
         log.info("Quantity reserved successfully");
     }
 
@@ -154,21 +159,32 @@ public class InventoryServiceImpl implements InventoryService {
     public void releaseReservation(Long inventoryId, BigDecimal quantity) {
         log.info("Releasing reservation {} for inventory: {}", quantity, inventoryId);
 
-        Inventory inventory = findInventoryById(inventoryId);
+        releaseLine(inventoryId, quantity);
+        log.info("Reservation released successfully");
+    }
 
-        // Check if enough quantity reserved
-        if (inventory.getQuantityReserved().compareTo(quantity) < 0) {
-            throw new InvalidOperationException(
-                "Insufficient quantity reserved. Reserved: " + inventory.getQuantityReserved() + 
-                ", Requested to release: " + quantity);
+    @Override
+    @Transactional
+    public void reserveQuantities(List<StockReservationLineRequest> lines) {
+        log.info("Reserving stock for {} lines", lines.size());
+
+        // All lines or none: a line that cannot be reserved rolls back the ones before it.
+        // Rows are locked in inventory id order, so concurrent multi-line reservations cannot deadlock.
+        for (Map.Entry<Long, BigDecimal> line : quantitiesByInventory(lines).entrySet()) {
+            reserveLine(line.getKey(), line.getValue());
         }
+        log.info("Stock reserved successfully for {} lines", lines.size());
+    }
 
-        // Update quantities
-        inventory.setQuantityReserved(inventory.getQuantityReserved().subtract(quantity));
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable().add(quantity));
-        
-        inventoryRepository.save(inventory);
-        log.info("Reservation released successfully");
+    @Override
+    @Transactional
+    public void releaseQuantities(List<StockReservationLineRequest> lines) {
+        log.info("Releasing stock reservations for {} lines", lines.size());
+
+        for (Map.Entry<Long, BigDecimal> line : quantitiesByInventory(lines).entrySet()) {
+            releaseLine(line.getKey(), line.getValue());
+        }
+        log.info("Stock reservations released successfully for {} lines", lines.size());
     }
 
     @Override
@@ -181,6 +197,7 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setLastStockDate(LocalDate.now());
         
         inventoryRepository.save(inventory);
+        publishChanged(inventory);
         log.info("Quantity available updated successfully");
     }
 
@@ -272,19 +289,83 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public BigDecimal getTotalStockValue(Long warehouseId) {
-        BigDecimal total = inventoryRepository.getInventoryValueByWarehouse(warehouseId);
-        return total != null ? total : BigDecimal.ZERO;
+        return stockCostingService.getTotalValue(warehouseId);
     }
 
     @Override
     public List<InventoryValuation> getInventoryValuation(Long warehouseId) {
-        // This would typically involve complex calculations
-        // For now, returning empty list - to be implemented based on business requirements
-        return Arrays.asList();
+        return stockCostingService.getValuation(warehouseId).stream()
+            .map(cost -> new InventoryValuation(cost.getProductId(), cost.getProductCode(), cost.getProductName(),
+                cost.getQuantityOnHand(), cost.getAverageCost(), cost.getTotalValue()))
+            .collect(Collectors.toList());
     }
 
     // ==================== PRIVATE HELPER METHODS ====================
 
+    private void reserveLine(Long inventoryId, BigDecimal quantity) {
+        validatePositiveQuantity(quantity);
+        if (inventoryRepository.reserveIfAvailable(inventoryId, quantity) == 0) {
+            Object[] current = findReservationQuantities(inventoryId);
+            throw new InvalidOperationException(
+                "Insufficient quantity available for inventory " + inventoryId + ". Available: " + current[0] + 
+                ", Requested: " + quantity);
+        }
+        publishChanged(inventoryId);
+    }
+
+    private void releaseLine(Long inventoryId, BigDecimal quantity) {
+        validatePositiveQuantity(quantity);
+        if (inventoryRepository.releaseIfReserved(inventoryId, quantity) == 0) {
+            Object[] current = findReservationQuantities(inventoryId);
+            throw new InvalidOperationException(
+                "Insufficient quantity reserved for inventory " + inventoryId + ". Reserved: " + current[1] + 
+                ", Requested to release: " + quantity);
+        }
+        publishChanged(inventoryId);
+    }
+
+    /**
+     * Total quantity per inventory row, in inventory id order
+     */
+    private Map<Long, BigDecimal> quantitiesByInventory(List<StockReservationLineRequest> lines) {
+        Map<Long, BigDecimal> quantities = new TreeMap<>();
+        for (StockReservationLineRequest line : lines) {
+            validatePositiveQuantity(line.getQuantity());
+            quantities.merge(line.getInventoryId(), line.getQuantity(), BigDecimal::add);
+        }
+        return quantities;
+    }
+
+    private void validatePositiveQuantity(BigDecimal quantity) {
+        if (quantity == null || quantity.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidOperationException("Quantity must be greater than zero");
+        }
+    }
+
+    private void publishChanged(Inventory inventory) {
+        eventPublisher.publishEvent(new InventoryChangedEvent(
+            inventory.getId(), inventory.getProduct().getId(), inventory.getWarehouse().getId()));
+    }
+
+    /**
+     * For rows written with a relative UPDATE, which are not loaded
+     */
+    private void publishChanged(Long inventoryId) {
+        List<Object[]> rows = inventoryRepository.findProductAndWarehouseIdById(inventoryId);
+        if (!rows.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(
+                inventoryId, (Long) rows.get(0)[0], (Long) rows.get(0)[1]));
+        }
+    }
+
+    private Object[] findReservationQuantities(Long inventoryId) {
+        List<Object[]> rows = inventoryRepository.findReservationQuantitiesById(inventoryId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Inventory not found: " + inventoryId);
+        }
+        return rows.get(0);
+    }
+
     private Inventory findInventoryById(Long id) {
         return inventoryRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Inventory not found: " + id));
@@ -398,15 +479,15 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     @Override
+    @Transactional
     public void reserveStock(Long id, Double quantity) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'reserveStock'");
+        reserveQuantity(id, quantity != null ? BigDecimal.valueOf(quantity) : null);
     }
 
     @Override
+    @Transactional
     public void releaseReservation(Long id, Double quantity) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'releaseReservation'");
+        releaseReservation(id, quantity != null ? BigDecimal.valueOf(quantity) : null);
     }
 
     @Override
@@ -0,0 +1,300 @@
+package lk.epicgreen.erp.warehouse.service.impl;
+
+import lk.epicgreen.erp.warehouse.dto.response.ReorderStatusResponse;
+import lk.epicgreen.erp.warehouse.entity.InventoryAlert;
+import lk.epicgreen.erp.warehouse.entity.ReorderPoint;
+import lk.epicgreen.erp.warehouse.event.InventoryChangedEvent;
+import lk.epicgreen.erp.warehouse.event.ReorderPointChangedEvent;
+import lk.epicgreen.erp.warehouse.repository.InventoryAlertRepository;
+import lk.epicgreen.erp.warehouse.repository.InventoryRepository;
+import lk.epicgreen.erp.warehouse.repository.ReorderPointRepository;
+import lk.epicgreen.erp.warehouse.service.ReorderEvaluationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ReorderEvaluationService interface
+ *
+ * A committed write of inventory quantities or reorder point change re-checks only its own
+ * product and warehouse: one SUM over that product's inventory rows, its reorder point and
+ * its open reorder alerts. Checks of the same (product, warehouse) are serialized, so
+ * concurrent writes cannot raise the same alert twice. The products below their reorder point are
+ * kept in memory for the dashboard and rebuilt once at startup.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class ReorderEvaluationServiceImpl implements ReorderEvaluationService {
+
+    private static final String ZERO_STOCK = "ZERO_STOCK";
+    private static final String LOW_STOCK = "LOW_STOCK";
+    private static final String REORDER_POINT = "REORDER_POINT";
+
+    private static final List<String> REORDER_ALERT_TYPES = Arrays.asList(ZERO_STOCK, LOW_STOCK, REORDER_POINT);
+    private static final List<String> OPEN_ALERT_STATUSES = Arrays.asList("ACTIVE", "ACKNOWLEDGED");
+    private static final String RESOLVED_BY = "SYSTEM";
+
+    private static final Comparator<ReorderStatusResponse> DASHBOARD_ORDER = Comparator
+        .comparing(ReorderStatusResponse::getWarehouseId)
+        .thenComparing(ReorderStatusResponse::getProductId);
+
+    private final ReorderPointRepository reorderPointRepository;
+    private final InventoryAlertRepository inventoryAlertRepository;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    /**
+     * Products at or below their reorder point, per "productId:warehouseId"
+     */
+    private final Map<String, ReorderStatusResponse> belowReorder = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public ReorderEvaluationServiceImpl(ReorderPointRepository reorderPointRepository,
+                                        InventoryAlertRepository inventoryAlertRepository,
+                                        InventoryRepository inventoryRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.reorderPointRepository = reorderPointRepository;
+        this.inventoryAlertRepository = inventoryAlertRepository;
+        this.inventoryRepository = inventoryRepository;
+        // Checks must only see committed stock, and their alerts must not depend on a caller's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void evaluate(Long productId, Long warehouseId) {
+        String key = key(productId, warehouseId);
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            ReorderStatusResponse status = transactionTemplate.execute(tx -> reconcile(productId, warehouseId));
+            // Published only after the alert changes have committed
+            if (status != null) {
+                belowReorder.put(key, status);
+            } else {
+                belowReorder.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void evaluateAll() {
+        long started = System.nanoTime();
+        Set<String> candidates = readOnlyTransactionTemplate.execute(tx -> findCandidates());
+        // Entries for products that recovered or lost their reorder point since they were added
+        candidates.addAll(belowReorder.keySet());
+
+        for (String key : candidates) {
+            int separator = key.indexOf(':');
+            evaluate(Long.valueOf(key.substring(0, separator)), Long.valueOf(key.substring(separator + 1)));
+        }
+        log.info("Reorder evaluation re-checked {} products, {} below reorder point, in {} ms",
+            candidates.size(), belowReorder.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public List<ReorderStatusResponse> getBelowReorder() {
+        return belowReorder.values().stream()
+            .sorted(DASHBOARD_ORDER)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ReorderStatusResponse> getBelowReorder(Long warehouseId) {
+        return belowReorder.values().stream()
+            .filter(status -> status.getWarehouseId().equals(warehouseId))
+            .sorted(DASHBOARD_ORDER)
+            .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        evaluateQuietly(event.getProductId(), event.getWarehouseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReorderPointChanged(ReorderPointChangedEvent event) {
+        evaluateQuietly(event.getProductId(), event.getWarehouseId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            evaluateAll();
+        } catch (RuntimeException e) {
+            log.error("Initial reorder evaluation failed", e);
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * The change has already committed, so a failed check is logged rather than thrown at its caller
+     */
+    private void evaluateQuietly(Long productId, Long warehouseId) {
+        if (productId == null || warehouseId == null) {
+            return;
+        }
+        try {
+            evaluate(productId, warehouseId);
+        } catch (RuntimeException e) {
+            log.error("Reorder evaluation failed for product {} in warehouse {}", productId, warehouseId, e);
+        }
+    }
+
+    /**
+     * Bring the open reorder alerts of one product in line with its stock
+     *
+     * @return its dashboard entry, or null when it is not below its reorder point
+     */
+    private ReorderStatusResponse reconcile(Long productId, Long warehouseId) {
+        ReorderPoint point = reorderPointRepository.findByProductIdAndWarehouseId(productId, warehouseId)
+            .filter(candidate -> "ACTIVE".equals(candidate.getStatus()))
+            .orElse(null);
+        BigDecimal available = inventoryRepository.getTotalAvailableQuantityByWarehouseAndProduct(warehouseId, productId);
+        if (available == null) {
+            available = BigDecimal.ZERO;
+        }
+        String alertType = point != null ? alertTypeFor(point, available) : null;
+
+        InventoryAlert current = null;
+        List<InventoryAlert> openAlerts = inventoryAlertRepository.findByProductIdAndWarehouseIdAndAlertTypeInAndAlertStatusIn(
+            productId, warehouseId, REORDER_ALERT_TYPES, OPEN_ALERT_STATUSES);
+        for (InventoryAlert alert : openAlerts) {
+            if (current == null && alert.getAlertType().equals(alertType)) {
+                current = alert;
+                if (alert.getCurrentQuantity() == null || alert.getCurrentQuantity().compareTo(available) != 0) {
+                    alert.setCurrentQuantity(available);
+                    inventoryAlertRepository.save(alert);
+                }
+            } else {
+                alert.resolve(RESOLVED_BY, alertType != null
+                    ? "Superseded by " + alertType + " at available quantity " + available.toPlainString()
+                    : "Stock recovered to " + available.toPlainString());
+                inventoryAlertRepository.save(alert);
+            }
+        }
+
+        if (alertType == null) {
+            return null;
+        }
+        if (current == null) {
+            current = inventoryAlertRepository.save(newAlert(point, alertType, available));
+            point.setLastTriggeredDate(current.getTriggeredAt());
+            reorderPointRepository.save(point);
+            log.info("{} alert raised for product {} in warehouse {} at available quantity {}",
+                alertType, productId, warehouseId, available);
+        }
+
+        return ReorderStatusResponse.builder()
+            .reorderPointId(point.getId())
+            .productId(productId)
+            .productCode(point.getProductCode())
+            .warehouseId(warehouseId)
+            .availableQuantity(available)
+            .minStockLevel(point.getMinStockLevel())
+            .reorderPoint(point.getReorderPoint())
+            .reorderQuantity(point.getReorderQuantity())
+            .alertType(alertType)
+            .alertId(current.getId())
+            .since(current.getTriggeredAt())
+            .build();
+    }
+
+    /**
+     * Products worth re-checking: those whose summed stock is at or below an ACTIVE reorder
+     * point, and those with an open reorder alert; everything else needs no alert and has none
+     */
+    private Set<String> findCandidates() {
+        Map<String, BigDecimal> availableByKey = new HashMap<>();
+        for (Object[] row : inventoryRepository.sumAvailableQuantityByProductAndWarehouse()) {
+            availableByKey.put(key((Long) row[0], (Long) row[1]), row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO);
+        }
+
+        Set<String> candidates = new LinkedHashSet<>();
+        for (ReorderPoint point : reorderPointRepository.findByStatus("ACTIVE")) {
+            String key = key(point.getProductId(), point.getWarehouseId());
+            if (alertTypeFor(point, availableByKey.getOrDefault(key, BigDecimal.ZERO)) != null) {
+                candidates.add(key);
+            }
+        }
+        for (InventoryAlert alert : inventoryAlertRepository.findByAlertTypeInAndAlertStatusIn(REORDER_ALERT_TYPES, OPEN_ALERT_STATUSES)) {
+            candidates.add(key(alert.getProductId(), alert.getWarehouseId()));
+        }
+        return candidates;
+    }
+
+    private static String alertTypeFor(ReorderPoint point, BigDecimal available) {
+        if (available.signum() <= 0) {
+            return ZERO_STOCK;
+        }
+        if (point.isBelowMinimum(available)) {
+            return LOW_STOCK;
+        }
+        if (point.shouldReorder(available)) {
+            return REORDER_POINT;
+        }
+        return null;
+    }
+
+    private static InventoryAlert newAlert(ReorderPoint point, String alertType, BigDecimal available) {
+        InventoryAlert alert = new InventoryAlert();
+        alert.setAlertType(alertType);
+        alert.setProductId(point.getProductId());
+        alert.setProductCode(point.getProductCode());
+        alert.setWarehouseId(point.getWarehouseId());
+        alert.setCurrentQuantity(available);
+        alert.setAlertStatus("ACTIVE");
+        alert.setTriggeredAt(LocalDateTime.now());
+
+        String product = point.getProductCode() != null ? point.getProductCode() : "Product " + point.getProductId();
+        switch (alertType) {
+            case ZERO_STOCK:
+                alert.setAlertSeverity("CRITICAL");
+                alert.setThresholdQuantity(point.getMinStockLevel());
+                alert.setAlertMessage(product + " is out of stock in warehouse " + point.getWarehouseId());
+                break;
+            case LOW_STOCK:
+                alert.setAlertSeverity("HIGH");
+                alert.setThresholdQuantity(point.getMinStockLevel());
+                alert.setAlertMessage(product + " is below its minimum stock level of "
+                    + point.getMinStockLevel().toPlainString() + " in warehouse " + point.getWarehouseId());
+                break;
+            default:
+                alert.setAlertSeverity("MEDIUM");
+                alert.setThresholdQuantity(point.getReorderPoint());
+                alert.setAlertMessage(product + " has reached its reorder point of "
+                    + point.getReorderPoint().toPlainString() + " in warehouse " + point.getWarehouseId());
+                break;
+        }
+        return alert;
+    }
+
+    private static String key(Long productId, Long warehouseId) {
+        return productId + ":" + warehouseId;
+    }
+}
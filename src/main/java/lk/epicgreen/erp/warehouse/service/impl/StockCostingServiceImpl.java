@@ -0,0 +1,343 @@
+package lk.epicgreen.erp.warehouse.service.impl;
+
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
+import lk.epicgreen.erp.warehouse.dto.response.StockCostResponse;
+import lk.epicgreen.erp.warehouse.entity.StockCost;
+import lk.epicgreen.erp.warehouse.entity.StockCostLayer;
+import lk.epicgreen.erp.warehouse.entity.StockMovement;
+import lk.epicgreen.erp.warehouse.repository.InventoryRepository;
+import lk.epicgreen.erp.warehouse.repository.StockCostLayerRepository;
+import lk.epicgreen.erp.warehouse.repository.StockCostRepository;
+import lk.epicgreen.erp.warehouse.service.StockCostingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of StockCostingService interface
+ *
+ * Every movement is costed against the stock_costs row of its product and warehouse, which is
+ * locked with a relative UPDATE for the rest of the recording transaction, so concurrent
+ * movements of the same product are costed one after the other and the work per movement does
+ * not grow with the history. Issues under FIFO read only the oldest open layers they consume.
+ *
+ * Issues that run stock negative are costed at the current (or last consumed) unit cost; the
+ * next receipt then values the whole position at its own cost.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class StockCostingServiceImpl implements StockCostingService {
+
+    private static final int COST_SCALE = 6;
+    private static final int VALUE_SCALE = 4;
+    private static final int MOVEMENT_COST_SCALE = 2;
+    private static final int LAYER_FETCH_SIZE = 20;
+
+    private final StockCostRepository stockCostRepository;
+    private final StockCostLayerRepository stockCostLayerRepository;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String defaultCostingMethod;
+
+    public StockCostingServiceImpl(StockCostRepository stockCostRepository,
+                                   StockCostLayerRepository stockCostLayerRepository,
+                                   InventoryRepository inventoryRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${application.warehouse.costing-method:WEIGHTED_AVERAGE}") String defaultCostingMethod) {
+        this.stockCostRepository = stockCostRepository;
+        this.stockCostLayerRepository = stockCostLayerRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A new cost row is committed on its own, so it can be locked like any other
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultCostingMethod = validateCostingMethod(defaultCostingMethod);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyMovement(StockMovement movement) {
+        int direction = costDirection(movement);
+        if (direction == 0 || movement.getProduct() == null || movement.getWarehouse() == null
+            || movement.getQuantity() == null || movement.getQuantity().signum() <= 0) {
+            return;
+        }
+
+        StockCost cost = lockedCost(movement.getProduct().getId(), movement.getWarehouse().getId());
+        if (direction > 0) {
+            receive(cost, movement);
+        } else {
+            issue(cost, movement);
+        }
+        cost.setLastMovementDate(movement.getMovementDate() != null ? movement.getMovementDate() : LocalDate.now());
+        stockCostRepository.save(cost);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockCostResponse getCost(Long productId, Long warehouseId) {
+        return stockCostRepository.findByProductIdAndWarehouseId(productId, warehouseId)
+            .map(cost -> toResponse(cost, null, null))
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Stock cost not found for product " + productId + " in warehouse " + warehouseId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockCostResponse> getValuation(Long warehouseId) {
+        return stockCostRepository.findValuationByWarehouseId(warehouseId).stream()
+            .map(row -> toResponse((StockCost) row[0], (String) row[1], (String) row[2]))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalValue(Long warehouseId) {
+        return stockCostRepository.sumTotalValueByWarehouseId(warehouseId);
+    }
+
+    @Override
+    @Transactional
+    public StockCostResponse changeCostingMethod(Long productId, Long warehouseId, String costingMethod) {
+        String method = validateCostingMethod(costingMethod);
+        StockCost cost = lockedCost(productId, warehouseId);
+        if (method.equals(cost.getCostingMethod())) {
+            return toResponse(cost, null, null);
+        }
+
+        stockCostLayerRepository.deleteAll(
+            stockCostLayerRepository.findByProductIdAndWarehouseIdOrderById(productId, warehouseId));
+        if (FIFO.equals(method) && cost.getQuantityOnHand().signum() > 0) {
+            stockCostLayerRepository.save(StockCostLayer.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .receivedDate(LocalDate.now())
+                .originalQuantity(cost.getQuantityOnHand())
+                .remainingQuantity(cost.getQuantityOnHand())
+                .unitCost(cost.getAverageCost())
+                .build());
+        }
+        cost.setCostingMethod(method);
+        StockCost saved = stockCostRepository.save(cost);
+        log.info("Costing method of product {} in warehouse {} changed to {}", productId, warehouseId, method);
+
+        return toResponse(saved, null, null);
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * +1 for movements that bring stock in, -1 for those that take it out, 0 for transfers;
+     * the same rule as the stock position queries of StockMovementRepository
+     */
+    private static int costDirection(StockMovement movement) {
+        if (movement.isReceipt() || movement.isProduction() || movement.isReturn()) {
+            return 1;
+        }
+        if (movement.isIssue() || movement.isSales()) {
+            return -1;
+        }
+        if (movement.isAdjustment()) {
+            return movement.getFromLocation() != null && movement.getToLocation() == null ? -1 : 1;
+        }
+        return 0;
+    }
+
+    /**
+     * The cost row of a product in a warehouse, locked until the current transaction ends.
+     * The row is read after the locking UPDATE, so even a repeatable-read snapshot sees its
+     * latest committed values.
+     */
+    private StockCost lockedCost(Long productId, Long warehouseId) {
+        // Checked without loading the row, so the read after the lock is not served a stale copy
+        if (!stockCostRepository.existsByProductIdAndWarehouseId(productId, warehouseId)) {
+            createCost(productId, warehouseId);
+        }
+        stockCostRepository.lock(productId, warehouseId);
+        return stockCostRepository.findByProductIdAndWarehouseId(productId, warehouseId)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Stock cost not found for product " + productId + " in warehouse " + warehouseId));
+    }
+
+    /**
+     * Create the cost row, opening it with the stock and unit costs already held in inventory
+     */
+    private void createCost(Long productId, Long warehouseId) {
+        try {
+            transactionTemplate.execute(status -> {
+                Object[] stock = inventoryRepository.summarizeStockValue(productId, warehouseId).get(0);
+                BigDecimal quantity = (BigDecimal) stock[0];
+                BigDecimal value = quantity.signum() > 0 ? ((BigDecimal) stock[1]).setScale(VALUE_SCALE, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+                BigDecimal averageCost = quantity.signum() > 0 ? value.divide(quantity, COST_SCALE, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+
+                StockCost cost = stockCostRepository.save(StockCost.builder()
+                    .productId(productId)
+                    .warehouseId(warehouseId)
+                    .costingMethod(defaultCostingMethod)
+                    .quantityOnHand(quantity)
+                    .totalValue(value)
+                    .averageCost(averageCost)
+                    .build());
+                if (cost.isFifo() && quantity.signum() > 0) {
+                    stockCostLayerRepository.save(StockCostLayer.builder()
+                        .productId(productId)
+                        .warehouseId(warehouseId)
+                        .receivedDate(LocalDate.now())
+                        .originalQuantity(quantity)
+                        .remainingQuantity(quantity)
+                        .unitCost(averageCost)
+                        .build());
+                }
+                return cost;
+            });
+            log.debug("Stock cost created for product {} in warehouse {}", productId, warehouseId);
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another node or thread
+            log.debug("Stock cost for product {} in warehouse {} already exists", productId, warehouseId);
+        }
+    }
+
+    private void receive(StockCost cost, StockMovement movement) {
+        BigDecimal quantity = movement.getQuantity();
+        BigDecimal unitCost = movement.getUnitCost();
+        if (unitCost == null) {
+            // Returns and adjustments without a cost come back at the current average
+            unitCost = cost.getAverageCost();
+            movement.setUnitCost(unitCost.setScale(MOVEMENT_COST_SCALE, RoundingMode.HALF_UP));
+        }
+
+        BigDecimal before = cost.getQuantityOnHand();
+        BigDecimal after = before.add(quantity);
+        if (cost.isFifo()) {
+            // Stock issued short is settled first; only the rest opens a layer
+            BigDecimal layerQuantity = before.signum() < 0 ? after : quantity;
+            if (layerQuantity.signum() > 0) {
+                stockCostLayerRepository.save(StockCostLayer.builder()
+                    .productId(cost.getProductId())
+                    .warehouseId(cost.getWarehouseId())
+                    .receivedDate(movement.getMovementDate() != null ? movement.getMovementDate() : LocalDate.now())
+                    .originalQuantity(layerQuantity)
+                    .remainingQuantity(layerQuantity)
+                    .unitCost(unitCost)
+                    .build());
+            }
+        }
+
+        if (before.signum() > 0 && after.signum() > 0) {
+            BigDecimal value = cost.getTotalValue().add(quantity.multiply(unitCost));
+            cost.setTotalValue(value.setScale(VALUE_SCALE, RoundingMode.HALF_UP));
+            cost.setAverageCost(value.divide(after, COST_SCALE, RoundingMode.HALF_UP));
+        } else {
+            cost.setTotalValue(after.multiply(unitCost).setScale(VALUE_SCALE, RoundingMode.HALF_UP));
+            cost.setAverageCost(unitCost.setScale(COST_SCALE, RoundingMode.HALF_UP));
+        }
+        cost.setQuantityOnHand(after);
+    }
+
+    private void issue(StockCost cost, StockMovement movement) {
+        BigDecimal quantity = movement.getQuantity();
+        BigDecimal after = cost.getQuantityOnHand().subtract(quantity);
+        BigDecimal issuedValue;
+        BigDecimal closingCost;
+        if (cost.isFifo()) {
+            BigDecimal[] consumed = consumeLayers(cost, quantity);
+            issuedValue = consumed[0];
+            closingCost = consumed[1];
+        } else {
+            issuedValue = quantity.multiply(cost.getAverageCost());
+            closingCost = cost.getAverageCost();
+        }
+
+        if (after.signum() > 0) {
+            BigDecimal value = cost.getTotalValue().subtract(issuedValue).setScale(VALUE_SCALE, RoundingMode.HALF_UP);
+            cost.setTotalValue(value);
+            if (cost.isFifo()) {
+                cost.setAverageCost(value.divide(after, COST_SCALE, RoundingMode.HALF_UP));
+            }
+        } else {
+            // Nothing left (or short): drop rounding residue and carry the last cost
+            cost.setTotalValue(after.multiply(closingCost).setScale(VALUE_SCALE, RoundingMode.HALF_UP));
+            cost.setAverageCost(closingCost.setScale(COST_SCALE, RoundingMode.HALF_UP));
+        }
+        cost.setQuantityOnHand(after);
+        movement.setUnitCost(issuedValue.divide(quantity, MOVEMENT_COST_SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Take a quantity from the oldest layers; returns its value and the unit cost of the last
+     * layer used. A quantity beyond the open layers is valued at that last cost.
+     */
+    private BigDecimal[] consumeLayers(StockCost cost, BigDecimal quantity) {
+        BigDecimal remaining = quantity;
+        BigDecimal value = BigDecimal.ZERO;
+        BigDecimal lastCost = cost.getAverageCost();
+        while (remaining.signum() > 0) {
+            // Layers used up so far are flushed before this query and no longer match
+            List<StockCostLayer> layers = stockCostLayerRepository.findOpenLayers(
+                cost.getProductId(), cost.getWarehouseId(), PageRequest.of(0, LAYER_FETCH_SIZE));
+            for (StockCostLayer layer : layers) {
+                BigDecimal take = remaining.min(layer.getRemainingQuantity());
+                value = value.add(take.multiply(layer.getUnitCost()));
+                lastCost = layer.getUnitCost();
+                remaining = remaining.subtract(take);
+                layer.setRemainingQuantity(layer.getRemainingQuantity().subtract(take));
+                if (layer.getRemainingQuantity().signum() == 0) {
+                    stockCostLayerRepository.delete(layer);
+                }
+                if (remaining.signum() == 0) {
+                    break;
+                }
+            }
+            if (layers.size() < LAYER_FETCH_SIZE) {
+                break;
+            }
+        }
+        if (remaining.signum() > 0) {
+            log.warn("Issued {} of product {} in warehouse {} beyond its cost layers, costed at {}",
+                remaining, cost.getProductId(), cost.getWarehouseId(), lastCost);
+            value = value.add(remaining.multiply(lastCost));
+        }
+        return new BigDecimal[] {value, lastCost};
+    }
+
+    private static String validateCostingMethod(String costingMethod) {
+        if (!WEIGHTED_AVERAGE.equals(costingMethod) && !FIFO.equals(costingMethod)) {
+            throw new InvalidOperationException("Unknown costing method: " + costingMethod +
+                ". Use " + WEIGHTED_AVERAGE + " or " + FIFO);
+        }
+        return costingMethod;
+    }
+
+    private static StockCostResponse toResponse(StockCost cost, String productCode, String productName) {
+        return StockCostResponse.builder()
+            .productId(cost.getProductId())
+            .productCode(productCode)
+            .productName(productName)
+            .warehouseId(cost.getWarehouseId())
+            .costingMethod(cost.getCostingMethod())
+            .quantityOnHand(cost.getQuantityOnHand())
+            .averageCost(cost.getAverageCost())
+            .totalValue(cost.getTotalValue())
+            .lastMovementDate(cost.getLastMovementDate())
+            .updatedAt(cost.getUpdatedAt())
+            .build();
+    }
+}
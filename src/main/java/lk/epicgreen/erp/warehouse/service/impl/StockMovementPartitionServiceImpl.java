@@ -0,0 +1,344 @@
+package lk.epicgreen.erp.warehouse.service.impl;
+
+import lk.epicgreen.erp.common.exception.InvalidOperationException;
+import lk.epicgreen.erp.warehouse.dto.response.StockMovementPartitionResponse;
+import lk.epicgreen.erp.warehouse.repository.StockMovementArchive;
+import lk.epicgreen.erp.warehouse.repository.StockValuationRepository;
+import lk.epicgreen.erp.warehouse.service.StockMovementPartitionService;
+import lk.epicgreen.erp.warehouse.service.StockSnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of StockMovementPartitionService interface
+ *
+ * Partitions are named pYYYYMM and hold movement_date values below the first day of the next
+ * month; p_future (MAXVALUE) takes anything beyond the last month. New months are split off
+ * p_future, which is empty in normal operation, so creating them is a metadata change.
+ *
+ * A month is archived with INSERT IGNORE ... SELECT from its partition followed by DROP
+ * PARTITION, so a run interrupted between the two is completed by the next one. Before that,
+ * stock snapshots are brought up to the archived months, because as-of stock queries and
+ * snapshot rebuilds only read live movements.
+ *
+ * MySQL requires the partitioning column in every unique key and does not allow foreign keys
+ * on partitioned tables, so converting the table changes the primary key to
+ * (id, movement_date) and drops its foreign keys.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class StockMovementPartitionServiceImpl implements StockMovementPartitionService {
+
+    private static final String TABLE = "stock_movements";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockMovementArchive stockMovementArchive;
+    private final StockSnapshotService stockSnapshotService;
+    private final StockValuationRepository stockValuationRepository;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private final boolean convertTable;
+
+    /**
+     * Serializes DDL on stock_movements from this node
+     */
+    private final Object maintenanceLock = new Object();
+
+    public StockMovementPartitionServiceImpl(JdbcTemplate jdbcTemplate,
+                                             StockMovementArchive stockMovementArchive,
+                                             StockSnapshotService stockSnapshotService,
+                                             StockValuationRepository stockValuationRepository,
+                                             @Value("${application.warehouse.movement-partitions-ahead-months:3}") int monthsAhead,
+                                             @Value("${application.warehouse.movement-archive-after-months:24}") int archiveAfterMonths,
+                                             @Value("${application.warehouse.movement-partitioning-convert:false}") boolean convertTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockMovementArchive = stockMovementArchive;
+        this.stockSnapshotService = stockSnapshotService;
+        this.stockValuationRepository = stockValuationRepository;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.archiveAfterMonths = Math.max(0, archiveAfterMonths);
+        this.convertTable = convertTable;
+    }
+
+    @Override
+    public List<StockMovementPartitionResponse> getPartitions() {
+        return readPartitions().stream()
+            .map(partition -> StockMovementPartitionResponse.builder()
+                .partitionName(partition.name)
+                .lessThan(partition.lessThan)
+                .estimatedRows(partition.rows)
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean partitionTable() {
+        synchronized (maintenanceLock) {
+            if (!readPartitions().isEmpty()) {
+                return false;
+            }
+            LocalDate earliest = jdbcTemplate.queryForObject("SELECT MIN(movement_date) FROM " + TABLE, LocalDate.class);
+            LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+            LocalDate firstMonth = earliest != null && earliest.isBefore(currentMonth) ? earliest.withDayOfMonth(1) : currentMonth;
+            LocalDate lastMonth = currentMonth.plusMonths(monthsAhead);
+
+            List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+                String.class, TABLE);
+            for (String foreignKey : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY " + foreignKey);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, movement_date)");
+
+            List<String> definitions = monthDefinitions(firstMonth, lastMonth);
+            definitions.add(futureDefinition());
+            long started = System.nanoTime();
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(movement_date) (" +
+                String.join(", ", definitions) + ")");
+
+            log.info("Partitioned {} into {} monthly partitions from {} in {} ms (dropped foreign keys: {})",
+                TABLE, definitions.size() - 1, firstMonth, (System.nanoTime() - started) / 1_000_000, foreignKeys);
+            return true;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int createPartitions() {
+        synchronized (maintenanceLock) {
+            List<Partition> partitions = readPartitions();
+            if (partitions.isEmpty()) {
+                if (convertTable) {
+                    partitionTable();
+                } else {
+                    log.debug("{} is not partitioned; set application.warehouse.movement-partitioning-convert to convert it", TABLE);
+                }
+                return 0;
+            }
+
+            LocalDate highest = null;
+            boolean hasFuture = false;
+            for (Partition partition : partitions) {
+                if (partition.lessThan == null) {
+                    hasFuture = true;
+                } else if (highest == null || partition.lessThan.isAfter(highest)) {
+                    highest = partition.lessThan;
+                }
+            }
+            LocalDate firstMonth = highest != null ? highest : LocalDate.now().withDayOfMonth(1);
+            LocalDate lastMonth = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead);
+            if (firstMonth.isAfter(lastMonth)) {
+                return 0;
+            }
+
+            List<String> definitions = monthDefinitions(firstMonth, lastMonth);
+            if (hasFuture) {
+                definitions.add(futureDefinition());
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION +
+                    " INTO (" + String.join(", ", definitions) + ")");
+                definitions.remove(definitions.size() - 1);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PARTITION (" + String.join(", ", definitions) + ")");
+            }
+            log.info("Created {} stock movement partitions from {} to {}", definitions.size(), firstMonth, lastMonth);
+            return definitions.size();
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int archiveClosedPartitions() {
+        if (archiveAfterMonths == 0) {
+            return 0;
+        }
+        synchronized (maintenanceLock) {
+            LocalDate cutoff = closedBefore();
+            List<Partition> closed = new ArrayList<>();
+            for (Partition partition : readPartitions()) {
+                if (partition.lessThan != null && !partition.lessThan.isAfter(cutoff)) {
+                    closed.add(partition);
+                }
+            }
+            if (closed.isEmpty()) {
+                return 0;
+            }
+            LocalDate boundary = closed.get(closed.size() - 1).lessThan;
+
+            // Snapshots must cover every archived day before its movements leave the live table
+            stockSnapshotService.refreshSnapshots(boundary.minusDays(1));
+            LocalDate lastMovement = jdbcTemplate.queryForObject(
+                "SELECT MAX(movement_date) FROM " + TABLE + " WHERE movement_date < ?", LocalDate.class, boundary);
+            LocalDate latestSnapshot = stockValuationRepository.findLatestValuationDate();
+            if (lastMovement != null && (latestSnapshot == null || latestSnapshot.isBefore(lastMovement))) {
+                log.warn("Stock movement archiving skipped: snapshots end at {} but movements to archive run to {}",
+                    latestSnapshot, lastMovement);
+                return 0;
+            }
+
+            String columns = prepareArchiveTable();
+            int archived = 0;
+            for (Partition partition : closed) {
+                long started = System.nanoTime();
+                int rows = jdbcTemplate.update("INSERT IGNORE INTO " + StockMovementArchive.TABLE + " (" + columns + ") " +
+                    "SELECT " + columns + " FROM " + TABLE + " PARTITION (" + partition.name + ")");
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition.name);
+                stockMovementArchive.advanceTo(partition.lessThan);
+                archived++;
+                log.info("Archived stock movement partition {} ({} rows) in {} ms",
+                    partition.name, rows, (System.nanoTime() - started) / 1_000_000);
+            }
+            return archived;
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${application.warehouse.movement-partition-maintenance-cron:0 30 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void maintainPartitions() {
+        try {
+            createPartitions();
+        } catch (RuntimeException e) {
+            log.error("Failed to create stock movement partitions", e);
+        }
+        try {
+            archiveClosedPartitions();
+        } catch (RuntimeException e) {
+            log.error("Failed to archive stock movement partitions", e);
+        }
+        try {
+            // Picks up months archived by other nodes
+            stockMovementArchive.refresh();
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh the stock movement archive boundary", e);
+        }
+    }
+
+    @Override
+    public void checkOpenPeriod(LocalDate movementDate) {
+        LocalDate closedBefore = closedBefore();
+        LocalDate archivedBefore = stockMovementArchive.getArchivedBefore();
+        if (archivedBefore != null && (closedBefore == null || archivedBefore.isAfter(closedBefore))) {
+            closedBefore = archivedBefore;
+        }
+        if (movementDate != null && closedBefore != null && movementDate.isBefore(closedBefore)) {
+            throw new InvalidOperationException("Stock movements cannot be dated before " + closedBefore +
+                ": the period is closed and archived");
+        }
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * First day of the oldest month that is still open, or null when archiving is disabled
+     * Derived from the clock, so every node closes the same months without coordination
+     */
+    private LocalDate closedBefore() {
+        return archiveAfterMonths > 0 ? LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths) : null;
+    }
+
+    private List<Partition> readPartitions() {
+        return jdbcTemplate.query(
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION",
+            (rs, rowNum) -> new Partition(rs.getString(1), parseBound(rs.getString(2)), rs.getLong(3)),
+            TABLE);
+    }
+
+    /**
+     * Partition definitions for the months from firstMonth through lastMonth
+     */
+    private static List<String> monthDefinitions(LocalDate firstMonth, LocalDate lastMonth) {
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + PARTITION_NAME.format(month) + " VALUES LESS THAN ('" + month.plusMonths(1) + "')");
+        }
+        return definitions;
+    }
+
+    private static String futureDefinition() {
+        return "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)";
+    }
+
+    /**
+     * RANGE COLUMNS bounds are reported quoted, e.g. '2026-11-01'
+     */
+    private static LocalDate parseBound(String description) {
+        if (description == null || "MAXVALUE".equalsIgnoreCase(description)) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim());
+    }
+
+    /**
+     * Create the archive table on first use and add columns stock_movements gained since
+     *
+     * @return column list shared by both tables, in stock_movements order
+     */
+    private String prepareArchiveTable() {
+        if (!stockMovementArchive.exists()) {
+            jdbcTemplate.execute("CREATE TABLE " + StockMovementArchive.TABLE + " LIKE " + TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + StockMovementArchive.TABLE + " REMOVE PARTITIONING");
+            jdbcTemplate.execute("ALTER TABLE " + StockMovementArchive.TABLE + " ROW_FORMAT=COMPRESSED");
+            log.info("Created compressed stock movement archive table {}", StockMovementArchive.TABLE);
+        }
+
+        Map<String, String> liveColumns = readColumns(TABLE);
+        Map<String, String> archiveColumns = readColumns(StockMovementArchive.TABLE);
+        for (Map.Entry<String, String> column : liveColumns.entrySet()) {
+            if (!archiveColumns.containsKey(column.getKey())) {
+                jdbcTemplate.execute("ALTER TABLE " + StockMovementArchive.TABLE +
+                    " ADD COLUMN `" + column.getKey() + "` " + column.getValue() + " NULL");
+            }
+        }
+        return liveColumns.keySet().stream()
+            .map(column -> "`" + column + "`")
+            .collect(Collectors.joining(", "));
+    }
+
+    private Map<String, String> readColumns(String table) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT COLUMN_NAME, COLUMN_TYPE FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION",
+            rs -> {
+                columns.put(rs.getString(1), rs.getString(2));
+            },
+            table);
+        return columns;
+    }
+
+    private static final class Partition {
+        private final String name;
+        private final LocalDate lessThan;
+        private final long rows;
+
+        private Partition(String name, LocalDate lessThan, long rows) {
+            this.name = name;
+            this.lessThan = lessThan;
+            this.rows = rows;
+        }
+    }
+}
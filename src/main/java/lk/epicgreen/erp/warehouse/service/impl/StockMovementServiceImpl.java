@@ -2,14 +2,20 @@ package lk.epicgreen.erp.warehouse.service.impl;
 
 import lk.epicgreen.erp.warehouse.dto.request.StockMovementRequest;
 import lk.epicgreen.erp.warehouse.dto.response.StockMovementResponse;
+import lk.epicgreen.erp.warehouse.dto.response.StockPositionResponse;
 import lk.epicgreen.erp.warehouse.entity.StockMovement;
 import lk.epicgreen.erp.warehouse.entity.Warehouse;
 import lk.epicgreen.erp.warehouse.entity.WarehouseLocation;
+import lk.epicgreen.erp.warehouse.event.StockMovementRecordedEvent;
 import lk.epicgreen.erp.warehouse.mapper.StockMovementMapper;
 import lk.epicgreen.erp.warehouse.repository.StockMovementRepository;
 import lk.epicgreen.erp.warehouse.repository.WarehouseRepository;
 import lk.epicgreen.erp.warehouse.repository.WarehouseLocationRepository;
+import lk.epicgreen.erp.warehouse.service.InventoryBatchService;
+import lk.epicgreen.erp.warehouse.service.StockCostingService;
+import lk.epicgreen.erp.warehouse.service.StockMovementPartitionService;
 import lk.epicgreen.erp.warehouse.service.StockMovementService;
+import lk.epicgreen.erp.warehouse.service.StockSnapshotService;
 import lk.epicgreen.erp.product.entity.Product;
 import lk.epicgreen.erp.product.repository.ProductRepository;
 import lk.epicgreen.erp.admin.entity.UnitOfMeasure;
@@ -18,14 +24,17 @@ import lk.epicgreen.erp.common.exception.ResourceNotFoundException;
 import lk.epicgreen.erp.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -52,6 +61,11 @@ public class StockMovementServiceImpl implements StockMovementService {
     private final WarehouseLocationRepository warehouseLocationRepository;
     private final UnitOfMeasureRepository unitOfMeasureRepository;
     private final StockMovementMapper stockMovementMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockSnapshotService stockSnapshotService;
+    private final StockMovementPartitionService stockMovementPartitionService;
+    private final StockCostingService stockCostingService;
+    private final InventoryBatchService inventoryBatchService;
 
     @Override
     @Transactional
@@ -86,8 +100,13 @@ public class StockMovementServiceImpl implements StockMovementService {
         movement.setUom(uom);
         movement.setFromLocation(fromLocation);
         movement.setToLocation(toLocation);
+        stockMovementPartitionService.checkOpenPeriod(movement.getMovementDate());
+        stockCostingService.applyMovement(movement);
 
         StockMovement savedMovement = stockMovementRepository.save(movement);
+        inventoryBatchService.applyMovement(savedMovement);
+        stockSnapshotService.onMovementDated(savedMovement.getMovementDate());
+        publishRecorded(savedMovement);
         log.info("Stock movement created successfully: {}", savedMovement.getId());
 
         return stockMovementMapper.toResponse(savedMovement);
@@ -148,8 +167,15 @@ public class StockMovementServiceImpl implements StockMovementService {
         return stockMovementRepository.findByMovementDateBetween(startDate, endDate);
     }
 
+    @Transactional
     public StockMovement create(StockMovement movement) {
-        return stockMovementRepository.save(movement);
+        stockMovementPartitionService.checkOpenPeriod(movement.getMovementDate());
+        stockCostingService.applyMovement(movement);
+        StockMovement savedMovement = stockMovementRepository.save(movement);
+        inventoryBatchService.applyMovement(savedMovement);
+        stockSnapshotService.onMovementDated(savedMovement.getMovementDate());
+        publishRecorded(savedMovement);
+        return savedMovement;
     }
 
     @Override
@@ -224,6 +250,26 @@ public class StockMovementServiceImpl implements StockMovementService {
             .orElseThrow(() -> new ResourceNotFoundException("Unit of measure not found: " + id));
     }
 
+    /**
+     * Sum a cumulative total over the current stock positions (served from the latest stock snapshot)
+     */
+    private Double sumPositions(Long warehouseId, Long productId, Function<StockPositionResponse, BigDecimal> total) {
+        return stockSnapshotService.getPositionsAsOf(LocalDate.now(), warehouseId, productId).stream()
+            .map(total)
+            .reduce(BigDecimal.ZERO, BigDecimal::add)
+            .doubleValue();
+    }
+
+    private void publishRecorded(StockMovement movement) {
+        eventPublisher.publishEvent(new StockMovementRecordedEvent(
+            movement.getId(),
+            movement.getProduct() != null ? movement.getProduct().getId() : null,
+            movement.getWarehouse() != null ? movement.getWarehouse().getId() : null,
+            movement.getMovementType(),
+            movement.getBatchNumber(),
+            movement.getQuantity()));
+    }
+
     private PageResponse<StockMovementResponse> createPageResponse(Page<StockMovement> movementPage) {
         List<StockMovementResponse> content = movementPage.getContent().stream()
             .map(stockMovementMapper::toResponse)
@@ -393,26 +439,22 @@ public class StockMovementServiceImpl implements StockMovementService {
 
     @Override
     public Double getTotalQuantityInByProduct(Long productId) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getTotalQuantityInByProduct'");
+        return sumPositions(null, productId, StockPositionResponse::getQuantityIn);
     }
 
     @Override
     public Double getTotalQuantityOutByProduct(Long productId) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getTotalQuantityOutByProduct'");
+        return sumPositions(null, productId, StockPositionResponse::getQuantityOut);
     }
 
     @Override
     public Double getTotalValueInByWarehouse(Long warehouseId) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getTotalValueInByWarehouse'");
+        return sumPositions(warehouseId, null, StockPositionResponse::getValueIn);
     }
 
     @Override
     public Double getTotalValueOutByWarehouse(Long warehouseId) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getTotalValueOutByWarehouse'");
+        return sumPositions(warehouseId, null, StockPositionResponse::getValueOut);
     }
 
     @Override
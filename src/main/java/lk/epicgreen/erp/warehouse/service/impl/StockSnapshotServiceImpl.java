@@ -0,0 +1,418 @@
+package lk.epicgreen.erp.warehouse.service.impl;
+
+import lk.epicgreen.erp.warehouse.dto.response.StockPositionResponse;
+import lk.epicgreen.erp.warehouse.entity.StockSnapshotInvalidation;
+import lk.epicgreen.erp.warehouse.entity.StockValuation;
+import lk.epicgreen.erp.warehouse.repository.StockMovementRepository;
+import lk.epicgreen.erp.warehouse.repository.StockSnapshotInvalidationRepository;
+import lk.epicgreen.erp.warehouse.repository.StockValuationJdbcRepository;
+import lk.epicgreen.erp.warehouse.repository.StockValuationRepository;
+import lk.epicgreen.erp.warehouse.service.StockSnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of StockSnapshotService interface
+ *
+ * A snapshot day is the previous snapshot plus that day's movement totals, so catching up
+ * reads each movement once: movement totals are grouped by the database per day, warehouse,
+ * product and batch, a month at a time, and folded into running positions in memory. Days
+ * without movements get no snapshot, which is correct because as-of reads use the latest
+ * snapshot on or before the date. Each day is written with JDBC batches in its own
+ * transaction, so an interrupted backfill resumes where it stopped.
+ *
+ * A movement dated before today records an invalidation in stock_snapshot_invalidations in
+ * its own transaction and removes the snapshots on or after its date once it has committed;
+ * the nightly refresh rebuilds them. An invalidation whose removal failed stays pending:
+ * as-of reads ignore the snapshots it covers and the next refresh removes them. Each day is written only if no invalidation was recorded since the
+ * refresh started (checked after the inserts, so an invalidation that is still running either
+ * blocks the inserts until it commits or deletes them once they commit), on any node.
+ *
+ * @author Epic Green Development Team
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class StockSnapshotServiceImpl implements StockSnapshotService {
+
+    private final StockValuationRepository stockValuationRepository;
+    private final StockValuationJdbcRepository stockValuationJdbcRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotInvalidationRepository invalidationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int chunkDays;
+    private final int insertBatchSize;
+
+    /**
+     * Serializes snapshot writers on this node
+     */
+    private final Object refreshLock = new Object();
+
+    public StockSnapshotServiceImpl(StockValuationRepository stockValuationRepository,
+                                    StockValuationJdbcRepository stockValuationJdbcRepository,
+                                    StockMovementRepository stockMovementRepository,
+                                    StockSnapshotInvalidationRepository invalidationRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${application.warehouse.stock-snapshot-chunk-days:31}") int chunkDays,
+                                    @Value("${application.warehouse.stock-snapshot-insert-batch-size:1000}") int insertBatchSize) {
+        this.stockValuationRepository = stockValuationRepository;
+        this.stockValuationJdbcRepository = stockValuationJdbcRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.invalidationRepository = invalidationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.chunkDays = Math.max(1, chunkDays);
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+    }
+
+    @Override
+    public List<StockPositionResponse> getPositionsAsOf(LocalDate asOfDate, Long warehouseId, Long productId) {
+        // Snapshots from a pending invalidation on are stale
+        LocalDate snapshotUpTo = asOfDate;
+        LocalDate invalidFrom = invalidationRepository.findEarliestPendingFromDate();
+        if (invalidFrom != null && !invalidFrom.isAfter(asOfDate)) {
+            snapshotUpTo = invalidFrom.minusDays(1);
+        }
+        LocalDate snapshotDate = stockValuationRepository.findLatestValuationDateUpTo(snapshotUpTo);
+
+        Map<String, Position> positions = new LinkedHashMap<>();
+        if (snapshotDate != null) {
+            for (StockValuation row : stockValuationRepository.findPositions(snapshotDate, warehouseId, productId)) {
+                positionOf(positions, row.getWarehouseId(), row.getProductId(), row.getBatchNumber()).add(row);
+            }
+        }
+        if (snapshotDate == null || snapshotDate.isBefore(asOfDate)) {
+            for (Object[] row : stockMovementRepository.summarizePositionChanges(snapshotDate, asOfDate, warehouseId, productId)) {
+                positionOf(positions, (Long) row[0], (Long) row[1], (String) row[2]).add(row, 3);
+            }
+        }
+
+        return positions.values().stream()
+            .map(position -> position.toResponse(asOfDate, snapshotDate))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int refreshSnapshots(LocalDate upToDate) {
+        synchronized (refreshLock) {
+            long started = System.nanoTime();
+            // Read before any movements, so an invalidation committing after this point stops the writes
+            Long epoch = transactionTemplate.execute(status -> {
+                Long latestId = invalidationRepository.findLatestId();
+                applyPendingInvalidations();
+                invalidationRepository.deleteOlderThan(latestId);
+                return latestId;
+            });
+
+            LocalDate latest = readOnlyTransactionTemplate.execute(status -> stockValuationRepository.findLatestValuationDate());
+            Map<String, Position> positions = new HashMap<>();
+            LocalDate afterDate;
+            if (latest != null) {
+                if (!latest.isBefore(upToDate)) {
+                    return 0;
+                }
+                List<StockValuation> rows = readOnlyTransactionTemplate.execute(status -> stockValuationRepository.findByValuationDate(latest));
+                for (StockValuation row : rows) {
+                    positionOf(positions, row.getWarehouseId(), row.getProductId(), row.getBatchNumber()).add(row);
+                }
+                afterDate = latest;
+            } else {
+                LocalDate earliest = readOnlyTransactionTemplate.execute(status -> stockMovementRepository.findEarliestMovementDate());
+                if (earliest == null || earliest.isAfter(upToDate)) {
+                    return 0;
+                }
+                afterDate = earliest.minusDays(1);
+                log.info("No stock snapshots yet, backfilling from {}", earliest);
+            }
+
+            int written = 0;
+            while (afterDate.isBefore(upToDate)) {
+                LocalDate from = afterDate;
+                LocalDate to = afterDate.plusDays(chunkDays).isBefore(upToDate) ? afterDate.plusDays(chunkDays) : upToDate;
+                List<Object[]> rows = readOnlyTransactionTemplate.execute(status ->
+                    stockMovementRepository.summarizePositionChangesByDay(from, to));
+
+                LocalDate day = null;
+                for (Object[] row : rows) {
+                    LocalDate movementDate = (LocalDate) row[0];
+                    if (day != null && !movementDate.equals(day)) {
+                        if (!writeSnapshot(day, positions, epoch)) {
+                            return written;
+                        }
+                        written++;
+                    }
+                    day = movementDate;
+                    positionOf(positions, (Long) row[1], (Long) row[2], (String) row[3]).add(row, 4);
+                }
+                if (day != null) {
+                    if (!writeSnapshot(day, positions, epoch)) {
+                        return written;
+                    }
+                    written++;
+                }
+                afterDate = to;
+            }
+
+            log.info("Stock snapshots refreshed up to {}: {} days written, {} open positions, in {} ms",
+                upToDate, written, positions.size(), (System.nanoTime() - started) / 1_000_000);
+            return written;
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${application.warehouse.stock-snapshot-cron:0 15 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void refreshAllSnapshots() {
+        try {
+            refreshSnapshots(LocalDate.now().minusDays(1));
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh stock snapshots", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onMovementDated(LocalDate movementDate) {
+        // Snapshots only exist for completed days, so movements dated today or later never affect them
+        if (movementDate == null || !movementDate.isBefore(LocalDate.now())) {
+            return;
+        }
+        // Commits with the movement, so the invalidation outlives a failed removal below
+        StockSnapshotInvalidation invalidation = new StockSnapshotInvalidation();
+        invalidation.setFromDate(movementDate);
+        invalidation.setCreatedAt(LocalDateTime.now());
+        Long invalidationId = invalidationRepository.save(invalidation).getId();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateFrom(invalidationId, movementDate);
+            return;
+        }
+        // A refresh may read movements until the movement commits, so delete after that
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    invalidateFrom(invalidationId, movementDate);
+                } catch (RuntimeException e) {
+                    log.error("Failed to invalidate stock snapshots from {}; the nightly refresh will retry", movementDate, e);
+                }
+            }
+        });
+    }
+
+    // ===================================================================
+    // PRIVATE HELPER METHODS
+    // ===================================================================
+
+    /**
+     * Delete the snapshots an invalidation affects and mark it applied, in one transaction
+     */
+    private void invalidateFrom(Long invalidationId, LocalDate movementDate) {
+        Integer removed = transactionTemplate.execute(status -> {
+            int deleted = stockValuationRepository.deleteFromDate(movementDate);
+            invalidationRepository.markApplied(Collections.singletonList(invalidationId), LocalDateTime.now());
+            return deleted;
+        });
+        if (removed != null && removed > 0) {
+            log.info("Back-dated stock movement on {} invalidated {} stock snapshot rows", movementDate, removed);
+        }
+    }
+
+    /**
+     * Delete the snapshots of invalidations left pending by a failed removal
+     */
+    private void applyPendingInvalidations() {
+        List<StockSnapshotInvalidation> pending = invalidationRepository.findByAppliedAtIsNull();
+        if (pending.isEmpty()) {
+            return;
+        }
+        LocalDate fromDate = pending.stream().map(StockSnapshotInvalidation::getFromDate).min(LocalDate::compareTo).get();
+        int removed = stockValuationRepository.deleteFromDate(fromDate);
+        invalidationRepository.markApplied(
+            pending.stream().map(StockSnapshotInvalidation::getId).collect(Collectors.toList()), LocalDateTime.now());
+        log.info("Pending invalidations from {} removed {} stock snapshot rows", fromDate, removed);
+    }
+
+    /**
+     * Write the closing positions of a day; false when an invalidation happened since the
+     * positions were loaded, in which case nothing is written
+     */
+    private boolean writeSnapshot(LocalDate day, Map<String, Position> positions, Long epoch) {
+        retireClosedBatches(positions);
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<StockValuation> rows = new ArrayList<>(positions.size());
+        for (Position position : positions.values()) {
+            rows.add(position.toValuation(day, createdAt));
+        }
+
+        Boolean committed = transactionTemplate.execute(status -> {
+            for (int from = 0; from < rows.size(); from += insertBatchSize) {
+                stockValuationJdbcRepository.batchInsert(rows.subList(from, Math.min(from + insertBatchSize, rows.size())));
+            }
+            // Checked after the inserts: an invalidation that committed first is visible here,
+            // and one still running deletes these rows once they commit
+            if (!epoch.equals(invalidationRepository.findLatestId())) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(committed)) {
+            log.info("Stock snapshot refresh stopped at {}: a back-dated movement invalidated snapshots", day);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Fold batches whose quantity reached zero into the product's row without batch number
+     */
+    private static void retireClosedBatches(Map<String, Position> positions) {
+        List<Position> closed = new ArrayList<>();
+        for (Iterator<Position> it = positions.values().iterator(); it.hasNext(); ) {
+            Position position = it.next();
+            if (position.batchNumber != null && position.quantity().signum() == 0) {
+                closed.add(position);
+                it.remove();
+            }
+        }
+        for (Position position : closed) {
+            positionOf(positions, position.warehouseId, position.productId, null).add(position);
+        }
+    }
+
+    private static Position positionOf(Map<String, Position> positions, Long warehouseId, Long productId, String batchNumber) {
+        return positions.computeIfAbsent(warehouseId + ":" + productId + ":" + (batchNumber != null ? batchNumber : ""),
+            key -> new Position(warehouseId, productId, batchNumber));
+    }
+
+    private static BigDecimal amount(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        // CASE expressions can come back as another numeric type when every row took the literal branch
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Running cumulative totals of one (warehouse, product, batch)
+     */
+    private static final class Position {
+        private final Long warehouseId;
+        private final Long productId;
+        private final String batchNumber;
+        private BigDecimal quantityIn = BigDecimal.ZERO;
+        private BigDecimal quantityOut = BigDecimal.ZERO;
+        private BigDecimal valueIn = BigDecimal.ZERO;
+        private BigDecimal valueOut = BigDecimal.ZERO;
+
+        private Position(Long warehouseId, Long productId, String batchNumber) {
+            this.warehouseId = warehouseId;
+            this.productId = productId;
+            this.batchNumber = batchNumber;
+        }
+
+        private void add(StockValuation row) {
+            quantityIn = quantityIn.add(orZero(row.getQuantityIn()));
+            quantityOut = quantityOut.add(orZero(row.getQuantityOut()));
+            valueIn = valueIn.add(orZero(row.getValueIn()));
+            valueOut = valueOut.add(orZero(row.getValueOut()));
+        }
+
+        /**
+         * Add movement totals starting at the given column: quantityIn, quantityOut, valueIn, valueOut
+         */
+        private void add(Object[] row, int offset) {
+            quantityIn = quantityIn.add(amount(row[offset]));
+            quantityOut = quantityOut.add(amount(row[offset + 1]));
+            valueIn = valueIn.add(amount(row[offset + 2]));
+            valueOut = valueOut.add(amount(row[offset + 3]));
+        }
+
+        private void add(Position other) {
+            quantityIn = quantityIn.add(other.quantityIn);
+            quantityOut = quantityOut.add(other.quantityOut);
+            valueIn = valueIn.add(other.valueIn);
+            valueOut = valueOut.add(other.valueOut);
+        }
+
+        private BigDecimal quantity() {
+            return quantityIn.subtract(quantityOut);
+        }
+
+        private BigDecimal value() {
+            return valueIn.subtract(valueOut);
+        }
+
+        private BigDecimal unitCost() {
+            BigDecimal quantity = quantity();
+            return quantity.signum() != 0 ? value().divide(quantity, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        }
+
+        private StockValuation toValuation(LocalDate day, LocalDateTime createdAt) {
+            StockValuation valuation = new StockValuation();
+            valuation.setValuationDate(day);
+            valuation.setWarehouseId(warehouseId);
+            valuation.setProductId(productId);
+            valuation.setBatchNumber(batchNumber);
+            valuation.setQuantity(quantity());
+            valuation.setQuantityIn(quantityIn);
+            valuation.setQuantityOut(quantityOut);
+            valuation.setUnitCost(unitCost());
+            valuation.setTotalValue(value());
+            valuation.setValueIn(valueIn);
+            valuation.setValueOut(valueOut);
+            valuation.setCreatedAt(createdAt);
+            return valuation;
+        }
+
+        private StockPositionResponse toResponse(LocalDate asOfDate, LocalDate snapshotDate) {
+            return StockPositionResponse.builder()
+                .asOfDate(asOfDate)
+                .warehouseId(warehouseId)
+                .productId(productId)
+                .batchNumber(batchNumber)
+                .quantity(quantity())
+                .quantityIn(quantityIn)
+                .quantityOut(quantityOut)
+                .unitCost(unitCost())
+                .totalValue(value())
+                .valueIn(valueIn)
+                .valueOut(valueOut)
+                .snapshotDate(snapshotDate)
+                .build();
+        }
+    }
+}